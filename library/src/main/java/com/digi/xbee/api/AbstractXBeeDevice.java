@@ -22,6 +22,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +52,7 @@ import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IIPDataReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.listeners.IRxFrameListener;
 import com.digi.xbee.api.listeners.IDataReceiveListener;
 import com.digi.xbee.api.listeners.ISMSReceiveListener;
 import com.digi.xbee.api.models.ATCommand;
@@ -56,6 +61,7 @@ import com.digi.xbee.api.models.ATCommandStatus;
 import com.digi.xbee.api.models.AssociationIndicationStatus;
 import com.digi.xbee.api.models.HardwareVersion;
 import com.digi.xbee.api.models.PowerLevel;
+import com.digi.xbee.api.models.ReceiveFilter;
 import com.digi.xbee.api.models.RemoteATCommandOptions;
 import com.digi.xbee.api.models.RestFulStatusEnum;
 import com.digi.xbee.api.models.XBee16BitAddress;
@@ -154,13 +160,16 @@ public abstract class AbstractXBeeDevice {
 	
 	private HardwareVersion hardwareVersion;
 	
-	private Object ioLock = new Object();
+	private volatile CountDownLatch ioPacketLatch = new CountDownLatch(1);
 	
 	private boolean ioPacketReceived = false;
 	private boolean applyConfigurationChanges = true;
 	
 	private byte[] ioPacketPayload;
 	
+	private final ReentrantLock coapResponseLock = new ReentrantLock();
+	private final Condition coapResponseReceived = coapResponseLock.newCondition();
+	
 	/**
 	 * Class constructor. Instantiates a new {@code XBeeDevice} object in the 
 	 * given port name and baud rate.
@@ -529,7 +538,7 @@ public abstract class AbstractXBeeDevice {
 		}
 		// Get the Node ID.
 		response = getParameter("NI");
-		nodeID = new String(response);
+		updateNodeID(new String(response));
 		
 		// Get the hardware version.
 		if (hardwareVersion == null) {
@@ -673,7 +682,31 @@ public abstract class AbstractXBeeDevice {
 		
 		setParameter("NI", nodeID.getBytes());
 		
+		updateNodeID(nodeID);
+	}
+	
+	/**
+	 * Stores the given node identifier and, if this is a remote device, 
+	 * notifies the network of its local device so the node identifier index 
+	 * is kept up to date.
+	 * 
+	 * @param nodeID The new node identifier of the device.
+	 * 
+	 * @see XBeeNetwork#nodeIDChanged(RemoteXBeeDevice)
+	 */
+	private void updateNodeID(String nodeID) {
+		String oldNodeID = this.nodeID;
 		this.nodeID = nodeID;
+		
+		if (nodeID == null ? oldNodeID == null : nodeID.equals(oldNodeID))
+			return;
+		if (!(this instanceof RemoteXBeeDevice) || !(localXBeeDevice instanceof XBeeDevice))
+			return;
+		
+		// Do not create the network if it does not exist yet.
+		XBeeNetwork network = ((XBeeDevice)localXBeeDevice).network;
+		if (network != null)
+			network.nodeIDChanged((RemoteXBeeDevice)this);
 	}
 	
 	/**
@@ -718,7 +751,7 @@ public abstract class AbstractXBeeDevice {
 		
 		// Only update the Node Identifier if the provided is not null.
 		if (device.getNodeID() != null)
-			this.nodeID = device.getNodeID();
+			updateNodeID(device.getNodeID());
 		
 		// Only update the 64-bit address if the original is null or unknown.
 		XBee64BitAddress addr64 = device.get64BitAddress();
@@ -788,6 +821,55 @@ public abstract class AbstractXBeeDevice {
 		dataReader.removePacketReceiveListener(listener);
 	}
 	
+	/**
+	 * Adds the provided listener to the list of listeners to be notified 
+	 * with a read-only view of every received data frame.
+	 * 
+	 * <p>Views are delivered from the thread that reads the frames and are 
+	 * only valid during the notification.</p>
+	 * 
+	 * <p>If the listener has been already included, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified when new data frames are 
+	 *                 received.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}
+	 * 
+	 * @see #removeRxFrameListener(IRxFrameListener)
+	 * @see com.digi.xbee.api.listeners.IRxFrameListener
+	 */
+	protected void addRxFrameListener(IRxFrameListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.addRxFrameListener(listener);
+	}
+	
+	/**
+	 * Removes the provided listener from the list of received frame 
+	 * listeners. 
+	 * 
+	 * <p>If the listener was not in the list this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be removed from the list of listeners.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}
+	 * 
+	 * @see #addRxFrameListener(IRxFrameListener)
+	 * @see com.digi.xbee.api.listeners.IRxFrameListener
+	 */
+	protected void removeRxFrameListener(IRxFrameListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.removeRxFrameListener(listener);
+	}
+	
 	/**
 	 * Adds the provided listener to the list of listeners to be notified
 	 * when new data is received. 
@@ -832,6 +914,37 @@ public abstract class AbstractXBeeDevice {
 		dataReader.removeDataReceiveListener(listener);
 	}
 	
+	/**
+	 * Adds the provided listener to be notified only when the received 
+	 * data matches the given filter.
+	 * 
+	 * <p>The filter is evaluated by the data reader before notifying the 
+	 * listener, so messages that do not match it are never dispatched to 
+	 * the listener. If the listener has been already included, its previous 
+	 * subscription is replaced.</p>
+	 * 
+	 * @param listener Listener to be notified when new data matching the 
+	 *                 filter is received.
+	 * @param filter Conditions the received messages must meet.
+	 * 
+	 * @throws NullPointerException if {@code listener == null} or 
+	 *                              if {@code filter == null}.
+	 * 
+	 * @see #removeDataListener(IDataReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IDataReceiveListener
+	 * @see com.digi.xbee.api.models.ReceiveFilter
+	 */
+	protected void addDataListener(IDataReceiveListener listener, ReceiveFilter filter) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.addDataReceiveListener(listener, filter);
+	}
+	
 	/**
 	 * Adds the provided listener to the list of listeners to be notified
 	 * when new IO samples are received. 
@@ -967,6 +1080,98 @@ public abstract class AbstractXBeeDevice {
 		dataReader.removeExplicitDataReceiveListener(listener);
 	}
 	
+	/**
+	 * Adds the provided listener to be notified only when the received 
+	 * explicit data matches the given filter.
+	 * 
+	 * <p>The filter is evaluated by the data reader before notifying the 
+	 * listener, so messages that do not match it are never dispatched to 
+	 * the listener. If the listener has been already included, its previous 
+	 * subscription is replaced.</p>
+	 * 
+	 * @param listener Listener to be notified when new explicit data matching the 
+	 *                 filter is received.
+	 * @param filter Conditions the received messages must meet.
+	 * 
+	 * @throws NullPointerException if {@code listener == null} or 
+	 *                              if {@code filter == null}.
+	 * 
+	 * @see #removeExplicitDataListener(IExplicitDataReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IExplicitDataReceiveListener
+	 * @see com.digi.xbee.api.models.ReceiveFilter
+	 */
+	protected void addExplicitDataListener(IExplicitDataReceiveListener listener, ReceiveFilter filter) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.addExplicitDataReceiveListener(listener, filter);
+	}
+	
+	/**
+	 * Adds the provided handler to the explicit data route of the given 
+	 * profile ID, cluster ID and destination endpoint.
+	 * 
+	 * <p>Routes are looked up in a hash table, so applications handling many 
+	 * clusters do not need a single listener that checks every received 
+	 * message. Any of the route values can be 
+	 * {@link com.digi.xbee.api.connection.ExplicitDataRouter#ANY}. Only the 
+	 * handlers of the most specific route matching a message are notified.
+	 * </p>
+	 * 
+	 * @param profileID The profile ID of the route.
+	 * @param clusterID The cluster ID of the route.
+	 * @param endpoint The destination endpoint of the route.
+	 * @param handler Handler to be notified when explicit data of the route is 
+	 *                received.
+	 * 
+	 * @throws IllegalArgumentException if any of the route values is out of 
+	 *                                  range.
+	 * @throws NullPointerException if {@code handler == null}.
+	 * 
+	 * @see #removeExplicitDataHandler(int, int, int, IExplicitDataReceiveListener)
+	 * @see com.digi.xbee.api.connection.ExplicitDataRouter
+	 * @see com.digi.xbee.api.listeners.IExplicitDataReceiveListener
+	 */
+	protected void addExplicitDataHandler(int profileID, int clusterID, int endpoint, IExplicitDataReceiveListener handler) {
+		if (handler == null)
+			throw new NullPointerException("Handler cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.addExplicitDataRoute(profileID, clusterID, endpoint, handler);
+	}
+	
+	/**
+	 * Removes the provided handler from the explicit data route of the given 
+	 * profile ID, cluster ID and destination endpoint.
+	 * 
+	 * <p>If the handler was not in the route this method does nothing.</p>
+	 * 
+	 * @param profileID The profile ID of the route.
+	 * @param clusterID The cluster ID of the route.
+	 * @param endpoint The destination endpoint of the route.
+	 * @param handler Handler to be removed from the route.
+	 * 
+	 * @throws IllegalArgumentException if any of the route values is out of 
+	 *                                  range.
+	 * @throws NullPointerException if {@code handler == null}.
+	 * 
+	 * @see #addExplicitDataHandler(int, int, int, IExplicitDataReceiveListener)
+	 * @see com.digi.xbee.api.connection.ExplicitDataRouter
+	 */
+	protected void removeExplicitDataHandler(int profileID, int clusterID, int endpoint, IExplicitDataReceiveListener handler) {
+		if (handler == null)
+			throw new NullPointerException("Handler cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.removeExplicitDataRoute(profileID, clusterID, endpoint, handler);
+	}
+	
 	
 	/**
 	 * Adds the provided listener to the list of listeners to be notified
@@ -1017,6 +1222,37 @@ public abstract class AbstractXBeeDevice {
 		dataReader.removeIPDataReceiveListener(listener);
 	}
 	
+	/**
+	 * Adds the provided listener to be notified only when the received 
+	 * IP data matches the given filter.
+	 * 
+	 * <p>The filter is evaluated by the data reader before notifying the 
+	 * listener, so messages that do not match it are never dispatched to 
+	 * the listener. If the listener has been already included, its previous 
+	 * subscription is replaced.</p>
+	 * 
+	 * @param listener Listener to be notified when new IP data matching the 
+	 *                 filter is received.
+	 * @param filter Conditions the received messages must meet.
+	 * 
+	 * @throws NullPointerException if {@code listener == null} or 
+	 *                              if {@code filter == null}.
+	 * 
+	 * @see #removeIPDataListener(IIPDataReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IIPDataReceiveListener
+	 * @see com.digi.xbee.api.models.ReceiveFilter
+	 */
+	protected void addIPDataListener(IIPDataReceiveListener listener, ReceiveFilter filter) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.addIPDataReceiveListener(listener, filter);
+	}
+	
 	
 	/**
 	 * Adds the provided listener to the list of listeners to be notified
@@ -1305,6 +1541,7 @@ public abstract class AbstractXBeeDevice {
 		case API_ESCAPE:
 			// Build response container.
 			ArrayList<XBeePacket> responseList = new ArrayList<XBeePacket>();
+			CountDownLatch responseReceived = new CountDownLatch(1);
 			
 			// If the packet does not need frame ID, send it async. and return null.
 			if (packet instanceof XBeeAPIPacket) {
@@ -1321,7 +1558,7 @@ public abstract class AbstractXBeeDevice {
 			insertFrameID(packet);
 			
 			// Generate a packet received listener for the packet to be sent.
-			IPacketReceiveListener packetReceiveListener = createPacketReceivedListener(packet, responseList);
+			IPacketReceiveListener packetReceiveListener = createPacketReceivedListener(packet, responseList, responseReceived);
 			
 			// Add the packet listener to the data reader.
 			addPacketListener(packetReceiveListener);
@@ -1329,17 +1566,18 @@ public abstract class AbstractXBeeDevice {
 			// Write the packet data.
 			writePacket(packet);
 			try {
-				// Wait for response or timeout.
+				// Wait for response or timeout. A latch does not pin the carrier 
+				// thread when running in virtual threads.
+				try {
+					responseReceived.await(receiveTimeout, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {}
+				// After the wait check if we received any response, if not throw timeout exception.
 				synchronized (responseList) {
-					try {
-						responseList.wait(receiveTimeout);
-					} catch (InterruptedException e) {}
+					if (responseList.size() < 1)
+						throw new TimeoutException();
+					// Return the received packet.
+					return responseList.get(0);
 				}
-				// After the wait check if we received any response, if not throw timeout exception.
-				if (responseList.size() < 1)
-					throw new TimeoutException();
-				// Return the received packet.
-				return responseList.get(0);
 			} finally {
 				// Always remove the packet listener from the list.
 				removePacketListener(packetReceiveListener);
@@ -1374,6 +1612,8 @@ public abstract class AbstractXBeeDevice {
 	 * @param sentPacket The packet sent.
 	 * @param responseList List of packets received that correspond to the 
 	 *                     frame ID of the packet sent.
+	 * @param responseReceived Latch released when the first response is 
+	 *                         received.
 	 * 
 	 * @return A packet receive listener that will filter the packets received 
 	 *         corresponding to the sent one.
@@ -1381,7 +1621,8 @@ public abstract class AbstractXBeeDevice {
 	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
-	private IPacketReceiveListener createPacketReceivedListener(final XBeePacket sentPacket, final ArrayList<XBeePacket> responseList) {
+	private IPacketReceiveListener createPacketReceivedListener(final XBeePacket sentPacket, final ArrayList<XBeePacket> responseList, 
+			final CountDownLatch responseReceived) {
 		IPacketReceiveListener packetReceiveListener = new IPacketReceiveListener() {
 			/*
 			 * (non-Javadoc)
@@ -1419,10 +1660,10 @@ public abstract class AbstractXBeeDevice {
 					// Verify that the sent packet is not the received one! This can happen when the echo mode is enabled in the 
 					// serial port.
 					if (!sentPacket.equals(receivedPacket)) {
-						responseList.add(receivedPacket);
 						synchronized (responseList) {
-							responseList.notify();
+							responseList.add(receivedPacket);
 						}
+						responseReceived.countDown();
 					}
 				}
 			}
@@ -1442,7 +1683,8 @@ public abstract class AbstractXBeeDevice {
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	private void writePacket(XBeePacket packet) throws IOException {
-		logger.debug(toString() + "Sending XBee packet: \n{}", packet.toPrettyString());
+		if (logger.isDebugEnabled())
+			logger.debug(toString() + "Sending XBee packet: \n{}", packet.toPrettyString());
 		// Write bytes with the required escaping mode.
 		switch (operatingMode) {
 		case API:
@@ -1460,7 +1702,7 @@ public abstract class AbstractXBeeDevice {
 	 * 
 	 * @return The next Frame ID.
 	 */
-	protected int getNextFrameID() {
+	protected synchronized int getNextFrameID() {
 		if (isRemote())
 			return localXBeeDevice.getNextFrameID();
 		if (currentFrameID == 0xff) {
@@ -1627,8 +1869,13 @@ public abstract class AbstractXBeeDevice {
 			@Override
 			public void packetReceived(XBeePacket receivedPacket) {
 				if (receivedPacket instanceof CoAPRxResponsePacket) {
-					coapResponsePackets.add((CoAPRxResponsePacket)receivedPacket);
-					coapResponsePackets.notifyAll();
+					coapResponseLock.lock();
+					try {
+						coapResponsePackets.add((CoAPRxResponsePacket)receivedPacket);
+						coapResponseReceived.signalAll();
+					} finally {
+						coapResponseLock.unlock();
+					}
 				}
 			}
 		};
@@ -1650,10 +1897,18 @@ public abstract class AbstractXBeeDevice {
 	 * @since 1.2.1
 	 */
 	private CoAPRxResponsePacket waitForCoAPRxResponsePacket(ArrayList<CoAPRxResponsePacket> coapResponsePackets) throws XBeeException {
-		synchronized (coapResponsePackets) {
-			try {
-				coapResponsePackets.wait(receiveTimeout);
-			} catch (InterruptedException e) {}
+		coapResponseLock.lock();
+		try {
+			long deadLine = System.currentTimeMillis() + receiveTimeout;
+			long remaining = receiveTimeout;
+			while (coapResponsePackets.isEmpty() && remaining > 0) {
+				try {
+					coapResponseReceived.await(remaining, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {}
+				remaining = deadLine - System.currentTimeMillis();
+			}
+		} finally {
+			coapResponseLock.unlock();
 		}
 		
 		if (!coapResponsePackets.isEmpty()) {
@@ -1814,6 +2069,25 @@ public abstract class AbstractXBeeDevice {
 		// Obtain an IO Sample from the XBee device.
 		IOSample ioSample = readIOSample();
 		
+		return getDIOValue(ioSample, ioLine);
+	}
+	
+	/**
+	 * Returns the digital value of the provided IO line in the given IO 
+	 * sample.
+	 * 
+	 * @param ioSample The IO sample of this XBee device.
+	 * @param ioLine The IO line to get its digital value.
+	 * 
+	 * @return The digital value corresponding to the provided IO line.
+	 * 
+	 * @throws OperationNotSupportedException if the IO sample does not 
+	 *                                        contain a digital value for 
+	 *                                        the IO line.
+	 * 
+	 * @see #getDIOValue(IOLine)
+	 */
+	protected static IOValue getDIOValue(IOSample ioSample, IOLine ioLine) throws OperationNotSupportedException {
 		// Check if the IO sample contains the expected IO line and value.
 		if (!ioSample.hasDigitalValues() || !ioSample.getDigitalValues().containsKey(ioLine))
 			throw new OperationNotSupportedException("Answer does not contain digital data for " + ioLine.getName() + ".");
@@ -1949,6 +2223,25 @@ public abstract class AbstractXBeeDevice {
 		// Obtain an IO Sample from the XBee device.
 		IOSample ioSample = readIOSample();
 		
+		return getADCValue(ioSample, ioLine);
+	}
+	
+	/**
+	 * Returns the analog value of the provided IO line in the given IO 
+	 * sample.
+	 * 
+	 * @param ioSample The IO sample of this XBee device.
+	 * @param ioLine The IO line to get its analog value.
+	 * 
+	 * @return The analog value corresponding to the provided IO line.
+	 * 
+	 * @throws OperationNotSupportedException if the IO sample does not 
+	 *                                        contain an analog value for 
+	 *                                        the IO line.
+	 * 
+	 * @see #getADCValue(IOLine)
+	 */
+	protected static int getADCValue(IOSample ioSample, IOLine ioLine) throws OperationNotSupportedException {
 		// Check if the IO sample contains the expected IO line and value.
 		if (!ioSample.hasAnalogValues() || !ioSample.getAnalogValues().containsKey(ioLine))
 			throw new OperationNotSupportedException("Answer does not contain analog data for " + ioLine.getName() + ".");
@@ -2323,12 +2616,11 @@ public abstract class AbstractXBeeDevice {
 	private byte[] receiveRaw802IOPacket() {
 		ioPacketReceived = false;
 		ioPacketPayload = null;
+		ioPacketLatch = new CountDownLatch(1);
 		addPacketListener(IOPacketReceiveListener);
-		synchronized (ioLock) {
-			try {
-				ioLock.wait(receiveTimeout);
-			} catch (InterruptedException e) { }
-		}
+		try {
+			ioPacketLatch.await(receiveTimeout, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) { }
 		removePacketListener(IOPacketReceiveListener);
 		if (ioPacketReceived)
 			return ioPacketPayload;
@@ -2373,10 +2665,8 @@ public abstract class AbstractXBeeDevice {
 			// Set the IO packet received flag.
 			ioPacketReceived = true;
 			
-			// Continue execution by notifying the lock object.
-			synchronized (ioLock) {
-				ioLock.notify();
-			}
+			// Continue execution by releasing the latch.
+			ioPacketLatch.countDown();
 		}
 	};
 	
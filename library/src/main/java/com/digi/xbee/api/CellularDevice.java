@@ -28,6 +28,7 @@ import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeDeviceException;
 import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.io.IOLine;
+import com.digi.xbee.api.listeners.IIOSampleBatchReceiveListener;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.ISMSReceiveListener;
 import com.digi.xbee.api.models.AssociationIndicationStatus;
@@ -389,6 +390,26 @@ public class CellularDevice extends IPDevice {
 		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
 	}
 	
+	/**
+	 * @deprecated Operation not supported in this protocol. This method will
+	 *             raise an {@link UnsupportedOperationException}.
+	 */
+	@Override
+	public void addIOSampleBatchListener(IIOSampleBatchReceiveListener listener) {
+		// Not supported in IP modules.
+		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
+	}
+	
+	/**
+	 * @deprecated Operation not supported in this protocol. This method will
+	 *             raise an {@link UnsupportedOperationException}.
+	 */
+	@Override
+	public void removeIOSampleBatchListener(IIOSampleBatchReceiveListener listener) {
+		// Not supported in IP modules.
+		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
+	}
+	
 	/**
 	 * @deprecated Operation not supported in Cellular protocol. This method
 	 *             will raise an {@link UnsupportedOperationException}.
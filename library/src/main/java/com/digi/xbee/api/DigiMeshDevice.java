@@ -29,6 +29,7 @@ import com.digi.xbee.api.exceptions.XBeeException;
 import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
 import com.digi.xbee.api.models.APIOutputMode;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
+import com.digi.xbee.api.models.ReceiveFilter;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeProtocol;
 
@@ -363,6 +364,33 @@ public class DigiMeshDevice extends XBeeDevice {
 		super.removeExplicitDataListener(listener);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#addExplicitDataListener(com.digi.xbee.api.listeners.IExplicitDataReceiveListener, com.digi.xbee.api.models.ReceiveFilter)
+	 */
+	@Override
+	public void addExplicitDataListener(IExplicitDataReceiveListener listener, ReceiveFilter filter) {
+		super.addExplicitDataListener(listener, filter);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#addExplicitDataHandler(int, int, int, com.digi.xbee.api.listeners.IExplicitDataReceiveListener)
+	 */
+	@Override
+	public void addExplicitDataHandler(int profileID, int clusterID, int endpoint, IExplicitDataReceiveListener handler) {
+		super.addExplicitDataHandler(profileID, clusterID, endpoint, handler);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#removeExplicitDataHandler(int, int, int, com.digi.xbee.api.listeners.IExplicitDataReceiveListener)
+	 */
+	@Override
+	public void removeExplicitDataHandler(int profileID, int clusterID, int endpoint, IExplicitDataReceiveListener handler) {
+		super.removeExplicitDataHandler(profileID, clusterID, endpoint, handler);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.XBeeDevice#getAPIOutputMode()
@@ -0,0 +1,318 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IDiscoveryListener;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.utils.ThreadUtils;
+
+/**
+ * Helper class used to perform a node discovery ({@code ND}) in several local
+ * XBee devices at the same time.
+ * 
+ * <p>Each local device runs its own discovery in parallel, so the whole
+ * process takes as long as the slowest device instead of the sum of all of
+ * them. Discovered devices are added to the network of the local device that
+ * found them.</p>
+ * 
+ * <p>A remote device reachable by several local devices is added to the
+ * network of each of them, but it is reported only once in the result of the
+ * discovery: under the first local device of the list that found it,
+ * identified by its 64-bit address.</p>
+ * 
+ * @see XBeeNetwork
+ */
+public class FleetDiscovery {
+	
+	// Constants.
+	private static final String THREAD_NAME = "XBee-fleet-discovery-";
+	
+	// Variables.
+	private final List<XBeeDevice> localDevices;
+	
+	private Logger logger;
+	
+	/**
+	 * Instantiates a new {@code FleetDiscovery} object.
+	 * 
+	 * @param localDevices List of local XBee devices to perform the discovery.
+	 * 
+	 * @throws IllegalArgumentException if {@code localDevices.size() == 0}.
+	 * @throws NullPointerException if {@code localDevices == null} or if any
+	 *                              of the devices is {@code null}.
+	 * 
+	 * @see XBeeDevice
+	 */
+	public FleetDiscovery(List<XBeeDevice> localDevices) {
+		if (localDevices == null)
+			throw new NullPointerException("List of local XBee devices cannot be null.");
+		if (localDevices.size() == 0)
+			throw new IllegalArgumentException("List of local XBee devices cannot be empty.");
+		for (XBeeDevice device : localDevices) {
+			if (device == null)
+				throw new NullPointerException("Local XBee device cannot be null.");
+		}
+		
+		this.localDevices = new ArrayList<XBeeDevice>(localDevices);
+		this.logger = LoggerFactory.getLogger(FleetDiscovery.class);
+	}
+	
+	/**
+	 * Returns the local XBee devices used to perform the discovery.
+	 * 
+	 * @return The list of local XBee devices.
+	 */
+	public List<XBeeDevice> getLocalDevices() {
+		return new ArrayList<XBeeDevice>(localDevices);
+	}
+	
+	/**
+	 * Discovers all the remote XBee devices reachable by any of the local
+	 * devices.
+	 * 
+	 * <p>This method blocks until the discovery of every local device has
+	 * finished. The discovered devices are added to the network of the local
+	 * device that found them.</p>
+	 * 
+	 * <p>Each remote device is listed only under the first local device that
+	 * found it.</p>
+	 * 
+	 * @return A map with the list of discovered remote devices of each local
+	 *         device, without duplicates.
+	 * 
+	 * @throws InterfaceNotOpenException if any of the local devices is not
+	 *                                   open.
+	 * @throws XBeeException if there is an error discovering the devices in
+	 *                       any of the local devices.
+	 * 
+	 * @see #discoverDevices(List)
+	 */
+	public Map<XBeeDevice, List<RemoteXBeeDevice>> discoverDevices() throws XBeeException {
+		logger.debug("Discovering all devices in {} local devices.", localDevices.size());
+		
+		List<Callable<List<RemoteXBeeDevice>>> tasks = new ArrayList<Callable<List<RemoteXBeeDevice>>>(localDevices.size());
+		for (final XBeeDevice device : localDevices) {
+			tasks.add(new Callable<List<RemoteXBeeDevice>>() {
+				@Override
+				public List<RemoteXBeeDevice> call() throws Exception {
+					return discoverAllDevices(device);
+				}
+			});
+		}
+		
+		return runAll(tasks);
+	}
+	
+	/**
+	 * Discovers the remote XBee devices that match the supplied identifiers
+	 * in any of the local devices.
+	 * 
+	 * <p>This method blocks until the discovery of every local device has
+	 * finished. The discovered devices are added to the network of the local
+	 * device that found them.</p>
+	 * 
+	 * <p>Each remote device is listed only under the first local device that
+	 * found it.</p>
+	 * 
+	 * @param ids List which contains the identifiers of the devices to be
+	 *            discovered.
+	 * 
+	 * @return A map with the list of discovered remote devices of each local
+	 *         device, without duplicates.
+	 * 
+	 * @throws IllegalArgumentException if {@code ids.size() == 0}.
+	 * @throws InterfaceNotOpenException if any of the local devices is not
+	 *                                   open.
+	 * @throws NullPointerException if {@code ids == null}.
+	 * @throws XBeeException if there is an error discovering the devices in
+	 *                       any of the local devices.
+	 * 
+	 * @see #discoverDevices()
+	 * @see XBeeNetwork#discoverDevices(List)
+	 */
+	public Map<XBeeDevice, List<RemoteXBeeDevice>> discoverDevices(final List<String> ids) throws XBeeException {
+		if (ids == null)
+			throw new NullPointerException("List of device identifiers cannot be null.");
+		if (ids.size() == 0)
+			throw new IllegalArgumentException("List of device identifiers cannot be empty.");
+		
+		logger.debug("Discovering all '{}' devices in {} local devices.", ids.toString(), localDevices.size());
+		
+		List<Callable<List<RemoteXBeeDevice>>> tasks = new ArrayList<Callable<List<RemoteXBeeDevice>>>(localDevices.size());
+		for (final XBeeDevice device : localDevices) {
+			tasks.add(new Callable<List<RemoteXBeeDevice>>() {
+				@Override
+				public List<RemoteXBeeDevice> call() throws Exception {
+					return device.getNetwork().discoverDevices(ids);
+				}
+			});
+		}
+		
+		return runAll(tasks);
+	}
+	
+	/**
+	 * Runs the given discovery tasks in parallel, one per local device, and
+	 * waits for all of them to finish.
+	 * 
+	 * @param tasks The discovery tasks, in the same order as the local devices.
+	 * 
+	 * @return A map with the result of the task of each local device, 
+	 *         without the remote devices already found by a previous local 
+	 *         device.
+	 * 
+	 * @throws XBeeException if any of the tasks failed.
+	 */
+	private Map<XBeeDevice, List<RemoteXBeeDevice>> runAll(List<Callable<List<RemoteXBeeDevice>>> tasks) throws XBeeException {
+		// Check that all the devices are open before starting.
+		for (XBeeDevice device : localDevices) {
+			if (!device.isOpen())
+				throw new InterfaceNotOpenException();
+		}
+		
+		Map<XBeeDevice, List<RemoteXBeeDevice>> result = new LinkedHashMap<XBeeDevice, List<RemoteXBeeDevice>>();
+		XBeeException error = null;
+		
+		Set<XBee64BitAddress> found = new HashSet<XBee64BitAddress>();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(tasks.size(), ThreadUtils.newThreadFactory(THREAD_NAME, false));
+		try {
+			List<Future<List<RemoteXBeeDevice>>> futures = executor.invokeAll(tasks);
+			for (int i = 0; i < futures.size(); i++) {
+				XBeeDevice device = localDevices.get(i);
+				try {
+					result.put(device, removeDuplicates(futures.get(i).get(), found));
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					logger.error("{}Error discovering devices: {}", device.toString(), cause.getMessage());
+					if (error != null)
+						continue;
+					if (cause instanceof XBeeException)
+						error = (XBeeException)cause;
+					else if (cause instanceof RuntimeException)
+						throw (RuntimeException)cause;
+					else
+						error = new XBeeException("Error discovering devices in " + device.toString(), cause);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new XBeeException("Discovery interrupted.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		if (error != null)
+			throw error;
+		
+		return result;
+	}
+	
+	/**
+	 * Returns the given remote devices that have not been found yet.
+	 * 
+	 * <p>The 64-bit addresses of the returned devices are added to the given 
+	 * set. Devices with unknown 64-bit address are always returned.</p>
+	 * 
+	 * @param devices The remote devices discovered by a local device.
+	 * @param found The 64-bit addresses of the remote devices already found.
+	 * 
+	 * @return The remote devices that have not been found before.
+	 */
+	private List<RemoteXBeeDevice> removeDuplicates(List<RemoteXBeeDevice> devices, Set<XBee64BitAddress> found) {
+		List<RemoteXBeeDevice> unique = new ArrayList<RemoteXBeeDevice>(devices.size());
+		for (RemoteXBeeDevice device : devices) {
+			XBee64BitAddress address = device.get64BitAddress();
+			if (address == null || address.equals(XBee64BitAddress.UNKNOWN_ADDRESS) || found.add(address))
+				unique.add(device);
+		}
+		return unique;
+	}
+	
+	/**
+	 * Performs a full node discovery in the given local device and waits for
+	 * it to finish.
+	 * 
+	 * @param device The local device to perform the discovery.
+	 * 
+	 * @return The list of discovered remote devices.
+	 * 
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 * @throws XBeeException if the discovery finishes with an error.
+	 */
+	private List<RemoteXBeeDevice> discoverAllDevices(XBeeDevice device) throws InterruptedException, XBeeException {
+		XBeeNetwork network = device.getNetwork();
+		
+		final List<RemoteXBeeDevice> discovered = new ArrayList<RemoteXBeeDevice>();
+		final String[] finishError = new String[1];
+		final CountDownLatch finished = new CountDownLatch(1);
+		
+		IDiscoveryListener listener = new IDiscoveryListener() {
+			@Override
+			public void deviceDiscovered(RemoteXBeeDevice discoveredDevice) {
+				synchronized (discovered) {
+					if (!discovered.contains(discoveredDevice))
+						discovered.add(discoveredDevice);
+				}
+			}
+			
+			@Override
+			public void discoveryError(String error) {}
+			
+			@Override
+			public void discoveryFinished(String error) {
+				finishError[0] = error;
+				finished.countDown();
+			}
+		};
+		
+		network.addDiscoveryListener(listener);
+		try {
+			network.startDiscoveryProcess();
+			finished.await();
+		} catch (InterruptedException e) {
+			network.stopDiscoveryProcess();
+			throw e;
+		} finally {
+			network.removeDiscoveryListener(listener);
+		}
+		
+		if (finishError[0] != null)
+			throw new XBeeException(finishError[0]);
+		
+		synchronized (discovered) {
+			return new ArrayList<RemoteXBeeDevice>(discovered);
+		}
+	}
+}
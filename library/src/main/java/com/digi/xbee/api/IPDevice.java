@@ -28,15 +28,19 @@ import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
 import com.digi.xbee.api.exceptions.OperationNotSupportedException;
 import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IDataBatchReceiveListener;
 import com.digi.xbee.api.listeners.IDataReceiveListener;
 import com.digi.xbee.api.listeners.IIPDataReceiveListener;
 import com.digi.xbee.api.models.IPMessage;
 import com.digi.xbee.api.models.IPProtocol;
+import com.digi.xbee.api.models.OverflowStrategy;
+import com.digi.xbee.api.models.ReceiveFilter;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeMessage;
 import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.TransmitFrameEncoder;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.ip.RXIPv4Packet;
 import com.digi.xbee.api.packet.ip.TXIPv4Packet;
@@ -462,6 +466,37 @@ public class IPDevice extends XBeeDevice {
 		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
 	}
 	
+	/**
+	 * @deprecated Operation not supported in this protocol. This method will
+	 *             raise an {@link UnsupportedOperationException}.
+	 */
+	@Override
+	public void addDataListener(IDataReceiveListener listener, ReceiveFilter filter) {
+		// Not supported in IP modules.
+		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
+	}
+	
+	/**
+	 * @deprecated Operation not supported in this protocol. This method will
+	 *             raise an {@link UnsupportedOperationException}.
+	 */
+	@Override
+	public void addDataBatchListener(IDataBatchReceiveListener listener, int maxBatchSize, long maxDelay, 
+			int capacity, OverflowStrategy overflowStrategy) {
+		// Not supported in IP modules.
+		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
+	}
+	
+	/**
+	 * @deprecated Operation not supported in this protocol. This method will
+	 *             raise an {@link UnsupportedOperationException}.
+	 */
+	@Override
+	public void removeDataBatchListener(IDataBatchReceiveListener listener) {
+		// Not supported in IP modules.
+		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
+	}
+	
 	/**
 	 * @deprecated Operation not supported in this protocol. This method will
 	 *             raise an {@link UnsupportedOperationException}.
@@ -536,6 +571,27 @@ public class IPDevice extends XBeeDevice {
 		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
 	}
 	
+	/**
+	 * @deprecated Operation not supported in this protocol. This method will
+	 *             raise an {@link UnsupportedOperationException}.
+	 */
+	@Override
+	public TransmitFrameEncoder createTransmitEncoder(RemoteXBeeDevice remoteXBeeDevice) {
+		// Not supported in IP modules.
+		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
+	}
+	
+	/**
+	 * @deprecated Operation not supported in this protocol. This method will
+	 *             raise an {@link UnsupportedOperationException}.
+	 */
+	@Override
+	public void sendDataAsync(TransmitFrameEncoder encoder, byte[] data)
+			throws XBeeException {
+		// Not supported in IP modules.
+		throw new UnsupportedOperationException(OPERATION_EXCEPTION);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.AbstractXBeeDevice#addIPDataListener(com.digi.xbee.api.listeners.IIPDataReceiveListener)
@@ -554,6 +610,15 @@ public class IPDevice extends XBeeDevice {
 		super.removeIPDataListener(listener);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#addIPDataListener(com.digi.xbee.api.listeners.IIPDataReceiveListener, com.digi.xbee.api.models.ReceiveFilter)
+	 */
+	@Override
+	public void addIPDataListener(IIPDataReceiveListener listener, ReceiveFilter filter) {
+		super.addIPDataListener(listener, filter);
+	}
+	
 	/**
 	 * Starts listening for incoming IP transmissions in the provided port.
 	 * 
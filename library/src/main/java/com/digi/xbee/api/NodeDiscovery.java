@@ -17,7 +17,13 @@ package com.digi.xbee.api;
 
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +43,7 @@ import com.digi.xbee.api.packet.common.ATCommandPacket;
 import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
 import com.digi.xbee.api.utils.ByteUtils;
 import com.digi.xbee.api.utils.HexUtils;
+import com.digi.xbee.api.utils.ThreadUtils;
 
 /**
  * Helper class used to perform a node discovery ({@code ND}) in the provided 
@@ -48,25 +55,42 @@ import com.digi.xbee.api.utils.HexUtils;
  * 
  * <p>The discovery process updates the network of the local device with the new
  * discovered modules and refreshes the already existing references.</p>
+ * 
+ * <p>All the discovery state is kept per local device, so discoveries on 
+ * different local devices can run concurrently. Only one discovery can run 
+ * at the same time in the same local device.</p>
  */
 class NodeDiscovery {
 	
 	// Constants.
 	private static final String ND_COMMAND = "ND";
 	
+	private static final String DISCOVERY_THREAD_NAME = "XBeeNodeDiscovery";
+	
 	public static final long DEFAULT_TIMEOUT = 20000; // 20 seconds.
 	
 	// Variables.
-	private static int globalFrameID = 1;
-	
 	private XBeeDevice xbeeDevice;
 	
 	private List<RemoteXBeeDevice> deviceList;
 	
-	private boolean discovering = false;
-	private boolean running = false;
+	private List<String> searchedIDs;
+	
+	private Set<String> pendingIDs;
+	
+	private volatile boolean discovering = false;
+	private volatile boolean running = false;
+	private boolean stopWhenFound = false;
+	
+	private volatile int frameID;
+	
+	// The timeout is calculated by the discovery thread and cleared from 
+	// the caller's thread, so it is published as one immutable pair.
+	private final AtomicReference<CachedTimeout> cachedTimeout = 
+			new AtomicReference<CachedTimeout>(new CachedTimeout(-1, null));
 	
-	private int frameID;
+	private final ReentrantLock discoveryLock = new ReentrantLock();
+	private final Condition discoveryFinished = discoveryLock.newCondition();
 	
 	protected Logger logger;
 	
@@ -85,11 +109,6 @@ class NodeDiscovery {
 		
 		this.xbeeDevice = xbeeDevice;
 		
-		frameID = globalFrameID;
-		globalFrameID = globalFrameID + 1;
-		if (globalFrameID == 0xFF)
-			globalFrameID = 1;
-		
 		logger = LoggerFactory.getLogger(this.getClass());
 	}
 	
@@ -98,13 +117,16 @@ class NodeDiscovery {
 	 * supplied identifier.
 	 * 
 	 * <p>This method blocks until the device is discovered or the configured 
-	 * timeout in the device (NT) expires.</p>
+	 * timeout in the device (NT) expires. Except in 802.15.4 devices, that 
+	 * always wait for the end of the scan, the method returns as soon as the 
+	 * device answers.</p>
 	 * 
 	 * @param id The identifier of the device to be discovered.
 	 * 
 	 * @return The discovered remote XBee device with the given identifier, 
 	 *         {@code null} if the timeout expires and the device was not found.
 	 * 
+	 * @throws IllegalStateException if a discovery is already running.
 	 * @throws InterfaceNotOpenException if the device is not open.
 	 * @throws XBeeException if there is an error sending the discovery command.
 	 * 
@@ -117,19 +139,19 @@ class NodeDiscovery {
 		
 		logger.debug("{}ND for {} device.", xbeeDevice.toString(), id);
 		
-		running = true;
-		discovering = true;
+		startRunning();
+		
+		searchedIDs = new ArrayList<String>();
+		searchedIDs.add(id);
+		pendingIDs = new HashSet<String>(searchedIDs);
+		stopWhenFound = true;
 		
 		performNodeDiscovery(null, id);
 		
-		XBeeNetwork network = xbeeDevice.getNetwork();
 		RemoteXBeeDevice rDevice = null;
 		
-		if (deviceList != null && deviceList.size() > 0) {
+		if (deviceList != null && deviceList.size() > 0)
 			rDevice = deviceList.get(0);
-			if (rDevice != null)
-				rDevice = network.addRemoteDevice(rDevice);
-		}
 		
 		return rDevice;
 	}
@@ -147,20 +169,57 @@ class NodeDiscovery {
 	 * @return A list of the discovered remote XBee devices with the given 
 	 *         identifiers.
 	 * 
+	 * @throws IllegalStateException if a discovery is already running.
 	 * @throws InterfaceNotOpenException if the device is not open.
 	 * @throws XBeeException if there is an error discovering the devices.
 	 * 
 	 * @see #discoverDevice(String)
+	 * @see #discoverDevices(List, boolean)
 	 */
 	public List<RemoteXBeeDevice> discoverDevices(List<String> ids) throws XBeeException {
+		return discoverDevices(ids, false);
+	}
+	
+	/**
+	 * Discovers and reports the remote XBee devices that match the supplied 
+	 * identifiers.
+	 * 
+	 * <p>Matching devices are added to the network of the local device as 
+	 * soon as their discovery response is received. If {@code stopWhenFound} 
+	 * is {@code true} the method returns as soon as a device has been found 
+	 * for every identifier (except in 802.15.4 devices, that always wait for 
+	 * the end of the scan), otherwise it blocks until the configured timeout 
+	 * in the device (NT) expires to report all the devices sharing the given 
+	 * identifiers.</p>
+	 * 
+	 * @param ids List which contains the identifiers of the devices to be 
+	 *            discovered.
+	 * @param stopWhenFound {@code true} to finish the discovery once all the 
+	 *                      identifiers have been found, {@code false} to wait 
+	 *                      for the whole discovery timeout.
+	 * 
+	 * @return A list of the discovered remote XBee devices with the given 
+	 *         identifiers.
+	 * 
+	 * @throws IllegalStateException if a discovery is already running.
+	 * @throws InterfaceNotOpenException if the device is not open.
+	 * @throws XBeeException if there is an error discovering the devices.
+	 * 
+	 * @see #discoverDevice(String)
+	 * @see #discoverDevices(List)
+	 */
+	public List<RemoteXBeeDevice> discoverDevices(List<String> ids, boolean stopWhenFound) throws XBeeException {
 		// Check if the connection is open.
 		if (!xbeeDevice.isOpen())
 			throw new InterfaceNotOpenException();
 		
 		logger.debug("{}ND for all {} devices.", xbeeDevice.toString(), ids.toString());
 		
-		running = true;
-		discovering = true;
+		startRunning();
+		
+		searchedIDs = new ArrayList<String>(ids);
+		pendingIDs = new HashSet<String>(ids);
+		this.stopWhenFound = stopWhenFound;
 		
 		performNodeDiscovery(null, null);
 		
@@ -168,19 +227,8 @@ class NodeDiscovery {
 		if (deviceList == null)
 			return foundDevices;
 		
-		XBeeNetwork network = xbeeDevice.getNetwork();
-		
-		for (RemoteXBeeDevice d: deviceList) {
-			String nID = d.getNodeID();
-			if (nID == null)
-				continue;
-			for (String id : ids) {
-				if (nID.equals(id)) {
-					RemoteXBeeDevice rDevice = network.addRemoteDevice(d);
-					if (rDevice != null && !foundDevices.contains(rDevice))
-						foundDevices.add(rDevice);
-				}
-			}
+		synchronized (deviceList) {
+			foundDevices.addAll(deviceList);
 		}
 		
 		return foundDevices;
@@ -191,6 +239,7 @@ class NodeDiscovery {
 	 * 
 	 * @param listeners Discovery listeners to be notified about process events.
 	 * 
+	 * @throws IllegalStateException if a discovery is already running.
 	 * @throws InterfaceNotOpenException if the device is not open.
 	 * @throws NullPointerException if {@code listeners == null}.
 	 * 
@@ -204,10 +253,9 @@ class NodeDiscovery {
 		if (listeners == null)
 			throw new NullPointerException("Listeners list cannot be null.");
 		
-		running = true;
-		discovering = true;
+		startRunning();
 		
-		Thread discoveryThread = new Thread() {
+		Runnable discoveryTask = new Runnable() {
 			@Override
 			public void run() {
 				try {
@@ -218,7 +266,7 @@ class NodeDiscovery {
 				}
 			}
 		};
-		discoveryThread.start();
+		ThreadUtils.newThread(discoveryTask, DISCOVERY_THREAD_NAME).start();
 	}
 	
 	/**
@@ -228,7 +276,7 @@ class NodeDiscovery {
 	 * @see #startDiscoveryProcess(List)
 	 */
 	public void stopDiscoveryProcess() {
-		discovering = false;
+		finishDiscovery();
 	}
 	
 	/**
@@ -244,6 +292,18 @@ class NodeDiscovery {
 		return running;
 	}
 	
+	/**
+	 * Marks the discovery as running.
+	 * 
+	 * @throws IllegalStateException if a discovery is already running.
+	 */
+	private synchronized void startRunning() {
+		if (running)
+			throw new IllegalStateException("The discovery process is already running.");
+		running = true;
+		discovering = true;
+	}
+	
 	/**
 	 * Performs a node discover to search for XBee devices in the same network. 
 	 * 
@@ -256,6 +316,11 @@ class NodeDiscovery {
 	 * @throws XBeeException if there is an error sending the discovery command.
 	 */
 	private void performNodeDiscovery(List<IDiscoveryListener> listeners, String id) throws XBeeException {
+		// Take a new frame ID from the local device for every discovery, so 
+		// responses of a previous discovery or of other local devices are 
+		// ignored.
+		frameID = xbeeDevice.getNextFrameID();
+		
 		try {
 			discoverDevicesAPI(listeners, id);
 			
@@ -264,6 +329,9 @@ class NodeDiscovery {
 		} finally {
 			running = false;
 			discovering = false;
+			searchedIDs = null;
+			pendingIDs = null;
+			stopWhenFound = false;
 		}
 	}
 	
@@ -296,18 +364,8 @@ class NodeDiscovery {
 				
 				rdevice = parseDiscoveryAPIData(commandValue, xbeeDevice);
 				
-				// If a device with a specific id is being search and it is 
-				// already found, return it.
-				if (id != null) {
-					if (rdevice != null && id.equals(rdevice.getNodeID())) {
-						synchronized (deviceList) {
-							deviceList.add(rdevice);
-						}
-						// If the local device is 802.15.4 wait until the 'end' command is received.
-						if (xbeeDevice.getXBeeProtocol() != XBeeProtocol.RAW_802_15_4)
-							discovering = false;
-					}
-				} else if (rdevice != null)
+				// Report every response as soon as it is parsed.
+				if (rdevice != null)
 					notifyDeviceDiscovered(listeners, rdevice);
 			}
 		};
@@ -327,23 +385,26 @@ class NodeDiscovery {
 			
 			sendNodeDiscoverCommand(id);
 			
-			if (!is802Compatible) {
-				// Wait for scan timeout.
-				while (discovering) {
-					if (System.currentTimeMillis() < deadLine)
-						try {
-							Thread.sleep(100);
-						} catch (InterruptedException e) { }
-					else
-						discovering = false;
-				}
-			} else {
-				// Wait until the 'end' command is received.
+			// Wait until the scan timeout expires, the 'end' command is 
+			// received or all the requested devices are found.
+			discoveryLock.lock();
+			try {
 				while (discovering) {
 					try {
-						Thread.sleep(100);
+						if (is802Compatible) {
+							discoveryFinished.await();
+							continue;
+						}
+						long remaining = deadLine - System.currentTimeMillis();
+						if (remaining <= 0) {
+							discovering = false;
+							break;
+						}
+						discoveryFinished.await(remaining, TimeUnit.MILLISECONDS);
 					} catch (InterruptedException e) { }
 				}
+			} finally {
+				discoveryLock.unlock();
 			}
 		} finally {
 			xbeeDevice.removePacketListener(packetReceiveListener);
@@ -351,16 +412,50 @@ class NodeDiscovery {
 		}
 	}
 	
+	/**
+	 * Finishes the running discovery and wakes up the thread waiting for it.
+	 */
+	private void finishDiscovery() {
+		discoveryLock.lock();
+		try {
+			discovering = false;
+			discoveryFinished.signalAll();
+		} finally {
+			discoveryLock.unlock();
+		}
+	}
+	
+	/**
+	 * Clears the cached discovery timeout so it is read again from the device 
+	 * in the next discovery.
+	 * 
+	 * <p>This method must be called every time the discovery timeout 
+	 * ({@code NT}) of the local device is changed.</p>
+	 */
+	public void clearTimeoutCache() {
+		cachedTimeout.set(new CachedTimeout(-1, null));
+	}
+	
 	/**
 	 * Calculates the maximum response time, in milliseconds, for network
 	 * discovery responses.
 	 * 
+	 * <p>The value is read from the device only once and cached until the 
+	 * protocol of the device changes or {@link #clearTimeoutCache()} is 
+	 * called.</p>
+	 * 
 	 * @param listeners Discovery listeners to be notified about process events.
 	 * 
 	 * @return Maximum network discovery timeout.
 	 */
 	private long calculateTimeout(List<IDiscoveryListener> listeners) {
+		XBeeProtocol protocol = xbeeDevice.getXBeeProtocol();
+		CachedTimeout cached = cachedTimeout.get();
+		if (cached.timeout != -1 && protocol == cached.protocol)
+			return cached.timeout;
+		
 		long timeout = -1;
+		boolean cacheable = true;
 		
 		// Read the maximum discovery timeout (N?).
 		try {
@@ -376,6 +471,7 @@ class NodeDiscovery {
 				timeout = ByteUtils.byteArrayToLong(xbeeDevice.getParameter("NT")) * 100;
 			} catch (XBeeException e) {
 				timeout = DEFAULT_TIMEOUT;
+				cacheable = false;
 				String error = "Could not read the discovery timeout from the device (NT). "
 						+ "The default timeout (" + DEFAULT_TIMEOUT + " ms.) will be used.";
 				notifyDiscoveryError(listeners, error);
@@ -398,10 +494,16 @@ class NodeDiscovery {
 				if (isSleepSupport)
 					timeout += timeout + (timeout * 0.1);
 			} catch (XBeeException e) {
+				cacheable = false;
 				logger.debug("{}Could not determine if the module is 'Sleep Support'.", xbeeDevice.toString());
 			}
 		}
 		
+		// Do not overwrite the cache if it was cleared while reading the 
+		// values, as they may be outdated.
+		if (cacheable)
+			cachedTimeout.compareAndSet(cached, new CachedTimeout(timeout, protocol));
+		
 		return timeout;
 	}
 	
@@ -429,7 +531,8 @@ class NodeDiscovery {
 				return null;
 			// Check if the 'end' command is received (empty response with OK status).
 			if (atResponse.getCommandValue() == null || atResponse.getCommandValue().length == 0) {
-				discovering = atResponse.getStatus() != ATCommandStatus.OK;
+				if (atResponse.getStatus() == ATCommandStatus.OK)
+					finishDiscovery();
 				return null;
 			}
 			
@@ -568,9 +671,7 @@ class NodeDiscovery {
 	 */
 	private void notifyDeviceDiscovered(List<IDiscoveryListener> listeners, RemoteXBeeDevice device) {
 		if (listeners == null) {
-			synchronized (deviceList) {
-				deviceList.add(device);
-			}
+			collectDevice(device);
 			return;
 		}
 		
@@ -578,7 +679,7 @@ class NodeDiscovery {
 		
 		RemoteXBeeDevice addedDev = network.addRemoteDevice(device);
 		if (addedDev != null) {
-			for (IDiscoveryListener listener : listeners)
+			for (IDiscoveryListener listener : copyListeners(listeners))
 				listener.deviceDiscovered(addedDev);
 		} else {
 			String error = "Error adding device '" + device + "' to the network.";
@@ -586,6 +687,44 @@ class NodeDiscovery {
 		}
 	}
 	
+	/**
+	 * Stores the given device if it matches one of the identifiers being 
+	 * searched, adding it to the network of the local device, and finishes 
+	 * the discovery if all of them have been found.
+	 * 
+	 * @param device The remote device discovered.
+	 */
+	private void collectDevice(RemoteXBeeDevice device) {
+		List<String> ids = searchedIDs;
+		Set<String> pending = pendingIDs;
+		String nID = device.getNodeID();
+		if (ids == null || pending == null || nID == null)
+			return;
+		
+		boolean allFound;
+		synchronized (deviceList) {
+			// Ignore late responses once all the identifiers have been found.
+			if (stopWhenFound && pending.isEmpty())
+				return;
+			
+			XBeeNetwork network = xbeeDevice.getNetwork();
+			for (String id : ids) {
+				if (nID.equals(id)) {
+					RemoteXBeeDevice rDevice = network.addRemoteDevice(device);
+					if (rDevice != null && !deviceList.contains(rDevice))
+						deviceList.add(rDevice);
+				}
+			}
+			
+			pending.remove(nID);
+			allFound = pending.isEmpty();
+		}
+		
+		// If the local device is 802.15.4 wait until the 'end' command is received.
+		if (allFound && stopWhenFound && xbeeDevice.getXBeeProtocol() != XBeeProtocol.RAW_802_15_4)
+			finishDiscovery();
+	}
+	
 	/**
 	 * Notifies the given discovery listeners about the provided error.
 	 * 
@@ -598,7 +737,7 @@ class NodeDiscovery {
 		if (listeners == null)
 			return;
 		
-		for (IDiscoveryListener listener : listeners)
+		for (IDiscoveryListener listener : copyListeners(listeners))
 			listener.discoveryError(error);
 	}
 	
@@ -619,10 +758,24 @@ class NodeDiscovery {
 		if (listeners == null)
 			return;
 		
-		for (IDiscoveryListener listener : listeners)
+		for (IDiscoveryListener listener : copyListeners(listeners))
 			listener.discoveryFinished(error);
 	}
 	
+	/**
+	 * Returns a copy of the given discovery listeners, so they can be removed 
+	 * while they are being notified.
+	 * 
+	 * @param listeners The discovery listeners to copy.
+	 * 
+	 * @return A copy of the list of discovery listeners.
+	 */
+	private static List<IDiscoveryListener> copyListeners(List<IDiscoveryListener> listeners) {
+		synchronized (listeners) {
+			return new ArrayList<IDiscoveryListener>(listeners);
+		}
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#toString()
@@ -652,4 +805,28 @@ class NodeDiscovery {
 			return true;
 		return false;
 	}
+	
+	/**
+	 * Discovery timeout read from the device together with the protocol of 
+	 * the device when it was read.
+	 */
+	private static class CachedTimeout {
+		
+		// Variables.
+		private final long timeout;
+		
+		private final XBeeProtocol protocol;
+		
+		/**
+		 * Instantiates a new {@code CachedTimeout} object.
+		 * 
+		 * @param timeout The discovery timeout, {@code -1} if it is unknown.
+		 * @param protocol The protocol of the device when the timeout was 
+		 *                 read.
+		 */
+		CachedTimeout(long timeout, XBeeProtocol protocol) {
+			this.timeout = timeout;
+			this.protocol = protocol;
+		}
+	}
 }
\ No newline at end of file
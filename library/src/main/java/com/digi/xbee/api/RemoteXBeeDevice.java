@@ -21,6 +21,10 @@ import java.net.Inet6Address;
 import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
 import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.io.IOLine;
+import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.io.IOStateCache;
+import com.digi.xbee.api.io.IOValue;
 import com.digi.xbee.api.models.ATCommand;
 import com.digi.xbee.api.models.ATCommandResponse;
 import com.digi.xbee.api.models.XBee16BitAddress;
@@ -166,6 +170,125 @@ public class RemoteXBeeDevice extends AbstractXBeeDevice {
 		checkATCommandResponseIsValid(response);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#readIOSample()
+	 */
+	@Override
+	public IOSample readIOSample() throws TimeoutException, XBeeException {
+		IOSample ioSample = super.readIOSample();
+		
+		IOStateCache cache = getIOStateCache();
+		if (cache != null)
+			cache.update(this, ioSample, System.currentTimeMillis());
+		return ioSample;
+	}
+	
+	/**
+	 * Returns an IO sample of this remote XBee device not older than the 
+	 * given age.
+	 * 
+	 * <p>If the IO state cache of the local XBee device has a sample of this 
+	 * device received within {@code maxAge} milliseconds, that sample is 
+	 * returned without communicating with the remote device. Otherwise, the 
+	 * sample is read from the remote device.</p>
+	 * 
+	 * @param maxAge The maximum age of the sample in milliseconds.
+	 * 
+	 * @return An IO sample containing the value of all enabled digital IO 
+	 *         and analog input channels.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxAge < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws TimeoutException if there is a timeout getting the IO sample.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #readIOSample()
+	 * @see XBeeDevice#setIOStateCache(IOStateCache)
+	 * @see com.digi.xbee.api.io.IOSample
+	 */
+	public IOSample readIOSample(long maxAge) throws TimeoutException, XBeeException {
+		if (maxAge < 0)
+			throw new IllegalArgumentException("Maximum age cannot be negative.");
+		
+		IOStateCache cache = getIOStateCache();
+		if (cache != null) {
+			IOSample ioSample = cache.getIOSample(this, maxAge);
+			if (ioSample != null)
+				return ioSample;
+		}
+		return readIOSample();
+	}
+	
+	/**
+	 * Returns the digital value of the provided IO line of this remote XBee 
+	 * device from an IO sample not older than the given age.
+	 * 
+	 * @param ioLine The IO line to get its digital value.
+	 * @param maxAge The maximum age of the IO sample in milliseconds.
+	 * 
+	 * @return The digital value corresponding to the provided IO line.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxAge < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code ioLine == null}.
+	 * @throws TimeoutException if there is a timeout sending the get IO values 
+	 *                          command.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #getDIOValue(IOLine)
+	 * @see #readIOSample(long)
+	 * @see com.digi.xbee.api.io.IOLine
+	 * @see com.digi.xbee.api.io.IOValue
+	 */
+	public IOValue getDIOValue(IOLine ioLine, long maxAge) throws TimeoutException, XBeeException {
+		// Check IO line.
+		if (ioLine == null)
+			throw new NullPointerException("IO line cannot be null.");
+		
+		return getDIOValue(readIOSample(maxAge), ioLine);
+	}
+	
+	/**
+	 * Returns the analog value of the provided IO line of this remote XBee 
+	 * device from an IO sample not older than the given age.
+	 * 
+	 * @param ioLine The IO line to get its analog value.
+	 * @param maxAge The maximum age of the IO sample in milliseconds.
+	 * 
+	 * @return The analog value corresponding to the provided IO line.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxAge < 0}.
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws NullPointerException if {@code ioLine == null}.
+	 * @throws TimeoutException if there is a timeout sending the get IO values
+	 *                          command.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #getADCValue(IOLine)
+	 * @see #readIOSample(long)
+	 * @see com.digi.xbee.api.io.IOLine
+	 */
+	public int getADCValue(IOLine ioLine, long maxAge) throws TimeoutException, XBeeException {
+		// Check IO line.
+		if (ioLine == null)
+			throw new NullPointerException("IO line cannot be null.");
+		
+		return getADCValue(readIOSample(maxAge), ioLine);
+	}
+	
+	/**
+	 * Returns the IO state cache of the local XBee device.
+	 * 
+	 * @return The IO state cache, {@code null} if the local device does not 
+	 *         cache the IO state of the remote devices.
+	 */
+	private IOStateCache getIOStateCache() {
+		if (!(localXBeeDevice instanceof XBeeDevice))
+			return null;
+		return ((XBeeDevice)localXBeeDevice).getIOStateCache();
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.AbstractXBeeDevice#toString()
@@ -16,9 +16,15 @@
 package com.digi.xbee.api;
 
 import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import android.content.Context;
 
+import com.digi.xbee.api.connection.ConnectionEventLoop;
+import com.digi.xbee.api.connection.ListenerMailbox;
+import com.digi.xbee.api.connection.PartitionedDispatcher;
 import com.digi.xbee.api.connection.DataReader;
 import com.digi.xbee.api.connection.IConnectionInterface;
 import com.digi.xbee.api.connection.android.AndroidUSBPermissionListener;
@@ -30,9 +36,15 @@ import com.digi.xbee.api.exceptions.InvalidOperatingModeException;
 import com.digi.xbee.api.exceptions.OperationNotSupportedException;
 import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.io.IODeadbandFilter;
+import com.digi.xbee.api.io.IOSampleStore;
+import com.digi.xbee.api.io.IOStateCache;
+import com.digi.xbee.api.listeners.IIOSampleBatchReceiveListener;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.listeners.IRxFrameListener;
+import com.digi.xbee.api.listeners.IDataBatchReceiveListener;
 import com.digi.xbee.api.listeners.IDataReceiveListener;
 import com.digi.xbee.api.models.APIOutputMode;
 import com.digi.xbee.api.models.ATCommand;
@@ -40,6 +52,8 @@ import com.digi.xbee.api.models.ATCommandResponse;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
 import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.OverflowStrategy;
+import com.digi.xbee.api.models.ReceiveFilter;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeMessage;
@@ -47,6 +61,7 @@ import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.models.XBeeTransmitOptions;
 import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.TransmitFrameEncoder;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
@@ -81,10 +96,26 @@ public class XBeeDevice extends AbstractXBeeDevice {
 	// Variables.
 	protected XBeeNetwork network;
 	
-	private Object resetLock = new Object();
+	private volatile CountDownLatch resetLatch = new CountDownLatch(1);
 	
 	private boolean modemStatusReceived = false;
 	
+	private ExecutorService listenerExecutor;
+	
+	private ConnectionEventLoop eventLoop;
+	
+	private PartitionedDispatcher dispatcher;
+	
+	private int decodeWorkers = 0;
+	
+	private boolean flyweightDecode = false;
+	
+	private volatile IOSampleStore ioSampleStore;
+	
+	private volatile IODeadbandFilter ioDeadbandFilter;
+	
+	private volatile IOStateCache ioStateCache;
+	
 	/**
 	 * Class constructor. Instantiates a new {@code XBeeDevice} object 
 	 * physically connected to the given port name and configured at the 
@@ -340,15 +371,26 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		
 		// Initialize the data reader.
 		dataReader = new DataReader(connectionInterface, operatingMode, this);
-		dataReader.start();
-		
-		// Wait 10 milliseconds until the dataReader thread is started.
-		// This is because when the connection is opened immediately after 
-		// closing it, there is sometimes a concurrency problem and the 
-		// dataReader thread never dies.
-		try {
-			Thread.sleep(10);
-		} catch (InterruptedException e) {}
+		dataReader.setListenerExecutor(listenerExecutor);
+		dataReader.setDispatcher(dispatcher);
+		dataReader.setDecodeWorkers(decodeWorkers);
+		dataReader.setFlyweightDecode(flyweightDecode);
+		dataReader.setIOSampleStore(ioSampleStore);
+		dataReader.setIODeadbandFilter(ioDeadbandFilter);
+		dataReader.setIOStateCache(ioStateCache);
+		if (eventLoop != null) {
+			eventLoop.register(dataReader);
+		} else {
+			dataReader.start();
+			
+			// Wait 10 milliseconds until the dataReader thread is started.
+			// This is because when the connection is opened immediately after 
+			// closing it, there is sometimes a concurrency problem and the 
+			// dataReader thread never dies.
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {}
+		}
 		
 		// Determine the operating mode of the XBee device if it is unknown.
 		if (operatingMode == OperatingMode.UNKNOWN)
@@ -381,6 +423,8 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		// Stop XBee reader.
 		if (dataReader != null && dataReader.isRunning())
 			dataReader.stopReader();
+		if (dataReader != null && eventLoop != null)
+			eventLoop.unregister(dataReader);
 		// Close interface.
 		connectionInterface.close();
 		logger.info(toString() + "Connection interface closed.");
@@ -411,6 +455,291 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		return false;
 	}
 	
+	/**
+	 * Sets the executor used to notify the listeners of this XBee device.
+	 * 
+	 * <p>Several local devices can share the same executor so the number of 
+	 * notification threads does not grow with the number of devices. The 
+	 * executor is not shut down when the device is closed. If {@code null}, 
+	 * a short-lived thread pool is used for every received packet.</p>
+	 * 
+	 * @param executor The executor used to notify listeners, {@code null} to 
+	 *                 use the default one.
+	 * 
+	 * @see #getListenerExecutor()
+	 */
+	public void setListenerExecutor(ExecutorService executor) {
+		this.listenerExecutor = executor;
+		if (dataReader != null)
+			dataReader.setListenerExecutor(executor);
+	}
+	
+	/**
+	 * Returns the executor used to notify the listeners of this XBee device.
+	 * 
+	 * @return The executor used to notify listeners, {@code null} if the 
+	 *         default one is used.
+	 * 
+	 * @see #setListenerExecutor(ExecutorService)
+	 */
+	public ExecutorService getListenerExecutor() {
+		return listenerExecutor;
+	}
+	
+	/**
+	 * Sets the dispatcher used to notify the listeners of this XBee device 
+	 * in order for every remote node.
+	 * 
+	 * <p>The messages received from the same remote node are notified in 
+	 * the order they were received, while the messages of different nodes 
+	 * are notified in parallel. Listeners must be thread-safe, as they may 
+	 * be called concurrently for different nodes. The dispatcher takes 
+	 * precedence over the listener executor and it is not shut down when the 
+	 * device is closed.</p>
+	 * 
+	 * @param dispatcher The dispatcher used to notify listeners, {@code null} 
+	 *                   to use the listener executor.
+	 * 
+	 * @see #getDispatcher()
+	 * @see #setListenerExecutor(ExecutorService)
+	 * @see PartitionedDispatcher
+	 */
+	public void setDispatcher(PartitionedDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+		if (dataReader != null)
+			dataReader.setDispatcher(dispatcher);
+	}
+	
+	/**
+	 * Returns the dispatcher used to notify the listeners of this XBee device 
+	 * in order for every remote node.
+	 * 
+	 * @return The dispatcher used to notify listeners, {@code null} if the 
+	 *         listener executor is used.
+	 * 
+	 * @see #setDispatcher(PartitionedDispatcher)
+	 * @see PartitionedDispatcher
+	 */
+	public PartitionedDispatcher getDispatcher() {
+		return dispatcher;
+	}
+	
+	/**
+	 * Sets the number of threads that decode the frames received by this 
+	 * XBee device.
+	 * 
+	 * <p>By default, the frames are read, parsed and dispatched by a single 
+	 * thread. With several devices working at high baud rates, that thread 
+	 * may not keep up with the received data. When workers are configured, 
+	 * the reading thread only frames the data and verifies its checksum, 
+	 * and the workers parse the packets and resolve their remote devices in 
+	 * parallel. Packets are still dispatched in the order they were 
+	 * received.</p>
+	 * 
+	 * <p>The new value is applied the next time the device is opened.</p>
+	 * 
+	 * @param workers The number of decoding threads, {@code 0} to decode 
+	 *                the frames in the reading thread.
+	 * 
+	 * @throws IllegalArgumentException if {@code workers < 0}.
+	 * 
+	 * @see #getDecodeWorkers()
+	 */
+	public void setDecodeWorkers(int workers) {
+		if (workers < 0)
+			throw new IllegalArgumentException("Number of workers cannot be negative.");
+		
+		decodeWorkers = workers;
+	}
+	
+	/**
+	 * Returns the number of threads that decode the frames received by this 
+	 * XBee device.
+	 * 
+	 * @return The number of decoding threads, {@code 0} if the frames are 
+	 *         decoded in the reading thread.
+	 * 
+	 * @see #setDecodeWorkers(int)
+	 */
+	public int getDecodeWorkers() {
+		return decodeWorkers;
+	}
+	
+	/**
+	 * Configures whether the data frames received by this XBee device are 
+	 * only delivered to the received frame listeners.
+	 * 
+	 * <p>When enabled and there are received frame listeners, received data 
+	 * frames are not parsed into packets, stored in the packets queue or 
+	 * delivered to the rest of listeners, so receiving them does not 
+	 * allocate any object. Listeners must copy the data they need to keep 
+	 * from the view they receive.</p>
+	 * 
+	 * @param enabled {@code true} to deliver data frames only to the 
+	 *                received frame listeners, {@code false} otherwise.
+	 * 
+	 * @see #isFlyweightDecode()
+	 * @see #addRxFrameListener(IRxFrameListener)
+	 */
+	public void setFlyweightDecode(boolean enabled) {
+		flyweightDecode = enabled;
+		if (dataReader != null)
+			dataReader.setFlyweightDecode(enabled);
+	}
+	
+	/**
+	 * Returns whether the data frames received by this XBee device are only 
+	 * delivered to the received frame listeners.
+	 * 
+	 * @return {@code true} if data frames are only delivered to the received 
+	 *         frame listeners, {@code false} otherwise.
+	 * 
+	 * @see #setFlyweightDecode(boolean)
+	 */
+	public boolean isFlyweightDecode() {
+		return flyweightDecode;
+	}
+	
+	/**
+	 * Sets the store where the IO samples received by this XBee device are 
+	 * kept.
+	 * 
+	 * <p>The store keeps the latest values of every IO line of each remote 
+	 * device, so they can be queried and aggregated at any time without 
+	 * adding an IO sample listener or communicating with the remote 
+	 * devices.</p>
+	 * 
+	 * @param ioSampleStore The store of the received IO samples, 
+	 *                      {@code null} to not store them.
+	 * 
+	 * @see #getIOSampleStore()
+	 * @see com.digi.xbee.api.io.IOSampleStore
+	 */
+	public void setIOSampleStore(IOSampleStore ioSampleStore) {
+		this.ioSampleStore = ioSampleStore;
+		if (dataReader != null)
+			dataReader.setIOSampleStore(ioSampleStore);
+	}
+	
+	/**
+	 * Returns the store where the IO samples received by this XBee device 
+	 * are kept.
+	 * 
+	 * @return The store of the received IO samples, {@code null} if they are 
+	 *         not stored.
+	 * 
+	 * @see #setIOSampleStore(IOSampleStore)
+	 * @see com.digi.xbee.api.io.IOSampleStore
+	 */
+	public IOSampleStore getIOSampleStore() {
+		return ioSampleStore;
+	}
+	
+	/**
+	 * Sets the filter that decides which IO samples received by this XBee 
+	 * device are delivered to the IO sample listeners.
+	 * 
+	 * <p>The filter suppresses the samples of a remote device whose digital 
+	 * values did not change and whose analog values moved less than the 
+	 * deadband of their lines, unless its heartbeat interval elapsed.</p>
+	 * 
+	 * @param ioDeadbandFilter The filter of the received IO samples, 
+	 *                         {@code null} to deliver all of them.
+	 * 
+	 * @see #getIODeadbandFilter()
+	 * @see com.digi.xbee.api.io.IODeadbandFilter
+	 */
+	public void setIODeadbandFilter(IODeadbandFilter ioDeadbandFilter) {
+		this.ioDeadbandFilter = ioDeadbandFilter;
+		if (dataReader != null)
+			dataReader.setIODeadbandFilter(ioDeadbandFilter);
+	}
+	
+	/**
+	 * Returns the filter that decides which IO samples received by this XBee 
+	 * device are delivered to the IO sample listeners.
+	 * 
+	 * @return The filter of the received IO samples, {@code null} if all of 
+	 *         them are delivered.
+	 * 
+	 * @see #setIODeadbandFilter(IODeadbandFilter)
+	 * @see com.digi.xbee.api.io.IODeadbandFilter
+	 */
+	public IODeadbandFilter getIODeadbandFilter() {
+		return ioDeadbandFilter;
+	}
+	
+	/**
+	 * Sets the cache where the latest IO sample known of each remote device 
+	 * is kept.
+	 * 
+	 * <p>The cache is updated with the IO samples received by this XBee 
+	 * device and with the IO samples read from remote devices. Remote 
+	 * devices use it to serve the reads that accept a maximum age without 
+	 * communicating with the radio.</p>
+	 * 
+	 * @param ioStateCache The cache of the IO state of the remote devices, 
+	 *                     {@code null} to not cache it.
+	 * 
+	 * @see #getIOStateCache()
+	 * @see RemoteXBeeDevice#readIOSample(long)
+	 * @see com.digi.xbee.api.io.IOStateCache
+	 */
+	public void setIOStateCache(IOStateCache ioStateCache) {
+		this.ioStateCache = ioStateCache;
+		if (dataReader != null)
+			dataReader.setIOStateCache(ioStateCache);
+	}
+	
+	/**
+	 * Returns the cache where the latest IO sample known of each remote 
+	 * device is kept.
+	 * 
+	 * @return The cache of the IO state of the remote devices, {@code null} 
+	 *         if it is not cached.
+	 * 
+	 * @see #setIOStateCache(IOStateCache)
+	 * @see com.digi.xbee.api.io.IOStateCache
+	 */
+	public IOStateCache getIOStateCache() {
+		return ioStateCache;
+	}
+	
+	/**
+	 * Sets the event loop that reads the data of this XBee device.
+	 * 
+	 * <p>By default, every open device reads its connection interface in its 
+	 * own thread. Several local devices can be serviced by the same event 
+	 * loop so the number of reader threads does not grow with the number of 
+	 * devices. The event loop must be running when the device is opened and 
+	 * it is used from the next time the device is opened.</p>
+	 * 
+	 * @param eventLoop The event loop to read the data of this device, 
+	 *                  {@code null} to use a dedicated reader thread.
+	 * 
+	 * @throws IllegalStateException if the device is open.
+	 * 
+	 * @see #getEventLoop()
+	 * @see ConnectionEventLoop
+	 */
+	public void setEventLoop(ConnectionEventLoop eventLoop) {
+		if (isOpen())
+			throw new IllegalStateException("The event loop cannot be changed while the device is open.");
+		this.eventLoop = eventLoop;
+	}
+	
+	/**
+	 * Returns the event loop that reads the data of this XBee device.
+	 * 
+	 * @return The event loop that reads the data of this device, {@code null} 
+	 *         if a dedicated reader thread is used.
+	 * 
+	 * @see #setEventLoop(ConnectionEventLoop)
+	 */
+	public ConnectionEventLoop getEventLoop() {
+		return eventLoop;
+	}
+	
 	/**
 	 * Returns the network associated with this XBee device.
 	 * 
@@ -600,6 +929,24 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		super.removePacketListener(listener);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#addRxFrameListener(com.digi.xbee.api.listeners.IRxFrameListener)
+	 */
+	@Override
+	public void addRxFrameListener(IRxFrameListener listener) {
+		super.addRxFrameListener(listener);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#removeRxFrameListener(com.digi.xbee.api.listeners.IRxFrameListener)
+	 */
+	@Override
+	public void removeRxFrameListener(IRxFrameListener listener) {
+		super.removeRxFrameListener(listener);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.AbstractXBeeDevice#addDataListener(com.digi.xbee.api.listeners.IDataReceiveListener)
@@ -618,6 +965,104 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		super.removeDataListener(listener);
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.AbstractXBeeDevice#addDataListener(com.digi.xbee.api.listeners.IDataReceiveListener, com.digi.xbee.api.models.ReceiveFilter)
+	 */
+	@Override
+	public void addDataListener(IDataReceiveListener listener, ReceiveFilter filter) {
+		super.addDataListener(listener, filter);
+	}
+	
+	/**
+	 * Adds the provided listener to the list of listeners to be notified with 
+	 * batches of the received data.
+	 * 
+	 * <p>The mailbox of the listener stores up to 
+	 * {@link ListenerMailbox#DEFAULT_CAPACITY} messages and discards the 
+	 * oldest one when it is full.</p>
+	 * 
+	 * <p>If the listener has already been included, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified with batches of received data.
+	 * @param maxBatchSize Maximum number of messages notified in a batch.
+	 * @param maxDelay Maximum time (in microseconds) to wait for a complete 
+	 *                 batch.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxBatchSize < 1} or 
+	 *                                  if {@code maxDelay < 0}.
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #addDataBatchListener(IDataBatchReceiveListener, int, long, int, OverflowStrategy)
+	 * @see #removeDataBatchListener(IDataBatchReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IDataBatchReceiveListener
+	 */
+	public void addDataBatchListener(IDataBatchReceiveListener listener, int maxBatchSize, long maxDelay) {
+		addDataBatchListener(listener, maxBatchSize, maxDelay, ListenerMailbox.DEFAULT_CAPACITY, OverflowStrategy.DROP_OLDEST);
+	}
+	
+	/**
+	 * Adds the provided listener to the list of listeners to be notified with 
+	 * batches of the received data.
+	 * 
+	 * <p>Received messages are stored in a mailbox of the listener and 
+	 * delivered by its own thread in batches of up to {@code maxBatchSize} 
+	 * messages, waiting at most {@code maxDelay} microseconds for a batch to 
+	 * be complete.</p>
+	 * 
+	 * <p>If the listener has already been included, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified with batches of received data.
+	 * @param maxBatchSize Maximum number of messages notified in a batch.
+	 * @param maxDelay Maximum time (in microseconds) to wait for a complete 
+	 *                 batch.
+	 * @param capacity Maximum number of messages waiting to be notified.
+	 * @param overflowStrategy Strategy to apply when the mailbox is full.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxBatchSize < 1} or 
+	 *                                  if {@code maxDelay < 0} or 
+	 *                                  if {@code capacity < 1}.
+	 * @throws NullPointerException if {@code listener == null} or 
+	 *                              if {@code overflowStrategy == null}.
+	 * 
+	 * @see #addDataBatchListener(IDataBatchReceiveListener, int, long)
+	 * @see #removeDataBatchListener(IDataBatchReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IDataBatchReceiveListener
+	 * @see com.digi.xbee.api.models.OverflowStrategy
+	 */
+	public void addDataBatchListener(IDataBatchReceiveListener listener, int maxBatchSize, long maxDelay, 
+			int capacity, OverflowStrategy overflowStrategy) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.addDataBatchReceiveListener(listener, maxBatchSize, maxDelay, capacity, overflowStrategy);
+	}
+	
+	/**
+	 * Removes the provided listener from the list of batch data listeners.
+	 * 
+	 * <p>If the listener was not in the list this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be removed from the list of listeners.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #addDataBatchListener(IDataBatchReceiveListener, int, long)
+	 * @see com.digi.xbee.api.listeners.IDataBatchReceiveListener
+	 */
+	public void removeDataBatchListener(IDataBatchReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.removeDataBatchReceiveListener(listener);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.AbstractXBeeDevice#addIOSampleListener(com.digi.xbee.api.listeners.IIOSampleReceiveListener)
@@ -636,6 +1081,59 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		super.removeIOSampleListener(listener);
 	}
 	
+	/**
+	 * Adds the provided listener to the list of listeners to be notified 
+	 * with all the IO samples of each received IO sample packet.
+	 * 
+	 * <p>802.15.4 modules send several IO samples in the same packet when 
+	 * they are configured to do so with the {@code IT} setting. The listener 
+	 * is notified once per packet with all of them, in the order they were 
+	 * taken. Packets of other protocols are notified with a single 
+	 * sample.</p>
+	 * 
+	 * <p>If the listener has been already included this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified when new IO sample packets are 
+	 *                 received.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #addIOSampleListener(IIOSampleReceiveListener)
+	 * @see #removeIOSampleBatchListener(IIOSampleBatchReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IIOSampleBatchReceiveListener
+	 */
+	public void addIOSampleBatchListener(IIOSampleBatchReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.addIOSampleBatchReceiveListener(listener);
+	}
+	
+	/**
+	 * Removes the provided listener from the list of IO sample batch 
+	 * listeners.
+	 * 
+	 * <p>If the listener was not in the list this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be removed from the list of listeners.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #addIOSampleBatchListener(IIOSampleBatchReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IIOSampleBatchReceiveListener
+	 */
+	public void removeIOSampleBatchListener(IIOSampleBatchReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		if (dataReader == null)
+			return;
+		dataReader.removeIOSampleBatchReceiveListener(listener);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see com.digi.xbee.api.AbstractXBeeDevice#addModemStatusListener(com.digi.xbee.api.listeners.IModemStatusReceiveListener)
@@ -801,6 +1299,105 @@ public class XBeeDevice extends AbstractXBeeDevice {
 		}
 	}
 	
+	/**
+	 * Creates a transmit frame encoder to send data to the given remote XBee 
+	 * device with {@link #sendDataAsync(TransmitFrameEncoder, byte[])}.
+	 * 
+	 * <p>The encoder uses the same frame type and addresses that 
+	 * {@link #sendDataAsync(RemoteXBeeDevice, byte[])} would choose for the 
+	 * remote device with the current protocol of this XBee device.</p>
+	 * 
+	 * @param remoteXBeeDevice The XBee device of the network that will receive 
+	 *                         the data.
+	 * 
+	 * @return The transmit frame encoder for the remote device.
+	 * 
+	 * @throws NullPointerException if {@code remoteXBeeDevice == null}.
+	 * 
+	 * @see #sendDataAsync(TransmitFrameEncoder, byte[])
+	 * @see com.digi.xbee.api.packet.TransmitFrameEncoder
+	 */
+	public TransmitFrameEncoder createTransmitEncoder(RemoteXBeeDevice remoteXBeeDevice) {
+		if (remoteXBeeDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null");
+		
+		XBee64BitAddress address64 = remoteXBeeDevice.get64BitAddress();
+		XBee16BitAddress address16 = remoteXBeeDevice.get16BitAddress();
+		switch (getXBeeProtocol()) {
+		case ZIGBEE:
+		case DIGI_POINT:
+			if (address64 != null && address16 != null)
+				return new TransmitFrameEncoder(address64, address16, 0, XBeeTransmitOptions.NONE);
+			return new TransmitFrameEncoder(address64, XBee16BitAddress.UNKNOWN_ADDRESS, 0, XBeeTransmitOptions.NONE);
+		case RAW_802_15_4:
+			if (address64 == null && this instanceof Raw802Device)
+				return new TransmitFrameEncoder(address16, XBeeTransmitOptions.NONE);
+			return new TransmitFrameEncoder(address64, XBeeTransmitOptions.NONE);
+		case DIGI_MESH:
+		default:
+			return new TransmitFrameEncoder(address64, XBee16BitAddress.UNKNOWN_ADDRESS, 0, XBeeTransmitOptions.NONE);
+		}
+	}
+	
+	/**
+	 * Sends asynchronously the provided data using the given transmit frame 
+	 * encoder.
+	 * 
+	 * <p>The frame is encoded into the buffer of the encoder and written 
+	 * directly to the connection interface, so sending does not create any 
+	 * packet, address or data copy. Once the buffer of the encoder has grown 
+	 * to the size of the largest message, this method does not allocate 
+	 * any memory.</p>
+	 * 
+	 * <p>Asynchronous transmissions do not wait for answer from the remote 
+	 * device or for transmit status packet.</p>
+	 * 
+	 * @param encoder The transmit frame encoder of the destination.
+	 * @param data Byte array containing the data to be sent.
+	 * 
+	 * @throws InterfaceNotOpenException if this device connection is not open.
+	 * @throws InvalidOperatingModeException if the operating mode is different 
+	 *                                       than {@link OperatingMode#API} and 
+	 *                                       {@link OperatingMode#API_ESCAPE}.
+	 * @throws NullPointerException if {@code encoder == null} or 
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there is any XBee related exception.
+	 * 
+	 * @see #createTransmitEncoder(RemoteXBeeDevice)
+	 * @see #sendDataAsync(RemoteXBeeDevice, byte[])
+	 * @see com.digi.xbee.api.packet.TransmitFrameEncoder
+	 */
+	public void sendDataAsync(TransmitFrameEncoder encoder, byte[] data) throws XBeeException {
+		if (encoder == null)
+			throw new NullPointerException("Encoder cannot be null");
+		if (data == null)
+			throw new NullPointerException("Data cannot be null");
+		
+		// Check if device is remote.
+		if (isRemote())
+			throw new OperationNotSupportedException("Cannot send data to a remote device from a remote device.");
+		// Check connection.
+		if (!connectionInterface.isOpen())
+			throw new InterfaceNotOpenException();
+		
+		OperatingMode operatingMode = getOperatingMode();
+		if (operatingMode != OperatingMode.API && operatingMode != OperatingMode.API_ESCAPE)
+			throw new InvalidOperatingModeException(operatingMode);
+		
+		// The buffer of the encoder is reused, so write it before encoding 
+		// the next frame.
+		synchronized (encoder) {
+			int length = encoder.encode(getNextFrameID(), data, 0, data.length, operatingMode);
+			if (logger.isDebugEnabled())
+				logger.debug(toString() + "Sending data asynchronously >> {}.", HexUtils.prettyHexString(data));
+			try {
+				connectionInterface.writeData(encoder.getBuffer(), 0, length);
+			} catch (IOException e) {
+				throw new XBeeException("Error writing in the communication interface.", e);
+			}
+		}
+	}
+	
 	/**
 	 * Sends the provided data to the XBee device of the network corresponding 
 	 * to the given 64-bit address.
@@ -1542,12 +2139,11 @@ public class XBeeDevice extends AbstractXBeeDevice {
 	 */
 	private boolean waitForModemResetStatusPacket() {
 		modemStatusReceived = false;
+		resetLatch = new CountDownLatch(1);
 		addModemStatusListener(resetStatusListener);
-		synchronized (resetLock) {
-			try {
-				resetLock.wait(TIMEOUT_RESET);
-			} catch (InterruptedException e) { }
-		}
+		try {
+			resetLatch.await(TIMEOUT_RESET, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) { }
 		removeModemStatusListener(resetStatusListener);
 		return modemStatusReceived;
 	}
@@ -1575,10 +2171,8 @@ public class XBeeDevice extends AbstractXBeeDevice {
 			if (modemStatusEvent == ModemStatusEvent.STATUS_HARDWARE_RESET
 					|| modemStatusEvent == ModemStatusEvent.STATUS_WATCHDOG_TIMER_RESET){
 				modemStatusReceived = true;
-				// Continue execution by notifying the lock object.
-				synchronized (resetLock) {
-					resetLock.notify();
-				}
+				// Continue execution by releasing the latch.
+				resetLatch.countDown();
 			}
 		}
 	};
@@ -0,0 +1,645 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.TimeoutException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeeProtocol;
+import com.digi.xbee.api.models.XBeeTransmitOptions;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+import com.digi.xbee.api.utils.ThreadUtils;
+
+/**
+ * This class manages several local XBee devices attached to the same host
+ * as a single gateway.
+ * 
+ * <p>All the local devices share the same thread pool to notify their
+ * listeners and the same timer for periodic tasks, so the number of threads
+ * does not grow with the number of devices. Data and IO samples received by
+ * any of the local devices are delivered to the listeners of the gateway as
+ * one merged stream, and outgoing data is sent through the local device
+ * that reaches the destination with the fewest pending transmissions.</p>
+ * 
+ * @see XBeeDevice
+ */
+public class XBeeGateway {
+	
+	// Constants.
+	private static final int LISTENER_THREADS = 20;
+	
+	private static final String LISTENER_THREAD_NAME = "XBee-gateway-listener-";
+	private static final String TIMER_THREAD_NAME = "XBee-gateway-timer-";
+	
+	private static final long PURGE_PERIOD = 60000; // 1 minute.
+	
+	// Variables.
+	private final List<XBeeDevice> localDevices;
+	
+	private final Map<XBeeDevice, AtomicInteger> pendingSends = new HashMap<XBeeDevice, AtomicInteger>();
+	
+	private final AtomicInteger nextDevice = new AtomicInteger();
+	
+	private final List<IDataReceiveListener> dataListeners = new ArrayList<IDataReceiveListener>();
+	private final List<IIOSampleReceiveListener> ioSampleListeners = new ArrayList<IIOSampleReceiveListener>();
+	
+	private ExecutorService listenerExecutor;
+	
+	private ScheduledExecutorService timer;
+	
+	private boolean open = false;
+	
+	private Logger logger;
+	
+	private final IDataReceiveListener dataForwarder = new IDataReceiveListener() {
+		@Override
+		public void dataReceived(XBeeMessage xbeeMessage) {
+			for (IDataReceiveListener listener : copy(dataListeners))
+				listener.dataReceived(xbeeMessage);
+		}
+	};
+	
+	private final IIOSampleReceiveListener ioSampleForwarder = new IIOSampleReceiveListener() {
+		@Override
+		public void ioSampleReceived(RemoteXBeeDevice remoteDevice, IOSample ioSample) {
+			for (IIOSampleReceiveListener listener : copy(ioSampleListeners))
+				listener.ioSampleReceived(remoteDevice, ioSample);
+		}
+	};
+	
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeGateway} object that
+	 * manages the given local XBee devices.
+	 * 
+	 * @param localDevices The local XBee devices of the gateway.
+	 * 
+	 * @throws IllegalArgumentException if {@code localDevices.size() == 0}.
+	 * @throws NullPointerException if {@code localDevices == null} or if any
+	 *                              of the devices is {@code null}.
+	 * 
+	 * @see #XBeeGateway(String[], int)
+	 */
+	public XBeeGateway(List<XBeeDevice> localDevices) {
+		if (localDevices == null)
+			throw new NullPointerException("List of local XBee devices cannot be null.");
+		if (localDevices.size() == 0)
+			throw new IllegalArgumentException("List of local XBee devices cannot be empty.");
+		
+		this.localDevices = new ArrayList<XBeeDevice>(localDevices.size());
+		for (XBeeDevice device : localDevices) {
+			if (device == null)
+				throw new NullPointerException("Local XBee device cannot be null.");
+			this.localDevices.add(device);
+			pendingSends.put(device, new AtomicInteger());
+		}
+		
+		this.logger = LoggerFactory.getLogger(XBeeGateway.class);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code XBeeGateway} object with a
+	 * local XBee device for each of the given serial ports.
+	 * 
+	 * @param ports Serial port names where the XBee devices are attached to.
+	 * @param baudRate Serial port baud rate to communicate with the devices.
+	 * 
+	 * @throws IllegalArgumentException if {@code ports.length == 0} or
+	 *                                  if {@code baudRate < 0}.
+	 * @throws NullPointerException if {@code ports == null} or if any of the
+	 *                              ports is {@code null}.
+	 * 
+	 * @see #XBeeGateway(List)
+	 */
+	public XBeeGateway(String[] ports, int baudRate) {
+		this(createDevices(ports, baudRate));
+	}
+	
+	/**
+	 * Opens the connection interface of all the local devices of the gateway.
+	 * 
+	 * <p>If any of them cannot be opened, the already open ones are closed 
+	 * and no device keeps the listener executor of the gateway.</p>
+	 * 
+	 * @throws XBeeException if there is any problem opening the devices.
+	 * 
+	 * @see #close()
+	 * @see #isOpen()
+	 */
+	public synchronized void open() throws XBeeException {
+		if (open)
+			return;
+		
+		listenerExecutor = Executors.newFixedThreadPool(LISTENER_THREADS, ThreadUtils.newThreadFactory(LISTENER_THREAD_NAME, false));
+		timer = Executors.newSingleThreadScheduledExecutor(ThreadUtils.newThreadFactory(TIMER_THREAD_NAME, false));
+		
+		List<XBeeDevice> opened = new ArrayList<XBeeDevice>(localDevices.size());
+		XBeeDevice opening = null;
+		boolean success = false;
+		try {
+			for (XBeeDevice device : localDevices) {
+				opening = device;
+				device.setListenerExecutor(listenerExecutor);
+				device.open();
+				opened.add(device);
+				opening = null;
+				device.addDataListener(dataForwarder);
+				device.addIOSampleListener(ioSampleForwarder);
+			}
+			success = true;
+		} catch (XBeeException e) {
+			logger.error("Error opening gateway: {}", e.getMessage());
+			throw e;
+		} finally {
+			// Roll back on any failure, also on runtime exceptions.
+			if (!success) {
+				// The device that failed to open must not keep the 
+				// executor that is about to be shut down.
+				if (opening != null)
+					opening.setListenerExecutor(null);
+				for (XBeeDevice device : opened)
+					closeDevice(device);
+				shutdownExecutors();
+			}
+		}
+		
+		// Expire stale remote devices of all the networks from the shared timer.
+		timer.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				for (XBeeDevice device : localDevices) {
+					if (device.isOpen())
+						device.getNetwork().purgeExpiredDevices();
+				}
+			}
+		}, PURGE_PERIOD, PURGE_PERIOD, TimeUnit.MILLISECONDS);
+		
+		open = true;
+	}
+	
+	/**
+	 * Closes the connection interface of all the local devices of the gateway
+	 * and stops the shared threads.
+	 * 
+	 * @see #isOpen()
+	 * @see #open()
+	 */
+	public synchronized void close() {
+		if (!open)
+			return;
+		
+		for (XBeeDevice device : localDevices)
+			closeDevice(device);
+		shutdownExecutors();
+		
+		open = false;
+	}
+	
+	/**
+	 * Returns whether the gateway is open.
+	 * 
+	 * @return {@code true} if the gateway is open, {@code false} otherwise.
+	 * 
+	 * @see #close()
+	 * @see #open()
+	 */
+	public synchronized boolean isOpen() {
+		return open;
+	}
+	
+	/**
+	 * Returns the local XBee devices of the gateway.
+	 * 
+	 * @return The list of local XBee devices.
+	 */
+	public List<XBeeDevice> getLocalDevices() {
+		return new ArrayList<XBeeDevice>(localDevices);
+	}
+	
+	/**
+	 * Returns the timer shared by all the local devices of the gateway.
+	 * 
+	 * @return The shared timer, {@code null} if the gateway is not open.
+	 */
+	public synchronized ScheduledExecutorService getTimer() {
+		return timer;
+	}
+	
+	/**
+	 * Returns the number of transmissions in progress in the given local
+	 * device.
+	 * 
+	 * <p>A transmission is in progress from the moment it is sent until its
+	 * transmit status is received or the receive timeout of the local device
+	 * expires, also for asynchronous transmissions.</p>
+	 * 
+	 * @param localDevice The local device.
+	 * 
+	 * @return The number of pending transmissions, {@code -1} if the device
+	 *         does not belong to this gateway.
+	 */
+	public int getPendingSends(XBeeDevice localDevice) {
+		AtomicInteger pending = pendingSends.get(localDevice);
+		if (pending == null)
+			return -1;
+		return pending.get();
+	}
+	
+	/**
+	 * Returns the local device that would be used to send data to the given
+	 * destination.
+	 * 
+	 * <p>Devices whose network already contains the destination are
+	 * preferred. Among them, the one with the fewest transmissions in
+	 * progress is selected.</p>
+	 * 
+	 * @param address The 64-bit address of the destination.
+	 * 
+	 * @return The local device to use.
+	 * 
+	 * @throws InterfaceNotOpenException if none of the local devices is open.
+	 * @throws NullPointerException if {@code address == null}.
+	 */
+	public XBeeDevice getRoute(XBee64BitAddress address) {
+		if (address == null)
+			throw new NullPointerException("64-bit address cannot be null.");
+		
+		List<XBeeDevice> candidates = new ArrayList<XBeeDevice>(localDevices.size());
+		List<XBeeDevice> openDevices = new ArrayList<XBeeDevice>(localDevices.size());
+		for (XBeeDevice device : localDevices) {
+			if (!device.isOpen())
+				continue;
+			openDevices.add(device);
+			if (device.getNetwork().getDevice(address) != null)
+				candidates.add(device);
+		}
+		if (candidates.isEmpty())
+			candidates = openDevices;
+		if (candidates.isEmpty())
+			throw new InterfaceNotOpenException();
+		
+		// Start from a different device every time to spread ties.
+		int start = (nextDevice.getAndIncrement() & Integer.MAX_VALUE) % candidates.size();
+		XBeeDevice selected = null;
+		int minPending = Integer.MAX_VALUE;
+		for (int i = 0; i < candidates.size(); i++) {
+			XBeeDevice device = candidates.get((start + i) % candidates.size());
+			int pending = pendingSends.get(device).get();
+			if (pending < minPending) {
+				minPending = pending;
+				selected = device;
+			}
+		}
+		return selected;
+	}
+	
+	/**
+	 * Sends the provided data to the remote device with the given 64-bit
+	 * address through the most suitable local device.
+	 * 
+	 * @param address The 64-bit address of the destination.
+	 * @param data Byte array containing the data to be sent.
+	 * 
+	 * @throws InterfaceNotOpenException if none of the local devices is open.
+	 * @throws NullPointerException if {@code address == null} or
+	 *                              if {@code data == null}.
+	 * @throws TimeoutException if there is a timeout sending the data.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #getRoute(XBee64BitAddress)
+	 * @see #sendDataAsync(XBee64BitAddress, byte[])
+	 */
+	public void sendData(XBee64BitAddress address, byte[] data) throws TimeoutException, XBeeException {
+		send(address, data, false);
+	}
+	
+	/**
+	 * Sends asynchronously the provided data to the remote device with the
+	 * given 64-bit address through the most suitable local device.
+	 * 
+	 * <p>The transmission counts as pending in the selected local device
+	 * until its transmit status is received or the receive timeout of the
+	 * device expires.</p>
+	 * 
+	 * @param address The 64-bit address of the destination.
+	 * @param data Byte array containing the data to be sent.
+	 * 
+	 * @throws InterfaceNotOpenException if the gateway is not open or
+	 *                                   if none of the local devices is open.
+	 * @throws NullPointerException if {@code address == null} or
+	 *                              if {@code data == null}.
+	 * @throws XBeeException if there is any other XBee related exception.
+	 * 
+	 * @see #getPendingSends(XBeeDevice)
+	 * @see #getRoute(XBee64BitAddress)
+	 * @see #sendData(XBee64BitAddress, byte[])
+	 */
+	public void sendDataAsync(XBee64BitAddress address, byte[] data) throws XBeeException {
+		send(address, data, true);
+	}
+	
+	/**
+	 * Discovers all the remote devices reachable by any of the local devices
+	 * of the gateway, running all the discoveries in parallel.
+	 * 
+	 * @return A map with the list of discovered remote devices of each local
+	 *         device.
+	 * 
+	 * @throws InterfaceNotOpenException if any of the local devices is not
+	 *                                   open.
+	 * @throws XBeeException if there is an error discovering the devices.
+	 * 
+	 * @see FleetDiscovery
+	 */
+	public Map<XBeeDevice, List<RemoteXBeeDevice>> discoverDevices() throws XBeeException {
+		return new FleetDiscovery(localDevices).discoverDevices();
+	}
+	
+	/**
+	 * Adds the provided listener to the list of listeners to be notified
+	 * when any of the local devices receives data.
+	 * 
+	 * <p>If the listener has been already included this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified when new data is received.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}
+	 * 
+	 * @see #removeDataListener(IDataReceiveListener)
+	 */
+	public void addDataListener(IDataReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (dataListeners) {
+			if (!dataListeners.contains(listener))
+				dataListeners.add(listener);
+		}
+	}
+	
+	/**
+	 * Removes the provided listener from the list of data listeners.
+	 * 
+	 * <p>If the listener was not in the list this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be removed from the list of listeners.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}
+	 * 
+	 * @see #addDataListener(IDataReceiveListener)
+	 */
+	public void removeDataListener(IDataReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (dataListeners) {
+			if (dataListeners.contains(listener))
+				dataListeners.remove(listener);
+		}
+	}
+	
+	/**
+	 * Adds the provided listener to the list of listeners to be notified
+	 * when any of the local devices receives an IO sample.
+	 * 
+	 * <p>If the listener has been already included this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified when new IO samples are received.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}
+	 * 
+	 * @see #removeIOSampleListener(IIOSampleReceiveListener)
+	 */
+	public void addIOSampleListener(IIOSampleReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (ioSampleListeners) {
+			if (!ioSampleListeners.contains(listener))
+				ioSampleListeners.add(listener);
+		}
+	}
+	
+	/**
+	 * Removes the provided listener from the list of IO sample listeners.
+	 * 
+	 * <p>If the listener was not in the list this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be removed from the list of listeners.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}
+	 * 
+	 * @see #addIOSampleListener(IIOSampleReceiveListener)
+	 */
+	public void removeIOSampleListener(IIOSampleReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (ioSampleListeners) {
+			if (ioSampleListeners.contains(listener))
+				ioSampleListeners.remove(listener);
+		}
+	}
+	
+	/**
+	 * Sends the provided data through the most suitable local device.
+	 * 
+	 * @param address The 64-bit address of the destination.
+	 * @param data Byte array containing the data to be sent.
+	 * @param async {@code true} to send the data asynchronously,
+	 *              {@code false} otherwise.
+	 * 
+	 * @throws XBeeException if there is any error sending the data.
+	 */
+	private void send(XBee64BitAddress address, byte[] data, boolean async) throws XBeeException {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		
+		XBeeDevice device = getRoute(address);
+		RemoteXBeeDevice remote = device.getNetwork().getDevice(address);
+		if (remote == null)
+			remote = new RemoteXBeeDevice(device, address);
+		
+		if (async) {
+			sendAsync(device, remote, data);
+			return;
+		}
+		
+		// The synchronous send blocks until the transmit status is received 
+		// or the receive timeout expires.
+		AtomicInteger pending = pendingSends.get(device);
+		pending.incrementAndGet();
+		try {
+			device.sendData(remote, data);
+		} finally {
+			pending.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * Sends the provided data asynchronously through the given local device.
+	 * 
+	 * <p>The transmission counts as pending until its transmit status is 
+	 * received or the receive timeout of the local device expires.</p>
+	 * 
+	 * @param device The local device to send the data through.
+	 * @param remote The remote device that will receive the data.
+	 * @param data Byte array containing the data to be sent.
+	 * 
+	 * @throws InterfaceNotOpenException if the gateway is not open.
+	 * @throws XBeeException if there is any error sending the data.
+	 */
+	private void sendAsync(final XBeeDevice device, RemoteXBeeDevice remote, byte[] data) throws XBeeException {
+		ScheduledExecutorService timer = getTimer();
+		if (timer == null)
+			throw new InterfaceNotOpenException();
+		
+		final AtomicInteger pending = pendingSends.get(device);
+		final AtomicBoolean finished = new AtomicBoolean();
+		
+		// The data reader removes this listener once the transmit status with 
+		// the frame ID of the packet is received.
+		final IPacketReceiveListener statusListener = new IPacketReceiveListener() {
+			@Override
+			public void packetReceived(XBeePacket receivedPacket) {
+				if (finished.compareAndSet(false, true))
+					pending.decrementAndGet();
+			}
+		};
+		
+		pending.incrementAndGet();
+		try {
+			device.sendPacket(createTransmitPacket(device, remote, data), statusListener);
+		} catch (XBeeException e) {
+			statusListener.packetReceived(null);
+			throw e;
+		} catch (RuntimeException e) {
+			statusListener.packetReceived(null);
+			throw e;
+		}
+		
+		// Free the transmission if its transmit status never arrives.
+		timer.schedule(new Runnable() {
+			@Override
+			public void run() {
+				if (finished.compareAndSet(false, true)) {
+					pending.decrementAndGet();
+					device.removePacketListener(statusListener);
+				}
+			}
+		}, device.getReceiveTimeout(), TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Creates the transmit packet to send the given data to the given remote 
+	 * device through the given local device.
+	 * 
+	 * @param device The local device to send the data through.
+	 * @param remote The remote device that will receive the data.
+	 * @param data Byte array containing the data to be sent.
+	 * 
+	 * @return The transmit packet, with a frame ID so its transmit status is 
+	 *         received.
+	 */
+	private static XBeePacket createTransmitPacket(XBeeDevice device, RemoteXBeeDevice remote, byte[] data) {
+		if (device.getXBeeProtocol() == XBeeProtocol.RAW_802_15_4)
+			return new TX64Packet(device.getNextFrameID(), remote.get64BitAddress(), XBeeTransmitOptions.NONE, data);
+		
+		XBee16BitAddress address16 = remote.get16BitAddress();
+		if (address16 == null)
+			address16 = XBee16BitAddress.UNKNOWN_ADDRESS;
+		return new TransmitPacket(device.getNextFrameID(), remote.get64BitAddress(), address16, 0, XBeeTransmitOptions.NONE, data);
+	}
+	
+	/**
+	 * Removes the gateway listeners from the given local device and closes it.
+	 * 
+	 * @param device The local device to close.
+	 */
+	private void closeDevice(XBeeDevice device) {
+		device.removeDataListener(dataForwarder);
+		device.removeIOSampleListener(ioSampleForwarder);
+		device.close();
+		device.setListenerExecutor(null);
+	}
+	
+	/**
+	 * Stops the shared listener executor and timer.
+	 */
+	private void shutdownExecutors() {
+		if (timer != null)
+			timer.shutdownNow();
+		if (listenerExecutor != null)
+			listenerExecutor.shutdown();
+		timer = null;
+		listenerExecutor = null;
+	}
+	
+	/**
+	 * Returns a copy of the given listener list.
+	 * 
+	 * @param listeners The list of listeners to copy.
+	 * 
+	 * @return A copy of the list.
+	 */
+	private static <T> List<T> copy(List<T> listeners) {
+		synchronized (listeners) {
+			return new ArrayList<T>(listeners);
+		}
+	}
+	
+	/**
+	 * Creates a local XBee device for each of the given serial ports.
+	 * 
+	 * @param ports Serial port names where the XBee devices are attached to.
+	 * @param baudRate Serial port baud rate to communicate with the devices.
+	 * 
+	 * @return The list of local XBee devices.
+	 */
+	private static List<XBeeDevice> createDevices(String[] ports, int baudRate) {
+		if (ports == null)
+			throw new NullPointerException("List of ports cannot be null.");
+		
+		List<XBeeDevice> devices = new ArrayList<XBeeDevice>(ports.length);
+		for (String port : ports)
+			devices.add(new XBeeDevice(port, baudRate));
+		return devices;
+	}
+}
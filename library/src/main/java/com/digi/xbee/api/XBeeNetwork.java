@@ -17,9 +17,15 @@ package com.digi.xbee.api;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
@@ -29,6 +35,10 @@ import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
 import com.digi.xbee.api.exceptions.OperationNotSupportedException;
 import com.digi.xbee.api.exceptions.TimeoutException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.io.IODeadbandFilter;
+import com.digi.xbee.api.io.IOSampleStore;
+import com.digi.xbee.api.io.IOStateCache;
+import com.digi.xbee.api.listeners.IDeviceEvictionListener;
 import com.digi.xbee.api.listeners.IDiscoveryListener;
 import com.digi.xbee.api.models.DiscoveryOptions;
 import com.digi.xbee.api.models.XBee16BitAddress;
@@ -44,6 +54,10 @@ import com.digi.xbee.api.utils.ByteUtils;
  */
 public class XBeeNetwork {
 	
+	// Constants.
+	private static final char WILDCARD_ANY = '*';
+	private static final char WILDCARD_ONE = '?';
+	
 	// Variables.
 
 	private XBeeDevice localDevice;
@@ -51,7 +65,27 @@ public class XBeeNetwork {
 	private Map<XBee64BitAddress, RemoteXBeeDevice> remotesBy64BitAddr;
 	private Map<XBee16BitAddress, RemoteXBeeDevice> remotesBy16BitAddr;
 	
+	// Node identifier index. Node identifiers are not unique, so each one maps 
+	// to the set of devices using it. The reverse map stores the identifier 
+	// each device of the network is indexed with (it may be null).
+	private TreeMap<String, Set<RemoteXBeeDevice>> remotesByNodeID = new TreeMap<String, Set<RemoteXBeeDevice>>();
+	private Map<RemoteXBeeDevice, String> indexedNodeIDs = new HashMap<RemoteXBeeDevice, String>();
+	
+	// Last time (in milliseconds) each device of the network was heard. The 
+	// map is access ordered, so the first entry is always the least recently 
+	// heard device.
+	private LinkedHashMap<RemoteXBeeDevice, Long> lastHeardTimes = new LinkedHashMap<RemoteXBeeDevice, Long>(16, 0.75f, true);
+	
+	// Lock held while a device is stored in or removed from the address 
+	// maps together with its node identifier index and last heard time, so 
+	// they always describe the same devices.
+	private final Object devicesLock = new Object();
+	
+	private int maxDevices = 0;
+	private long deviceTimeToLive = 0;
+	
 	private List<IDiscoveryListener> discoveryListeners = new ArrayList<IDiscoveryListener>();
+	private List<IDeviceEvictionListener> evictionListeners = new ArrayList<IDeviceEvictionListener>();
 	
 	private NodeDiscovery nodeDiscovery;
 	
@@ -137,6 +171,7 @@ public class XBeeNetwork {
 	 * @throws XBeeException if there is an error discovering the devices.
 	 * 
 	 * @see #discoverDevice(String)
+	 * @see #discoverDevices(List, boolean)
 	 * @see RemoteXBeeDevice
 	 */
 	public List<RemoteXBeeDevice> discoverDevices(List<String> ids) throws XBeeException {
@@ -150,6 +185,50 @@ public class XBeeNetwork {
 		return nodeDiscovery.discoverDevices(ids);
 	}
 	
+	/**
+	 * Discovers and reports the remote XBee devices that match the supplied 
+	 * identifiers.
+	 * 
+	 * <p>Matching devices are added to the network as soon as they answer. 
+	 * If {@code stopWhenFound} is {@code true} this method returns as soon as 
+	 * a device has been found for every identifier (802.15.4 devices always 
+	 * wait for the end of the scan), otherwise it blocks until the configured 
+	 * timeout expires and reports all the devices sharing the given 
+	 * identifiers. To configure the discovery timeout, use the method 
+	 * {@link #setDiscoveryTimeout(long)}.</p>
+	 * 
+	 * <p>To configure the discovery options, use the 
+	 * {@link #setDiscoveryOptions(Set)} method.</p> 
+	 * 
+	 * @param ids List which contains the identifiers of the devices to be 
+	 *            discovered.
+	 * @param stopWhenFound {@code true} to finish the discovery once all the 
+	 *                      identifiers have been found, {@code false} to wait 
+	 *                      for the whole discovery timeout.
+	 * 
+	 * @return A list of the discovered remote XBee devices with the given 
+	 *         identifiers.
+	 * 
+	 * @throws IllegalArgumentException if {@code ids.size() == 0}.
+	 * @throws InterfaceNotOpenException if the device is not open.
+	 * @throws NullPointerException if {@code ids == null}.
+	 * @throws XBeeException if there is an error discovering the devices.
+	 * 
+	 * @see #discoverDevice(String)
+	 * @see #discoverDevices(List)
+	 * @see RemoteXBeeDevice
+	 */
+	public List<RemoteXBeeDevice> discoverDevices(List<String> ids, boolean stopWhenFound) throws XBeeException {
+		if (ids == null)
+			throw new NullPointerException("List of device identifiers cannot be null.");
+		if (ids.size() == 0)
+			throw new IllegalArgumentException("List of device identifiers cannot be empty.");
+		
+		logger.debug("{}Discovering all '{}' devices.", localDevice.toString(), ids.toString());
+		
+		return nodeDiscovery.discoverDevices(ids, stopWhenFound);
+	}
+	
 	/**
 	 * Adds the given discovery listener to the list of listeners to be notified 
 	 * when the discovery process is running.
@@ -278,6 +357,7 @@ public class XBeeNetwork {
 			throw new IllegalArgumentException("Timeout must be bigger than 0.");
 		
 		localDevice.setParameter("NT", ByteUtils.longToByteArray(timeout / 100));
+		nodeDiscovery.clearTimeoutCache();
 	}
 	
 	/**
@@ -313,6 +393,8 @@ public class XBeeNetwork {
 	 * @see RemoteXBeeDevice
 	 */
 	public List<RemoteXBeeDevice> getDevices() {
+		purgeExpiredDevices();
+		
 		List<RemoteXBeeDevice> nodes = new ArrayList<RemoteXBeeDevice>();
 		nodes.addAll(remotesBy64BitAddr.values());
 		nodes.addAll(remotesBy16BitAddr.values());
@@ -342,20 +424,12 @@ public class XBeeNetwork {
 		if (id.length() == 0)
 			throw new IllegalArgumentException("Device identifier cannot be an empty string.");
 		
-		List<RemoteXBeeDevice> devices = new ArrayList<RemoteXBeeDevice>();
-		
-		// Look in the 64-bit map.
-		for (RemoteXBeeDevice remote : remotesBy64BitAddr.values()) {
-			if (id.equals(remote.getNodeID()))
-				devices.add(remote);
-		}
-		// Look in the 16-bit map.
-		for (RemoteXBeeDevice remote : remotesBy16BitAddr.values()) {
-			if (id.equals(remote.getNodeID()))
-				devices.add(remote);
+		synchronized (remotesByNodeID) {
+			Set<RemoteXBeeDevice> devices = remotesByNodeID.get(id);
+			if (devices == null)
+				return new ArrayList<RemoteXBeeDevice>(0);
+			return new ArrayList<RemoteXBeeDevice>(devices);
 		}
-		// Return the list.
-		return devices;
 	}
 	
 	/**
@@ -383,18 +457,102 @@ public class XBeeNetwork {
 		if (id.length() == 0)
 			throw new IllegalArgumentException("Device identifier cannot be an empty string.");
 		
-		// Look in the 64-bit map.
-		for (RemoteXBeeDevice remote : remotesBy64BitAddr.values()) {
-			if (id.equals(remote.getNodeID()))
-				return remote;
+		synchronized (remotesByNodeID) {
+			Set<RemoteXBeeDevice> devices = remotesByNodeID.get(id);
+			// The given ID is not in the network.
+			if (devices == null)
+				return null;
+			return devices.iterator().next();
 		}
-		// Look in the 16-bit map.
-		for (RemoteXBeeDevice remote : remotesBy16BitAddr.values()) {
-			if (id.equals(remote.getNodeID()))
-				return remote;
+	}
+	
+	/**
+	 * Returns all remote devices whose node identifier starts with the 
+	 * supplied prefix.
+	 * 
+	 * <p>Note that this method <b>does not perform a discovery</b>, only 
+	 * returns the devices that have been previously discovered.</p>
+	 * 
+	 * <p>The devices are returned sorted by node identifier.</p>
+	 * 
+	 * @param prefix The node identifier prefix of the devices to be retrieved.
+	 * 
+	 * @return A list of the remote XBee devices contained in the network whose 
+	 *         node identifier starts with the given prefix.
+	 * 
+	 * @throws IllegalArgumentException if {@code prefix.length() == 0}.
+	 * @throws NullPointerException if {@code prefix == null}.
+	 * 
+	 * @see #getDevices(String)
+	 * @see #getDevicesMatching(String)
+	 * @see RemoteXBeeDevice
+	 */
+	public List<RemoteXBeeDevice> getDevicesByPrefix(String prefix) {
+		if (prefix == null)
+			throw new NullPointerException("Node identifier prefix cannot be null.");
+		if (prefix.length() == 0)
+			throw new IllegalArgumentException("Node identifier prefix cannot be an empty string.");
+		
+		List<RemoteXBeeDevice> devices = new ArrayList<RemoteXBeeDevice>();
+		synchronized (remotesByNodeID) {
+			for (Set<RemoteXBeeDevice> remotes : getNodeIDsWithPrefix(prefix).values())
+				devices.addAll(remotes);
 		}
-		// The given ID is not in the network.
-		return null;
+		return devices;
+	}
+	
+	/**
+	 * Returns all remote devices whose node identifier matches the supplied 
+	 * wildcard pattern.
+	 * 
+	 * <p>The pattern may contain the {@code '*'} wildcard, which matches any 
+	 * sequence of characters (including none), and the {@code '?'} wildcard, 
+	 * which matches exactly one character. For example, {@code "SITE1-*-PUMP?"} 
+	 * matches the pumps of every line of the site 1.</p>
+	 * 
+	 * <p>Note that this method <b>does not perform a discovery</b>, only 
+	 * returns the devices that have been previously discovered.</p>
+	 * 
+	 * <p>The devices are returned sorted by node identifier.</p>
+	 * 
+	 * @param pattern The node identifier pattern of the devices to be 
+	 *                retrieved.
+	 * 
+	 * @return A list of the remote XBee devices contained in the network whose 
+	 *         node identifier matches the given pattern.
+	 * 
+	 * @throws IllegalArgumentException if {@code pattern.length() == 0}.
+	 * @throws NullPointerException if {@code pattern == null}.
+	 * 
+	 * @see #getDevices(String)
+	 * @see #getDevicesByPrefix(String)
+	 * @see RemoteXBeeDevice
+	 */
+	public List<RemoteXBeeDevice> getDevicesMatching(String pattern) {
+		if (pattern == null)
+			throw new NullPointerException("Node identifier pattern cannot be null.");
+		if (pattern.length() == 0)
+			throw new IllegalArgumentException("Node identifier pattern cannot be an empty string.");
+		
+		// Only the node identifiers starting with the literal part of the 
+		// pattern are candidates, so narrow the search to them.
+		int literalLength = 0;
+		while (literalLength < pattern.length() 
+				&& pattern.charAt(literalLength) != WILDCARD_ANY 
+				&& pattern.charAt(literalLength) != WILDCARD_ONE)
+			literalLength++;
+		String literal = pattern.substring(0, literalLength);
+		
+		List<RemoteXBeeDevice> devices = new ArrayList<RemoteXBeeDevice>();
+		synchronized (remotesByNodeID) {
+			NavigableMap<String, Set<RemoteXBeeDevice>> candidates = literal.length() == 0 ? 
+					remotesByNodeID : getNodeIDsWithPrefix(literal);
+			for (Map.Entry<String, Set<RemoteXBeeDevice>> entry : candidates.entrySet()) {
+				if (matchesPattern(entry.getKey(), literalLength, pattern, literalLength))
+					devices.addAll(entry.getValue());
+			}
+		}
+		return devices;
 	}
 	
 	/**
@@ -508,6 +666,33 @@ public class XBeeNetwork {
 		
 		logger.debug("{}Adding device '{}' to network.", localDevice.toString(), remoteDevice.toString());
 		
+		RemoteXBeeDevice devInNetwork;
+		synchronized (devicesLock) {
+			devInNetwork = putRemoteDevice(remoteDevice);
+			if (devInNetwork == null)
+				return null;
+			indexNodeID(devInNetwork);
+			synchronized (lastHeardTimes) {
+				lastHeardTimes.put(devInNetwork, System.currentTimeMillis());
+			}
+		}
+		evictDevices(null);
+		
+		return devInNetwork;
+	}
+	
+	/**
+	 * Stores the given remote device in the corresponding address map or 
+	 * updates the existing reference with its data.
+	 * 
+	 * @param remoteDevice The remote device to be stored.
+	 * 
+	 * @return The remote XBee Device instance in the network, {@code null} if
+	 *         the device could not be successfully stored.
+	 * 
+	 * @see #addRemoteDevice(RemoteXBeeDevice)
+	 */
+	private RemoteXBeeDevice putRemoteDevice(RemoteXBeeDevice remoteDevice) {
 		RemoteXBeeDevice devInNetwork = null;
 		XBee64BitAddress addr64 = remoteDevice.get64BitAddress();
 		XBee16BitAddress addr16 = get16BitAddress(remoteDevice);
@@ -659,6 +844,22 @@ public class XBeeNetwork {
 		if (remoteDevice == null)
 			throw new NullPointerException("Remote device cannot be null.");
 		
+		synchronized (devicesLock) {
+			removeDevice(remoteDevice);
+		}
+	}
+	
+	/**
+	 * Removes the given remote device from the address maps, the node 
+	 * identifier index and the last heard times.
+	 * 
+	 * <p>The caller must hold the lock of the devices.</p>
+	 * 
+	 * @param remoteDevice The remote device to be removed from the network.
+	 * 
+	 * @see #removeRemoteDevice(RemoteXBeeDevice)
+	 */
+	private void removeDevice(RemoteXBeeDevice remoteDevice) {
 		RemoteXBeeDevice devInNetwork = null;
 		
 		// Look in the 64-bit map.
@@ -668,7 +869,7 @@ public class XBeeNetwork {
 			
 			// Remove the device.
 			if (devInNetwork != null) {
-				remotesBy64BitAddr.remove(addr64);
+				deviceRemoved(remotesBy64BitAddr.remove(addr64));
 				return;
 			}
 		}
@@ -687,7 +888,7 @@ public class XBeeNetwork {
 			for (RemoteXBeeDevice d: devices) {
 				XBee16BitAddress a = get16BitAddress(d);
 				if (a != null && a.equals(addr16)) {
-					remotesBy64BitAddr.remove(d.get64BitAddress());
+					deviceRemoved(remotesBy64BitAddr.remove(d.get64BitAddress()));
 					return;
 				}
 			}
@@ -697,7 +898,7 @@ public class XBeeNetwork {
 			
 			// Remove the device.
 			if (devInNetwork != null) {
-				remotesBy16BitAddr.remove(addr16);
+				deviceRemoved(remotesBy16BitAddr.remove(addr16));
 				return;
 			}
 		}
@@ -723,8 +924,17 @@ public class XBeeNetwork {
 	 */
 	public void clearDeviceList() {
 		logger.debug("{}Clearing the network.", localDevice.toString());
-		remotesBy64BitAddr.clear();
-		remotesBy16BitAddr.clear();
+		synchronized (devicesLock) {
+			remotesBy64BitAddr.clear();
+			remotesBy16BitAddr.clear();
+			synchronized (remotesByNodeID) {
+				remotesByNodeID.clear();
+				indexedNodeIDs.clear();
+			}
+			synchronized (lastHeardTimes) {
+				lastHeardTimes.clear();
+			}
+		}
 	}
 	
 	/**
@@ -733,9 +943,439 @@ public class XBeeNetwork {
 	 * @return The number of devices already discovered in this network.
 	 */
 	public int getNumberOfDevices() {
+		purgeExpiredDevices();
+		
 		return remotesBy64BitAddr.size() + remotesBy16BitAddr.size();
 	}
 	
+	/**
+	 * Configures the maximum number of remote devices this network can 
+	 * contain.
+	 * 
+	 * <p>When a new device is added to a full network, the least recently 
+	 * heard device is evicted and the registered eviction listeners are 
+	 * notified. If the network already contains more devices than the new 
+	 * maximum, the least recently heard ones are evicted immediately.</p>
+	 * 
+	 * <p>The IO samples, delivered IO values and cached IO state the local 
+	 * device keeps for an evicted device are removed as well.</p>
+	 * 
+	 * <p>By default there is no limit.</p>
+	 * 
+	 * @param maxDevices The maximum number of devices, {@code 0} for no limit.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxDevices < 0}.
+	 * 
+	 * @see #addEvictionListener(IDeviceEvictionListener)
+	 * @see #getMaximumNumberOfDevices()
+	 * @see #setDeviceTimeToLive(long)
+	 */
+	public void setMaximumNumberOfDevices(int maxDevices) {
+		if (maxDevices < 0)
+			throw new IllegalArgumentException("Maximum number of devices cannot be negative.");
+		
+		this.maxDevices = maxDevices;
+		evictDevices(null);
+	}
+	
+	/**
+	 * Returns the maximum number of remote devices this network can contain.
+	 * 
+	 * @return The maximum number of devices, {@code 0} if there is no limit.
+	 * 
+	 * @see #setMaximumNumberOfDevices(int)
+	 */
+	public int getMaximumNumberOfDevices() {
+		return maxDevices;
+	}
+	
+	/**
+	 * Configures the time, in milliseconds, a remote device remains in this 
+	 * network without being heard.
+	 * 
+	 * <p>A device is heard every time it is added to the network (for 
+	 * example, when it is discovered) and every time a packet sent by it is 
+	 * received. Devices not heard within this time are evicted and the 
+	 * registered eviction listeners are notified.</p>
+	 * 
+	 * <p>Expired devices are evicted when the network is modified, when a 
+	 * device is heard, and when the list or the number of devices is 
+	 * requested. Use {@link #purgeExpiredDevices()} to force it.</p>
+	 * 
+	 * <p>By default devices never expire.</p>
+	 * 
+	 * @param timeToLive The time to live of the devices in milliseconds, 
+	 *                   {@code 0} to never expire them.
+	 * 
+	 * @throws IllegalArgumentException if {@code timeToLive < 0}.
+	 * 
+	 * @see #addEvictionListener(IDeviceEvictionListener)
+	 * @see #getDeviceTimeToLive()
+	 * @see #setMaximumNumberOfDevices(int)
+	 */
+	public void setDeviceTimeToLive(long timeToLive) {
+		if (timeToLive < 0)
+			throw new IllegalArgumentException("Time to live cannot be negative.");
+		
+		this.deviceTimeToLive = timeToLive;
+		evictDevices(null);
+	}
+	
+	/**
+	 * Returns the time, in milliseconds, a remote device remains in this 
+	 * network without being heard.
+	 * 
+	 * @return The time to live of the devices in milliseconds, {@code 0} if 
+	 *         they never expire.
+	 * 
+	 * @see #setDeviceTimeToLive(long)
+	 */
+	public long getDeviceTimeToLive() {
+		return deviceTimeToLive;
+	}
+	
+	/**
+	 * Returns the last time the given remote device was heard.
+	 * 
+	 * @param remoteDevice The remote device to get its last heard time.
+	 * 
+	 * @return The last time the device was heard, in milliseconds since the 
+	 *         epoch, or {@code -1} if the device is not in the network.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 * 
+	 * @see #updateLastHeardTime(RemoteXBeeDevice)
+	 */
+	public long getLastHeardTime(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote device cannot be null.");
+		
+		synchronized (lastHeardTimes) {
+			// Do not use 'get', it would change the order of the map.
+			for (Map.Entry<RemoteXBeeDevice, Long> entry : lastHeardTimes.entrySet()) {
+				if (entry.getKey() == remoteDevice)
+					return entry.getValue();
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Records that the given remote device of the network has just been 
+	 * heard.
+	 * 
+	 * <p><b>This is only for internal use.</b></p>
+	 * 
+	 * <p>If the device is not in the network, this method does nothing 
+	 * apart from evicting expired devices.</p>
+	 * 
+	 * @param remoteDevice The remote device that has been heard.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 * 
+	 * @see #getLastHeardTime(RemoteXBeeDevice)
+	 */
+	public void updateLastHeardTime(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote device cannot be null.");
+		
+		evictDevices(remoteDevice);
+	}
+	
+	/**
+	 * Evicts the remote devices that have not been heard within the 
+	 * configured time to live.
+	 * 
+	 * @see #setDeviceTimeToLive(long)
+	 */
+	public void purgeExpiredDevices() {
+		if (deviceTimeToLive > 0)
+			evictDevices(null);
+	}
+	
+	/**
+	 * Adds the given eviction listener to the list of listeners to be notified 
+	 * when a remote device is evicted from the network.
+	 * 
+	 * <p>If the listener has already been included, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Listener to be notified when a device is evicted.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see com.digi.xbee.api.listeners.IDeviceEvictionListener
+	 * @see #removeEvictionListener(IDeviceEvictionListener)
+	 */
+	public void addEvictionListener(IDeviceEvictionListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (evictionListeners) {
+			if (!evictionListeners.contains(listener))
+				evictionListeners.add(listener);
+		}
+	}
+	
+	/**
+	 * Removes the given eviction listener from the list of eviction listeners.
+	 * 
+	 * <p>If the listener is not included in the list, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Eviction listener to remove.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see com.digi.xbee.api.listeners.IDeviceEvictionListener
+	 * @see #addEvictionListener(IDeviceEvictionListener)
+	 */
+	public void removeEvictionListener(IDeviceEvictionListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (evictionListeners) {
+			if (evictionListeners.contains(listener))
+				evictionListeners.remove(listener);
+		}
+	}
+	
+	/**
+	 * Refreshes the last heard time of the given device, if any, and evicts 
+	 * the expired devices and the least recently heard ones exceeding the 
+	 * maximum number of devices.
+	 * 
+	 * @param heardDevice The device that has just been heard, {@code null} to 
+	 *                    only evict devices. It is only refreshed when it is 
+	 *                    still in the network.
+	 */
+	private void evictDevices(RemoteXBeeDevice heardDevice) {
+		List<RemoteXBeeDevice> expired = null;
+		List<RemoteXBeeDevice> overflow = null;
+		
+		synchronized (lastHeardTimes) {
+			long now = System.currentTimeMillis();
+			if (heardDevice != null && lastHeardTimes.containsKey(heardDevice))
+				lastHeardTimes.put(heardDevice, now);
+			
+			// As the map is access ordered, stop at the first device that 
+			// has not expired.
+			Iterator<Map.Entry<RemoteXBeeDevice, Long>> it = lastHeardTimes.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<RemoteXBeeDevice, Long> entry = it.next();
+				boolean isExpired = deviceTimeToLive > 0 && now - entry.getValue() > deviceTimeToLive;
+				boolean isOverflow = !isExpired && maxDevices > 0 && lastHeardTimes.size() > maxDevices;
+				if (!isExpired && !isOverflow)
+					break;
+				
+				it.remove();
+				if (isExpired) {
+					if (expired == null)
+						expired = new ArrayList<RemoteXBeeDevice>();
+					expired.add(entry.getKey());
+				} else {
+					if (overflow == null)
+						overflow = new ArrayList<RemoteXBeeDevice>();
+					overflow.add(entry.getKey());
+				}
+			}
+		}
+		
+		if (expired != null) {
+			for (RemoteXBeeDevice device : expired)
+				evictDevice(device, true);
+		}
+		if (overflow != null) {
+			for (RemoteXBeeDevice device : overflow)
+				evictDevice(device, false);
+		}
+	}
+	
+	/**
+	 * Removes the given device from the network and notifies the eviction 
+	 * listeners.
+	 * 
+	 * @param device The device to evict.
+	 * @param expired {@code true} if the device has expired, {@code false} if 
+	 *                it has been evicted to make room for others.
+	 */
+	private void evictDevice(RemoteXBeeDevice device, boolean expired) {
+		logger.debug("{}Evicting {} device '{}' from network.", localDevice.toString(), 
+				expired ? "expired" : "least recently heard", device.toString());
+		
+		removeRemoteDevice(device);
+		removeIOState(device);
+		
+		synchronized (evictionListeners) {
+			for (IDeviceEvictionListener listener : evictionListeners)
+				listener.deviceEvicted(device, expired);
+		}
+	}
+	
+	/**
+	 * Removes the IO samples, the delivered IO values and the cached IO 
+	 * state kept by the local device for the given remote device.
+	 * 
+	 * @param device The evicted remote device.
+	 * 
+	 * @see XBeeDevice#getIOSampleStore()
+	 * @see XBeeDevice#getIODeadbandFilter()
+	 * @see XBeeDevice#getIOStateCache()
+	 */
+	private void removeIOState(RemoteXBeeDevice device) {
+		IOSampleStore ioSampleStore = localDevice.getIOSampleStore();
+		if (ioSampleStore != null)
+			ioSampleStore.remove(device);
+		IODeadbandFilter ioDeadbandFilter = localDevice.getIODeadbandFilter();
+		if (ioDeadbandFilter != null)
+			ioDeadbandFilter.reset(device);
+		IOStateCache ioStateCache = localDevice.getIOStateCache();
+		if (ioStateCache != null)
+			ioStateCache.remove(device);
+	}
+	
+	/**
+	 * Updates the node identifier index and the last heard times after the 
+	 * given device has been removed from the address maps.
+	 * 
+	 * @param device The removed remote device. It may be {@code null}.
+	 */
+	private void deviceRemoved(RemoteXBeeDevice device) {
+		if (device == null)
+			return;
+		
+		unindexNodeID(device);
+		synchronized (lastHeardTimes) {
+			lastHeardTimes.remove(device);
+		}
+	}
+	
+	/**
+	 * Updates the node identifier index after the node identifier of the 
+	 * given remote device has changed.
+	 * 
+	 * <p>If the device is not contained in this network, this method does 
+	 * nothing.</p>
+	 * 
+	 * @param device The remote device whose node identifier has changed.
+	 */
+	void nodeIDChanged(RemoteXBeeDevice device) {
+		synchronized (remotesByNodeID) {
+			if (indexedNodeIDs.containsKey(device))
+				indexNodeID(device);
+		}
+	}
+	
+	/**
+	 * Indexes the given remote device with its current node identifier, 
+	 * removing it from the entry of its previous one, if any.
+	 * 
+	 * @param device The remote device to index.
+	 */
+	private void indexNodeID(RemoteXBeeDevice device) {
+		String nodeID = device.getNodeID();
+		if (nodeID != null && nodeID.length() == 0)
+			nodeID = null;
+		
+		synchronized (remotesByNodeID) {
+			if (indexedNodeIDs.containsKey(device)) {
+				String oldNodeID = indexedNodeIDs.get(device);
+				if (nodeID == null ? oldNodeID == null : nodeID.equals(oldNodeID))
+					return;
+				unindexNodeID(device);
+			}
+			
+			indexedNodeIDs.put(device, nodeID);
+			if (nodeID == null)
+				return;
+			
+			Set<RemoteXBeeDevice> devices = remotesByNodeID.get(nodeID);
+			if (devices == null) {
+				devices = new LinkedHashSet<RemoteXBeeDevice>();
+				remotesByNodeID.put(nodeID, devices);
+			}
+			devices.add(device);
+		}
+	}
+	
+	/**
+	 * Removes the given remote device from the node identifier index.
+	 * 
+	 * @param device The remote device to remove from the index. It may be 
+	 *               {@code null}.
+	 */
+	private void unindexNodeID(RemoteXBeeDevice device) {
+		if (device == null)
+			return;
+		
+		synchronized (remotesByNodeID) {
+			if (!indexedNodeIDs.containsKey(device))
+				return;
+			String nodeID = indexedNodeIDs.remove(device);
+			if (nodeID == null)
+				return;
+			
+			Set<RemoteXBeeDevice> devices = remotesByNodeID.get(nodeID);
+			if (devices == null)
+				return;
+			devices.remove(device);
+			if (devices.isEmpty())
+				remotesByNodeID.remove(nodeID);
+		}
+	}
+	
+	/**
+	 * Returns the view of the node identifier index containing the node 
+	 * identifiers that start with the given prefix.
+	 * 
+	 * <p>The caller must hold the lock of the index.</p>
+	 * 
+	 * @param prefix The node identifier prefix.
+	 * 
+	 * @return The sorted view of the matching index entries.
+	 */
+	private NavigableMap<String, Set<RemoteXBeeDevice>> getNodeIDsWithPrefix(String prefix) {
+		return remotesByNodeID.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+	}
+	
+	/**
+	 * Returns whether the given node identifier matches the given wildcard 
+	 * pattern, starting from the provided positions.
+	 * 
+	 * @param nodeID The node identifier to check.
+	 * @param i Position in the node identifier to start from.
+	 * @param pattern The wildcard pattern.
+	 * @param j Position in the pattern to start from.
+	 * 
+	 * @return {@code true} if the node identifier matches the pattern, 
+	 *         {@code false} otherwise.
+	 */
+	private static boolean matchesPattern(String nodeID, int i, String pattern, int j) {
+		// Position of the last '*' found and of the node identifier character 
+		// it is currently matching up to, used to backtrack.
+		int starIndex = -1;
+		int starMatch = 0;
+		
+		while (i < nodeID.length()) {
+			if (j < pattern.length() 
+					&& (pattern.charAt(j) == WILDCARD_ONE || pattern.charAt(j) == nodeID.charAt(i))) {
+				i++;
+				j++;
+			} else if (j < pattern.length() && pattern.charAt(j) == WILDCARD_ANY) {
+				starIndex = j++;
+				starMatch = i;
+			} else if (starIndex != -1) {
+				j = starIndex + 1;
+				i = ++starMatch;
+			} else {
+				return false;
+			}
+		}
+		while (j < pattern.length() && pattern.charAt(j) == WILDCARD_ANY)
+			j++;
+		return j == pattern.length();
+	}
+	
 	/**
 	 * Retrieves the 16-bit address of the given remote device.
 	 * 
@@ -0,0 +1,783 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
+import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
+import com.digi.xbee.api.listeners.IIPDataReceiveListener;
+import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
+import com.digi.xbee.api.listeners.IPublisher;
+import com.digi.xbee.api.listeners.ISMSReceiveListener;
+import com.digi.xbee.api.listeners.ISubscriber;
+import com.digi.xbee.api.listeners.ISubscription;
+import com.digi.xbee.api.models.ExplicitXBeeMessage;
+import com.digi.xbee.api.models.IOSampleMessage;
+import com.digi.xbee.api.models.IPMessage;
+import com.digi.xbee.api.models.ModemStatusEvent;
+import com.digi.xbee.api.models.OverflowStrategy;
+import com.digi.xbee.api.models.SMSMessage;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.utils.ThreadUtils;
+
+/**
+ * Publisher of the items received by a local XBee device.
+ * 
+ * <p>Each subscriber has its own buffer and only receives items as fast as
+ * it requests them. When a subscriber does not keep up and its buffer is
+ * full, the configured {@link OverflowStrategy} is applied. The listener of
+ * the device is registered while the publisher has subscribers.</p>
+ * 
+ * <p>With the {@code BLOCK} strategy, the demand of the subscribers must 
+ * throttle the notification threads of the device. If the device has 
+ * neither a listener executor nor a dispatcher, the publisher installs a 
+ * bounded listener executor while it has subscribers. When all its threads 
+ * are waiting and its queue is full, the reader of the device notifies the 
+ * listeners itself, so it stops reading until the subscribers request more 
+ * items.</p>
+ * 
+ * <p>Use the static methods of this class to create the publisher of each
+ * kind of received item.</p>
+ * 
+ * @param <T> The type of the published items.
+ * 
+ * @see IPublisher
+ * @see OverflowStrategy
+ */
+public abstract class XBeePublisher<T> implements IPublisher<T> {
+	
+	// Constants.
+	/**
+	 * Default number of items buffered for each subscriber.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 128;
+	
+	/**
+	 * Maximum time (in milliseconds) the notifying thread waits for room in 
+	 * the buffer of a subscriber with the {@code BLOCK} strategy.
+	 */
+	public static final long MAXIMUM_BLOCK_TIME = 2000;
+	
+	private static final int BLOCK_EXECUTOR_THREADS = 4;
+	
+	private static final String BLOCK_EXECUTOR_THREAD_NAME = "XBee-publisher-";
+	
+	// Variables.
+	private final XBeeDevice device;
+	
+	private final int bufferSize;
+	
+	private final OverflowStrategy overflowStrategy;
+	
+	private final ArrayList<BufferedSubscription> subscriptions = new ArrayList<BufferedSubscription>();
+	
+	private final AtomicLong droppedItems = new AtomicLong();
+	
+	private boolean closed = false;
+	
+	private ExecutorService blockExecutor;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code XBeePublisher} with the
+	 * given buffer size and overflow strategy.
+	 * 
+	 * @param bufferSize Maximum number of items buffered for each subscriber.
+	 * @param overflowStrategy Strategy to apply when the buffer of a
+	 *                         subscriber is full.
+	 * 
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code overflowStrategy == null}.
+	 * 
+	 * @see OverflowStrategy
+	 */
+	protected XBeePublisher(int bufferSize, OverflowStrategy overflowStrategy) {
+		this(null, bufferSize, overflowStrategy);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code XBeePublisher} of the 
+	 * items received by the given local device with the given buffer size 
+	 * and overflow strategy.
+	 * 
+	 * @param device The local XBee device whose notification threads are 
+	 *               throttled with the {@code BLOCK} strategy, {@code null} 
+	 *               to not throttle them.
+	 * @param bufferSize Maximum number of items buffered for each subscriber.
+	 * @param overflowStrategy Strategy to apply when the buffer of a
+	 *                         subscriber is full.
+	 * 
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code overflowStrategy == null}.
+	 * 
+	 * @see OverflowStrategy
+	 */
+	protected XBeePublisher(XBeeDevice device, int bufferSize, OverflowStrategy overflowStrategy) {
+		if (bufferSize < 1)
+			throw new IllegalArgumentException("Buffer size must be greater than 0.");
+		if (overflowStrategy == null)
+			throw new NullPointerException("Overflow strategy cannot be null.");
+		
+		this.device = device;
+		this.bufferSize = bufferSize;
+		this.overflowStrategy = overflowStrategy;
+	}
+	
+	/**
+	 * Registers the listener that publishes the items received by the
+	 * device. Called when the first subscriber is added.
+	 */
+	protected abstract void registerListener();
+	
+	/**
+	 * Unregisters the listener that publishes the items received by the
+	 * device. Called when the last subscriber is removed.
+	 */
+	protected abstract void unregisterListener();
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.listeners.IPublisher#subscribe(com.digi.xbee.api.listeners.ISubscriber)
+	 */
+	@Override
+	public void subscribe(ISubscriber<? super T> subscriber) {
+		if (subscriber == null)
+			throw new NullPointerException("Subscriber cannot be null.");
+		
+		BufferedSubscription subscription = new BufferedSubscription(subscriber);
+		boolean wasClosed;
+		synchronized (subscriptions) {
+			wasClosed = closed;
+			if (!wasClosed) {
+				subscriptions.add(subscription);
+				if (subscriptions.size() == 1)
+					startPublishing();
+			}
+		}
+		
+		subscriber.onSubscribe(subscription);
+		if (wasClosed)
+			subscription.complete();
+	}
+	
+	/**
+	 * Publishes the given item to all the subscribers.
+	 * 
+	 * @param item The item to publish.
+	 */
+	protected void publish(T item) {
+		// A failing subscriber must not prevent the others from receiving 
+		// the item.
+		RuntimeException failure = null;
+		for (BufferedSubscription subscription : getSubscriptions()) {
+			try {
+				subscription.offer(item);
+			} catch (RuntimeException e) {
+				if (failure == null)
+					failure = e;
+			}
+		}
+		if (failure != null)
+			throw failure;
+	}
+	
+	/**
+	 * Closes this publisher.
+	 * 
+	 * <p>The listener of the device is unregistered and every subscriber is
+	 * completed once it has received its buffered items. Subscribers added
+	 * after closing are completed immediately.</p>
+	 */
+	public void close() {
+		ArrayList<BufferedSubscription> completed;
+		synchronized (subscriptions) {
+			if (closed)
+				return;
+			closed = true;
+			completed = new ArrayList<BufferedSubscription>(subscriptions);
+			if (!subscriptions.isEmpty())
+				stopPublishing();
+			subscriptions.clear();
+		}
+		for (BufferedSubscription subscription : completed)
+			subscription.complete();
+	}
+	
+	/**
+	 * Returns the number of subscribers of this publisher.
+	 * 
+	 * @return The number of subscribers.
+	 */
+	public int getNumberOfSubscribers() {
+		synchronized (subscriptions) {
+			return subscriptions.size();
+		}
+	}
+	
+	/**
+	 * Returns the number of items discarded because a subscriber buffer was
+	 * full.
+	 * 
+	 * @return The number of discarded items.
+	 * 
+	 * @see OverflowStrategy
+	 */
+	public long getDroppedItems() {
+		return droppedItems.get();
+	}
+	
+	/**
+	 * Returns a copy of the list of subscriptions.
+	 * 
+	 * @return The list of subscriptions.
+	 */
+	private ArrayList<BufferedSubscription> getSubscriptions() {
+		synchronized (subscriptions) {
+			return new ArrayList<BufferedSubscription>(subscriptions);
+		}
+	}
+	
+	/**
+	 * Removes the given subscription and unregisters the listener if there
+	 * are no more subscribers.
+	 * 
+	 * @param subscription The subscription to remove.
+	 */
+	private void removeSubscription(BufferedSubscription subscription) {
+		synchronized (subscriptions) {
+			if (subscriptions.remove(subscription) && subscriptions.isEmpty())
+				stopPublishing();
+		}
+	}
+	
+	/**
+	 * Registers the listener of the device and, with the {@code BLOCK} 
+	 * strategy, installs a bounded listener executor in the device if it 
+	 * has neither a listener executor nor a dispatcher.
+	 * 
+	 * <p>Called with the lock of the subscriptions held.</p>
+	 * 
+	 * @see #stopPublishing()
+	 */
+	private void startPublishing() {
+		if (overflowStrategy == OverflowStrategy.BLOCK && device != null
+				&& device.getListenerExecutor() == null && device.getDispatcher() == null) {
+			// When the executor is saturated, the reader runs the 
+			// notification itself, so it waits for the demand of the 
+			// subscribers instead of creating more threads.
+			blockExecutor = new ThreadPoolExecutor(BLOCK_EXECUTOR_THREADS, BLOCK_EXECUTOR_THREADS, 
+					0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(bufferSize), 
+					ThreadUtils.newThreadFactory(BLOCK_EXECUTOR_THREAD_NAME, true), 
+					new ThreadPoolExecutor.CallerRunsPolicy());
+			device.setListenerExecutor(blockExecutor);
+		}
+		registerListener();
+	}
+	
+	/**
+	 * Unregisters the listener of the device and removes the listener 
+	 * executor installed by this publisher, if any.
+	 * 
+	 * <p>Called with the lock of the subscriptions held.</p>
+	 * 
+	 * @see #startPublishing()
+	 */
+	private void stopPublishing() {
+		unregisterListener();
+		if (blockExecutor != null) {
+			// Do not remove an executor configured after this one.
+			if (device.getListenerExecutor() == blockExecutor)
+				device.setListenerExecutor(null);
+			blockExecutor.shutdown();
+			blockExecutor = null;
+		}
+	}
+	
+	/**
+	 * Returns a publisher of the data received by the given local device.
+	 * 
+	 * @param device The local XBee device.
+	 * @param bufferSize Maximum number of items buffered for each subscriber.
+	 * @param overflowStrategy Strategy to apply when the buffer of a
+	 *                         subscriber is full.
+	 * 
+	 * @return The publisher of received data.
+	 * 
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code device == null} or
+	 *                              if {@code overflowStrategy == null}.
+	 * 
+	 * @see XBeeDevice#addDataListener(IDataReceiveListener)
+	 */
+	public static XBeePublisher<XBeeMessage> dataPublisher(final XBeeDevice device, int bufferSize, OverflowStrategy overflowStrategy) {
+		if (device == null)
+			throw new NullPointerException("XBee device cannot be null.");
+		
+		return new XBeePublisher<XBeeMessage>(device, bufferSize, overflowStrategy) {
+			private final IDataReceiveListener listener = new IDataReceiveListener() {
+				@Override
+				public void dataReceived(XBeeMessage xbeeMessage) {
+					publish(xbeeMessage);
+				}
+			};
+			
+			@Override
+			protected void registerListener() {
+				device.addDataListener(listener);
+			}
+			
+			@Override
+			protected void unregisterListener() {
+				device.removeDataListener(listener);
+			}
+		};
+	}
+	
+	/**
+	 * Returns a publisher of the explicit data received by the given local
+	 * device.
+	 * 
+	 * @param device The local XBee device.
+	 * @param bufferSize Maximum number of items buffered for each subscriber.
+	 * @param overflowStrategy Strategy to apply when the buffer of a
+	 *                         subscriber is full.
+	 * 
+	 * @return The publisher of received explicit data.
+	 * 
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code device == null} or
+	 *                              if {@code overflowStrategy == null}.
+	 * 
+	 * @see XBeeDevice#addExplicitDataListener(IExplicitDataReceiveListener)
+	 */
+	public static XBeePublisher<ExplicitXBeeMessage> explicitDataPublisher(final XBeeDevice device, int bufferSize, OverflowStrategy overflowStrategy) {
+		if (device == null)
+			throw new NullPointerException("XBee device cannot be null.");
+		
+		return new XBeePublisher<ExplicitXBeeMessage>(device, bufferSize, overflowStrategy) {
+			private final IExplicitDataReceiveListener listener = new IExplicitDataReceiveListener() {
+				@Override
+				public void explicitDataReceived(ExplicitXBeeMessage explicitXBeeMessage) {
+					publish(explicitXBeeMessage);
+				}
+			};
+			
+			@Override
+			protected void registerListener() {
+				device.addExplicitDataListener(listener);
+			}
+			
+			@Override
+			protected void unregisterListener() {
+				device.removeExplicitDataListener(listener);
+			}
+		};
+	}
+	
+	/**
+	 * Returns a publisher of the IO samples received by the given local
+	 * device.
+	 * 
+	 * @param device The local XBee device.
+	 * @param bufferSize Maximum number of items buffered for each subscriber.
+	 * @param overflowStrategy Strategy to apply when the buffer of a
+	 *                         subscriber is full.
+	 * 
+	 * @return The publisher of received IO samples.
+	 * 
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code device == null} or
+	 *                              if {@code overflowStrategy == null}.
+	 * 
+	 * @see XBeeDevice#addIOSampleListener(IIOSampleReceiveListener)
+	 */
+	public static XBeePublisher<IOSampleMessage> ioSamplePublisher(final XBeeDevice device, int bufferSize, OverflowStrategy overflowStrategy) {
+		if (device == null)
+			throw new NullPointerException("XBee device cannot be null.");
+		
+		return new XBeePublisher<IOSampleMessage>(device, bufferSize, overflowStrategy) {
+			private final IIOSampleReceiveListener listener = new IIOSampleReceiveListener() {
+				@Override
+				public void ioSampleReceived(RemoteXBeeDevice remoteDevice, IOSample ioSample) {
+					publish(new IOSampleMessage(remoteDevice, ioSample));
+				}
+			};
+			
+			@Override
+			protected void registerListener() {
+				device.addIOSampleListener(listener);
+			}
+			
+			@Override
+			protected void unregisterListener() {
+				device.removeIOSampleListener(listener);
+			}
+		};
+	}
+	
+	/**
+	 * Returns a publisher of the modem status events received by the given
+	 * local device.
+	 * 
+	 * @param device The local XBee device.
+	 * @param bufferSize Maximum number of items buffered for each subscriber.
+	 * @param overflowStrategy Strategy to apply when the buffer of a
+	 *                         subscriber is full.
+	 * 
+	 * @return The publisher of received modem status events.
+	 * 
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code device == null} or
+	 *                              if {@code overflowStrategy == null}.
+	 * 
+	 * @see XBeeDevice#addModemStatusListener(IModemStatusReceiveListener)
+	 */
+	public static XBeePublisher<ModemStatusEvent> modemStatusPublisher(final XBeeDevice device, int bufferSize, OverflowStrategy overflowStrategy) {
+		if (device == null)
+			throw new NullPointerException("XBee device cannot be null.");
+		
+		return new XBeePublisher<ModemStatusEvent>(device, bufferSize, overflowStrategy) {
+			private final IModemStatusReceiveListener listener = new IModemStatusReceiveListener() {
+				@Override
+				public void modemStatusEventReceived(ModemStatusEvent modemStatusEvent) {
+					publish(modemStatusEvent);
+				}
+			};
+			
+			@Override
+			protected void registerListener() {
+				device.addModemStatusListener(listener);
+			}
+			
+			@Override
+			protected void unregisterListener() {
+				device.removeModemStatusListener(listener);
+			}
+		};
+	}
+	
+	/**
+	 * Returns a publisher of the IP messages received by the given local IP
+	 * device.
+	 * 
+	 * @param device The local IP device.
+	 * @param bufferSize Maximum number of items buffered for each subscriber.
+	 * @param overflowStrategy Strategy to apply when the buffer of a
+	 *                         subscriber is full.
+	 * 
+	 * @return The publisher of received IP messages.
+	 * 
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code device == null} or
+	 *                              if {@code overflowStrategy == null}.
+	 * 
+	 * @see IPDevice#addIPDataListener(IIPDataReceiveListener)
+	 */
+	public static XBeePublisher<IPMessage> ipDataPublisher(final IPDevice device, int bufferSize, OverflowStrategy overflowStrategy) {
+		if (device == null)
+			throw new NullPointerException("IP device cannot be null.");
+		
+		return new XBeePublisher<IPMessage>(device, bufferSize, overflowStrategy) {
+			private final IIPDataReceiveListener listener = new IIPDataReceiveListener() {
+				@Override
+				public void ipDataReceived(IPMessage ipMessage) {
+					publish(ipMessage);
+				}
+			};
+			
+			@Override
+			protected void registerListener() {
+				device.addIPDataListener(listener);
+			}
+			
+			@Override
+			protected void unregisterListener() {
+				device.removeIPDataListener(listener);
+			}
+		};
+	}
+	
+	/**
+	 * Returns a publisher of the SMS received by the given local cellular
+	 * device.
+	 * 
+	 * @param device The local cellular device.
+	 * @param bufferSize Maximum number of items buffered for each subscriber.
+	 * @param overflowStrategy Strategy to apply when the buffer of a
+	 *                         subscriber is full.
+	 * 
+	 * @return The publisher of received SMS.
+	 * 
+	 * @throws IllegalArgumentException if {@code bufferSize < 1}.
+	 * @throws NullPointerException if {@code device == null} or
+	 *                              if {@code overflowStrategy == null}.
+	 * 
+	 * @see CellularDevice#addSMSListener(ISMSReceiveListener)
+	 */
+	public static XBeePublisher<SMSMessage> smsPublisher(final CellularDevice device, int bufferSize, OverflowStrategy overflowStrategy) {
+		if (device == null)
+			throw new NullPointerException("Cellular device cannot be null.");
+		
+		return new XBeePublisher<SMSMessage>(device, bufferSize, overflowStrategy) {
+			private final ISMSReceiveListener listener = new ISMSReceiveListener() {
+				@Override
+				public void smsReceived(SMSMessage smsMessage) {
+					publish(smsMessage);
+				}
+			};
+			
+			@Override
+			protected void registerListener() {
+				device.addSMSListener(listener);
+			}
+			
+			@Override
+			protected void unregisterListener() {
+				device.removeSMSListener(listener);
+			}
+		};
+	}
+	
+	/**
+	 * Subscription that buffers the published items until the subscriber
+	 * requests them.
+	 */
+	private class BufferedSubscription implements ISubscription {
+		
+		// Variables.
+		private final ISubscriber<? super T> subscriber;
+		
+		private final ArrayDeque<T> buffer = new ArrayDeque<T>();
+		
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition spaceAvailable = lock.newCondition();
+		
+		private long demand = 0;
+		
+		private boolean cancelled = false;
+		private boolean completed = false;
+		private boolean terminated = false;
+		private boolean draining = false;
+		
+		private Throwable error;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code BufferedSubscription}
+		 * for the given subscriber.
+		 * 
+		 * @param subscriber The subscriber.
+		 */
+		BufferedSubscription(ISubscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.listeners.ISubscription#request(long)
+		 */
+		@Override
+		public void request(long n) {
+			boolean invalid = n <= 0;
+			lock.lock();
+			try {
+				if (cancelled || terminated)
+					return;
+				if (invalid) {
+					error = new IllegalArgumentException("Number of requested items must be greater than 0.");
+					cancelled = true;
+					buffer.clear();
+					spaceAvailable.signalAll();
+				} else {
+					demand += n;
+					// Avoid overflow.
+					if (demand < 0)
+						demand = Long.MAX_VALUE;
+				}
+			} finally {
+				lock.unlock();
+			}
+			if (invalid)
+				removeSubscription(this);
+			drain();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.listeners.ISubscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+			lock.lock();
+			try {
+				cancelled = true;
+				buffer.clear();
+				spaceAvailable.signalAll();
+			} finally {
+				lock.unlock();
+			}
+			removeSubscription(this);
+		}
+		
+		/**
+		 * Buffers the given item and delivers it if there is demand.
+		 * 
+		 * @param item The item to deliver.
+		 */
+		void offer(T item) {
+			lock.lock();
+			try {
+				if (cancelled || completed)
+					return;
+				if (buffer.size() >= bufferSize) {
+					switch (overflowStrategy) {
+					case DROP_OLDEST:
+						buffer.poll();
+						droppedItems.incrementAndGet();
+						break;
+					case DROP_NEWEST:
+						droppedItems.incrementAndGet();
+						return;
+					case BLOCK:
+					default:
+						// Wait a bounded time, so a stalled subscriber does 
+						// not hold the notifying thread forever.
+						long remaining = TimeUnit.MILLISECONDS.toNanos(MAXIMUM_BLOCK_TIME);
+						while (buffer.size() >= bufferSize && !cancelled && remaining > 0) {
+							try {
+								remaining = spaceAvailable.awaitNanos(remaining);
+							} catch (InterruptedException e) {
+								Thread.currentThread().interrupt();
+								break;
+							}
+						}
+						if (cancelled)
+							return;
+						if (buffer.size() >= bufferSize) {
+							droppedItems.incrementAndGet();
+							return;
+						}
+						break;
+					}
+				}
+				buffer.add(item);
+			} finally {
+				lock.unlock();
+			}
+			drain();
+		}
+		
+		/**
+		 * Completes this subscription once the buffered items are delivered.
+		 */
+		void complete() {
+			lock.lock();
+			try {
+				completed = true;
+			} finally {
+				lock.unlock();
+			}
+			drain();
+		}
+		
+		/**
+		 * Delivers the buffered items while there is demand. Only one thread
+		 * delivers items at a time, so the subscriber is never called
+		 * concurrently.
+		 * 
+		 * <p>If the subscriber throws an exception, the subscription is 
+		 * cancelled and the exception is thrown to the caller.</p>
+		 */
+		private void drain() {
+			lock.lock();
+			try {
+				if (draining)
+					return;
+				draining = true;
+			} finally {
+				lock.unlock();
+			}
+			
+			while (true) {
+				T item = null;
+				boolean notifyComplete = false;
+				Throwable notifyError = null;
+				
+				lock.lock();
+				try {
+					if (terminated) {
+						draining = false;
+						return;
+					}
+					if (error != null) {
+						notifyError = error;
+						terminated = true;
+					} else if (cancelled) {
+						draining = false;
+						return;
+					} else if (demand > 0 && !buffer.isEmpty()) {
+						item = buffer.poll();
+						demand--;
+						spaceAvailable.signal();
+					} else if (buffer.isEmpty() && completed) {
+						notifyComplete = true;
+						terminated = true;
+					} else {
+						draining = false;
+						return;
+					}
+				} finally {
+					lock.unlock();
+				}
+				
+				boolean notified = false;
+				try {
+					if (notifyError != null)
+						subscriber.onError(notifyError);
+					else if (notifyComplete)
+						subscriber.onComplete();
+					else
+						subscriber.onNext(item);
+					notified = true;
+				} finally {
+					if (!notified) {
+						// Release the drain, so the subscription is not left 
+						// blocking the notifying threads.
+						lock.lock();
+						try {
+							draining = false;
+							cancelled = true;
+							buffer.clear();
+							spaceAvailable.signalAll();
+						} finally {
+							lock.unlock();
+						}
+						removeSubscription(this);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,442 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.utils.ThreadUtils;
+
+/**
+ * Reader engine that services the data readers of many connection interfaces
+ * with a fixed number of threads.
+ * 
+ * <p>By default, every open XBee device starts its own {@link DataReader}
+ * thread that waits for data in its connection interface. When a data reader
+ * is registered in an event loop, its thread is not started. Instead, one of
+ * the event loop threads reads the bytes available in the connection
+ * interface, decodes them and dispatches the completed packets. Each event
+ * loop thread services several data readers, so the number of threads does
+ * not grow with the number of devices.</p>
+ * 
+ * <p>When none of the data readers of a thread has data available, the
+ * thread waits until any of their connection interfaces notifies new data.
+ * Connection interfaces that do not implement {@link IDataAvailableNotifier}
+ * cannot notify it, so while a thread services any of them, it checks them
+ * again after the configured poll interval.</p>
+ * 
+ * @see DataReader
+ * @see com.digi.xbee.api.XBeeDevice#setEventLoop(ConnectionEventLoop)
+ */
+public class ConnectionEventLoop {
+	
+	// Constants.
+	private static final long DEFAULT_POLL_INTERVAL = 5;
+	
+	private static final String THREAD_NAME = "XBeeEventLoop-";
+	
+	// Variables.
+	private final List<LoopThread> threads;
+	
+	private final long pollInterval;
+	
+	private volatile boolean running = false;
+	
+	private boolean started = false;
+	
+	private Logger logger;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ConnectionEventLoop} with
+	 * the given number of threads and the default poll interval.
+	 * 
+	 * @param numberOfThreads Number of threads servicing the data readers.
+	 * 
+	 * @throws IllegalArgumentException if {@code numberOfThreads < 1}.
+	 * 
+	 * @see #ConnectionEventLoop(int, long)
+	 */
+	public ConnectionEventLoop(int numberOfThreads) {
+		this(numberOfThreads, DEFAULT_POLL_INTERVAL);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ConnectionEventLoop} with
+	 * the given number of threads and poll interval.
+	 * 
+	 * @param numberOfThreads Number of threads servicing the data readers.
+	 * @param pollInterval Time to wait (in milliseconds) before checking
+	 *                     again the connection interfaces that do not
+	 *                     notify new data.
+	 * 
+	 * @throws IllegalArgumentException if {@code numberOfThreads < 1} or
+	 *                                  if {@code pollInterval < 1}.
+	 * 
+	 * @see #ConnectionEventLoop(int)
+	 */
+	public ConnectionEventLoop(int numberOfThreads, long pollInterval) {
+		if (numberOfThreads < 1)
+			throw new IllegalArgumentException("Number of threads must be greater than 0.");
+		if (pollInterval < 1)
+			throw new IllegalArgumentException("Poll interval must be greater than 0.");
+		
+		this.pollInterval = pollInterval;
+		this.threads = new ArrayList<LoopThread>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++)
+			threads.add(new LoopThread(i));
+		this.logger = LoggerFactory.getLogger(ConnectionEventLoop.class);
+	}
+	
+	/**
+	 * Starts the threads of this event loop.
+	 * 
+	 * <p>If the event loop is already running, this method does nothing.</p>
+	 * 
+	 * @throws IllegalStateException if the event loop has been shut down.
+	 * 
+	 * @see #shutdown()
+	 * @see #isRunning()
+	 */
+	public synchronized void start() {
+		if (running)
+			return;
+		if (started)
+			throw new IllegalStateException("The event loop has been shut down.");
+		
+		started = true;
+		running = true;
+		for (LoopThread thread : threads)
+			thread.start();
+		logger.debug("Connection event loop started with {} threads.", threads.size());
+	}
+	
+	/**
+	 * Stops the threads of this event loop.
+	 * 
+	 * <p>The registered data readers are stopped and their connection
+	 * interfaces are left as they are. A stopped event loop cannot be
+	 * started again.</p>
+	 * 
+	 * @see #start()
+	 * @see #isRunning()
+	 */
+	public synchronized void shutdown() {
+		running = false;
+		for (LoopThread thread : threads) {
+			for (DataReader reader : thread.getReaders())
+				reader.stopReader();
+			thread.wakeUp();
+		}
+		logger.debug("Connection event loop stopped.");
+	}
+	
+	/**
+	 * Returns whether this event loop is running or not.
+	 * 
+	 * @return {@code true} if the event loop is running, {@code false}
+	 *         otherwise.
+	 * 
+	 * @see #start()
+	 * @see #shutdown()
+	 */
+	public boolean isRunning() {
+		return running;
+	}
+	
+	/**
+	 * Returns the number of threads of this event loop.
+	 * 
+	 * @return The number of threads servicing the data readers.
+	 */
+	public int getNumberOfThreads() {
+		return threads.size();
+	}
+	
+	/**
+	 * Returns the number of data readers serviced by this event loop.
+	 * 
+	 * @return The number of registered data readers.
+	 */
+	public int getNumberOfReaders() {
+		int readers = 0;
+		for (LoopThread thread : threads)
+			readers += thread.getReaders().size();
+		return readers;
+	}
+	
+	/**
+	 * Registers the given data reader so it is serviced by this event loop.
+	 * 
+	 * <p>The data reader is assigned to the thread with fewer data readers.
+	 * Its own thread must not be started.</p>
+	 * 
+	 * @param reader The data reader to service.
+	 * 
+	 * @throws IllegalStateException if the event loop is not running.
+	 * @throws NullPointerException if {@code reader == null}.
+	 * 
+	 * @see #unregister(DataReader)
+	 */
+	public synchronized void register(DataReader reader) {
+		if (reader == null)
+			throw new NullPointerException("Data reader cannot be null.");
+		if (!running)
+			throw new IllegalStateException("The event loop is not running.");
+		
+		LoopThread selected = threads.get(0);
+		for (LoopThread thread : threads) {
+			if (thread.contains(reader))
+				return;
+			if (thread.getReaders().size() < selected.getReaders().size())
+				selected = thread;
+		}
+		
+		reader.startPolling();
+		selected.add(reader);
+	}
+	
+	/**
+	 * Unregisters the given data reader from this event loop and stops it.
+	 * 
+	 * <p>If the data reader is not registered, this method does nothing.</p>
+	 * 
+	 * @param reader The data reader to stop servicing.
+	 * 
+	 * @see #register(DataReader)
+	 */
+	public synchronized void unregister(DataReader reader) {
+		for (LoopThread thread : threads) {
+			if (thread.remove(reader)) {
+				if (reader.isRunning())
+					reader.stopReader();
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Thread of the event loop that services a group of data readers.
+	 */
+	private class LoopThread implements Runnable, IDataAvailableListener {
+		
+		// Variables.
+		private final int index;
+		
+		// Replaced on every change, so it can be read without locking.
+		private volatile DataReader[] readers = new DataReader[0];
+		
+		// Number of data readers whose interfaces cannot notify new data.
+		private volatile int polledReaders = 0;
+		
+		private final Object readersLock = new Object();
+		
+		private final Lock idleLock = new ReentrantLock();
+		private final Condition dataAvailable = idleLock.newCondition();
+		
+		// Set when new data may be available, so a notification received 
+		// while the readers are being read is not lost.
+		private boolean wakeUpPending = false;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code LoopThread} with the
+		 * given index.
+		 * 
+		 * @param index Index of the thread in the event loop.
+		 */
+		LoopThread(int index) {
+			this.index = index;
+		}
+		
+		/**
+		 * Starts the daemon thread that runs this loop.
+		 * 
+		 * <p>The thread is created with the thread factory configured in 
+		 * {@link ThreadUtils}.</p>
+		 */
+		void start() {
+			Thread thread = ThreadUtils.newThread(this, THREAD_NAME + index);
+			thread.setDaemon(true);
+			thread.start();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run() {
+			while (running) {
+				idleLock.lock();
+				try {
+					wakeUpPending = false;
+				} finally {
+					idleLock.unlock();
+				}
+				
+				boolean dataRead = false;
+				for (DataReader reader : readers) {
+					if (!reader.isRunning()) {
+						remove(reader);
+						continue;
+					}
+					try {
+						int read = reader.readAvailableData();
+						if (read > 0)
+							dataRead = true;
+						else if (read < 0)
+							closeReader(reader);
+					} catch (IOException e) {
+						logger.error("Error reading from input stream.", e);
+						closeReader(reader);
+					} catch (RuntimeException e) {
+						logger.error(e.getMessage(), e);
+					}
+				}
+				
+				// Wait only if there was nothing to read in any interface.
+				if (dataRead)
+					continue;
+				idleLock.lock();
+				try {
+					if (wakeUpPending)
+						continue;
+					if (polledReaders > 0)
+						dataAvailable.await(pollInterval, TimeUnit.MILLISECONDS);
+					else
+						dataAvailable.await();
+				} catch (InterruptedException e) {
+					break;
+				} finally {
+					idleLock.unlock();
+				}
+			}
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.connection.IDataAvailableListener#dataAvailable(com.digi.xbee.api.connection.IConnectionInterface)
+		 */
+		@Override
+		public void dataAvailable(IConnectionInterface connectionInterface) {
+			wakeUp();
+		}
+		
+		/**
+		 * Stops the given data reader and closes its connection interface.
+		 * 
+		 * @param reader The data reader to close.
+		 */
+		private void closeReader(DataReader reader) {
+			remove(reader);
+			reader.stopReader();
+			IConnectionInterface connectionInterface = reader.getConnectionInterface();
+			if (connectionInterface.isOpen())
+				connectionInterface.close();
+		}
+		
+		/**
+		 * Wakes up this thread if it is waiting for data.
+		 */
+		void wakeUp() {
+			idleLock.lock();
+			try {
+				wakeUpPending = true;
+				dataAvailable.signal();
+			} finally {
+				idleLock.unlock();
+			}
+		}
+		
+		/**
+		 * Returns the data readers serviced by this thread.
+		 * 
+		 * @return The unmodifiable list of data readers.
+		 */
+		List<DataReader> getReaders() {
+			return Arrays.asList(readers);
+		}
+		
+		/**
+		 * Returns whether the given data reader is serviced by this thread.
+		 * 
+		 * @param reader The data reader.
+		 * 
+		 * @return {@code true} if the data reader is serviced by this thread,
+		 *         {@code false} otherwise.
+		 */
+		boolean contains(DataReader reader) {
+			return getReaders().contains(reader);
+		}
+		
+		/**
+		 * Adds the given data reader to this thread.
+		 * 
+		 * @param reader The data reader to add.
+		 */
+		void add(DataReader reader) {
+			synchronized (readersLock) {
+				if (contains(reader))
+					return;
+				DataReader[] updated = Arrays.copyOf(readers, readers.length + 1);
+				updated[readers.length] = reader;
+				readers = updated;
+				
+				IConnectionInterface connectionInterface = reader.getConnectionInterface();
+				if (connectionInterface instanceof IDataAvailableNotifier)
+					((IDataAvailableNotifier)connectionInterface).addDataAvailableListener(this);
+				else
+					polledReaders++;
+			}
+			wakeUp();
+		}
+		
+		/**
+		 * Removes the given data reader from this thread.
+		 * 
+		 * @param reader The data reader to remove.
+		 * 
+		 * @return {@code true} if the data reader was removed, {@code false}
+		 *         if it was not serviced by this thread.
+		 */
+		boolean remove(DataReader reader) {
+			synchronized (readersLock) {
+				int index = getReaders().indexOf(reader);
+				if (index < 0)
+					return false;
+				DataReader[] updated = new DataReader[readers.length - 1];
+				System.arraycopy(readers, 0, updated, 0, index);
+				System.arraycopy(readers, index + 1, updated, index, updated.length - index);
+				readers = updated;
+				
+				IConnectionInterface connectionInterface = reader.getConnectionInterface();
+				if (connectionInterface instanceof IDataAvailableNotifier)
+					((IDataAvailableNotifier)connectionInterface).removeDataAvailableListener(this);
+				else
+					polledReaders--;
+				return true;
+			}
+		}
+	}
+}
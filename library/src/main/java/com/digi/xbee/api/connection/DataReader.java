@@ -15,12 +15,24 @@
  */
 package com.digi.xbee.api.connection;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.Inet6Address;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,12 +47,18 @@ import com.digi.xbee.api.XBeeDevice;
 import com.digi.xbee.api.XBeeNetwork;
 import com.digi.xbee.api.exceptions.InvalidPacketException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.io.IODeadbandFilter;
 import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.io.IOSampleStore;
+import com.digi.xbee.api.io.IOStateCache;
+import com.digi.xbee.api.listeners.IDataBatchReceiveListener;
 import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
+import com.digi.xbee.api.listeners.IIOSampleBatchReceiveListener;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IIPDataReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.listeners.IRxFrameListener;
 import com.digi.xbee.api.listeners.IDataReceiveListener;
 import com.digi.xbee.api.listeners.ISMSReceiveListener;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
@@ -49,6 +67,8 @@ import com.digi.xbee.api.models.IPMessage;
 import com.digi.xbee.api.models.SMSMessage;
 import com.digi.xbee.api.models.SpecialByte;
 import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.OverflowStrategy;
+import com.digi.xbee.api.models.ReceiveFilter;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeMessage;
@@ -56,6 +76,7 @@ import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.models.XBeeProtocol;
 import com.digi.xbee.api.packet.XBeeAPIPacket;
 import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.RxFrameView;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.XBeePacketParser;
 import com.digi.xbee.api.packet.cellular.RXSMSPacket;
@@ -70,37 +91,93 @@ import com.digi.xbee.api.packet.raw.RX64IOPacket;
 import com.digi.xbee.api.packet.raw.RX64Packet;
 import com.digi.xbee.api.packet.thread.IPv6IODataSampleRxIndicator;
 import com.digi.xbee.api.packet.thread.RXIPv6Packet;
+import com.digi.xbee.api.utils.DeviceUtils;
 import com.digi.xbee.api.utils.HexUtils;
+import com.digi.xbee.api.utils.ThreadUtils;
 
 /**
- * Thread that constantly reads data from an input stream.
+ * Reader that constantly reads data from an input stream in its own thread.
  * 
  * <p>Depending on the XBee operating mode, read data is notified as is to the 
  * subscribed listeners or is parsed to a packet using the packet parser and 
  * then notified to subscribed listeners.</p> 
  */
-public class DataReader extends Thread {
+public class DataReader implements Runnable {
 	
 	// Constants.
+	private final static String THREAD_NAME = "XBeeDataReader";
+	
 	private final static int ALL_FRAME_IDS = 99999;
 	private final static int MAXIMUM_PARALLEL_LISTENER_THREADS = 20;
+	private final static int MAXIMUM_IPV6_REMOTE_DEVICES = 256;
+	private final static int READ_BUFFER_SIZE = 1024;
+	private final static int MAXIMUM_PAYLOAD_SIZE = 0xFFFF;
 	
 	// Variables.
-	private boolean running = false;
+	private volatile boolean running = false;
+	
+	private volatile Thread readerThread;
+	
+	// Used to wait for new data when the connection interface notifies it 
+	// through data available listeners.
+	private final ReentrantLock dataLock = new ReentrantLock();
+	private final Condition dataAvailable = dataLock.newCondition();
+	private boolean dataPending = false;
+	
+	private final IDataAvailableListener dataAvailableListener = new IDataAvailableListener() {
+		/*
+		 * (non-Javadoc)
+		 * @see com.digi.xbee.api.connection.IDataAvailableListener#dataAvailable(com.digi.xbee.api.connection.IConnectionInterface)
+		 */
+		@Override
+		public void dataAvailable(IConnectionInterface connectionInterface) {
+			signalDataAvailable();
+		}
+	};
 	
 	private IConnectionInterface connectionInterface;
 	
 	private volatile OperatingMode mode;
 	
-	private ArrayList<IDataReceiveListener> dataReceiveListeners = new ArrayList<IDataReceiveListener>();
-	// The packetReceiveListeners requires to be a HashMap with an associated integer. The integer is used to determine 
+	// Listener registries are copy-on-write or concurrent collections, so 
+	// the notification of received packets iterates them without locking and 
+	// adding or removing listeners never blocks the reader.
+	private final CopyOnWriteArrayList<IDataReceiveListener> dataReceiveListeners = new CopyOnWriteArrayList<IDataReceiveListener>();
+	private final ConcurrentHashMap<IDataBatchReceiveListener, ListenerMailbox<XBeeMessage>> dataBatchReceiveListeners = new ConcurrentHashMap<IDataBatchReceiveListener, ListenerMailbox<XBeeMessage>>();
+	// The packetReceiveListeners requires to be a map with an associated integer. The integer is used to determine 
 	// the frame ID of the packet that should be received. When it is 99999 (ALL_FRAME_IDS), all the packets will be handled.
-	private HashMap<IPacketReceiveListener, Integer> packetReceiveListeners = new HashMap<IPacketReceiveListener, Integer>();
-	private ArrayList<IIOSampleReceiveListener> ioSampleReceiveListeners = new ArrayList<IIOSampleReceiveListener>();
-	private ArrayList<IModemStatusReceiveListener> modemStatusListeners = new ArrayList<IModemStatusReceiveListener>();
-	private ArrayList<IExplicitDataReceiveListener> explicitDataReceiveListeners = new ArrayList<IExplicitDataReceiveListener>();
-	private ArrayList<IIPDataReceiveListener> ipDataReceiveListeners = new ArrayList<IIPDataReceiveListener>();
-	private ArrayList<ISMSReceiveListener> smsReceiveListeners = new ArrayList<ISMSReceiveListener>();
+	private final ConcurrentHashMap<IPacketReceiveListener, Integer> packetReceiveListeners = new ConcurrentHashMap<IPacketReceiveListener, Integer>();
+	private final CopyOnWriteArrayList<IIOSampleReceiveListener> ioSampleReceiveListeners = new CopyOnWriteArrayList<IIOSampleReceiveListener>();
+	private final CopyOnWriteArrayList<IIOSampleBatchReceiveListener> ioSampleBatchReceiveListeners = new CopyOnWriteArrayList<IIOSampleBatchReceiveListener>();
+	private final CopyOnWriteArrayList<IModemStatusReceiveListener> modemStatusListeners = new CopyOnWriteArrayList<IModemStatusReceiveListener>();
+	private final CopyOnWriteArrayList<IExplicitDataReceiveListener> explicitDataReceiveListeners = new CopyOnWriteArrayList<IExplicitDataReceiveListener>();
+	private final CopyOnWriteArrayList<IIPDataReceiveListener> ipDataReceiveListeners = new CopyOnWriteArrayList<IIPDataReceiveListener>();
+	private final CopyOnWriteArrayList<ISMSReceiveListener> smsReceiveListeners = new CopyOnWriteArrayList<ISMSReceiveListener>();
+	private final FilteredListeners<IDataReceiveListener> filteredDataReceiveListeners = new FilteredListeners<IDataReceiveListener>();
+	private final FilteredListeners<IExplicitDataReceiveListener> filteredExplicitDataReceiveListeners = new FilteredListeners<IExplicitDataReceiveListener>();
+	private final FilteredListeners<IIPDataReceiveListener> filteredIPDataReceiveListeners = new FilteredListeners<IIPDataReceiveListener>();
+	private final ExplicitDataRouter explicitDataRouter = new ExplicitDataRouter();
+	private final CopyOnWriteArrayList<IRxFrameListener> rxFrameListeners = new CopyOnWriteArrayList<IRxFrameListener>();
+	
+	// Locks that serialize the notifications of each listener. They are 
+	// used instead of the monitor of the listener so a listener that blocks 
+	// does not pin the carrier of a virtual thread. The lock of a listener 
+	// is dropped once the listener is no longer referenced.
+	private final Map<Object, ReentrantLock> listenerLocks = new WeakHashMap<Object, ReentrantLock>();
+	
+	// IPv6 remote devices are not stored in any network, so keep the most 
+	// recently heard ones to reuse them for the next frames they send. The 
+	// IO state of the devices that are dropped is removed as well.
+	@SuppressWarnings("serial")
+	private Map<Inet6Address, RemoteXBeeDevice> ipv6RemoteDevices = new LinkedHashMap<Inet6Address, RemoteXBeeDevice>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Inet6Address, RemoteXBeeDevice> eldest) {
+			if (size() <= MAXIMUM_IPV6_REMOTE_DEVICES)
+				return false;
+			removeIOState(eldest.getValue());
+			return true;
+		}
+	};
 	
 	private Logger logger;
 	
@@ -110,6 +187,34 @@ public class DataReader extends Thread {
 	
 	private XBeeDevice xbeeDevice;
 	
+	private volatile ExecutorService listenerExecutor;
+	
+	private volatile PartitionedDispatcher dispatcher;
+	
+	private volatile PacketDecodeStage decodeStage;
+	
+	// Stage the frames are submitted to, only used by the thread reading 
+	// the frames.
+	private PacketDecodeStage activeDecodeStage;
+	
+	private volatile boolean flyweightDecode = false;
+	
+	private volatile IOSampleStore ioSampleStore;
+	
+	private volatile IODeadbandFilter ioDeadbandFilter;
+	
+	private volatile IOStateCache ioStateCache;
+	
+	// Only used by the thread reading the frames, and only when there are 
+	// received frame listeners.
+	private byte[] payloadBuffer;
+	private final RxFrameView rxFrameView = new RxFrameView();
+	
+	// Used only when the reader is serviced by a connection event loop.
+	private XBeeFrameDecoder frameDecoder;
+	private byte[] readBuffer;
+	private ArrayList<byte[]> decodedFrames;
+	
 	/**
 	 * Class constructor. Instantiates a new {@code DataReader} object for the 
 	 * given connection interface using the given XBee operating mode and XBee
@@ -157,6 +262,134 @@ public class DataReader extends Thread {
 		this.mode = mode;
 	}
 	
+	/**
+	 * Sets the executor used to notify the subscribed listeners.
+	 * 
+	 * <p>This allows several data readers to share the same notification 
+	 * threads. The executor is not shut down by this data reader. If 
+	 * {@code null}, a short-lived thread pool is created for every received 
+	 * packet.</p>
+	 * 
+	 * @param executor The executor used to notify listeners, {@code null} to 
+	 *                 use a thread pool per received packet.
+	 * 
+	 * @see #getListenerExecutor()
+	 */
+	public void setListenerExecutor(ExecutorService executor) {
+		this.listenerExecutor = executor;
+	}
+	
+	/**
+	 * Returns the executor used to notify the subscribed listeners.
+	 * 
+	 * @return The executor used to notify listeners, {@code null} if a thread 
+	 *         pool is created for every received packet.
+	 * 
+	 * @see #setListenerExecutor(ExecutorService)
+	 */
+	public ExecutorService getListenerExecutor() {
+		return listenerExecutor;
+	}
+	
+	/**
+	 * Sets the dispatcher used to notify the subscribed listeners in order 
+	 * for every source.
+	 * 
+	 * <p>When configured, the messages received from the same remote node 
+	 * are notified in the order they were received, while the messages of 
+	 * different nodes are notified in parallel. Listeners are not 
+	 * synchronized, so they must be thread-safe. The dispatcher takes 
+	 * precedence over the listener executor and it is not shut down by this 
+	 * data reader.</p>
+	 * 
+	 * @param dispatcher The dispatcher used to notify listeners, {@code null} 
+	 *                   to use the listener executor.
+	 * 
+	 * @see #getDispatcher()
+	 * @see #setListenerExecutor(ExecutorService)
+	 * @see PartitionedDispatcher
+	 */
+	public void setDispatcher(PartitionedDispatcher dispatcher) {
+		this.dispatcher = dispatcher;
+	}
+	
+	/**
+	 * Returns the dispatcher used to notify the subscribed listeners in order 
+	 * for every source.
+	 * 
+	 * @return The dispatcher used to notify listeners, {@code null} if the 
+	 *         listener executor is used.
+	 * 
+	 * @see #setDispatcher(PartitionedDispatcher)
+	 * @see PartitionedDispatcher
+	 */
+	public PartitionedDispatcher getDispatcher() {
+		return dispatcher;
+	}
+	
+	/**
+	 * Sets the number of threads that decode the received frames.
+	 * 
+	 * <p>By default, the frames are read, parsed and dispatched by the thread 
+	 * of this data reader. When workers are configured, this thread only 
+	 * frames the received bytes and verifies their checksum, while the 
+	 * workers parse the payloads and resolve the remote devices in parallel. 
+	 * The decoded packets are still dispatched in the order they were 
+	 * received, also when the number of workers is changed while receiving: 
+	 * the frames taken by the previous workers are dispatched before any 
+	 * frame received afterwards.</p>
+	 * 
+	 * @param workers The number of decoding threads, {@code 0} to decode 
+	 *                the frames in the thread of this data reader.
+	 * 
+	 * @throws IllegalArgumentException if {@code workers < 0}.
+	 * 
+	 * @see #getDecodeWorkers()
+	 */
+	public void setDecodeWorkers(int workers) {
+		if (workers < 0)
+			throw new IllegalArgumentException("Number of workers cannot be negative.");
+		
+		PacketDecodeStage previousStage = decodeStage;
+		decodeStage = workers == 0 ? null : new PacketDecodeStage(this, parser, workers);
+		if (previousStage != null)
+			previousStage.shutdown();
+	}
+	
+	/**
+	 * Returns the decode stage the thread reading the frames must use.
+	 * 
+	 * <p>If the stage has been replaced, the previous one is drained first, 
+	 * so its frames are dispatched before the following ones.</p>
+	 * 
+	 * @return The decode stage, {@code null} to decode the frames in the 
+	 *         reading thread.
+	 * 
+	 * @see #setDecodeWorkers(int)
+	 */
+	private PacketDecodeStage getActiveDecodeStage() {
+		PacketDecodeStage stage = decodeStage;
+		if (stage != activeDecodeStage) {
+			if (activeDecodeStage != null)
+				activeDecodeStage.awaitDrained();
+			activeDecodeStage = stage;
+		}
+		return stage;
+	}
+	
+	/**
+	 * Returns the number of threads that decode the received frames.
+	 * 
+	 * @return The number of decoding threads, {@code 0} if the frames are 
+	 *         decoded in the thread of this data reader.
+	 * 
+	 * @see #setDecodeWorkers(int)
+	 */
+	public int getDecodeWorkers() {
+		PacketDecodeStage stage = decodeStage;
+		return stage == null ? 0 : stage.getNumberOfWorkers();
+	}
+	
 	/**
 	 * Adds the given data receive listener to the list of listeners that will 
 	 * be notified when XBee data packets are received.
@@ -175,10 +408,8 @@ public class DataReader extends Thread {
 		if (listener == null)
 			throw new NullPointerException("Listener cannot be null.");
 		
-		synchronized (dataReceiveListeners) {
-			if (!dataReceiveListeners.contains(listener))
-				dataReceiveListeners.add(listener);
-		}
+		filteredDataReceiveListeners.remove(listener);
+		dataReceiveListeners.addIfAbsent(listener);
 	}
 	
 	/**
@@ -194,9 +425,114 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.listeners.IDataReceiveListener
 	 */
 	public void removeDataReceiveListener(IDataReceiveListener listener) {
-		synchronized (dataReceiveListeners) {
-			if (dataReceiveListeners.contains(listener))
-				dataReceiveListeners.remove(listener);
+		dataReceiveListeners.remove(listener);
+		filteredDataReceiveListeners.remove(listener);
+	}
+	
+	/**
+	 * Adds the given data receive listener to be notified only when the 
+	 * received XBee data packets match the given filter.
+	 * 
+	 * <p>The filter is copied, so later changes do not affect this 
+	 * subscription. If the listener has been already added, its previous 
+	 * subscription is replaced.</p>
+	 * 
+	 * @param listener Listener to be notified when new XBee data packets matching 
+	 *                 the filter are received.
+	 * @param filter Conditions the received messages must meet.
+	 * 
+	 * @throws NullPointerException if {@code listener == null} or 
+	 *                              if {@code filter == null}.
+	 * 
+	 * @see #removeDataReceiveListener(IDataReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IDataReceiveListener
+	 * @see com.digi.xbee.api.models.ReceiveFilter
+	 */
+	public void addDataReceiveListener(IDataReceiveListener listener, ReceiveFilter filter) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		
+		filter = new ReceiveFilter(filter);
+		dataReceiveListeners.remove(listener);
+		filteredDataReceiveListeners.add(listener, filter, filter.getSource64BitAddress());
+	}
+	
+	/**
+	 * Adds the given batch data receive listener to the list of listeners 
+	 * that will be notified with groups of received XBee data packets.
+	 * 
+	 * <p>The received messages are stored in a mailbox of the listener with 
+	 * the given capacity, and they are delivered by its own thread in 
+	 * batches of up to {@code maxBatchSize} messages. Once the first message 
+	 * of a batch is available, the mailbox waits at most {@code maxDelay} 
+	 * microseconds for the rest. Messages are added to the mailbox by the 
+	 * reader itself, except with the {@code BLOCK} overflow strategy. In that 
+	 * case they are added in order by a hand-off thread of the mailbox, so 
+	 * a full mailbox never stops the reception of data.</p>
+	 * 
+	 * <p>If the listener has been already added, this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be notified with the received XBee data 
+	 *                 packets.
+	 * @param maxBatchSize Maximum number of messages notified in a batch.
+	 * @param maxDelay Maximum time (in microseconds) to wait for a complete 
+	 *                 batch.
+	 * @param capacity Maximum number of messages waiting to be notified.
+	 * @param overflowStrategy Strategy to apply when the mailbox is full.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxBatchSize < 1} or 
+	 *                                  if {@code maxDelay < 0} or 
+	 *                                  if {@code capacity < 1}.
+	 * @throws NullPointerException if {@code listener == null} or 
+	 *                              if {@code overflowStrategy == null}.
+	 * 
+	 * @see #removeDataBatchReceiveListener(IDataBatchReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IDataBatchReceiveListener
+	 * @see com.digi.xbee.api.models.OverflowStrategy
+	 */
+	public void addDataBatchReceiveListener(final IDataBatchReceiveListener listener, int maxBatchSize, 
+			long maxDelay, int capacity, OverflowStrategy overflowStrategy) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		synchronized (dataBatchReceiveListeners) {
+			if (dataBatchReceiveListeners.containsKey(listener))
+				return;
+			dataBatchReceiveListeners.put(listener, new ListenerMailbox<XBeeMessage>(capacity, overflowStrategy, maxBatchSize, maxDelay) {
+				/*
+				 * (non-Javadoc)
+				 * @see com.digi.xbee.api.connection.ListenerMailbox#deliver(java.util.List)
+				 */
+				@Override
+				protected void deliver(List<XBeeMessage> batch) {
+					listener.dataBatchReceived(batch);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Removes the given batch data receive listener from the list of batch 
+	 * data receive listeners.
+	 * 
+	 * <p>The messages already stored in the mailbox of the listener are 
+	 * still notified.</p>
+	 * 
+	 * <p>If the listener is not included in the list, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener Batch data receive listener to be removed from the list.
+	 * 
+	 * @see #addDataBatchReceiveListener(IDataBatchReceiveListener, int, long, int, OverflowStrategy)
+	 * @see com.digi.xbee.api.listeners.IDataBatchReceiveListener
+	 */
+	public void removeDataBatchReceiveListener(IDataBatchReceiveListener listener) {
+		synchronized (dataBatchReceiveListeners) {
+			ListenerMailbox<XBeeMessage> mailbox = dataBatchReceiveListeners.remove(listener);
+			if (mailbox != null)
+				mailbox.close();
 		}
 	}
 	
@@ -241,10 +577,7 @@ public class DataReader extends Thread {
 		if (listener == null)
 			throw new NullPointerException("Listener cannot be null.");
 		
-		synchronized (packetReceiveListeners) {
-			if (!packetReceiveListeners.containsKey(listener))
-				packetReceiveListeners.put(listener, frameID);
-		}
+		packetReceiveListeners.putIfAbsent(listener, frameID);
 	}
 	
 	/**
@@ -261,10 +594,8 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.listeners.IPacketReceiveListener
 	 */
 	public void removePacketReceiveListener(IPacketReceiveListener listener) {
-		synchronized (packetReceiveListeners) {
-			if (packetReceiveListeners.containsKey(listener))
-				packetReceiveListeners.remove(listener);
-		}
+		if (listener != null)
+			packetReceiveListeners.remove(listener);
 	}
 	
 	/**
@@ -285,10 +616,7 @@ public class DataReader extends Thread {
 		if (listener == null)
 			throw new NullPointerException("Listener cannot be null.");
 		
-		synchronized (ioSampleReceiveListeners) {
-			if (!ioSampleReceiveListeners.contains(listener))
-				ioSampleReceiveListeners.add(listener);
-		}
+		ioSampleReceiveListeners.addIfAbsent(listener);
 	}
 	
 	/**
@@ -304,10 +632,45 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.listeners.IIOSampleReceiveListener
 	 */
 	public void removeIOSampleReceiveListener(IIOSampleReceiveListener listener) {
-		synchronized (ioSampleReceiveListeners) {
-			if (ioSampleReceiveListeners.contains(listener))
-				ioSampleReceiveListeners.remove(listener);
-		}
+		ioSampleReceiveListeners.remove(listener);
+	}
+	
+	/**
+	 * Adds the given IO sample batch receive listener to the list of 
+	 * listeners that will be notified with all the IO samples of each 
+	 * received IO sample packet.
+	 * 
+	 * <p>If the listener has been already added, this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be notified when new IO sample packets are 
+	 *                 received.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #removeIOSampleBatchReceiveListener(IIOSampleBatchReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IIOSampleBatchReceiveListener
+	 */
+	public void addIOSampleBatchReceiveListener(IIOSampleBatchReceiveListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		ioSampleBatchReceiveListeners.addIfAbsent(listener);
+	}
+	
+	/**
+	 * Removes the given IO sample batch receive listener from the list of IO 
+	 * sample batch receive listeners.
+	 * 
+	 * <p>If the listener is not included in the list, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener IO sample batch receive listener to remove from the list.
+	 * 
+	 * @see #addIOSampleBatchReceiveListener(IIOSampleBatchReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IIOSampleBatchReceiveListener
+	 */
+	public void removeIOSampleBatchReceiveListener(IIOSampleBatchReceiveListener listener) {
+		ioSampleBatchReceiveListeners.remove(listener);
 	}
 	
 	/**
@@ -328,10 +691,7 @@ public class DataReader extends Thread {
 		if (listener == null)
 			throw new NullPointerException("Listener cannot be null.");
 		
-		synchronized (modemStatusListeners) {
-			if (!modemStatusListeners.contains(listener))
-				modemStatusListeners.add(listener);
-		}
+		modemStatusListeners.addIfAbsent(listener);
 	}
 	
 	/**
@@ -347,10 +707,7 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.listeners.IModemStatusReceiveListener
 	 */
 	public void removeModemStatusReceiveListener(IModemStatusReceiveListener listener) {
-		synchronized (modemStatusListeners) {
-			if (modemStatusListeners.contains(listener))
-				modemStatusListeners.remove(listener);
-		}
+		modemStatusListeners.remove(listener);
 	}
 	
 	/**
@@ -371,10 +728,8 @@ public class DataReader extends Thread {
 		if (listener == null)
 			throw new NullPointerException("Listener cannot be null.");
 		
-		synchronized (explicitDataReceiveListeners) {
-			if (!explicitDataReceiveListeners.contains(listener))
-				explicitDataReceiveListeners.add(listener);
-		}
+		filteredExplicitDataReceiveListeners.remove(listener);
+		explicitDataReceiveListeners.addIfAbsent(listener);
 	}
 	
 	/**
@@ -390,10 +745,90 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.listeners.IExplicitDataReceiveListener
 	 */
 	public void removeExplicitDataReceiveListener(IExplicitDataReceiveListener listener) {
-		synchronized (explicitDataReceiveListeners) {
-			if (explicitDataReceiveListeners.contains(listener))
-				explicitDataReceiveListeners.remove(listener);
-		}
+		explicitDataReceiveListeners.remove(listener);
+		filteredExplicitDataReceiveListeners.remove(listener);
+	}
+	
+	/**
+	 * Adds the given explicit data receive listener to be notified only when the 
+	 * received explicit data packets match the given filter.
+	 * 
+	 * <p>The filter is copied, so later changes do not affect this 
+	 * subscription. If the listener has been already added, its previous 
+	 * subscription is replaced.</p>
+	 * 
+	 * @param listener Listener to be notified when new explicit data packets matching 
+	 *                 the filter are received.
+	 * @param filter Conditions the received messages must meet.
+	 * 
+	 * @throws NullPointerException if {@code listener == null} or 
+	 *                              if {@code filter == null}.
+	 * 
+	 * @see #removeExplicitDataReceiveListener(IExplicitDataReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IExplicitDataReceiveListener
+	 * @see com.digi.xbee.api.models.ReceiveFilter
+	 */
+	public void addExplicitDataReceiveListener(IExplicitDataReceiveListener listener, ReceiveFilter filter) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		
+		filter = new ReceiveFilter(filter);
+		explicitDataReceiveListeners.remove(listener);
+		filteredExplicitDataReceiveListeners.add(listener, filter, filter.getSource64BitAddress());
+	}
+	
+	/**
+	 * Adds the given handler to the explicit data route of the given profile 
+	 * ID, cluster ID and destination endpoint.
+	 * 
+	 * <p>When an explicit data packet is received, only the handlers of the 
+	 * most specific matching route are notified.</p>
+	 * 
+	 * @param profileID The profile ID, {@link ExplicitDataRouter#ANY} to match 
+	 *                  any.
+	 * @param clusterID The cluster ID, {@link ExplicitDataRouter#ANY} to match 
+	 *                  any.
+	 * @param endpoint The destination endpoint, {@link ExplicitDataRouter#ANY} 
+	 *                 to match any.
+	 * @param handler Handler to be notified when explicit data of the route is 
+	 *                received.
+	 * 
+	 * @throws IllegalArgumentException if any of the route values is out of 
+	 *                                  range.
+	 * @throws NullPointerException if {@code handler == null}.
+	 * 
+	 * @see #removeExplicitDataRoute(int, int, int, IExplicitDataReceiveListener)
+	 * @see ExplicitDataRouter
+	 */
+	public void addExplicitDataRoute(int profileID, int clusterID, int endpoint, IExplicitDataReceiveListener handler) {
+		explicitDataRouter.addRoute(profileID, clusterID, endpoint, handler);
+	}
+	
+	/**
+	 * Removes the given handler from the explicit data route of the given 
+	 * profile ID, cluster ID and destination endpoint.
+	 * 
+	 * <p>If the handler is not in the route, this method does nothing.</p>
+	 * 
+	 * @param profileID The profile ID, {@link ExplicitDataRouter#ANY} to match 
+	 *                  any.
+	 * @param clusterID The cluster ID, {@link ExplicitDataRouter#ANY} to match 
+	 *                  any.
+	 * @param endpoint The destination endpoint, {@link ExplicitDataRouter#ANY} 
+	 *                 to match any.
+	 * @param handler Handler to remove from the route.
+	 * 
+	 * @throws IllegalArgumentException if any of the route values is out of 
+	 *                                  range.
+	 * @throws NullPointerException if {@code handler == null}.
+	 * 
+	 * @see #addExplicitDataRoute(int, int, int, IExplicitDataReceiveListener)
+	 * @see ExplicitDataRouter
+	 */
+	public void removeExplicitDataRoute(int profileID, int clusterID, int endpoint, IExplicitDataReceiveListener handler) {
+		explicitDataRouter.removeRoute(profileID, clusterID, endpoint, handler);
 	}
 	
 	/**
@@ -416,10 +851,8 @@ public class DataReader extends Thread {
 		if (listener == null)
 			throw new NullPointerException("Listener cannot be null.");
 		
-		synchronized (ipDataReceiveListeners) {
-			if (!ipDataReceiveListeners.contains(listener))
-				ipDataReceiveListeners.add(listener);
-		}
+		filteredIPDataReceiveListeners.remove(listener);
+		ipDataReceiveListeners.addIfAbsent(listener);
 	}
 	
 	/**
@@ -437,10 +870,38 @@ public class DataReader extends Thread {
 	 * @since 1.2.0
 	 */
 	public void removeIPDataReceiveListener(IIPDataReceiveListener listener) {
-		synchronized (ipDataReceiveListeners) {
-			if (ipDataReceiveListeners.contains(listener))
-				ipDataReceiveListeners.remove(listener);
-		}
+		ipDataReceiveListeners.remove(listener);
+		filteredIPDataReceiveListeners.remove(listener);
+	}
+	
+	/**
+	 * Adds the given IP data receive listener to be notified only when the 
+	 * received IP data packets match the given filter.
+	 * 
+	 * <p>The filter is copied, so later changes do not affect this 
+	 * subscription. If the listener has been already added, its previous 
+	 * subscription is replaced.</p>
+	 * 
+	 * @param listener Listener to be notified when new IP data packets matching 
+	 *                 the filter are received.
+	 * @param filter Conditions the received messages must meet.
+	 * 
+	 * @throws NullPointerException if {@code listener == null} or 
+	 *                              if {@code filter == null}.
+	 * 
+	 * @see #removeIPDataReceiveListener(IIPDataReceiveListener)
+	 * @see com.digi.xbee.api.listeners.IIPDataReceiveListener
+	 * @see com.digi.xbee.api.models.ReceiveFilter
+	 */
+	public void addIPDataReceiveListener(IIPDataReceiveListener listener, ReceiveFilter filter) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		
+		filter = new ReceiveFilter(filter);
+		ipDataReceiveListeners.remove(listener);
+		filteredIPDataReceiveListeners.add(listener, filter, filter.getSourceIPAddress());
 	}
 	
 	/**
@@ -462,10 +923,7 @@ public class DataReader extends Thread {
 		if (listener == null)
 			throw new NullPointerException("Listener cannot be null.");
 		
-		synchronized (smsReceiveListeners) {
-			if (!smsReceiveListeners.contains(listener))
-				smsReceiveListeners.add(listener);
-		}
+		smsReceiveListeners.addIfAbsent(listener);
 	}
 	
 	/**
@@ -483,15 +941,226 @@ public class DataReader extends Thread {
 	 * @since 1.2.0
 	 */
 	public void removeSMSReceiveListener(ISMSReceiveListener listener) {
-		synchronized (smsReceiveListeners) {
-			if (smsReceiveListeners.contains(listener))
-				smsReceiveListeners.remove(listener);
-		}
+		smsReceiveListeners.remove(listener);
+	}
+	
+	/**
+	 * Adds the given received frame listener to the list of listeners that 
+	 * will be notified with a read-only view of every received data frame.
+	 * 
+	 * <p>Received frame listeners are notified from the thread that reads the 
+	 * frames, before the frame is parsed into a packet. The view and the 
+	 * buffer it reads from are reused for the next frame, so listeners must 
+	 * copy any data they need to keep.</p>
+	 * 
+	 * <p>If the listener has been already added, this method does nothing.</p>
+	 * 
+	 * @param listener Listener to be notified when new data frames are 
+	 *                 received.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #removeRxFrameListener(IRxFrameListener)
+	 * @see #setFlyweightDecode(boolean)
+	 * @see com.digi.xbee.api.listeners.IRxFrameListener
+	 * @see com.digi.xbee.api.packet.RxFrameView
+	 */
+	public void addRxFrameListener(IRxFrameListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		rxFrameListeners.addIfAbsent(listener);
+	}
+	
+	/**
+	 * Removes the given received frame listener from the list of received 
+	 * frame listeners.
+	 * 
+	 * <p>If the listener is not included in the list, this method does 
+	 * nothing.</p>
+	 * 
+	 * @param listener Received frame listener to remove.
+	 * 
+	 * @see #addRxFrameListener(IRxFrameListener)
+	 * @see com.digi.xbee.api.listeners.IRxFrameListener
+	 */
+	public void removeRxFrameListener(IRxFrameListener listener) {
+		rxFrameListeners.remove(listener);
+	}
+	
+	/**
+	 * Configures whether the data frames received while there are received 
+	 * frame listeners are only delivered to them.
+	 * 
+	 * <p>When enabled, the data frames supported by {@link RxFrameView} are 
+	 * not parsed into packets: they are not stored in the packets queue and 
+	 * the rest of listeners are not notified, so no objects are allocated to 
+	 * receive them. The rest of frames are processed as usual. This mode has 
+	 * no effect while there are no received frame listeners.</p>
+	 * 
+	 * @param enabled {@code true} to deliver data frames only to the received 
+	 *                frame listeners, {@code false} to also parse them.
+	 * 
+	 * @see #isFlyweightDecode()
+	 * @see #addRxFrameListener(IRxFrameListener)
+	 */
+	public void setFlyweightDecode(boolean enabled) {
+		flyweightDecode = enabled;
+	}
+	
+	/**
+	 * Returns whether the data frames are only delivered to the received 
+	 * frame listeners.
+	 * 
+	 * @return {@code true} if data frames are only delivered to the received 
+	 *         frame listeners, {@code false} otherwise.
+	 * 
+	 * @see #setFlyweightDecode(boolean)
+	 */
+	public boolean isFlyweightDecode() {
+		return flyweightDecode;
+	}
+	
+	/**
+	 * Sets the store where the IO samples received by this reader are kept.
+	 * 
+	 * <p>Every IO sample received from a remote device is stored before 
+	 * notifying the IO sample listeners, even if there are no listeners.</p>
+	 * 
+	 * @param ioSampleStore The store of the received IO samples, 
+	 *                      {@code null} to not store them.
+	 * 
+	 * @see #getIOSampleStore()
+	 * @see com.digi.xbee.api.io.IOSampleStore
+	 */
+	public void setIOSampleStore(IOSampleStore ioSampleStore) {
+		this.ioSampleStore = ioSampleStore;
+	}
+	
+	/**
+	 * Returns the store where the IO samples received by this reader are 
+	 * kept.
+	 * 
+	 * @return The store of the received IO samples, {@code null} if they are 
+	 *         not stored.
+	 * 
+	 * @see #setIOSampleStore(IOSampleStore)
+	 * @see com.digi.xbee.api.io.IOSampleStore
+	 */
+	public IOSampleStore getIOSampleStore() {
+		return ioSampleStore;
+	}
+	
+	/**
+	 * Sets the filter that decides which received IO samples are delivered 
+	 * to the IO sample listeners.
+	 * 
+	 * <p>Samples suppressed by the filter are still kept in the IO sample 
+	 * store, if any.</p>
+	 * 
+	 * @param ioDeadbandFilter The filter of the received IO samples, 
+	 *                         {@code null} to deliver all of them.
+	 * 
+	 * @see #getIODeadbandFilter()
+	 * @see #setIOSampleStore(IOSampleStore)
+	 * @see com.digi.xbee.api.io.IODeadbandFilter
+	 */
+	public void setIODeadbandFilter(IODeadbandFilter ioDeadbandFilter) {
+		this.ioDeadbandFilter = ioDeadbandFilter;
+	}
+	
+	/**
+	 * Returns the filter that decides which received IO samples are 
+	 * delivered to the IO sample listeners.
+	 * 
+	 * @return The filter of the received IO samples, {@code null} if all of 
+	 *         them are delivered.
+	 * 
+	 * @see #setIODeadbandFilter(IODeadbandFilter)
+	 * @see com.digi.xbee.api.io.IODeadbandFilter
+	 */
+	public IODeadbandFilter getIODeadbandFilter() {
+		return ioDeadbandFilter;
+	}
+	
+	/**
+	 * Sets the cache where the latest IO sample received from each remote 
+	 * device is kept.
+	 * 
+	 * @param ioStateCache The cache of the IO state of the remote devices, 
+	 *                     {@code null} to not cache it.
+	 * 
+	 * @see #getIOStateCache()
+	 * @see com.digi.xbee.api.io.IOStateCache
+	 */
+	public void setIOStateCache(IOStateCache ioStateCache) {
+		this.ioStateCache = ioStateCache;
+	}
+	
+	/**
+	 * Returns the cache where the latest IO sample received from each remote 
+	 * device is kept.
+	 * 
+	 * @return The cache of the IO state of the remote devices, {@code null} 
+	 *         if it is not cached.
+	 * 
+	 * @see #setIOStateCache(IOStateCache)
+	 * @see com.digi.xbee.api.io.IOStateCache
+	 */
+	public IOStateCache getIOStateCache() {
+		return ioStateCache;
+	}
+	
+	/**
+	 * Starts the thread that reads data from the connection interface.
+	 * 
+	 * <p>The thread is created with the thread factory configured in 
+	 * {@link ThreadUtils}.</p>
+	 * 
+	 * @throws IllegalThreadStateException if the data reader was already 
+	 *                                     started.
+	 * 
+	 * @see #isAlive()
+	 * @see #stopReader()
+	 * @see ThreadUtils#setThreadFactory(ThreadFactory)
+	 */
+	public synchronized void start() {
+		if (readerThread != null)
+			throw new IllegalThreadStateException("Data reader already started.");
+		
+		readerThread = ThreadUtils.newThread(this, THREAD_NAME);
+		readerThread.start();
+	}
+	
+	/**
+	 * Returns whether the thread of this data reader is alive or not.
+	 * 
+	 * @return {@code true} if the thread of the data reader has been started 
+	 *         and has not died yet, {@code false} otherwise.
+	 * 
+	 * @see #start()
+	 */
+	public boolean isAlive() {
+		Thread thread = readerThread;
+		return thread != null && thread.isAlive();
+	}
+	
+	/**
+	 * Returns the identifier of the thread of this data reader.
+	 * 
+	 * @return The identifier of the thread of the data reader, {@code -1} if 
+	 *         it has not been started.
+	 * 
+	 * @see #start()
+	 */
+	public long getId() {
+		Thread thread = readerThread;
+		return thread == null ? -1 : thread.getId();
 	}
 	
 	/*
 	 * (non-Javadoc)
-	 * @see java.lang.Thread#run()
+	 * @see java.lang.Runnable#run()
 	 */
 	@Override
 	public void run() {
@@ -499,10 +1168,13 @@ public class DataReader extends Thread {
 		running = true;
 		// Clear the list of read packets.
 		xbeePacketsQueue.clearQueue();
+		IDataAvailableNotifier notifier = null;
+		if (connectionInterface instanceof IDataAvailableNotifier) {
+			notifier = (IDataAvailableNotifier)connectionInterface;
+			notifier.addDataAvailableListener(dataAvailableListener);
+		}
 		try {
-			synchronized (connectionInterface) {
-				connectionInterface.wait();
-			}
+			waitForData(notifier != null);
 			while (running) {
 				if (!running)
 					break;
@@ -516,8 +1188,15 @@ public class DataReader extends Thread {
 						// If it is packet header parse the packet, if not discard this byte and continue.
 						if (headerByte == SpecialByte.HEADER_BYTE.getValue()) {
 							try {
-								XBeePacket packet = parser.parsePacket(connectionInterface.getInputStream(), mode);
-								packetReceived(packet);
+								PacketDecodeStage stage = getActiveDecodeStage();
+								if (!rxFrameListeners.isEmpty()) {
+									frameReceived(connectionInterface.getInputStream(), mode);
+								} else if (stage != null) {
+									stage.submit(parser.readPayload(connectionInterface.getInputStream(), mode));
+								} else {
+									XBeePacket packet = parser.parsePacket(connectionInterface.getInputStream(), mode);
+									packetReceived(packet);
+								}
 							} catch (InvalidPacketException e) {
 								logger.error("Error parsing the API packet.", e);
 							}
@@ -532,9 +1211,7 @@ public class DataReader extends Thread {
 					break;
 				else if (connectionInterface.getInputStream().available() > 0)
 					continue;
-				synchronized (connectionInterface) {
-					connectionInterface.wait();
-				}
+				waitForData(notifier != null);
 			}
 		} catch (IOException e) {
 			logger.error("Error reading from input stream.", e);
@@ -543,6 +1220,8 @@ public class DataReader extends Thread {
 		} catch (IllegalStateException e) {
 			logger.error(e.getMessage(), e);
 		} finally {
+			if (notifier != null)
+				notifier.removeDataAvailableListener(dataAvailableListener);
 			if (running) {
 				running = false;
 				if (connectionInterface.isOpen())
@@ -551,6 +1230,193 @@ public class DataReader extends Thread {
 		}
 	}
 	
+	/**
+	 * Waits until the connection interface has new data to read or the data 
+	 * reader is stopped.
+	 * 
+	 * <p>Connection interfaces that notify data available listeners are 
+	 * waited on with a condition, so no monitor of the connection interface 
+	 * is held. Any other connection interface signals new data calling 
+	 * {@code notify()} on itself as required by {@link IConnectionInterface}, 
+	 * so its monitor is waited on.</p>
+	 * 
+	 * @param notified {@code true} if the connection interface notifies data 
+	 *                 available listeners, {@code false} otherwise.
+	 * 
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 * 
+	 * @see #signalDataAvailable()
+	 */
+	private void waitForData(boolean notified) throws InterruptedException {
+		if (!notified) {
+			synchronized (connectionInterface) {
+				connectionInterface.wait();
+			}
+			return;
+		}
+		dataLock.lock();
+		try {
+			while (!dataPending && running)
+				dataAvailable.await();
+			dataPending = false;
+		} finally {
+			dataLock.unlock();
+		}
+	}
+	
+	/**
+	 * Wakes up the thread of this data reader if it is waiting for new data.
+	 * 
+	 * @see #waitForData(boolean)
+	 */
+	private void signalDataAvailable() {
+		dataLock.lock();
+		try {
+			dataPending = true;
+			dataAvailable.signal();
+		} finally {
+			dataLock.unlock();
+		}
+	}
+	
+	/**
+	 * Prepares this data reader to be serviced by a connection event loop 
+	 * instead of running its own thread.
+	 * 
+	 * @see ConnectionEventLoop#register(DataReader)
+	 * @see #readAvailableData()
+	 */
+	void startPolling() {
+		logger.debug(connectionInterface.toString() + "Data reader started in event loop.");
+		frameDecoder = new XBeeFrameDecoder();
+		readBuffer = new byte[READ_BUFFER_SIZE];
+		decodedFrames = new ArrayList<byte[]>();
+		// Clear the list of read packets.
+		xbeePacketsQueue.clearQueue();
+		running = true;
+	}
+	
+	/**
+	 * Returns the connection interface this data reader reads data from.
+	 * 
+	 * @return The connection interface of this data reader.
+	 */
+	IConnectionInterface getConnectionInterface() {
+		return connectionInterface;
+	}
+	
+	/**
+	 * Reads the bytes available in the connection interface without blocking, 
+	 * decodes them and dispatches the completed packets.
+	 * 
+	 * <p>This method is used by the connection event loop to service this 
+	 * data reader. Frames may be split across several calls.</p>
+	 * 
+	 * @return The number of bytes read, {@code -1} if the input stream of the 
+	 *         connection interface is not available.
+	 * 
+	 * @throws IOException if there is any problem reading from the input 
+	 *                     stream.
+	 * 
+	 * @see ConnectionEventLoop
+	 */
+	int readAvailableData() throws IOException {
+		if (connectionInterface.getInputStream() == null)
+			return -1;
+		
+		OperatingMode currentMode = mode;
+		if (currentMode != OperatingMode.API && currentMode != OperatingMode.API_ESCAPE)
+			return 0;
+		
+		int available = connectionInterface.getInputStream().available();
+		if (available <= 0)
+			return 0;
+		
+		int read = connectionInterface.getInputStream().read(readBuffer, 0, Math.min(available, readBuffer.length));
+		if (read <= 0)
+			return read;
+		
+		frameDecoder.decode(readBuffer, 0, read, currentMode, decodedFrames);
+		PacketDecodeStage stage = getActiveDecodeStage();
+		for (byte[] frame : decodedFrames) {
+			try {
+				// Decoded frames are already unescaped.
+				if (!rxFrameListeners.isEmpty())
+					frameReceived(new ByteArrayInputStream(frame, 1, frame.length - 1), OperatingMode.API);
+				else if (stage != null)
+					stage.submit(parser.readPayload(new ByteArrayInputStream(frame, 1, frame.length - 1), OperatingMode.API));
+				else
+					packetReceived(parser.parsePacket(frame, OperatingMode.API));
+			} catch (InvalidPacketException e) {
+				logger.error("Error parsing the API packet.", e);
+			}
+		}
+		decodedFrames.clear();
+		
+		return read;
+	}
+	
+	/**
+	 * Reads a frame into the reusable payload buffer, notifies the received 
+	 * frame listeners with a view of it and, unless the frame is only 
+	 * delivered to them, parses and dispatches it.
+	 * 
+	 * @param inputStream The input stream to read the frame from, right after 
+	 *                    its start delimiter.
+	 * @param mode The operating mode to read the frame.
+	 * 
+	 * @throws InvalidPacketException if the frame is not valid.
+	 * 
+	 * @see #setFlyweightDecode(boolean)
+	 */
+	private void frameReceived(InputStream inputStream, OperatingMode mode) throws InvalidPacketException {
+		if (payloadBuffer == null)
+			payloadBuffer = new byte[MAXIMUM_PAYLOAD_SIZE];
+		
+		int length = parser.readPayload(inputStream, mode, payloadBuffer);
+		if (length > 0 && RxFrameView.isSupported(payloadBuffer[0] & 0xFF)) {
+			boolean wrapped = false;
+			try {
+				rxFrameView.wrap(payloadBuffer, 0, length);
+				wrapped = true;
+			} catch (IllegalArgumentException e) {
+				// Incomplete frame, let the parser report it.
+			}
+			if (wrapped) {
+				notifyRxFrameReceived(rxFrameView);
+				if (flyweightDecode)
+					return;
+			}
+		}
+		
+		byte[] payload = Arrays.copyOf(payloadBuffer, length);
+		PacketDecodeStage stage = getActiveDecodeStage();
+		if (stage != null)
+			stage.submit(payload);
+		else
+			packetReceived(parser.parsePayload(payload));
+	}
+	
+	/**
+	 * Notifies the received frame listeners with the given frame view.
+	 * 
+	 * <p>Listeners are notified from the calling thread, as the view is only 
+	 * valid until the next frame is read.</p>
+	 * 
+	 * @param frame The view of the received frame.
+	 * 
+	 * @see com.digi.xbee.api.listeners.IRxFrameListener
+	 */
+	private void notifyRxFrameReceived(RxFrameView frame) {
+		for (IRxFrameListener listener : rxFrameListeners) {
+			try {
+				listener.rxFrameReceived(frame);
+			} catch (Exception e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+	}
+	
 	/**
 	 * Dispatches the received XBee packet to the corresponding listener(s).
 	 * 
@@ -561,6 +1427,44 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.packet.XBeePacket
 	 */
 	private void packetReceived(XBeePacket packet) {
+		dispatchPacket(resolvePacket(packet));
+	}
+	
+	/**
+	 * Resolves the remote device the given packet was received from.
+	 * 
+	 * <p>This method may be called from several decoding threads at the same 
+	 * time.</p>
+	 * 
+	 * @param packet The received XBee packet.
+	 * 
+	 * @return The packet with its remote device.
+	 * 
+	 * @see #dispatchPacket(PacketDecodeStage.DecodedPacket)
+	 */
+	PacketDecodeStage.DecodedPacket resolvePacket(XBeePacket packet) {
+		if (!(packet instanceof XBeeAPIPacket) || ((XBeeAPIPacket)packet).getFrameType() == null)
+			return new PacketDecodeStage.DecodedPacket(packet, null, null);
+		
+		try {
+			// Obtain the remote device from the packet.
+			return new PacketDecodeStage.DecodedPacket(packet, getRemoteXBeeDeviceFromPacket((XBeeAPIPacket)packet), null);
+		} catch (XBeeException e) {
+			return new PacketDecodeStage.DecodedPacket(packet, null, e);
+		}
+	}
+	
+	/**
+	 * Dispatches the given decoded packet to the corresponding listener(s).
+	 * 
+	 * <p>Packets must be dispatched in the order they were received.</p>
+	 * 
+	 * @param decodedPacket The received packet with its remote device.
+	 * 
+	 * @see #resolvePacket(XBeePacket)
+	 */
+	void dispatchPacket(PacketDecodeStage.DecodedPacket decodedPacket) {
+		XBeePacket packet = decodedPacket.packet;
 		// Add the packet to the packets queue.
 		xbeePacketsQueue.addPacket(packet);
 		// Notify that a packet has been received to the corresponding listeners.
@@ -576,96 +1480,101 @@ public class DataReader extends Thread {
 		if (apiType == null)
 			return;
 		
-		try {
-			// Obtain the remote device from the packet.
-			RemoteXBeeDevice remoteDevice = getRemoteXBeeDeviceFromPacket(apiPacket);
-			byte[] data = null;
-			
-			switch(apiType) {
-			case RECEIVE_PACKET:
-				ReceivePacket receivePacket = (ReceivePacket)apiPacket;
-				data = receivePacket.getRFData();
-				notifyDataReceived(new XBeeMessage(remoteDevice, data, apiPacket.isBroadcast()));
-				break;
-			case RX_64:
-				RX64Packet rx64Packet = (RX64Packet)apiPacket;
-				data = rx64Packet.getRFData();
-				notifyDataReceived(new XBeeMessage(remoteDevice, data, apiPacket.isBroadcast()));
-				break;
-			case RX_16:
-				RX16Packet rx16Packet = (RX16Packet)apiPacket;
-				data = rx16Packet.getRFData();
-				notifyDataReceived(new XBeeMessage(remoteDevice, data, apiPacket.isBroadcast()));
-				break;
-			case IO_DATA_SAMPLE_RX_INDICATOR:
-				IODataSampleRxIndicatorPacket ioSamplePacket = (IODataSampleRxIndicatorPacket)apiPacket;
-				notifyIOSampleReceived(remoteDevice, ioSamplePacket.getIOSample());
-				break;
-			case RX_IO_64:
-				RX64IOPacket rx64IOPacket = (RX64IOPacket)apiPacket;
+		if (decodedPacket.error != null) {
+			logger.error(decodedPacket.error.getMessage(), decodedPacket.error);
+			return;
+		}
+		
+		RemoteXBeeDevice remoteDevice = decodedPacket.remoteDevice;
+		byte[] data = null;
+		
+		switch(apiType) {
+		case RECEIVE_PACKET:
+			ReceivePacket receivePacket = (ReceivePacket)apiPacket;
+			data = receivePacket.getRFData();
+			dataReceived(apiType, new XBeeMessage(remoteDevice, data, apiPacket.isBroadcast()));
+			break;
+		case RX_64:
+			RX64Packet rx64Packet = (RX64Packet)apiPacket;
+			data = rx64Packet.getRFData();
+			dataReceived(apiType, new XBeeMessage(remoteDevice, data, apiPacket.isBroadcast()));
+			break;
+		case RX_16:
+			RX16Packet rx16Packet = (RX16Packet)apiPacket;
+			data = rx16Packet.getRFData();
+			dataReceived(apiType, new XBeeMessage(remoteDevice, data, apiPacket.isBroadcast()));
+			break;
+		case IO_DATA_SAMPLE_RX_INDICATOR:
+			IODataSampleRxIndicatorPacket ioSamplePacket = (IODataSampleRxIndicatorPacket)apiPacket;
+			notifyIOSampleReceived(remoteDevice, ioSamplePacket.getIOSample());
+			break;
+		case RX_IO_64:
+			RX64IOPacket rx64IOPacket = (RX64IOPacket)apiPacket;
+			if (rx64IOPacket.getIOSamples().size() > 1)
+				notifyIOSamplesReceived(remoteDevice, rx64IOPacket.getIOSamples());
+			else
 				notifyIOSampleReceived(remoteDevice, rx64IOPacket.getIOSample());
-				break;
-			case RX_IO_16:
-				RX16IOPacket rx16IOPacket = (RX16IOPacket)apiPacket;
+			break;
+		case RX_IO_16:
+			RX16IOPacket rx16IOPacket = (RX16IOPacket)apiPacket;
+			if (rx16IOPacket.getIOSamples().size() > 1)
+				notifyIOSamplesReceived(remoteDevice, rx16IOPacket.getIOSamples());
+			else
 				notifyIOSampleReceived(remoteDevice, rx16IOPacket.getIOSample());
-				break;
-			case IPV6_IO_DATA_SAMPLE_RX_INDICATOR:
-				IPv6IODataSampleRxIndicator ioSampleIPv6Packet = (IPv6IODataSampleRxIndicator)apiPacket;
-				notifyIOSampleReceived(remoteDevice, ioSampleIPv6Packet.getIOSample());
-				break;
-			case MODEM_STATUS:
-				ModemStatusPacket modemStatusPacket = (ModemStatusPacket)apiPacket;
-				notifyModemStatusReceived(modemStatusPacket.getStatus());
-				break;
-			case EXPLICIT_RX_INDICATOR:
-				ExplicitRxIndicatorPacket explicitDataPacket = (ExplicitRxIndicatorPacket)apiPacket;
-				int sourceEndpoint = explicitDataPacket.getSourceEndpoint();
-				int destEndpoint = explicitDataPacket.getDestinationEndpoint();
-				int clusterID = explicitDataPacket.getClusterID();
-				int profileID = explicitDataPacket.getProfileID();
-				data = explicitDataPacket.getRFData();
-				// If this is an explicit packet for data transmissions in the Digi profile, 
-				// notify also the data listener and add a Receive packet to the queue.
-				if (sourceEndpoint == ExplicitRxIndicatorPacket.DATA_ENDPOINT && 
-						destEndpoint == ExplicitRxIndicatorPacket.DATA_ENDPOINT &&
-						clusterID == ExplicitRxIndicatorPacket.DATA_CLUSTER && 
-						profileID == ExplicitRxIndicatorPacket.DIGI_PROFILE) {
-					notifyDataReceived(new XBeeMessage(remoteDevice, data, apiPacket.isBroadcast()));
-					xbeePacketsQueue.addPacket(new ReceivePacket(explicitDataPacket.get64BitSourceAddress(), 
-							explicitDataPacket.get16BitSourceAddress(), 
-							explicitDataPacket.getReceiveOptions(), 
-							explicitDataPacket.getRFData()));
-				}
-				notifyExplicitDataReceived(new ExplicitXBeeMessage(remoteDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data, explicitDataPacket.isBroadcast()));
-				break;
-			case RX_IPV4:
-				RXIPv4Packet rxIPv4Packet = (RXIPv4Packet)apiPacket;
-				notifyIPDataReceived(new IPMessage(
-						rxIPv4Packet.getSourceAddress(), 
-						rxIPv4Packet.getSourcePort(), 
-						rxIPv4Packet.getDestPort(),
-						rxIPv4Packet.getProtocol(),
-						rxIPv4Packet.getData()));
-				break;
-			case RX_IPV6:
-				RXIPv6Packet rxIPv6Packet = (RXIPv6Packet)apiPacket;
-				notifyIPDataReceived(new IPMessage(
-						rxIPv6Packet.getSourceAddress(), 
-						rxIPv6Packet.getSourcePort(), 
-						rxIPv6Packet.getDestPort(),
-						rxIPv6Packet.getProtocol(),
-						rxIPv6Packet.getData()));
-				break;
-			case RX_SMS:
-				RXSMSPacket rxSMSPacket = (RXSMSPacket)apiPacket;
-				notifySMSReceived(new SMSMessage(rxSMSPacket.getPhoneNumber(), rxSMSPacket.getData()));
-				break;
-			default:
-				break;
+			break;
+		case IPV6_IO_DATA_SAMPLE_RX_INDICATOR:
+			IPv6IODataSampleRxIndicator ioSampleIPv6Packet = (IPv6IODataSampleRxIndicator)apiPacket;
+			notifyIOSampleReceived(remoteDevice, ioSampleIPv6Packet.getIOSample());
+			break;
+		case MODEM_STATUS:
+			ModemStatusPacket modemStatusPacket = (ModemStatusPacket)apiPacket;
+			notifyModemStatusReceived(modemStatusPacket.getStatus());
+			break;
+		case EXPLICIT_RX_INDICATOR:
+			ExplicitRxIndicatorPacket explicitDataPacket = (ExplicitRxIndicatorPacket)apiPacket;
+			int sourceEndpoint = explicitDataPacket.getSourceEndpoint();
+			int destEndpoint = explicitDataPacket.getDestinationEndpoint();
+			int clusterID = explicitDataPacket.getClusterID();
+			int profileID = explicitDataPacket.getProfileID();
+			data = explicitDataPacket.getRFData();
+			// If this is an explicit packet for data transmissions in the Digi profile, 
+			// notify also the data listener and add a Receive packet to the queue.
+			if (sourceEndpoint == ExplicitRxIndicatorPacket.DATA_ENDPOINT && 
+					destEndpoint == ExplicitRxIndicatorPacket.DATA_ENDPOINT &&
+					clusterID == ExplicitRxIndicatorPacket.DATA_CLUSTER && 
+					profileID == ExplicitRxIndicatorPacket.DIGI_PROFILE) {
+				dataReceived(apiType, new XBeeMessage(remoteDevice, data, apiPacket.isBroadcast()));
+				xbeePacketsQueue.addPacket(new ReceivePacket(explicitDataPacket.get64BitSourceAddress(), 
+						explicitDataPacket.get16BitSourceAddress(), 
+						explicitDataPacket.getReceiveOptions(), 
+						explicitDataPacket.getRFData()));
 			}
-			
-		} catch (XBeeException e) {
-			logger.error(e.getMessage(), e);
+			explicitDataReceived(apiType, new ExplicitXBeeMessage(remoteDevice, sourceEndpoint, destEndpoint, clusterID, profileID, data, explicitDataPacket.isBroadcast()));
+			break;
+		case RX_IPV4:
+			RXIPv4Packet rxIPv4Packet = (RXIPv4Packet)apiPacket;
+			ipDataReceived(apiType, new IPMessage(
+					rxIPv4Packet.getSourceAddress(), 
+					rxIPv4Packet.getSourcePort(), 
+					rxIPv4Packet.getDestPort(),
+					rxIPv4Packet.getProtocol(),
+					rxIPv4Packet.getData()));
+			break;
+		case RX_IPV6:
+			RXIPv6Packet rxIPv6Packet = (RXIPv6Packet)apiPacket;
+			ipDataReceived(apiType, new IPMessage(
+					rxIPv6Packet.getSourceAddress(), 
+					rxIPv6Packet.getSourcePort(), 
+					rxIPv6Packet.getDestPort(),
+					rxIPv6Packet.getProtocol(),
+					rxIPv6Packet.getData()));
+			break;
+		case RX_SMS:
+			RXSMSPacket rxSMSPacket = (RXSMSPacket)apiPacket;
+			notifySMSReceived(new SMSMessage(rxSMSPacket.getPhoneNumber(), rxSMSPacket.getData()));
+			break;
+		default:
+			break;
 		}
 	}
 	
@@ -737,10 +1646,7 @@ public class DataReader extends Thread {
 		case RX_IPV6:
 			RXIPv6Packet rxIPv6Packet = (RXIPv6Packet)apiPacket;
 			addrIPv6 = rxIPv6Packet.getSourceAddress();
-			if (xbeeDevice.getXBeeProtocol() == XBeeProtocol.THREAD)
-				remoteDevice = new RemoteThreadDevice(xbeeDevice, addrIPv6);
-			else
-				remoteDevice = new RemoteXBeeDevice(xbeeDevice, addrIPv6);
+			remoteDevice = getRemoteIPv6Device(addrIPv6);
 			break;
 		case IO_DATA_SAMPLE_RX_INDICATOR:
 			IODataSampleRxIndicatorPacket ioSamplePacket = (IODataSampleRxIndicatorPacket)apiPacket;
@@ -751,10 +1657,7 @@ public class DataReader extends Thread {
 		case IPV6_IO_DATA_SAMPLE_RX_INDICATOR:
 			IPv6IODataSampleRxIndicator ioSampleIPv6Packet = (IPv6IODataSampleRxIndicator)apiPacket;
 			addrIPv6 = ioSampleIPv6Packet.getSourceAddress();
-			if (xbeeDevice.getXBeeProtocol() == XBeeProtocol.THREAD)
-				remoteDevice = new RemoteThreadDevice(xbeeDevice, addrIPv6);
-			else
-				remoteDevice = new RemoteXBeeDevice(xbeeDevice, addrIPv6);
+			remoteDevice = getRemoteIPv6Device(addrIPv6);
 			break;
 		case RX_IO_64:
 			RX64IOPacket rx64IOPacket = (RX64IOPacket)apiPacket;
@@ -779,16 +1682,55 @@ public class DataReader extends Thread {
 			return remoteDevice;
 		}
 		
-		// If the origin is not in the network, add it.
+		// If the origin is not in the network, add it. Otherwise, refresh the 
+		// last time it was heard.
 		if (remoteDevice == null) {
 			remoteDevice = createRemoteXBeeDevice(addr64, addr16, null);
-			if (!addr64.equals(XBee64BitAddress.UNKNOWN_ADDRESS) || !addr16.equals(XBee16BitAddress.UNKNOWN_ADDRESS))
-				network.addRemoteDevice(remoteDevice);
+			if (!addr64.equals(XBee64BitAddress.UNKNOWN_ADDRESS) || !addr16.equals(XBee16BitAddress.UNKNOWN_ADDRESS)) {
+				// Packets may be decoded in parallel, so use the instance 
+				// stored by the first one received from the same device.
+				synchronized (network) {
+					RemoteXBeeDevice devInNetwork = network.addRemoteDevice(remoteDevice);
+					if (devInNetwork != null)
+						remoteDevice = devInNetwork;
+				}
+			}
+		} else if (network != null) {
+			network.updateLastHeardTime(remoteDevice);
 		}
 		
 		return remoteDevice;
 	}
 	
+	/**
+	 * Returns the remote device with the provided IPv6 address.
+	 * 
+	 * <p>The same instance is returned for every frame received from the 
+	 * same IPv6 address while it remains among the 
+	 * {@value #MAXIMUM_IPV6_REMOTE_DEVICES} most recently heard devices.</p>
+	 * 
+	 * <p>The new device will be a {@code RemoteThreadDevice} if the local 
+	 * XBee device is a Thread device, or a {@code RemoteXBeeDevice} 
+	 * otherwise.</p>
+	 * 
+	 * @param addrIPv6 The IPv6 address of the remote device.
+	 * 
+	 * @return The remote device with the given IPv6 address.
+	 */
+	private RemoteXBeeDevice getRemoteIPv6Device(Inet6Address addrIPv6) {
+		synchronized (ipv6RemoteDevices) {
+			RemoteXBeeDevice remoteDevice = ipv6RemoteDevices.get(addrIPv6);
+			if (remoteDevice == null) {
+				if (xbeeDevice.getXBeeProtocol() == XBeeProtocol.THREAD)
+					remoteDevice = new RemoteThreadDevice(xbeeDevice, addrIPv6);
+				else
+					remoteDevice = new RemoteXBeeDevice(xbeeDevice, addrIPv6);
+				ipv6RemoteDevices.put(addrIPv6, remoteDevice);
+			}
+			return remoteDevice;
+		}
+	}
+	
 	/**
 	 * Creates a new remote XBee device with the provided 64-bit address, 
 	 * 16-bit address, node identifier and the XBee device that is using this 
@@ -834,6 +1776,171 @@ public class DataReader extends Thread {
 		return device;
 	}
 	
+	/**
+	 * Notifies the data receive listeners and the filtered ones that a new 
+	 * XBee data packet has been received.
+	 * 
+	 * @param type The API frame type of the received packet.
+	 * @param xbeeMessage The received XBee message.
+	 * 
+	 * @see #notifyDataReceived(XBeeMessage)
+	 */
+	private void dataReceived(APIFrameType type, final XBeeMessage xbeeMessage) {
+		notifyDataReceived(xbeeMessage);
+		
+		if (filteredDataReceiveListeners.isEmpty())
+			return;
+		
+		try {
+			List<FilteredListeners.Subscription<IDataReceiveListener>> candidates = filteredDataReceiveListeners.getCandidates(xbeeMessage.getDevice().get64BitAddress(), type);
+			ListenerExecutor executor = null;
+			for (FilteredListeners.Subscription<IDataReceiveListener> subscription:candidates) {
+				if (!subscription.filter.matches(xbeeMessage))
+					continue;
+				if (executor == null)
+					executor = getListenerExecutor(getSource(xbeeMessage.getDevice()), candidates.size());
+				final IDataReceiveListener listener = subscription.listener;
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.dataReceived(xbeeMessage);
+					}
+				});
+			}
+			if (executor != null)
+				releaseListenerExecutor(executor);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Notifies the explicit data receive listeners, the filtered ones and the 
+	 * handlers of the matching route that a new explicit data packet has been 
+	 * received.
+	 * 
+	 * @param type The API frame type of the received packet.
+	 * @param explicitXBeeMessage The received explicit XBee message.
+	 * 
+	 * @see #notifyExplicitDataReceived(ExplicitXBeeMessage)
+	 */
+	private void explicitDataReceived(APIFrameType type, final ExplicitXBeeMessage explicitXBeeMessage) {
+		notifyExplicitDataReceived(explicitXBeeMessage);
+		
+		if (!explicitDataRouter.isEmpty())
+			notifyExplicitDataRouted(explicitXBeeMessage);
+		
+		if (filteredExplicitDataReceiveListeners.isEmpty())
+			return;
+		
+		try {
+			List<FilteredListeners.Subscription<IExplicitDataReceiveListener>> candidates = filteredExplicitDataReceiveListeners.getCandidates(explicitXBeeMessage.getDevice().get64BitAddress(), type);
+			ListenerExecutor executor = null;
+			for (FilteredListeners.Subscription<IExplicitDataReceiveListener> subscription:candidates) {
+				if (!subscription.filter.matches(explicitXBeeMessage))
+					continue;
+				if (executor == null)
+					executor = getListenerExecutor(getSource(explicitXBeeMessage.getDevice()), candidates.size());
+				final IExplicitDataReceiveListener listener = subscription.listener;
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.explicitDataReceived(explicitXBeeMessage);
+					}
+				});
+			}
+			if (executor != null)
+				releaseListenerExecutor(executor);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Notifies the handlers of the explicit data route that matches the given 
+	 * message.
+	 * 
+	 * @param explicitXBeeMessage The received explicit XBee message.
+	 * 
+	 * @see ExplicitDataRouter#route(int, int, int)
+	 */
+	private void notifyExplicitDataRouted(final ExplicitXBeeMessage explicitXBeeMessage) {
+		List<IExplicitDataReceiveListener> handlers = explicitDataRouter.route(explicitXBeeMessage.getProfileID(), 
+				explicitXBeeMessage.getClusterID(), explicitXBeeMessage.getDestinationEndpoint());
+		if (handlers.isEmpty())
+			return;
+		
+		try {
+			ListenerExecutor executor = getListenerExecutor(getSource(explicitXBeeMessage.getDevice()), handlers.size());
+			for (final IExplicitDataReceiveListener handler:handlers) {
+				notifyListener(executor, handler, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						handler.explicitDataReceived(explicitXBeeMessage);
+					}
+				});
+			}
+			releaseListenerExecutor(executor);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+	
+	/**
+	 * Notifies the IP data receive listeners and the filtered ones that a new 
+	 * IP data packet has been received.
+	 * 
+	 * @param type The API frame type of the received packet.
+	 * @param ipMessage The received IP message.
+	 * 
+	 * @see #notifyIPDataReceived(IPMessage)
+	 */
+	private void ipDataReceived(APIFrameType type, final IPMessage ipMessage) {
+		notifyIPDataReceived(ipMessage);
+		
+		if (filteredIPDataReceiveListeners.isEmpty())
+			return;
+		
+		try {
+			Object source = ipMessage.getIPAddress() != null ? ipMessage.getIPAddress() : ipMessage.getIPv6Address();
+			List<FilteredListeners.Subscription<IIPDataReceiveListener>> candidates = filteredIPDataReceiveListeners.getCandidates(source, type);
+			ListenerExecutor executor = null;
+			for (FilteredListeners.Subscription<IIPDataReceiveListener> subscription:candidates) {
+				if (!subscription.filter.matches(ipMessage))
+					continue;
+				if (executor == null)
+					executor = getListenerExecutor(source, candidates.size());
+				final IIPDataReceiveListener listener = subscription.listener;
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.ipDataReceived(ipMessage);
+					}
+				});
+			}
+			if (executor != null)
+				releaseListenerExecutor(executor);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+	
 	/**
 	 * Notifies subscribed data receive listeners that a new XBee data packet 
 	 * has been received in form of an {@code XBeeMessage}.
@@ -851,28 +1958,30 @@ public class DataReader extends Thread {
 			logger.info(connectionInterface.toString() + 
 					"Data received from {} >> {}.", xbeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(xbeeMessage.getData()));
 		
+		Object source = getSource(xbeeMessage.getDevice());
+		ListenerExecutor executor = null;
 		try {
-			synchronized (dataReceiveListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						dataReceiveListeners.size()));
-				for (final IDataReceiveListener listener:dataReceiveListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							/* Synchronize the listener so it is not called 
-							 twice. That is, let the listener to finish its job. */
-							synchronized (listener) {
-								listener.dataReceived(xbeeMessage);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+			// Mailboxes with the BLOCK strategy wait for room in their own 
+			// hand-off thread, so the reader is never parked.
+			for (ListenerMailbox<XBeeMessage> mailbox:dataBatchReceiveListeners.values())
+				mailbox.handOff(xbeeMessage);
+			
+			if (!dataReceiveListeners.isEmpty())
+				executor = getListenerExecutor(source, dataReceiveListeners.size());
+			for (final IDataReceiveListener listener:dataReceiveListeners) {
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.dataReceived(xbeeMessage);
+					}
+				});
 			}
+			if (executor != null)
+				releaseListenerExecutor(executor);
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
@@ -890,40 +1999,42 @@ public class DataReader extends Thread {
 	private void notifyPacketReceived(final XBeePacket packet) {
 		logger.debug(connectionInterface.toString() + "Packet received: \n{}", packet.toPrettyString());
 		
+		if (packetReceiveListeners.isEmpty())
+			return;
+		
 		try {
-			synchronized (packetReceiveListeners) {
-				final ArrayList<IPacketReceiveListener> removeListeners = new ArrayList<IPacketReceiveListener>();
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						packetReceiveListeners.size()));
-				for (final IPacketReceiveListener listener:packetReceiveListeners.keySet()) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							// Synchronize the listener so it is not called 
-							// twice. That is, let the listener to finish its job.
-							synchronized (packetReceiveListeners) {
-								synchronized (listener) {
-									if (packetReceiveListeners.get(listener) == ALL_FRAME_IDS)
-										listener.packetReceived(packet);
-									else if (((XBeeAPIPacket)packet).needsAPIFrameID() && 
-											((XBeeAPIPacket)packet).getFrameID() == packetReceiveListeners.get(listener)) {
-										listener.packetReceived(packet);
-										removeListeners.add(listener);
-									}
-								}
-							}
+			ListenerExecutor executor = getListenerExecutor(packetReceiveListeners.size());
+			for (Map.Entry<IPacketReceiveListener, Integer> entry:packetReceiveListeners.entrySet()) {
+				final IPacketReceiveListener listener = entry.getKey();
+				int frameID = entry.getValue();
+				// Listeners of a frame ID are removed with the first packet 
+				// that matches it, so only the thread that removes the 
+				// listener notifies it.
+				if (frameID != ALL_FRAME_IDS
+						&& (!((XBeeAPIPacket)packet).needsAPIFrameID()
+								|| ((XBeeAPIPacket)packet).getFrameID() != frameID
+								|| !packetReceiveListeners.remove(listener, frameID)))
+					continue;
+				executor.execute(new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						// Lock the listener so it is not called twice. That 
+						// is, let the listener to finish its job.
+						ReentrantLock lock = getListenerLock(listener);
+						lock.lock();
+						try {
+							listener.packetReceived(packet);
+						} finally {
+							lock.unlock();
 						}
-					});
-				}
-				executor.shutdown();
-				// Remove required listeners.
-				for (IPacketReceiveListener listener:removeListeners)
-					packetReceiveListeners.remove(listener);
+					}
+				});
 			}
+			releaseListenerExecutor(executor);
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
@@ -940,35 +2051,115 @@ public class DataReader extends Thread {
 	 * @see com.digi.xbee.api.io.IOSample
 	 */
 	private void notifyIOSampleReceived(final RemoteXBeeDevice remoteDevice, final IOSample ioSample) {
+		notifyIOSamplesReceived(remoteDevice, Collections.singletonList(ioSample));
+	}
+	
+	/**
+	 * Notifies subscribed IO sample listeners that a new IO sample packet has
+	 * been received with the given IO samples.
+	 * 
+	 * <p>Each IO sample listener is notified with the samples one after 
+	 * another in the given order, and each IO sample batch listener is 
+	 * notified once with all of them. Samples suppressed by the IO deadband 
+	 * filter are not notified.</p>
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the samples.
+	 * @param receivedSamples The received IO samples, in the order they were 
+	 *                        taken.
+	 * 
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 * @see com.digi.xbee.api.io.IOSample
+	 */
+	private void notifyIOSamplesReceived(final RemoteXBeeDevice remoteDevice, List<IOSample> receivedSamples) {
 		logger.debug(connectionInterface.toString() + "IO sample received.");
 		
+		boolean validSamples = remoteDevice != null && receivedSamples.get(0) != null;
+		long timestamp = System.currentTimeMillis();
+		IOSampleStore store = ioSampleStore;
+		if (store != null && validSamples)
+			store.addSamples(remoteDevice, receivedSamples, timestamp);
+		IOStateCache cache = ioStateCache;
+		if (cache != null && validSamples)
+			cache.update(remoteDevice, receivedSamples.get(receivedSamples.size() - 1), timestamp);
+		
+		// Packets without a valid sample are only notified to the IO sample 
+		// listeners.
+		boolean notifyBatch = !ioSampleBatchReceiveListeners.isEmpty() && receivedSamples.get(0) != null;
+		if (ioSampleReceiveListeners.isEmpty() && !notifyBatch)
+			return;
+		
+		final List<IOSample> ioSamples = validSamples ? filterIOSamples(remoteDevice, receivedSamples, timestamp) : receivedSamples;
+		if (ioSamples.isEmpty())
+			return;
+		
 		try {
-			synchronized (ioSampleReceiveListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						ioSampleReceiveListeners.size()));
-				for (final IIOSampleReceiveListener listener:ioSampleReceiveListeners) {
-					executor.execute(new Runnable() {
+			ListenerExecutor executor = getListenerExecutor(getSource(remoteDevice), 
+					ioSampleReceiveListeners.size() + (notifyBatch ? ioSampleBatchReceiveListeners.size() : 0));
+			for (final IIOSampleReceiveListener listener:ioSampleReceiveListeners) {
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						for (IOSample ioSample:ioSamples)
+							listener.ioSampleReceived(remoteDevice, ioSample);
+					}
+				});
+			}
+			if (notifyBatch) {
+				for (final IIOSampleBatchReceiveListener listener:ioSampleBatchReceiveListeners) {
+					notifyListener(executor, listener, new Runnable() {
 						/*
 						 * (non-Javadoc)
 						 * @see java.lang.Runnable#run()
 						 */
 						@Override
 						public void run() {
-							// Synchronize the listener so it is not called 
-							// twice. That is, let the listener to finish its job.
-							synchronized (listener) {
-								listener.ioSampleReceived(remoteDevice, ioSample);
-							}
+							listener.ioSamplesReceived(remoteDevice, ioSamples);
 						}
 					});
 				}
-				executor.shutdown();
 			}
+			releaseListenerExecutor(executor);
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
 	}
 	
+	/**
+	 * Returns the IO samples that have to be delivered to the IO sample 
+	 * listeners according to the IO deadband filter.
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the samples.
+	 * @param ioSamples The received IO samples.
+	 * @param timestamp The time the samples were received, in milliseconds.
+	 * 
+	 * @return The samples to deliver, an empty list if all of them are 
+	 *         suppressed.
+	 * 
+	 * @see #setIODeadbandFilter(IODeadbandFilter)
+	 */
+	private List<IOSample> filterIOSamples(RemoteXBeeDevice remoteDevice, List<IOSample> ioSamples, long timestamp) {
+		IODeadbandFilter filter = ioDeadbandFilter;
+		if (filter == null)
+			return ioSamples;
+		
+		if (ioSamples.size() == 1) {
+			if (filter.accept(remoteDevice, ioSamples.get(0), timestamp))
+				return ioSamples;
+			return Collections.emptyList();
+		}
+		
+		List<IOSample> acceptedSamples = new ArrayList<IOSample>(ioSamples.size());
+		for (IOSample ioSample:ioSamples) {
+			if (filter.accept(remoteDevice, ioSample, timestamp))
+				acceptedSamples.add(ioSample);
+		}
+		return acceptedSamples;
+	}
+	
 	/**
 	 * Notifies subscribed Modem Status listeners that a Modem Status event 
 	 * packet has been received.
@@ -980,28 +2171,24 @@ public class DataReader extends Thread {
 	private void notifyModemStatusReceived(final ModemStatusEvent modemStatusEvent) {
 		logger.debug(connectionInterface.toString() + "Modem Status event received.");
 		
+		if (modemStatusListeners.isEmpty())
+			return;
+		
 		try {
-			synchronized (modemStatusListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						modemStatusListeners.size()));
-				for (final IModemStatusReceiveListener listener:modemStatusListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							// Synchronize the listener so it is not called 
-							// twice. That is, let the listener to finish its job.
-							synchronized (listener) {
-								listener.modemStatusEventReceived(modemStatusEvent);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+			ListenerExecutor executor = getListenerExecutor(null, modemStatusListeners.size());
+			for (final IModemStatusReceiveListener listener:modemStatusListeners) {
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.modemStatusEventReceived(modemStatusEvent);
+					}
+				});
 			}
+			releaseListenerExecutor(executor);
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
@@ -1025,28 +2212,24 @@ public class DataReader extends Thread {
 			logger.info(connectionInterface.toString() + 
 					"Explicit data received from {} >> {}.", explicitXBeeMessage.getDevice().get64BitAddress(), HexUtils.prettyHexString(explicitXBeeMessage.getData()));
 		
+		if (explicitDataReceiveListeners.isEmpty())
+			return;
+		
 		try {
-			synchronized (explicitDataReceiveListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						explicitDataReceiveListeners.size()));
-				for (final IExplicitDataReceiveListener listener:explicitDataReceiveListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							/* Synchronize the listener so it is not called 
-							 twice. That is, let the listener to finish its job. */
-							synchronized (listener) {
-								listener.explicitDataReceived(explicitXBeeMessage);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+			ListenerExecutor executor = getListenerExecutor(getSource(explicitXBeeMessage.getDevice()), explicitDataReceiveListeners.size());
+			for (final IExplicitDataReceiveListener listener:explicitDataReceiveListeners) {
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.explicitDataReceived(explicitXBeeMessage);
+					}
+				});
 			}
+			releaseListenerExecutor(executor);
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
@@ -1067,28 +2250,24 @@ public class DataReader extends Thread {
 		logger.info(connectionInterface.toString() + 
 				"IP data received from {} >> {}.", ipMessage.getHostAddress(), HexUtils.prettyHexString(ipMessage.getData()));
 		
+		if (ipDataReceiveListeners.isEmpty())
+			return;
+		
 		try {
-			synchronized (ipDataReceiveListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						ipDataReceiveListeners.size()));
-				for (final IIPDataReceiveListener listener:ipDataReceiveListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							/* Synchronize the listener so it is not called 
-							 twice. That is, let the listener to finish its job. */
-							synchronized (listener) {
-								listener.ipDataReceived(ipMessage);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+			ListenerExecutor executor = getListenerExecutor(ipMessage.getHostAddress(), ipDataReceiveListeners.size());
+			for (final IIPDataReceiveListener listener:ipDataReceiveListeners) {
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.ipDataReceived(ipMessage);
+					}
+				});
 			}
+			releaseListenerExecutor(executor);
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
@@ -1108,33 +2287,181 @@ public class DataReader extends Thread {
 		logger.info(connectionInterface.toString() + 
 				"SMS received from {} >> {}.", smsMessage.getPhoneNumber(), smsMessage.getData());
 		
+		if (smsReceiveListeners.isEmpty())
+			return;
+		
 		try {
-			synchronized (smsReceiveListeners) {
-				ScheduledExecutorService executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, 
-						smsReceiveListeners.size()));
-				for (final ISMSReceiveListener listener:smsReceiveListeners) {
-					executor.execute(new Runnable() {
-						/*
-						 * (non-Javadoc)
-						 * @see java.lang.Runnable#run()
-						 */
-						@Override
-						public void run() {
-							/* Synchronize the listener so it is not called 
-							 twice. That is, let the listener to finish its job. */
-							synchronized (listener) {
-								listener.smsReceived(smsMessage);
-							}
-						}
-					});
-				}
-				executor.shutdown();
+			ListenerExecutor executor = getListenerExecutor(smsMessage.getPhoneNumber(), smsReceiveListeners.size());
+			for (final ISMSReceiveListener listener:smsReceiveListeners) {
+				notifyListener(executor, listener, new Runnable() {
+					/*
+					 * (non-Javadoc)
+					 * @see java.lang.Runnable#run()
+					 */
+					@Override
+					public void run() {
+						listener.smsReceived(smsMessage);
+					}
+				});
 			}
+			releaseListenerExecutor(executor);
 		} catch (Exception e) {
 			logger.error(e.getMessage(), e);
 		}
 	}
 	
+	/**
+	 * Returns the executor to notify the given number of listeners of a 
+	 * message received from the given source.
+	 * 
+	 * @param source The source of the message, {@code null} if it is unknown.
+	 * @param listeners The number of listeners to notify.
+	 * 
+	 * @return The partition of the dispatcher assigned to the source if a 
+	 *         dispatcher is configured, the listener executor otherwise.
+	 * 
+	 * @see #getListenerExecutor(int)
+	 * @see #releaseListenerExecutor(ListenerExecutor)
+	 */
+	private ListenerExecutor getListenerExecutor(Object source, int listeners) {
+		PartitionedDispatcher partitionedDispatcher = dispatcher;
+		if (partitionedDispatcher != null && !partitionedDispatcher.isShutdown())
+			return new ListenerExecutor(partitionedDispatcher.getExecutor(source), false, true);
+		return getListenerExecutor(listeners);
+	}
+	
+	/**
+	 * Returns the executor to notify the given number of listeners.
+	 * 
+	 * @param listeners The number of listeners to notify.
+	 * 
+	 * @return The shared listener executor if it is configured, a new thread 
+	 *         pool owned by the caller otherwise.
+	 * 
+	 * @see #releaseListenerExecutor(ListenerExecutor)
+	 */
+	private ListenerExecutor getListenerExecutor(int listeners) {
+		ExecutorService executor = listenerExecutor;
+		if (executor != null && !executor.isShutdown())
+			return new ListenerExecutor(executor, false, false);
+		ThreadFactory threadFactory = ThreadUtils.getThreadFactory();
+		if (threadFactory != null)
+			executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, listeners), threadFactory);
+		else
+			executor = Executors.newScheduledThreadPool(Math.min(MAXIMUM_PARALLEL_LISTENER_THREADS, listeners));
+		return new ListenerExecutor(executor, true, false);
+	}
+	
+	/**
+	 * Releases the given executor once all the listeners have been scheduled.
+	 * 
+	 * <p>Only the thread pools created for the notification are shut down. 
+	 * The shared listener executor and the partitions of the dispatcher are 
+	 * never shut down, even if they are replaced during the notification.</p>
+	 * 
+	 * @param executor The executor to release.
+	 * 
+	 * @see #getListenerExecutor(int)
+	 */
+	private void releaseListenerExecutor(ListenerExecutor executor) {
+		if (executor.owned)
+			executor.executor.shutdown();
+	}
+	
+	/**
+	 * Notifies the given listener using the given executor.
+	 * 
+	 * <p>Partitions of a dispatcher already notify the messages of a source 
+	 * one after another, so the listener is only locked when it is notified 
+	 * by any other executor.</p>
+	 * 
+	 * @param executor The executor to notify the listener.
+	 * @param listener The listener to notify.
+	 * @param notification The task that notifies the listener.
+	 * 
+	 * @see #getListenerExecutor(Object, int)
+	 */
+	private void notifyListener(ListenerExecutor executor, final Object listener, final Runnable notification) {
+		if (executor.ordered) {
+			executor.execute(notification);
+			return;
+		}
+		executor.execute(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				// Lock the listener so it is not called twice. That is, 
+				// let the listener to finish its job.
+				ReentrantLock lock = getListenerLock(listener);
+				lock.lock();
+				try {
+					notification.run();
+				} finally {
+					lock.unlock();
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Returns the lock that serializes the notifications of the given 
+	 * listener.
+	 * 
+	 * @param listener The listener.
+	 * 
+	 * @return The lock of the listener.
+	 * 
+	 * @see #notifyListener(ListenerExecutor, Object, Runnable)
+	 */
+	private ReentrantLock getListenerLock(Object listener) {
+		synchronized (listenerLocks) {
+			ReentrantLock lock = listenerLocks.get(listener);
+			if (lock == null) {
+				lock = new ReentrantLock();
+				listenerLocks.put(listener, lock);
+			}
+			return lock;
+		}
+	}
+	
+	/**
+	 * Removes the IO samples, the delivered IO values and the cached IO 
+	 * state kept for the given remote XBee device.
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 */
+	private void removeIOState(RemoteXBeeDevice remoteDevice) {
+		IOSampleStore store = ioSampleStore;
+		if (store != null)
+			store.remove(remoteDevice);
+		IODeadbandFilter filter = ioDeadbandFilter;
+		if (filter != null)
+			filter.reset(remoteDevice);
+		IOStateCache cache = ioStateCache;
+		if (cache != null)
+			cache.remove(remoteDevice);
+	}
+	
+	/**
+	 * Returns the object that identifies the given remote XBee device as the 
+	 * source of a message.
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the message.
+	 * 
+	 * @return The key of the remote device, or {@code null} if the device is 
+	 *         unknown.
+	 * 
+	 * @see DeviceUtils#getAddressKey(RemoteXBeeDevice)
+	 */
+	private Object getSource(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			return null;
+		return DeviceUtils.getAddressKey(remoteDevice);
+	}
+	
 	/**
 	 * Returns whether this Data reader is running or not.
 	 * 
@@ -1154,6 +2481,12 @@ public class DataReader extends Thread {
 	 */
 	public void stopReader() {
 		running = false;
+		PacketDecodeStage stage = decodeStage;
+		if (stage != null)
+			stage.shutdown();
+		for (ListenerMailbox<XBeeMessage> mailbox:dataBatchReceiveListeners.values())
+			mailbox.close();
+		signalDataAvailable();
 		synchronized (connectionInterface) {
 			connectionInterface.notify();
 		}
@@ -1170,4 +2503,49 @@ public class DataReader extends Thread {
 	public XBeePacketsQueue getXBeePacketsQueue() {
 		return xbeePacketsQueue;
 	}
+	
+	/**
+	 * An executor used to notify the listeners of a received message, and 
+	 * how it has to be used and released.
+	 * 
+	 * <p>Whether the executor belongs to the notification is decided when it 
+	 * is obtained, so a listener executor or dispatcher configured in the 
+	 * meantime does not change how it is released.</p>
+	 * 
+	 * @see #getListenerExecutor(Object, int)
+	 * @see #releaseListenerExecutor(ListenerExecutor)
+	 */
+	private static class ListenerExecutor {
+		
+		// Variables.
+		final ExecutorService executor;
+		final boolean owned;
+		final boolean ordered;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code ListenerExecutor} with 
+		 * the given parameters.
+		 * 
+		 * @param executor The executor to notify the listeners.
+		 * @param owned {@code true} if the executor has been created for the 
+		 *              notification and must be shut down after it, 
+		 *              {@code false} otherwise.
+		 * @param ordered {@code true} if the executor notifies the messages 
+		 *                one after another, {@code false} otherwise.
+		 */
+		ListenerExecutor(ExecutorService executor, boolean owned, boolean ordered) {
+			this.executor = executor;
+			this.owned = owned;
+			this.ordered = ordered;
+		}
+		
+		/**
+		 * Executes the given notification task.
+		 * 
+		 * @param task The notification task.
+		 */
+		void execute(Runnable task) {
+			executor.execute(task);
+		}
+	}
 }
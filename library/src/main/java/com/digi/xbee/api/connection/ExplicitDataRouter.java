@@ -0,0 +1,253 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
+
+/**
+ * Routing table that selects the handlers of the received explicit data
+ * depending on its profile ID, cluster ID and destination endpoint.
+ * 
+ * <p>Every route is stored in a hash table keyed by the three values packed
+ * in a single {@code long}, so the handlers of a message are found with a
+ * constant number of lookups regardless of the number of routes.</p>
+ * 
+ * <p>Any of the three values of a route can be {@link #ANY}. When a message
+ * is received, only the handlers of the most specific route that matches it
+ * are notified. Routes are checked in this order: exact profile, cluster and
+ * endpoint, then any endpoint, then any cluster, then any cluster and
+ * endpoint, and finally the same four combinations with any profile.
+ * Combinations without routes are not looked up.</p>
+ * 
+ * @see DataReader#addExplicitDataRoute(int, int, int, IExplicitDataReceiveListener)
+ */
+public class ExplicitDataRouter {
+	
+	// Constants.
+	/**
+	 * Value of the route fields that match any value.
+	 */
+	public static final int ANY = -1;
+	
+	private static final int ENDPOINT_WILDCARD = 0x1;
+	private static final int CLUSTER_WILDCARD = 0x2;
+	private static final int PROFILE_WILDCARD = 0x4;
+	
+	private static final int NUMBER_OF_PATTERNS = 8;
+	
+	// Wildcard combinations sorted from the most to the least specific.
+	private static final int[] LOOKUP_ORDER = {
+			0,
+			ENDPOINT_WILDCARD,
+			CLUSTER_WILDCARD,
+			CLUSTER_WILDCARD | ENDPOINT_WILDCARD,
+			PROFILE_WILDCARD,
+			PROFILE_WILDCARD | ENDPOINT_WILDCARD,
+			PROFILE_WILDCARD | CLUSTER_WILDCARD,
+			PROFILE_WILDCARD | CLUSTER_WILDCARD | ENDPOINT_WILDCARD};
+	
+	// Variables.
+	private final ConcurrentHashMap<Long, CopyOnWriteArrayList<IExplicitDataReceiveListener>> routes = new ConcurrentHashMap<Long, CopyOnWriteArrayList<IExplicitDataReceiveListener>>();
+	
+	private final int[] patternRoutes = new int[NUMBER_OF_PATTERNS];
+	
+	// Bit 'n' is set when there are routes with the wildcard combination 'n'.
+	private volatile int usedPatterns = 0;
+	
+	/**
+	 * Adds the given handler to the route of the given profile ID, cluster ID
+	 * and endpoint.
+	 * 
+	 * <p>If the handler has been already added to the route, this method does
+	 * nothing.</p>
+	 * 
+	 * @param profileID The profile ID, {@link #ANY} to match any.
+	 * @param clusterID The cluster ID, {@link #ANY} to match any.
+	 * @param endpoint The destination endpoint, {@link #ANY} to match any.
+	 * @param handler The handler to notify with the explicit data of the route.
+	 * 
+	 * @throws IllegalArgumentException if {@code profileID < -1} or
+	 *                                  if {@code profileID > 0xFFFF} or
+	 *                                  if {@code clusterID < -1} or
+	 *                                  if {@code clusterID > 0xFFFF} or
+	 *                                  if {@code endpoint < -1} or
+	 *                                  if {@code endpoint > 0xFF}.
+	 * @throws NullPointerException if {@code handler == null}.
+	 * 
+	 * @see #removeRoute(int, int, int, IExplicitDataReceiveListener)
+	 */
+	public synchronized void addRoute(int profileID, int clusterID, int endpoint, IExplicitDataReceiveListener handler) {
+		checkRoute(profileID, clusterID, endpoint);
+		if (handler == null)
+			throw new NullPointerException("Handler cannot be null.");
+		
+		Long key = getKey(profileID, clusterID, endpoint);
+		CopyOnWriteArrayList<IExplicitDataReceiveListener> handlers = routes.get(key);
+		if (handlers == null) {
+			handlers = new CopyOnWriteArrayList<IExplicitDataReceiveListener>();
+			routes.put(key, handlers);
+			int pattern = getPattern(profileID, clusterID, endpoint);
+			patternRoutes[pattern]++;
+			usedPatterns |= 1 << pattern;
+		}
+		handlers.addIfAbsent(handler);
+	}
+	
+	/**
+	 * Removes the given handler from the route of the given profile ID,
+	 * cluster ID and endpoint.
+	 * 
+	 * <p>If the handler is not in the route, this method does nothing.</p>
+	 * 
+	 * @param profileID The profile ID, {@link #ANY} to match any.
+	 * @param clusterID The cluster ID, {@link #ANY} to match any.
+	 * @param endpoint The destination endpoint, {@link #ANY} to match any.
+	 * @param handler The handler to remove.
+	 * 
+	 * @throws IllegalArgumentException if {@code profileID < -1} or
+	 *                                  if {@code profileID > 0xFFFF} or
+	 *                                  if {@code clusterID < -1} or
+	 *                                  if {@code clusterID > 0xFFFF} or
+	 *                                  if {@code endpoint < -1} or
+	 *                                  if {@code endpoint > 0xFF}.
+	 * @throws NullPointerException if {@code handler == null}.
+	 * 
+	 * @see #addRoute(int, int, int, IExplicitDataReceiveListener)
+	 */
+	public synchronized void removeRoute(int profileID, int clusterID, int endpoint, IExplicitDataReceiveListener handler) {
+		checkRoute(profileID, clusterID, endpoint);
+		if (handler == null)
+			throw new NullPointerException("Handler cannot be null.");
+		
+		Long key = getKey(profileID, clusterID, endpoint);
+		CopyOnWriteArrayList<IExplicitDataReceiveListener> handlers = routes.get(key);
+		if (handlers == null || !handlers.remove(handler) || !handlers.isEmpty())
+			return;
+		
+		routes.remove(key);
+		int pattern = getPattern(profileID, clusterID, endpoint);
+		if (--patternRoutes[pattern] == 0)
+			usedPatterns &= ~(1 << pattern);
+	}
+	
+	/**
+	 * Returns the handlers of the most specific route that matches the given
+	 * profile ID, cluster ID and endpoint.
+	 * 
+	 * @param profileID The profile ID of the received explicit data.
+	 * @param clusterID The cluster ID of the received explicit data.
+	 * @param endpoint The destination endpoint of the received explicit data.
+	 * 
+	 * @return The handlers of the route, an empty list if no route matches.
+	 */
+	public List<IExplicitDataReceiveListener> route(int profileID, int clusterID, int endpoint) {
+		int used = usedPatterns;
+		if (used == 0)
+			return Collections.emptyList();
+		
+		for (int pattern : LOOKUP_ORDER) {
+			if ((used & (1 << pattern)) == 0)
+				continue;
+			List<IExplicitDataReceiveListener> handlers = routes.get(getKey(
+					(pattern & PROFILE_WILDCARD) != 0 ? ANY : profileID,
+					(pattern & CLUSTER_WILDCARD) != 0 ? ANY : clusterID,
+					(pattern & ENDPOINT_WILDCARD) != 0 ? ANY : endpoint));
+			if (handlers != null)
+				return handlers;
+		}
+		return Collections.emptyList();
+	}
+	
+	/**
+	 * Returns whether this router has any route.
+	 * 
+	 * @return {@code true} if there are no routes, {@code false} otherwise.
+	 */
+	public boolean isEmpty() {
+		return usedPatterns == 0;
+	}
+	
+	/**
+	 * Removes all the routes of this router.
+	 */
+	public synchronized void clear() {
+		routes.clear();
+		for (int i = 0; i < NUMBER_OF_PATTERNS; i++)
+			patternRoutes[i] = 0;
+		usedPatterns = 0;
+	}
+	
+	/**
+	 * Checks that the values of a route are in range.
+	 * 
+	 * @param profileID The profile ID.
+	 * @param clusterID The cluster ID.
+	 * @param endpoint The destination endpoint.
+	 * 
+	 * @throws IllegalArgumentException if any value is out of range.
+	 */
+	private static void checkRoute(int profileID, int clusterID, int endpoint) {
+		if (profileID < ANY || profileID > 0xFFFF)
+			throw new IllegalArgumentException("Profile ID must be between 0 and 0xFFFF.");
+		if (clusterID < ANY || clusterID > 0xFFFF)
+			throw new IllegalArgumentException("Cluster ID must be between 0 and 0xFFFF.");
+		if (endpoint < ANY || endpoint > 0xFF)
+			throw new IllegalArgumentException("Endpoint must be between 0 and 0xFF.");
+	}
+	
+	/**
+	 * Returns the key of the route with the given values.
+	 * 
+	 * <p>Each value takes one more bit than its range so {@link #ANY} does
+	 * not collide with any valid value.</p>
+	 * 
+	 * @param profileID The profile ID.
+	 * @param clusterID The cluster ID.
+	 * @param endpoint The destination endpoint.
+	 * 
+	 * @return The key of the route.
+	 */
+	private static long getKey(int profileID, int clusterID, int endpoint) {
+		return ((long)(profileID & 0x1FFFF) << 26)
+				| ((long)(clusterID & 0x1FFFF) << 9)
+				| (endpoint & 0x1FF);
+	}
+	
+	/**
+	 * Returns the wildcard combination of the route with the given values.
+	 * 
+	 * @param profileID The profile ID.
+	 * @param clusterID The cluster ID.
+	 * @param endpoint The destination endpoint.
+	 * 
+	 * @return The wildcard combination.
+	 */
+	private static int getPattern(int profileID, int clusterID, int endpoint) {
+		int pattern = 0;
+		if (profileID == ANY)
+			pattern |= PROFILE_WILDCARD;
+		if (clusterID == ANY)
+			pattern |= CLUSTER_WILDCARD;
+		if (endpoint == ANY)
+			pattern |= ENDPOINT_WILDCARD;
+		return pattern;
+	}
+}
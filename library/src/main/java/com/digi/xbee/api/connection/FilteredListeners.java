@@ -0,0 +1,171 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.digi.xbee.api.models.ReceiveFilter;
+import com.digi.xbee.api.packet.APIFrameType;
+
+/**
+ * Registry of listeners subscribed with a receive filter.
+ * 
+ * <p>Subscriptions are indexed by the source address of their filter, so
+ * only the subscriptions of the source of a message and the ones without
+ * source address are evaluated. The frame types of each filter are kept in
+ * an {@code EnumSet}, which is checked before any other condition. Like the
+ * other listener registries of the data reader, the index is copy-on-write,
+ * so it is read without locking.</p>
+ * 
+ * @param <L> The type of the listeners.
+ * 
+ * @see com.digi.xbee.api.models.ReceiveFilter
+ */
+class FilteredListeners<L> {
+	
+	// Variables.
+	private final ConcurrentHashMap<L, Subscription<L>> subscriptions = new ConcurrentHashMap<L, Subscription<L>>();
+	private final ConcurrentHashMap<Object, CopyOnWriteArrayList<Subscription<L>>> sourceIndex = new ConcurrentHashMap<Object, CopyOnWriteArrayList<Subscription<L>>>();
+	private final CopyOnWriteArrayList<Subscription<L>> anySource = new CopyOnWriteArrayList<Subscription<L>>();
+	
+	/**
+	 * Subscribes the given listener with the given filter.
+	 * 
+	 * <p>If the listener is already subscribed, its filter is replaced.</p>
+	 * 
+	 * @param listener The listener to subscribe.
+	 * @param filter The filter of the listener, already copied.
+	 * @param source The source address of the filter, {@code null} if it
+	 *               matches any source.
+	 */
+	synchronized void add(L listener, ReceiveFilter filter, Object source) {
+		remove(listener);
+		Subscription<L> subscription = new Subscription<L>(listener, filter, source);
+		subscriptions.put(listener, subscription);
+		if (source == null) {
+			anySource.add(subscription);
+			return;
+		}
+		CopyOnWriteArrayList<Subscription<L>> list = sourceIndex.get(source);
+		if (list == null) {
+			list = new CopyOnWriteArrayList<Subscription<L>>();
+			sourceIndex.put(source, list);
+		}
+		list.add(subscription);
+	}
+	
+	/**
+	 * Unsubscribes the given listener.
+	 * 
+	 * @param listener The listener to unsubscribe.
+	 */
+	synchronized void remove(L listener) {
+		if (listener == null)
+			return;
+		Subscription<L> subscription = subscriptions.remove(listener);
+		if (subscription == null)
+			return;
+		if (subscription.source == null) {
+			anySource.remove(subscription);
+			return;
+		}
+		CopyOnWriteArrayList<Subscription<L>> list = sourceIndex.get(subscription.source);
+		if (list != null) {
+			list.remove(subscription);
+			if (list.isEmpty())
+				sourceIndex.remove(subscription.source);
+		}
+	}
+	
+	/**
+	 * Returns whether there is any subscribed listener.
+	 * 
+	 * @return {@code true} if there are no listeners, {@code false}
+	 *         otherwise.
+	 */
+	boolean isEmpty() {
+		return subscriptions.isEmpty();
+	}
+	
+	/**
+	 * Returns the subscriptions that may match a message of the given source
+	 * and API frame type.
+	 * 
+	 * <p>The rest of conditions of the returned filters still have to be
+	 * evaluated against the message.</p>
+	 * 
+	 * @param source The source address of the message, {@code null} if it is
+	 *               unknown.
+	 * @param type The API frame type of the received packet.
+	 * 
+	 * @return The candidate subscriptions.
+	 */
+	List<Subscription<L>> getCandidates(Object source, APIFrameType type) {
+		List<Subscription<L>> candidates = new ArrayList<Subscription<L>>();
+		if (source != null) {
+			CopyOnWriteArrayList<Subscription<L>> list = sourceIndex.get(source);
+			if (list != null)
+				addCandidates(list, type, candidates);
+		}
+		addCandidates(anySource, type, candidates);
+		return candidates;
+	}
+	
+	/**
+	 * Adds the subscriptions of the given list that accept the given API frame
+	 * type to the list of candidates.
+	 * 
+	 * @param subscriptions The subscriptions to check.
+	 * @param type The API frame type of the received packet.
+	 * @param candidates The list of candidates.
+	 */
+	private void addCandidates(List<Subscription<L>> subscriptions, APIFrameType type, List<Subscription<L>> candidates) {
+		for (Subscription<L> subscription : subscriptions) {
+			if (subscription.filter.matchesFrameType(type))
+				candidates.add(subscription);
+		}
+	}
+	
+	/**
+	 * A listener with its filter.
+	 * 
+	 * @param <L> The type of the listener.
+	 */
+	static class Subscription<L> {
+		
+		// Variables.
+		final L listener;
+		final ReceiveFilter filter;
+		final Object source;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code Subscription} with
+		 * the given parameters.
+		 * 
+		 * @param listener The subscribed listener.
+		 * @param filter The filter of the listener.
+		 * @param source The indexed source address.
+		 */
+		Subscription(L listener, ReceiveFilter filter, Object source) {
+			this.listener = listener;
+			this.filter = filter;
+			this.source = source;
+		}
+	}
+}
@@ -33,6 +33,10 @@ import com.digi.xbee.api.exceptions.PermissionDeniedException;
  * <p>As an important point, the class implementing this interface must call 
  * {@code this.notify()} whenever new data is available to read. Not doing this 
  * will make the {@code DataReader} class to wait forever for new data.</p>
+ * 
+ * <p>Implementations can also implement {@link IDataAvailableNotifier}, so 
+ * readers are notified without waiting on the interface monitor or polling 
+ * it.</p>
  */
 public interface IConnectionInterface {
 
@@ -0,0 +1,38 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+/**
+ * Interface defining the required methods that an object should implement to 
+ * be notified when a connection interface has new data available to read.
+ * 
+ * @see IDataAvailableNotifier
+ */
+public interface IDataAvailableListener {
+	
+	/**
+	 * Called when new data is available to read in the given connection 
+	 * interface, or when the interface is no longer readable.
+	 * 
+	 * <p>This method is called from the thread that receives the data, so it 
+	 * must return quickly and must not read from the interface.</p>
+	 * 
+	 * @param connectionInterface The connection interface with data available.
+	 * 
+	 * @see IConnectionInterface
+	 */
+	public void dataAvailable(IConnectionInterface connectionInterface);
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+/**
+ * This interface is implemented by the connection interfaces that can 
+ * notify listeners when new data is available to read.
+ * 
+ * <p>Readers of a connection interface that implements this interface can 
+ * wait for data without polling it or waiting on the interface monitor.</p>
+ * 
+ * @see IConnectionInterface
+ * @see IDataAvailableListener
+ */
+public interface IDataAvailableNotifier {
+	
+	/**
+	 * Adds the given listener to be notified when new data is available.
+	 * 
+	 * <p>If the listener has been already added, this method does nothing.
+	 * </p>
+	 * 
+	 * @param listener The listener to add.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #removeDataAvailableListener(IDataAvailableListener)
+	 */
+	public void addDataAvailableListener(IDataAvailableListener listener);
+	
+	/**
+	 * Removes the given listener.
+	 * 
+	 * <p>If the listener was not added, this method does nothing.</p>
+	 * 
+	 * @param listener The listener to remove.
+	 * 
+	 * @throws NullPointerException if {@code listener == null}.
+	 * 
+	 * @see #addDataAvailableListener(IDataAvailableListener)
+	 */
+	public void removeDataAvailableListener(IDataAvailableListener listener);
+}
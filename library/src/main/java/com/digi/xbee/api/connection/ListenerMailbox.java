@@ -0,0 +1,354 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.models.OverflowStrategy;
+import com.digi.xbee.api.utils.ThreadUtils;
+
+/**
+ * Bounded queue of received items that are delivered in batches to a 
+ * listener by a dedicated thread.
+ * 
+ * <p>Items are added to the mailbox with {@link #offer(Object)}, or with 
+ * {@link #handOff(Object)} by threads that must not wait for room, such as 
+ * the data reader. With the {@code BLOCK} overflow strategy, handed off 
+ * items are added by a single hand-off thread of the mailbox in the order 
+ * they were handed off. The mailbox thread waits for the first item and 
+ * then collects items until the maximum batch size is reached or the 
+ * maximum delay has elapsed, and delivers them in a single call to 
+ * {@link #deliver(List)}. When the mailbox is full, the configured overflow 
+ * strategy is applied.</p>
+ * 
+ * @param <T> The type of the received items.
+ * 
+ * @see com.digi.xbee.api.models.OverflowStrategy
+ */
+public abstract class ListenerMailbox<T> {
+	
+	// Constants.
+	/**
+	 * Default maximum number of items stored in a mailbox.
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+	
+	private static final String THREAD_NAME = "XBeeMailbox";
+	private static final String HAND_OFF_THREAD_NAME = "XBeeMailboxHandOff-";
+	
+	// Variables.
+	private final ArrayDeque<T> items;
+	
+	private final int capacity;
+	private final int maxBatchSize;
+	private final long maxDelay;
+	
+	private final OverflowStrategy overflowStrategy;
+	
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notEmpty = lock.newCondition();
+	private final Condition notFull = lock.newCondition();
+	
+	private long droppedItems = 0;
+	
+	private boolean closed = false;
+	
+	// Only used with the BLOCK strategy.
+	private final ExecutorService handOffExecutor;
+	
+	private Logger logger;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ListenerMailbox} with the 
+	 * given parameters and starts its delivery thread.
+	 * 
+	 * @param capacity Maximum number of items stored in the mailbox.
+	 * @param overflowStrategy Strategy to apply when the mailbox is full.
+	 * @param maxBatchSize Maximum number of items delivered in a batch.
+	 * @param maxDelay Maximum time (in microseconds) to wait for more items 
+	 *                 since the first item of a batch is available.
+	 * 
+	 * @throws IllegalArgumentException if {@code capacity < 1} or 
+	 *                                  if {@code maxBatchSize < 1} or 
+	 *                                  if {@code maxDelay < 0}.
+	 * @throws NullPointerException if {@code overflowStrategy == null}.
+	 * 
+	 * @see com.digi.xbee.api.models.OverflowStrategy
+	 */
+	public ListenerMailbox(int capacity, OverflowStrategy overflowStrategy, int maxBatchSize, long maxDelay) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		if (overflowStrategy == null)
+			throw new NullPointerException("Overflow strategy cannot be null.");
+		if (maxBatchSize < 1)
+			throw new IllegalArgumentException("Maximum batch size must be greater than 0.");
+		if (maxDelay < 0)
+			throw new IllegalArgumentException("Maximum delay cannot be negative.");
+		
+		this.capacity = capacity;
+		this.overflowStrategy = overflowStrategy;
+		this.maxBatchSize = maxBatchSize;
+		this.maxDelay = maxDelay;
+		this.items = new ArrayDeque<T>(Math.min(capacity, DEFAULT_CAPACITY));
+		this.logger = LoggerFactory.getLogger(ListenerMailbox.class);
+		if (overflowStrategy == OverflowStrategy.BLOCK)
+			this.handOffExecutor = Executors.newSingleThreadExecutor(ThreadUtils.newThreadFactory(HAND_OFF_THREAD_NAME, true));
+		else
+			this.handOffExecutor = null;
+		
+		Thread thread = ThreadUtils.newThread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				deliverItems();
+			}
+		}, THREAD_NAME);
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * Adds the given item to this mailbox.
+	 * 
+	 * <p>If the mailbox is full, the overflow strategy is applied. With the 
+	 * {@code BLOCK} strategy, the calling thread waits until there is room 
+	 * for the item.</p>
+	 * 
+	 * @param item The item to add.
+	 * 
+	 * @return {@code true} if the item was added, {@code false} if it was 
+	 *         discarded or the mailbox is closed.
+	 * 
+	 * @throws NullPointerException if {@code item == null}.
+	 */
+	public boolean offer(T item) {
+		if (item == null)
+			throw new NullPointerException("Item cannot be null.");
+		
+		lock.lock();
+		try {
+			while (!closed && items.size() >= capacity) {
+				switch (overflowStrategy) {
+				case DROP_OLDEST:
+					items.poll();
+					droppedItems++;
+					break;
+				case DROP_NEWEST:
+					droppedItems++;
+					return false;
+				case BLOCK:
+				default:
+					try {
+						notFull.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+					break;
+				}
+			}
+			if (closed)
+				return false;
+			items.add(item);
+			// Only wake up the delivery thread when it waits for the first 
+			// item or for a complete batch.
+			if (items.size() == 1 || items.size() >= maxBatchSize)
+				notEmpty.signal();
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Adds the given item to this mailbox without waiting for room.
+	 * 
+	 * <p>With the {@code BLOCK} strategy, the item is passed to the hand-off 
+	 * thread of the mailbox, which waits until there is room for it. Items 
+	 * are added in the order they are handed off, and the ones still waiting 
+	 * when the mailbox is closed are discarded. With any other strategy, the 
+	 * item is added as with {@link #offer(Object)}.</p>
+	 * 
+	 * @param item The item to add.
+	 * 
+	 * @throws NullPointerException if {@code item == null}.
+	 * 
+	 * @see #offer(Object)
+	 */
+	public void handOff(final T item) {
+		if (item == null)
+			throw new NullPointerException("Item cannot be null.");
+		
+		if (handOffExecutor == null) {
+			offer(item);
+			return;
+		}
+		try {
+			handOffExecutor.execute(new Runnable() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.lang.Runnable#run()
+				 */
+				@Override
+				public void run() {
+					offer(item);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// The mailbox is closed, so the item is discarded.
+		}
+	}
+	
+	/**
+	 * Closes this mailbox.
+	 * 
+	 * <p>New items are discarded, and the items already in the mailbox are 
+	 * delivered before the delivery thread finishes.</p>
+	 * 
+	 * @see #isClosed()
+	 */
+	public void close() {
+		lock.lock();
+		try {
+			closed = true;
+			notEmpty.signalAll();
+			notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		if (handOffExecutor != null)
+			handOffExecutor.shutdown();
+	}
+	
+	/**
+	 * Returns whether this mailbox is closed.
+	 * 
+	 * @return {@code true} if the mailbox is closed, {@code false} otherwise.
+	 * 
+	 * @see #close()
+	 */
+	public boolean isClosed() {
+		lock.lock();
+		try {
+			return closed;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Returns the number of items waiting to be delivered.
+	 * 
+	 * @return The number of items in the mailbox.
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return items.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Returns the strategy applied when this mailbox is full.
+	 * 
+	 * @return The overflow strategy of the mailbox.
+	 * 
+	 * @see com.digi.xbee.api.models.OverflowStrategy
+	 */
+	public OverflowStrategy getOverflowStrategy() {
+		return overflowStrategy;
+	}
+	
+	/**
+	 * Returns the number of items discarded because the mailbox was full.
+	 * 
+	 * @return The number of discarded items.
+	 */
+	public long getDroppedItems() {
+		lock.lock();
+		try {
+			return droppedItems;
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Delivers the given batch of items to the listener.
+	 * 
+	 * <p>This method is always called from the delivery thread of the 
+	 * mailbox, so batches are delivered one after another.</p>
+	 * 
+	 * @param batch The items to deliver, at least one.
+	 */
+	protected abstract void deliver(List<T> batch);
+	
+	/**
+	 * Waits for items and delivers them in batches until the mailbox is 
+	 * closed and empty.
+	 */
+	private void deliverItems() {
+		while (true) {
+			List<T> batch;
+			lock.lock();
+			try {
+				while (items.isEmpty() && !closed)
+					notEmpty.awaitUninterruptibly();
+				if (items.isEmpty())
+					return;
+				
+				// Wait for a complete batch or until the maximum delay expires.
+				long remaining = TimeUnit.MICROSECONDS.toNanos(maxDelay);
+				while (items.size() < maxBatchSize && !closed && remaining > 0) {
+					try {
+						remaining = notEmpty.awaitNanos(remaining);
+					} catch (InterruptedException e) {
+						break;
+					}
+				}
+				
+				batch = new ArrayList<T>(Math.min(items.size(), maxBatchSize));
+				while (!items.isEmpty() && batch.size() < maxBatchSize)
+					batch.add(items.poll());
+				notFull.signalAll();
+			} finally {
+				lock.unlock();
+			}
+			
+			try {
+				deliver(batch);
+			} catch (Exception e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+	}
+}
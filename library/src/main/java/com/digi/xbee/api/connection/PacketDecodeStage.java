@@ -0,0 +1,243 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketParser;
+import com.digi.xbee.api.utils.ThreadUtils;
+
+/**
+ * Stage of the data reader that decodes the received frames in parallel.
+ * 
+ * <p>The reader thread only frames the received bytes and verifies their
+ * checksum. The payloads are then parsed into packets, and their remote
+ * devices resolved, by a pool of worker threads. Finally, the decoded
+ * packets are dispatched strictly in the order they were received, so the
+ * packets queue, the frame ID listeners and the rest of listeners see the
+ * same sequence as with a single thread.</p>
+ * 
+ * <p>The dispatch of the decoded packets is performed by the worker that
+ * completes the next packet in sequence, so no additional thread is
+ * needed.</p>
+ * 
+ * @see DataReader#setDecodeWorkers(int)
+ */
+class PacketDecodeStage {
+	
+	// Constants.
+	private static final String THREAD_NAME = "XBeeDecoder-";
+	
+	private static final int QUEUE_CAPACITY = 1024;
+	
+	// Marks the sequence numbers of the frames that could not be decoded.
+	private static final DecodedPacket INVALID_PACKET = new DecodedPacket(null, null, null);
+	
+	// Variables.
+	private final DataReader reader;
+	private final XBeePacketParser parser;
+	private final ThreadPoolExecutor workers;
+	
+	private final ConcurrentHashMap<Long, DecodedPacket> decodedPackets = new ConcurrentHashMap<Long, DecodedPacket>();
+	
+	private final ReentrantLock sequencer = new ReentrantLock();
+	
+	// Only accessed by the reader thread.
+	private long nextSequence = 0;
+	
+	// Only modified while holding the sequencer lock.
+	private volatile long nextToDispatch = 0;
+	
+	private Logger logger;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code PacketDecodeStage} with
+	 * the given parameters.
+	 * 
+	 * @param reader The data reader to dispatch the decoded packets to.
+	 * @param parser The parser of the payloads.
+	 * @param numberOfWorkers The number of threads decoding payloads.
+	 * 
+	 * @throws IllegalArgumentException if {@code numberOfWorkers < 1}.
+	 * @throws NullPointerException if {@code reader == null} or
+	 *                              if {@code parser == null}.
+	 */
+	PacketDecodeStage(DataReader reader, XBeePacketParser parser, int numberOfWorkers) {
+		if (reader == null)
+			throw new NullPointerException("Data reader cannot be null.");
+		if (parser == null)
+			throw new NullPointerException("Parser cannot be null.");
+		if (numberOfWorkers < 1)
+			throw new IllegalArgumentException("Number of workers must be greater than 0.");
+		
+		this.reader = reader;
+		this.parser = parser;
+		this.logger = LoggerFactory.getLogger(PacketDecodeStage.class);
+		
+		workers = new ThreadPoolExecutor(numberOfWorkers, numberOfWorkers, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(QUEUE_CAPACITY), ThreadUtils.newThreadFactory(THREAD_NAME, true));
+	}
+	
+	/**
+	 * Submits the given payload to be decoded and dispatched.
+	 * 
+	 * <p>This method must be always called from the same thread.</p>
+	 * 
+	 * <p>If the workers reject the payload, because their queue is full or 
+	 * the stage has been shut down, the calling thread decodes it. The 
+	 * payload keeps its sequence number, so it is still dispatched in 
+	 * order.</p>
+	 * 
+	 * @param payload The unescaped payload of a frame with a valid checksum.
+	 */
+	void submit(final byte[] payload) {
+		final long sequence = nextSequence++;
+		Runnable task = new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				DecodedPacket decodedPacket = INVALID_PACKET;
+				try {
+					decodedPacket = reader.resolvePacket(parser.parsePayload(payload));
+				} catch (InvalidPacketException e) {
+					logger.error("Error parsing the API packet.", e);
+				} catch (RuntimeException e) {
+					logger.error(e.getMessage(), e);
+				}
+				complete(sequence, decodedPacket);
+			}
+		};
+		try {
+			workers.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.run();
+		}
+	}
+	
+	/**
+	 * Stops the workers of this stage once the submitted payloads are
+	 * decoded.
+	 * 
+	 * @see #awaitDrained()
+	 */
+	void shutdown() {
+		workers.shutdown();
+	}
+	
+	/**
+	 * Stops the workers of this stage and waits until all the submitted 
+	 * payloads are decoded and dispatched.
+	 * 
+	 * <p>If the calling thread is interrupted, this method returns without 
+	 * waiting and the interrupted status of the thread is restored.</p>
+	 * 
+	 * @see #shutdown()
+	 */
+	void awaitDrained() {
+		workers.shutdown();
+		try {
+			while (!workers.awaitTermination(1, TimeUnit.SECONDS))
+				logger.debug("Waiting for the decoding workers to finish.");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Returns the number of threads decoding payloads.
+	 * 
+	 * @return The number of workers.
+	 */
+	int getNumberOfWorkers() {
+		return workers.getCorePoolSize();
+	}
+	
+	/**
+	 * Stores the given decoded packet and dispatches all the consecutive
+	 * packets that are ready, starting from the next one in sequence.
+	 * 
+	 * @param sequence The sequence number of the decoded packet.
+	 * @param decodedPacket The decoded packet.
+	 */
+	private void complete(long sequence, DecodedPacket decodedPacket) {
+		decodedPackets.put(sequence, decodedPacket);
+		
+		// If another worker is dispatching, it will dispatch this packet too.
+		// Check again after releasing the lock, as a packet may have been
+		// stored after the last check of that worker.
+		while (sequencer.tryLock()) {
+			try {
+				DecodedPacket next;
+				while ((next = decodedPackets.remove(nextToDispatch)) != null) {
+					nextToDispatch++;
+					if (next == INVALID_PACKET)
+						continue;
+					try {
+						reader.dispatchPacket(next);
+					} catch (RuntimeException e) {
+						logger.error(e.getMessage(), e);
+					}
+				}
+			} finally {
+				sequencer.unlock();
+			}
+			if (!decodedPackets.containsKey(nextToDispatch))
+				break;
+		}
+	}
+	
+	/**
+	 * A parsed packet with the remote device it was received from.
+	 */
+	static class DecodedPacket {
+		
+		// Variables.
+		final XBeePacket packet;
+		final RemoteXBeeDevice remoteDevice;
+		final XBeeException error;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code DecodedPacket} with
+		 * the given parameters.
+		 * 
+		 * @param packet The parsed packet.
+		 * @param remoteDevice The remote device that sent the packet,
+		 *                     {@code null} if it is unknown.
+		 * @param error The error resolving the remote device, {@code null}
+		 *              if there was no error.
+		 */
+		DecodedPacket(XBeePacket packet, RemoteXBeeDevice remoteDevice, XBeeException error) {
+			this.packet = packet;
+			this.remoteDevice = remoteDevice;
+			this.error = error;
+		}
+	}
+}
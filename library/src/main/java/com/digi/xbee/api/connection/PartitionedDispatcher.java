@@ -0,0 +1,197 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.digi.xbee.api.utils.ThreadUtils;
+
+/**
+ * Dispatcher that notifies the received messages in several partitions,
+ * each of them serviced by a single thread.
+ * 
+ * <p>Every message is assigned to a partition depending on the hash of its
+ * source (the 64-bit, 16-bit or IP address of the remote node). Messages
+ * from the same source are always delivered in the order they were
+ * received, while messages from different sources are delivered in parallel
+ * by the different partitions.</p>
+ * 
+ * <p>Listeners notified through a dispatcher may be called concurrently
+ * for messages of different sources, so they must be thread-safe.</p>
+ * 
+ * @see DataReader#setDispatcher(PartitionedDispatcher)
+ * @see com.digi.xbee.api.XBeeDevice#setDispatcher(PartitionedDispatcher)
+ */
+public class PartitionedDispatcher {
+	
+	// Constants.
+	private static final String THREAD_NAME = "XBeeDispatcher-";
+	
+	// Variables.
+	private final Partition[] partitions;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code PartitionedDispatcher}
+	 * with as many partitions as available processors.
+	 * 
+	 * @see #PartitionedDispatcher(int)
+	 */
+	public PartitionedDispatcher() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code PartitionedDispatcher}
+	 * with the given number of partitions.
+	 * 
+	 * @param numberOfPartitions Number of partitions, that is, the maximum
+	 *                           number of sources notified in parallel.
+	 * 
+	 * @throws IllegalArgumentException if {@code numberOfPartitions < 1}.
+	 * 
+	 * @see #PartitionedDispatcher()
+	 */
+	public PartitionedDispatcher(int numberOfPartitions) {
+		if (numberOfPartitions < 1)
+			throw new IllegalArgumentException("Number of partitions must be greater than 0.");
+		
+		partitions = new Partition[numberOfPartitions];
+		for (int i = 0; i < numberOfPartitions; i++)
+			partitions[i] = new Partition(THREAD_NAME + i);
+	}
+	
+	/**
+	 * Executes the given task in the partition of the given source.
+	 * 
+	 * <p>Tasks of the same source are executed in the order they are
+	 * dispatched.</p>
+	 * 
+	 * @param source The source of the message notified by the task,
+	 *               {@code null} if it is unknown.
+	 * @param task The task to execute.
+	 * 
+	 * @throws NullPointerException if {@code task == null}.
+	 * @throws java.util.concurrent.RejectedExecutionException if the
+	 *         dispatcher has been shut down.
+	 * 
+	 * @see #getPartition(Object)
+	 */
+	public void dispatch(Object source, Runnable task) {
+		if (task == null)
+			throw new NullPointerException("Task cannot be null.");
+		
+		getExecutor(source).execute(task);
+	}
+	
+	/**
+	 * Returns the index of the partition assigned to the given source.
+	 * 
+	 * @param source The source of the messages, {@code null} if it is
+	 *               unknown.
+	 * 
+	 * @return The index of the partition, from 0 to
+	 *         {@code getNumberOfPartitions() - 1}.
+	 * 
+	 * @see #getNumberOfPartitions()
+	 */
+	public int getPartition(Object source) {
+		if (source == null)
+			return 0;
+		// Mix the bits of the hash code, as the low bits of the address 
+		// hashes are frequently the same for every node.
+		int hash = source.hashCode();
+		hash ^= hash >>> 16;
+		hash *= 0x85EBCA6B;
+		hash ^= hash >>> 13;
+		hash *= 0xC2B2AE35;
+		hash ^= hash >>> 16;
+		return (hash & 0x7FFFFFFF) % partitions.length;
+	}
+	
+	/**
+	 * Returns the number of partitions of this dispatcher.
+	 * 
+	 * @return The number of partitions.
+	 */
+	public int getNumberOfPartitions() {
+		return partitions.length;
+	}
+	
+	/**
+	 * Stops the threads of this dispatcher once the already dispatched tasks
+	 * are executed.
+	 * 
+	 * @see #isShutdown()
+	 */
+	public void shutdown() {
+		for (Partition partition : partitions)
+			partition.shutdown();
+	}
+	
+	/**
+	 * Returns whether this dispatcher has been shut down.
+	 * 
+	 * @return {@code true} if the dispatcher has been shut down,
+	 *         {@code false} otherwise.
+	 * 
+	 * @see #shutdown()
+	 */
+	public boolean isShutdown() {
+		return partitions[0].isShutdown();
+	}
+	
+	/**
+	 * Returns the executor of the partition assigned to the given source.
+	 * 
+	 * @param source The source of the messages, {@code null} if it is
+	 *               unknown.
+	 * 
+	 * @return The executor of the partition.
+	 */
+	Partition getExecutor(Object source) {
+		return partitions[getPartition(source)];
+	}
+	
+	/**
+	 * Single thread executor of a partition.
+	 */
+	static class Partition extends ThreadPoolExecutor {
+		
+		/**
+		 * Class constructor. Instantiates a new {@code Partition} whose
+		 * thread has the given name.
+		 * 
+		 * @param name The name of the thread of the partition.
+		 */
+		Partition(final String name) {
+			super(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+				/*
+				 * (non-Javadoc)
+				 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+				 */
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = ThreadUtils.newThread(task, name);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.SpecialByte;
+
+/**
+ * Incremental decoder that splits a stream of bytes into complete API frames.
+ * 
+ * <p>Bytes can be supplied in chunks of any size, as they are read from the
+ * connection interface, and frames may span several chunks. Every complete
+ * frame is returned unescaped, starting with the header byte and ending with
+ * the checksum, so it can be parsed in {@link OperatingMode#API} mode.</p>
+ * 
+ * <p>Bytes received outside of a frame are discarded. In
+ * {@link OperatingMode#API_ESCAPE} mode, a non-escaped header byte in the
+ * middle of a frame discards the incomplete frame and starts a new one.</p>
+ * 
+ * <p>This class is not thread-safe, every connection interface must use its
+ * own decoder.</p>
+ * 
+ * @see com.digi.xbee.api.packet.XBeePacketParser#parsePacket(byte[], OperatingMode)
+ */
+public class XBeeFrameDecoder {
+	
+	// Constants.
+	private static final int ESCAPE_XOR = 0x20;
+	
+	// Variables.
+	private ByteArrayOutputStream frame = new ByteArrayOutputStream();
+	
+	private boolean inFrame = false;
+	private boolean escapeNext = false;
+	
+	private int frameLength = -1;
+	
+	/**
+	 * Decodes the given bytes and adds the frames completed by them to the
+	 * provided list.
+	 * 
+	 * @param data Byte array with the read data.
+	 * @param offset The start offset of the read data in the array.
+	 * @param length The number of read bytes.
+	 * @param mode XBee operating mode, {@link OperatingMode#API} or
+	 *             {@link OperatingMode#API_ESCAPE}.
+	 * @param frames List to add the completed frames to.
+	 * 
+	 * @return The number of frames added to the list.
+	 * 
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API} and
+	 *                                  if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws NullPointerException if {@code data == null} or
+	 *                              if {@code mode == null} or
+	 *                              if {@code frames == null}.
+	 */
+	public int decode(byte[] data, int offset, int length, OperatingMode mode, List<byte[]> frames) {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (frames == null)
+			throw new NullPointerException("List of frames cannot be null.");
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API Escaped.");
+		
+		boolean escaped = mode == OperatingMode.API_ESCAPE;
+		int decoded = 0;
+		
+		for (int i = offset; i < offset + length; i++) {
+			int b = data[i] & 0xFF;
+			
+			if (b == SpecialByte.HEADER_BYTE.getValue() && (!inFrame || escaped)) {
+				// Start a new frame, discarding the incomplete one (if any).
+				reset();
+				inFrame = true;
+				frame.write(b);
+				continue;
+			}
+			
+			// Discard bytes outside of a frame.
+			if (!inFrame)
+				continue;
+			
+			if (escaped) {
+				if (escapeNext) {
+					b ^= ESCAPE_XOR;
+					escapeNext = false;
+				} else if (b == SpecialByte.ESCAPE_BYTE.getValue()) {
+					escapeNext = true;
+					continue;
+				}
+			}
+			
+			frame.write(b);
+			
+			// Header byte and 2 length bytes read.
+			if (frame.size() == 3) {
+				byte[] header = frame.toByteArray();
+				frameLength = (header[1] & 0xFF) << 8 | (header[2] & 0xFF);
+			}
+			
+			// Header, length, payload and checksum read.
+			if (frameLength >= 0 && frame.size() == frameLength + 4) {
+				frames.add(frame.toByteArray());
+				decoded++;
+				reset();
+			}
+		}
+		
+		return decoded;
+	}
+	
+	/**
+	 * Returns whether there is an incomplete frame waiting for more bytes.
+	 * 
+	 * @return {@code true} if a frame has been started but not completed,
+	 *         {@code false} otherwise.
+	 */
+	public boolean hasPartialFrame() {
+		return inFrame;
+	}
+	
+	/**
+	 * Discards the incomplete frame (if any).
+	 */
+	public void reset() {
+		frame.reset();
+		inFrame = false;
+		escapeNext = false;
+		frameLength = -1;
+	}
+}
@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.digi.xbee.api.utils.HexUtils;
+import com.digi.xbee.api.utils.ThreadUtils;
 
 import android.hardware.usb.UsbDeviceConnection;
 import android.hardware.usb.UsbEndpoint;
@@ -38,6 +39,8 @@ public class AndroidUSBInputStream extends InputStream {
 	private static final int READ_BUFFER_SIZE = 1024;
 	private static final int OFFSET = 2;
 	private static final int READ_TIMEOUT = 100;
+	
+	private static final String RECEIVE_THREAD_NAME = "XBeeUSBReceive";
 
 	private static final String ERROR_THREAD_NOT_INITIALIZED = "Read thread not initialized, call first 'startReadThread()'";
 
@@ -150,7 +153,7 @@ public class AndroidUSBInputStream extends InputStream {
 	public void startReadThread() {
 		if (!working) {
 			readBuffer = new CircularByteBuffer(READ_BUFFER_SIZE);
-			receiveThread = new Thread() {
+			Runnable receiveTask = new Runnable() {
 				@Override
 				public void run() {
 					working = true;
@@ -163,13 +166,12 @@ public class AndroidUSBInputStream extends InputStream {
 							logger.debug("Message received: " + HexUtils.byteArrayToHexString(data));
 							readBuffer.write(buffer, OFFSET, receivedBytes);
 							// Notify interface so that XBee Reader is notified about data available.
-							synchronized (androidInterface) {
-								androidInterface.notify();
-							}
+							androidInterface.notifyDataAvailable();
 						}
 					}
 				};
 			};
+			receiveThread = ThreadUtils.newThread(receiveTask, RECEIVE_THREAD_NAME);
 			receiveThread.start();
 		}
 	}
@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.digi.xbee.api.utils.HexUtils;
+import com.digi.xbee.api.utils.ThreadUtils;
 
 import android.hardware.usb.UsbDeviceConnection;
 import android.hardware.usb.UsbEndpoint;
@@ -37,6 +38,8 @@ public class AndroidUSBOutputStream extends OutputStream {
 	// Constants.
 	private static final int WRITE_TIMEOUT = 2000;
 	
+	private static final String SEND_THREAD_NAME = "XBeeUSBSend";
+	
 	// Variables.
 	private UsbDeviceConnection usbConnection;
 
@@ -86,12 +89,12 @@ public class AndroidUSBOutputStream extends OutputStream {
 	public void write(byte[] buffer, int offset, int count) throws IOException {
 		final byte[] finalData = new byte[count + offset];
 		System.arraycopy(buffer, offset, finalData, 0, count);
-		Thread sendThread = new Thread() {
+		Runnable sendTask = new Runnable() {
 			public void run() {
 				usbConnection.bulkTransfer(sendEndPoint, finalData, finalData.length, WRITE_TIMEOUT);
 				logger.debug("Message sent: " + HexUtils.byteArrayToHexString(finalData));
 			}
 		};
-		sendThread.start();
+		ThreadUtils.newThread(sendTask, SEND_THREAD_NAME).start();
 	}
 }
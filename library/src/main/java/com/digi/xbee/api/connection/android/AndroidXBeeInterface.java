@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.HashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,8 @@ import android.hardware.usb.UsbInterface;
 import android.hardware.usb.UsbManager;
 
 import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.connection.IDataAvailableListener;
+import com.digi.xbee.api.connection.IDataAvailableNotifier;
 import com.digi.xbee.api.exceptions.InterfaceInUseException;
 import com.digi.xbee.api.exceptions.InvalidConfigurationException;
 import com.digi.xbee.api.exceptions.InvalidInterfaceException;
@@ -44,7 +47,7 @@ import com.digi.xbee.api.exceptions.PermissionDeniedException;
 /**
  * @since 1.2.0
  */
-public class AndroidXBeeInterface implements IConnectionInterface {
+public class AndroidXBeeInterface implements IConnectionInterface, IDataAvailableNotifier {
 
 	// Constants.
 	private static final int VID = 0x0403;
@@ -81,6 +84,8 @@ public class AndroidXBeeInterface implements IConnectionInterface {
 	
 	private AndroidUSBPermissionListener permissionListener;
 	
+	private final CopyOnWriteArrayList<IDataAvailableListener> dataAvailableListeners = new CopyOnWriteArrayList<IDataAvailableListener>();
+	
 	private Logger logger;
 
 	/**
@@ -377,6 +382,46 @@ public class AndroidXBeeInterface implements IConnectionInterface {
 		return readBytes;
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IDataAvailableNotifier#addDataAvailableListener(com.digi.xbee.api.connection.IDataAvailableListener)
+	 */
+	@Override
+	public void addDataAvailableListener(IDataAvailableListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		dataAvailableListeners.addIfAbsent(listener);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IDataAvailableNotifier#removeDataAvailableListener(com.digi.xbee.api.connection.IDataAvailableListener)
+	 */
+	@Override
+	public void removeDataAvailableListener(IDataAvailableListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		dataAvailableListeners.remove(listener);
+	}
+	
+	/**
+	 * Notifies that new data has been received from the USB device.
+	 * 
+	 * <p>Wakes up the threads waiting on this interface and notifies the 
+	 * data available listeners.</p>
+	 * 
+	 * @see #addDataAvailableListener(IDataAvailableListener)
+	 */
+	void notifyDataAvailable() {
+		synchronized (this) {
+			this.notify();
+		}
+		for (IDataAvailableListener listener:dataAvailableListeners)
+			listener.dataAvailable(this);
+	}
+	
 	/**
 	 * Looks for a compatible USB device to use as XBee device.
 	 * 
@@ -16,18 +16,21 @@
 package com.digi.xbee.api.connection.serial;
 
 import java.io.IOException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.connection.IDataAvailableListener;
+import com.digi.xbee.api.connection.IDataAvailableNotifier;
 import com.digi.xbee.api.exceptions.ConnectionException;
 import com.digi.xbee.api.exceptions.InvalidConfigurationException;
 
 /**
  * Abstract class that provides common functionality to work with serial ports.
  */
-public abstract class AbstractSerialPort implements IConnectionInterface {
+public abstract class AbstractSerialPort implements IConnectionInterface, IDataAvailableNotifier {
 	
 	// Constants.
 	/**
@@ -72,6 +75,8 @@ public abstract class AbstractSerialPort implements IConnectionInterface {
 	
 	protected boolean connectionOpen = false;
 	
+	private final CopyOnWriteArrayList<IDataAvailableListener> dataAvailableListeners = new CopyOnWriteArrayList<IDataAvailableListener>();
+	
 	private Logger logger;
 	
 	/**
@@ -547,6 +552,47 @@ public abstract class AbstractSerialPort implements IConnectionInterface {
 		return receiveTimeout;
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IDataAvailableNotifier#addDataAvailableListener(com.digi.xbee.api.connection.IDataAvailableListener)
+	 */
+	@Override
+	public void addDataAvailableListener(IDataAvailableListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		dataAvailableListeners.addIfAbsent(listener);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see com.digi.xbee.api.connection.IDataAvailableNotifier#removeDataAvailableListener(com.digi.xbee.api.connection.IDataAvailableListener)
+	 */
+	@Override
+	public void removeDataAvailableListener(IDataAvailableListener listener) {
+		if (listener == null)
+			throw new NullPointerException("Listener cannot be null.");
+		
+		dataAvailableListeners.remove(listener);
+	}
+	
+	/**
+	 * Notifies that new data is available to read, or that the port is no 
+	 * longer readable.
+	 * 
+	 * <p>Wakes up the threads waiting on this port and notifies the data 
+	 * available listeners.</p>
+	 * 
+	 * @see #addDataAvailableListener(IDataAvailableListener)
+	 */
+	protected void notifyDataAvailable() {
+		synchronized (this) {
+			this.notify();
+		}
+		for (IDataAvailableListener listener:dataAvailableListeners)
+			listener.dataAvailable(this);
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#toString()
@@ -242,19 +242,13 @@ public class SerialPortDigiAndroid extends AbstractSerialPort implements ISerial
 			} catch (Exception e) {
 				// Serial device has been disconnected.
 				close();
-				synchronized (this) {
-					//System.out.println("notify");
-					this.notify();
-				}
+				notifyDataAvailable();
 				break;
 			}
 			// Notify data is available by waking up the read thread.
 			try {
 				if (getInputStream().available() > 0) {
-					synchronized (this) {
-						//System.out.println("notify");
-						this.notify();
-					}
+					notifyDataAvailable();
 				}
 			} catch (Exception e) {
 				logger.error(e.getMessage(), e);
@@ -245,17 +245,13 @@ public class SerialPortRxTx extends AbstractSerialPort implements SerialPortEven
 			} catch (Exception e) {
 				// Serial device has been disconnected.
 				close();
-				synchronized (this) {
-					this.notify();
-				}
+				notifyDataAvailable();
 				break;
 			}
 			// Notify data is available by waking up the read thread.
 			try {
 				if (getInputStream().available() > 0) {
-					synchronized (this) {
-						this.notify();
-					}
+					notifyDataAvailable();
 				}
 			} catch (Exception e) {
 				logger.error(e.getMessage(), e);
@@ -408,9 +404,7 @@ public class SerialPortRxTx extends AbstractSerialPort implements SerialPortEven
 		} catch (Exception e) {
 			StackTraceElement[] elems = e.getStackTrace();
 			String requester = elems[elems.length - 4].getClassName();
-			synchronized (this) {
-				this.notify();
-			}
+			notifyDataAvailable();
 			close();
 			String myPackage = this.getClass().getPackage().getName();
 			if (requester.startsWith(myPackage))
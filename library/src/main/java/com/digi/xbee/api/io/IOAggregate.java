@@ -0,0 +1,173 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+/**
+ * This class represents the aggregated values of an IO line over a period
+ * of time.
+ * 
+ * <p>Aggregates are computed by an {@link IOLineHistory} from the samples
+ * received in the period. The minimum, maximum and mean are computed from
+ * the analog values, while the digital values are counted by state.</p>
+ * 
+ * @see IOLineHistory#aggregate(long, long)
+ * @see IOLineHistory#downsample(long, long, long)
+ */
+public class IOAggregate {
+	
+	// Variables.
+	private final long startTime;
+	private final long endTime;
+	
+	private final int count;
+	private final int analogCount;
+	private final int minimum;
+	private final int maximum;
+	private final long sum;
+	
+	private final int highCount;
+	private final int lowCount;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IOAggregate} with the
+	 * given parameters.
+	 * 
+	 * @param startTime The start of the period (inclusive), in milliseconds.
+	 * @param endTime The end of the period (exclusive), in milliseconds.
+	 * @param count The number of samples in the period.
+	 * @param analogCount The number of samples with analog value.
+	 * @param minimum The minimum analog value.
+	 * @param maximum The maximum analog value.
+	 * @param sum The sum of the analog values.
+	 * @param highCount The number of samples with high digital value.
+	 * @param lowCount The number of samples with low digital value.
+	 */
+	IOAggregate(long startTime, long endTime, int count, int analogCount,
+			int minimum, int maximum, long sum, int highCount, int lowCount) {
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.count = count;
+		this.analogCount = analogCount;
+		this.minimum = minimum;
+		this.maximum = maximum;
+		this.sum = sum;
+		this.highCount = highCount;
+		this.lowCount = lowCount;
+	}
+	
+	/**
+	 * Returns the start of the aggregated period.
+	 * 
+	 * @return The start of the period (inclusive), in milliseconds.
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+	
+	/**
+	 * Returns the end of the aggregated period.
+	 * 
+	 * @return The end of the period (exclusive), in milliseconds.
+	 */
+	public long getEndTime() {
+		return endTime;
+	}
+	
+	/**
+	 * Returns the number of samples of the IO line in the period.
+	 * 
+	 * @return The number of samples.
+	 */
+	public int getCount() {
+		return count;
+	}
+	
+	/**
+	 * Returns the number of samples with analog value in the period.
+	 * 
+	 * @return The number of analog values.
+	 */
+	public int getAnalogCount() {
+		return analogCount;
+	}
+	
+	/**
+	 * Returns the minimum analog value of the period.
+	 * 
+	 * @return The minimum analog value, {@code -1} if there are no analog
+	 *         values in the period.
+	 * 
+	 * @see #getAnalogCount()
+	 */
+	public int getMinimum() {
+		return analogCount > 0 ? minimum : -1;
+	}
+	
+	/**
+	 * Returns the maximum analog value of the period.
+	 * 
+	 * @return The maximum analog value, {@code -1} if there are no analog
+	 *         values in the period.
+	 * 
+	 * @see #getAnalogCount()
+	 */
+	public int getMaximum() {
+		return analogCount > 0 ? maximum : -1;
+	}
+	
+	/**
+	 * Returns the mean of the analog values of the period.
+	 * 
+	 * @return The mean analog value, {@code Double.NaN} if there are no
+	 *         analog values in the period.
+	 * 
+	 * @see #getAnalogCount()
+	 */
+	public double getMean() {
+		return analogCount > 0 ? (double)sum / analogCount : Double.NaN;
+	}
+	
+	/**
+	 * Returns the number of samples with {@code IOValue.HIGH} digital value
+	 * in the period.
+	 * 
+	 * @return The number of high digital values.
+	 */
+	public int getHighCount() {
+		return highCount;
+	}
+	
+	/**
+	 * Returns the number of samples with {@code IOValue.LOW} digital value
+	 * in the period.
+	 * 
+	 * @return The number of low digital values.
+	 */
+	public int getLowCount() {
+		return lowCount;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "[" + startTime + ", " + endTime + "): count=" + count
+				+ ", min=" + getMinimum() + ", max=" + getMaximum()
+				+ ", mean=" + getMean() + ", high=" + highCount + ", low=" + lowCount;
+	}
+}
@@ -0,0 +1,269 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.utils.DeviceUtils;
+
+/**
+ * This class filters the IO samples received from remote XBee devices so
+ * only the ones that change are delivered.
+ * 
+ * <p>The filter keeps the values of the last sample delivered for each
+ * remote device. A new sample is delivered when the set of lines of the
+ * sample changes, when any digital value changes, or when any analog value
+ * moves at least the deadband of its line from the last delivered value.
+ * Otherwise, the sample is suppressed.</p>
+ * 
+ * <p>When a heartbeat interval is configured, a sample is always delivered
+ * if that time has elapsed since the last delivered sample of the device,
+ * so consumers can tell a stable device from a silent one.</p>
+ * 
+ * <p>Remote devices are identified by their 64-bit address, by their
+ * 16-bit address if the 64-bit one is unknown, or by their IPv6 address.
+ * The entries of a remote device are removed when it is evicted from the
+ * network of the local device.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#setIODeadbandFilter(IODeadbandFilter)
+ * @see com.digi.xbee.api.XBeeNetwork#setMaximumNumberOfDevices(int)
+ */
+public class IODeadbandFilter {
+	
+	// Constants.
+	private static final int NUMBER_OF_LINES = IOLine.values().length;
+	
+	// Variables.
+	// Read for every analog value of every received sample, so reads take 
+	// no lock.
+	private final AtomicIntegerArray deadbands = new AtomicIntegerArray(NUMBER_OF_LINES);
+	
+	private volatile long heartbeatInterval;
+	
+	private final ConcurrentHashMap<Object, DeliveredValues> deliveredValues = new ConcurrentHashMap<Object, DeliveredValues>();
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IODeadbandFilter} without
+	 * heartbeat that delivers every analog change.
+	 */
+	public IODeadbandFilter() {
+		this(0);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IODeadbandFilter} with the
+	 * given heartbeat interval that delivers every analog change.
+	 * 
+	 * @param heartbeatInterval The maximum time between delivered samples of
+	 *                          a device in milliseconds, {@code 0} to not
+	 *                          deliver unchanged samples.
+	 * 
+	 * @throws IllegalArgumentException if {@code heartbeatInterval < 0}.
+	 * 
+	 * @see #setDeadband(IOLine, int)
+	 */
+	public IODeadbandFilter(long heartbeatInterval) {
+		setHeartbeatInterval(heartbeatInterval);
+	}
+	
+	/**
+	 * Sets the deadband of the given IO line.
+	 * 
+	 * <p>Analog values of the line that differ less than the deadband from
+	 * the last delivered value are considered unchanged. A deadband of
+	 * {@code 0} delivers every change.</p>
+	 * 
+	 * @param ioLine The IO line.
+	 * @param deadband The minimum analog change to deliver.
+	 * 
+	 * @throws IllegalArgumentException if {@code deadband < 0}.
+	 * @throws NullPointerException if {@code ioLine == null}.
+	 * 
+	 * @see #getDeadband(IOLine)
+	 */
+	public void setDeadband(IOLine ioLine, int deadband) {
+		if (ioLine == null)
+			throw new NullPointerException("IO line cannot be null.");
+		if (deadband < 0)
+			throw new IllegalArgumentException("Deadband cannot be negative.");
+		
+		deadbands.set(ioLine.getIndex(), deadband);
+	}
+	
+	/**
+	 * Returns the deadband of the given IO line.
+	 * 
+	 * @param ioLine The IO line.
+	 * 
+	 * @return The minimum analog change to deliver.
+	 * 
+	 * @throws NullPointerException if {@code ioLine == null}.
+	 * 
+	 * @see #setDeadband(IOLine, int)
+	 */
+	public int getDeadband(IOLine ioLine) {
+		if (ioLine == null)
+			throw new NullPointerException("IO line cannot be null.");
+		
+		return deadbands.get(ioLine.getIndex());
+	}
+	
+	/**
+	 * Sets the maximum time between the delivered samples of a device.
+	 * 
+	 * @param heartbeatInterval The maximum time between delivered samples of
+	 *                          a device in milliseconds, {@code 0} to not
+	 *                          deliver unchanged samples.
+	 * 
+	 * @throws IllegalArgumentException if {@code heartbeatInterval < 0}.
+	 * 
+	 * @see #getHeartbeatInterval()
+	 */
+	public void setHeartbeatInterval(long heartbeatInterval) {
+		if (heartbeatInterval < 0)
+			throw new IllegalArgumentException("Heartbeat interval cannot be negative.");
+		
+		this.heartbeatInterval = heartbeatInterval;
+	}
+	
+	/**
+	 * Returns the maximum time between the delivered samples of a device.
+	 * 
+	 * @return The heartbeat interval in milliseconds, {@code 0} if unchanged
+	 *         samples are never delivered.
+	 * 
+	 * @see #setHeartbeatInterval(long)
+	 */
+	public long getHeartbeatInterval() {
+		return heartbeatInterval;
+	}
+	
+	/**
+	 * Returns whether the given IO sample received from the given remote XBee
+	 * device has to be delivered.
+	 * 
+	 * <p>If the sample is delivered, its values become the reference for the
+	 * next samples of the device.</p>
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the sample.
+	 * @param ioSample The received IO sample.
+	 * @param timestamp The time the sample was received, in milliseconds.
+	 * 
+	 * @return {@code true} if the sample has changed or the heartbeat
+	 *         interval has elapsed, {@code false} otherwise.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null} or
+	 *                              if {@code ioSample == null}.
+	 */
+	public boolean accept(RemoteXBeeDevice remoteDevice, IOSample ioSample, long timestamp) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (ioSample == null)
+			throw new NullPointerException("IO sample cannot be null.");
+		
+		Object key = DeviceUtils.getAddressKey(remoteDevice);
+		DeliveredValues values = deliveredValues.get(key);
+		if (values == null) {
+			values = new DeliveredValues();
+			DeliveredValues existing = deliveredValues.putIfAbsent(key, values);
+			if (existing != null)
+				values = existing;
+		}
+		
+		synchronized (values) {
+			long heartbeat = heartbeatInterval;
+			if (values.timestamp != -1 && !hasChanged(values, ioSample)
+					&& (heartbeat == 0 || timestamp - values.timestamp < heartbeat))
+				return false;
+			
+			values.timestamp = timestamp;
+			values.digitalMask = ioSample.getDigitalMask();
+			values.digitalValues = ioSample.getDigitalValuesMask();
+			values.analogMask = ioSample.getAnalogLinesMask();
+			int mask = values.analogMask;
+			while (mask != 0) {
+				int index = Integer.numberOfTrailingZeros(mask);
+				mask &= mask - 1;
+				values.analogValues[index] = ioSample.getAnalog(IOLine.getDIO(index));
+			}
+			return true;
+		}
+	}
+	
+	/**
+	 * Forgets the last delivered values of the given remote XBee device, so
+	 * its next sample is delivered.
+	 * 
+	 * @param remoteDevice The remote XBee device to reset.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 */
+	public void reset(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		
+		deliveredValues.remove(DeviceUtils.getAddressKey(remoteDevice));
+	}
+	
+	/**
+	 * Forgets the last delivered values of all the remote XBee devices.
+	 */
+	public void clear() {
+		deliveredValues.clear();
+	}
+	
+	/**
+	 * Returns whether the given IO sample differs from the last delivered
+	 * values.
+	 * 
+	 * @param values The last delivered values of the device.
+	 * @param ioSample The received IO sample.
+	 * 
+	 * @return {@code true} if the sample has changed, {@code false}
+	 *         otherwise.
+	 */
+	private boolean hasChanged(DeliveredValues values, IOSample ioSample) {
+		if (values.digitalMask != ioSample.getDigitalMask()
+				|| values.digitalValues != ioSample.getDigitalValuesMask()
+				|| values.analogMask != ioSample.getAnalogLinesMask())
+			return true;
+		
+		int mask = values.analogMask;
+		while (mask != 0) {
+			int index = Integer.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+			int change = Math.abs(ioSample.getAnalog(IOLine.getDIO(index)) - values.analogValues[index]);
+			if (change != 0 && change >= deadbands.get(index))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * The values of the last sample delivered for a remote device.
+	 */
+	private static class DeliveredValues {
+		
+		// Variables.
+		long timestamp = -1;
+		int digitalMask;
+		int digitalValues;
+		int analogMask;
+		final int[] analogValues = new int[NUMBER_OF_LINES];
+	}
+}
@@ -0,0 +1,374 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+/**
+ * This class stores the latest values received for an IO line of a remote
+ * XBee device.
+ * 
+ * <p>Values are kept in a fixed-size ring buffer made of one primitive
+ * array per column (timestamp, analog value and digital value), so once
+ * the history is created, storing a value does not allocate any object and
+ * the memory it uses is fixed. When the history is full, the oldest value
+ * is overwritten.</p>
+ * 
+ * <p>Timestamps are kept in non-decreasing order: a value stored with an
+ * older timestamp than the latest one takes the latest timestamp.</p>
+ * 
+ * @see IOSampleStore
+ * @see IOAggregate
+ */
+public class IOLineHistory {
+	
+	// Constants.
+	private static final byte NO_DIGITAL_VALUE = -1;
+	
+	// Variables.
+	private final IOLine ioLine;
+	
+	private final long[] timestamps;
+	private final int[] analogValues;
+	private final byte[] digitalValues;
+	
+	// Position where the next value is stored.
+	private int next = 0;
+	private int size = 0;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IOLineHistory} with the
+	 * given parameters.
+	 * 
+	 * @param ioLine The IO line of the history.
+	 * @param capacity The maximum number of values of the history.
+	 * 
+	 * @throws IllegalArgumentException if {@code capacity < 1}.
+	 * @throws NullPointerException if {@code ioLine == null}.
+	 */
+	public IOLineHistory(IOLine ioLine, int capacity) {
+		if (ioLine == null)
+			throw new NullPointerException("IO line cannot be null.");
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		
+		this.ioLine = ioLine;
+		timestamps = new long[capacity];
+		analogValues = new int[capacity];
+		digitalValues = new byte[capacity];
+	}
+	
+	/**
+	 * Stores a new value of the IO line.
+	 * 
+	 * @param timestamp The time the value was received, in milliseconds.
+	 * @param analogValue The analog value, {@code -1} if the sample has no
+	 *                    analog value for the line.
+	 * @param digitalValue The digital value, {@code null} if the sample has
+	 *                     no digital value for the line.
+	 */
+	public synchronized void add(long timestamp, int analogValue, IOValue digitalValue) {
+		if (size > 0)
+			timestamp = Math.max(timestamp, timestamps[previous(next)]);
+		timestamps[next] = timestamp;
+		analogValues[next] = analogValue < 0 ? -1 : analogValue;
+		digitalValues[next] = digitalValue == null ? NO_DIGITAL_VALUE : (byte)digitalValue.getID();
+		next = (next + 1) % timestamps.length;
+		if (size < timestamps.length)
+			size++;
+	}
+	
+	/**
+	 * Returns the IO line of this history.
+	 * 
+	 * @return The IO line.
+	 * 
+	 * @see IOLine
+	 */
+	public IOLine getIOLine() {
+		return ioLine;
+	}
+	
+	/**
+	 * Returns the maximum number of values this history stores.
+	 * 
+	 * @return The capacity of the history.
+	 */
+	public int getCapacity() {
+		return timestamps.length;
+	}
+	
+	/**
+	 * Returns the number of values stored in this history.
+	 * 
+	 * @return The number of values.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns the timestamp of the latest value.
+	 * 
+	 * @return The timestamp of the latest value in milliseconds, {@code -1}
+	 *         if the history is empty.
+	 */
+	public synchronized long getLatestTimestamp() {
+		return size > 0 ? timestamps[previous(next)] : -1;
+	}
+	
+	/**
+	 * Returns the latest analog value.
+	 * 
+	 * @return The latest analog value, {@code -1} if the history is empty or
+	 *         the latest sample did not have analog value for the line.
+	 */
+	public synchronized int getLatestAnalogValue() {
+		return size > 0 ? analogValues[previous(next)] : -1;
+	}
+	
+	/**
+	 * Returns the latest digital value.
+	 * 
+	 * @return The latest digital value, {@code null} if the history is empty
+	 *         or the latest sample did not have digital value for the line.
+	 * 
+	 * @see IOValue
+	 */
+	public synchronized IOValue getLatestDigitalValue() {
+		if (size == 0)
+			return null;
+		byte value = digitalValues[previous(next)];
+		return value == NO_DIGITAL_VALUE ? null : IOValue.getIOValue(value);
+	}
+	
+	/**
+	 * Aggregates the values received in the given period.
+	 * 
+	 * <p>Only the values with a timestamp between {@code startTime}
+	 * (inclusive) and {@code endTime} (exclusive) are aggregated. The values
+	 * are scanned from the latest one and the scan stops at the first value
+	 * older than the period.</p>
+	 * 
+	 * @param startTime The start of the period (inclusive), in milliseconds.
+	 * @param endTime The end of the period (exclusive), in milliseconds.
+	 * 
+	 * @return The aggregated values of the period.
+	 * 
+	 * @throws IllegalArgumentException if {@code endTime < startTime}.
+	 * 
+	 * @see #aggregateLast(long)
+	 * @see IOAggregate
+	 */
+	public synchronized IOAggregate aggregate(long startTime, long endTime) {
+		if (endTime < startTime)
+			throw new IllegalArgumentException("End time cannot be before start time.");
+		
+		return aggregate(startTime, endTime, 0, 1)[0];
+	}
+	
+	/**
+	 * Aggregates the values received in the given duration until the latest
+	 * value, both included.
+	 * 
+	 * @param duration The length of the sliding window, in milliseconds.
+	 * 
+	 * @return The aggregated values of the window.
+	 * 
+	 * @throws IllegalArgumentException if {@code duration < 0}.
+	 * 
+	 * @see #aggregate(long, long)
+	 * @see IOAggregate
+	 */
+	public synchronized IOAggregate aggregateLast(long duration) {
+		if (duration < 0)
+			throw new IllegalArgumentException("Duration cannot be negative.");
+		
+		// The latest timestamp is never lower than -1, so the start of the 
+		// window does not overflow even for the longest duration.
+		long latestTimestamp = getLatestTimestamp();
+		long endTime = latestTimestamp == Long.MAX_VALUE ? Long.MAX_VALUE : latestTimestamp + 1;
+		return aggregate(latestTimestamp - duration, endTime);
+	}
+	
+	/**
+	 * Aggregates the values received in the given period in consecutive
+	 * intervals of the given length.
+	 * 
+	 * <p>The first interval starts at {@code startTime} and the last one
+	 * ends at {@code endTime}, so it may be shorter than the rest. Intervals
+	 * without values have a count of {@code 0}.</p>
+	 * 
+	 * @param startTime The start of the period (inclusive), in milliseconds.
+	 * @param endTime The end of the period (exclusive), in milliseconds.
+	 * @param interval The length of each interval, in milliseconds.
+	 * 
+	 * @return The aggregated values of each interval, sorted from the oldest
+	 *         to the newest.
+	 * 
+	 * @throws IllegalArgumentException if {@code endTime < startTime} or
+	 *                                  if {@code interval < 1}.
+	 * 
+	 * @see #aggregate(long, long)
+	 * @see IOAggregate
+	 */
+	public synchronized IOAggregate[] downsample(long startTime, long endTime, long interval) {
+		if (endTime < startTime)
+			throw new IllegalArgumentException("End time cannot be before start time.");
+		if (interval < 1)
+			throw new IllegalArgumentException("Interval must be greater than 0.");
+		
+		// The length of the period may not fit in a long, so it is handled as 
+		// an unsigned value.
+		long span = endTime - startTime;
+		long buckets = divideUnsigned(span, interval);
+		if (remainderUnsigned(span, interval) != 0 || buckets == 0)
+			buckets++;
+		if (buckets > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many intervals in the period.");
+		
+		return aggregate(startTime, endTime, interval, (int)buckets);
+	}
+	
+	/**
+	 * Aggregates the values received in the given period in the given number 
+	 * of consecutive intervals.
+	 * 
+	 * @param startTime The start of the period (inclusive), in milliseconds.
+	 * @param endTime The end of the period (exclusive), in milliseconds.
+	 * @param interval The length of each interval, in milliseconds. Ignored 
+	 *                 if there is only one interval.
+	 * @param n The number of intervals.
+	 * 
+	 * @return The aggregated values of each interval, sorted from the oldest
+	 *         to the newest.
+	 */
+	private IOAggregate[] aggregate(long startTime, long endTime, long interval, int n) {
+		int[] counts = new int[n];
+		int[] analogCounts = new int[n];
+		int[] minimums = new int[n];
+		int[] maximums = new int[n];
+		long[] sums = new long[n];
+		int[] highCounts = new int[n];
+		int[] lowCounts = new int[n];
+		
+		int index = next;
+		for (int i = 0; i < size; i++) {
+			index = previous(index);
+			long timestamp = timestamps[index];
+			if (timestamp < startTime)
+				break;
+			if (timestamp >= endTime)
+				continue;
+			
+			int bucket = n == 1 ? 0 : (int)divideUnsigned(timestamp - startTime, interval);
+			counts[bucket]++;
+			int analogValue = analogValues[index];
+			if (analogValue >= 0) {
+				if (analogCounts[bucket] == 0 || analogValue < minimums[bucket])
+					minimums[bucket] = analogValue;
+				if (analogCounts[bucket] == 0 || analogValue > maximums[bucket])
+					maximums[bucket] = analogValue;
+				sums[bucket] += analogValue;
+				analogCounts[bucket]++;
+			}
+			byte digitalValue = digitalValues[index];
+			if (digitalValue == IOValue.HIGH.getID())
+				highCounts[bucket]++;
+			else if (digitalValue == IOValue.LOW.getID())
+				lowCounts[bucket]++;
+		}
+		
+		IOAggregate[] aggregates = new IOAggregate[n];
+		for (int i = 0; i < n; i++) {
+			// Every interval is inside the period, so its bounds fit in a 
+			// long even if the intermediate products wrap around.
+			long bucketStart = n == 1 ? startTime : startTime + i * interval;
+			long bucketEnd = n == 1 || compareUnsigned(endTime - bucketStart, interval) <= 0 ? endTime : bucketStart + interval;
+			aggregates[i] = new IOAggregate(bucketStart, bucketEnd,
+					counts[i], analogCounts[i], minimums[i], maximums[i], sums[i],
+					highCounts[i], lowCounts[i]);
+		}
+		return aggregates;
+	}
+	
+	/**
+	 * Removes all the values of this history.
+	 */
+	public synchronized void clear() {
+		next = 0;
+		size = 0;
+	}
+	
+	/**
+	 * Returns the position of the ring buffer before the given one.
+	 * 
+	 * @param index The position in the ring buffer.
+	 * 
+	 * @return The previous position.
+	 */
+	private int previous(int index) {
+		return (index == 0 ? timestamps.length : index) - 1;
+	}
+	
+	/**
+	 * Divides the given unsigned values.
+	 * 
+	 * @param dividend The unsigned dividend.
+	 * @param divisor The divisor, greater than 0.
+	 * 
+	 * @return The unsigned quotient.
+	 */
+	private static long divideUnsigned(long dividend, long divisor) {
+		if (dividend >= 0)
+			return dividend / divisor;
+		long quotient = ((dividend >>> 1) / divisor) << 1;
+		long remainder = dividend - quotient * divisor;
+		return quotient + (compareUnsigned(remainder, divisor) >= 0 ? 1 : 0);
+	}
+	
+	/**
+	 * Returns the remainder of dividing the given unsigned values.
+	 * 
+	 * @param dividend The unsigned dividend.
+	 * @param divisor The divisor, greater than 0.
+	 * 
+	 * @return The unsigned remainder.
+	 */
+	private static long remainderUnsigned(long dividend, long divisor) {
+		return dividend - divideUnsigned(dividend, divisor) * divisor;
+	}
+	
+	/**
+	 * Compares the given unsigned values.
+	 * 
+	 * @param x The first unsigned value.
+	 * @param y The second unsigned value.
+	 * 
+	 * @return A negative value if {@code x < y}, {@code 0} if they are 
+	 *         equal and a positive value if {@code x > y}.
+	 */
+	private static int compareUnsigned(long x, long y) {
+		return Long.compare(x + Long.MIN_VALUE, y + Long.MIN_VALUE);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return ioLine.getName() + ": " + size() + "/" + getCapacity() + " values";
+	}
+}
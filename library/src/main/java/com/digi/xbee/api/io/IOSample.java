@@ -15,8 +15,11 @@
  */
 package com.digi.xbee.api.io;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import com.digi.xbee.api.exceptions.OperationNotSupportedException;
 import com.digi.xbee.api.utils.ByteUtils;
@@ -109,9 +112,20 @@ import com.digi.xbee.api.utils.ByteUtils;
  *      <p>Example: mask of {@code 0x03} means AD0, and AD1 enabled.</p>
  *      <p>0 0 0 0 0 0 1 1</p>
  * </BLOCKQUOTE>
+ * <br>
+ * <p>The sample keeps the masks and the analog values as primitives. Use
+ * {@link #isHigh(IOLine)} and {@link #getAnalog(IOLine)}, or the bitmasks
+ * returned by {@link #getDigitalValuesMask()} and
+ * {@link #getAnalogLinesMask()}, to read the values without allocating any
+ * object. The maps returned by {@link #getDigitalValues()} and
+ * {@link #getAnalogValues()} are built on every call.</p>
  */
 public class IOSample {
 	
+	// Constants.
+	private static final int DIGITAL_LINES = 16;
+	private static final int ANALOG_LINES = 7;
+	
 	// Variables.
 	private final byte[] ioSamplePayload;
 	
@@ -124,8 +138,11 @@ public class IOSample {
 	private int digitalValues;
 	private int powerSupplyVoltage;
 	
-	private final HashMap<IOLine, Integer> analogValuesMap = new HashMap<IOLine, Integer>();
-	private final HashMap<IOLine, IOValue> digitalValuesMap = new HashMap<IOLine, IOValue>();
+	// Bit 'n' is set when the IO line with index 'n' has an analog value.
+	private int analogLinesMask;
+	
+	// Indexed by the IO line index, only created if there are analog values.
+	private int[] analogValues;
 	
 	/**
 	 * Class constructor. Instantiates a new object of type {@code IOSample} 
@@ -150,6 +167,53 @@ public class IOSample {
 			parseIOSample();
 	}
 	
+	/**
+	 * Parses all the IO samples contained in the given IO sample payload.
+	 * 
+	 * <p>802.15.4 modules may send several samples in the same frame, 
+	 * depending on the {@code IT} setting. All of them share the masks of 
+	 * the payload, and they are returned in the order they were taken. 
+	 * Incomplete samples at the end of the payload are discarded, except 
+	 * the first one, which is always returned as {@link #IOSample(byte[])} 
+	 * parses it.</p>
+	 * 
+	 * <p>Payloads of other protocols always contain one sample.</p>
+	 * 
+	 * @param ioSamplePayload The payload of the IO samples frame.
+	 * 
+	 * @return The unmodifiable list of IO samples, it always contains at 
+	 *         least one sample.
+	 * 
+	 * @throws IllegalArgumentException if {@code ioSamplePayload.length < 5}.
+	 * @throws NullPointerException if {@code ioSamplePayload == null}.
+	 * 
+	 * @see #IOSample(byte[])
+	 */
+	public static List<IOSample> parseIOSamples(byte[] ioSamplePayload) {
+		IOSample firstSample = new IOSample(ioSamplePayload);
+		
+		int numberOfSamples = ioSamplePayload[0] & 0xFF;
+		// Digital values take 2 bytes and each analog value 2 more bytes.
+		int sampleSize = (firstSample.digitalMask > 0 ? 2 : 0) + 2 * Integer.bitCount(firstSample.analogMask);
+		if (ioSamplePayload.length % 2 == 0 || numberOfSamples < 2 || sampleSize == 0)
+			return Collections.singletonList(firstSample);
+		
+		List<IOSample> samples = new ArrayList<IOSample>(numberOfSamples);
+		samples.add(firstSample);
+		int index = 3 + sampleSize;
+		for (int i = 1; i < numberOfSamples && index + sampleSize <= ioSamplePayload.length; i++) {
+			// Build a single sample payload with the shared masks.
+			byte[] samplePayload = new byte[3 + sampleSize];
+			samplePayload[0] = 1;
+			samplePayload[1] = ioSamplePayload[1];
+			samplePayload[2] = ioSamplePayload[2];
+			System.arraycopy(ioSamplePayload, index, samplePayload, 3, sampleSize);
+			samples.add(new IOSample(samplePayload));
+			index += sampleSize;
+		}
+		return Collections.unmodifiableList(samples);
+	}
+	
 	/**
 	 * Parses the information contained in the IO sample bytes reading the 
 	 * value of each configured DIO and ADC.
@@ -174,15 +238,6 @@ public class IOSample {
 			digitalLSBValues = ioSamplePayload[4] & 0xFF;
 			// Combine the values.
 			digitalValues = (digitalHSBValues << 8) + digitalLSBValues;
-			
-			for (int i = 0; i < 16; i++) {
-				if (!ByteUtils.isBitEnabled(digitalMask, i))
-					continue;
-				if (ByteUtils.isBitEnabled(digitalValues, i))
-					digitalValuesMap.put(IOLine.getDIO(i), IOValue.HIGH);
-				else
-					digitalValuesMap.put(IOLine.getDIO(i), IOValue.LOW);
-			}
 			// Increase the data index to read the analog values.
 			dataIndex += 2;
 		}
@@ -197,7 +252,7 @@ public class IOSample {
 				continue;
 			}
 			// 802.15.4 protocol does not provide power supply value, so get just the ADC data.
-			analogValuesMap.put(IOLine.getDIO(adcIndex - 9), ((ioSamplePayload[dataIndex] & 0xFF) << 8) + (ioSamplePayload[dataIndex + 1] & 0xFF));
+			putAnalogValue(adcIndex - 9, ((ioSamplePayload[dataIndex] & 0xFF) << 8) + (ioSamplePayload[dataIndex + 1] & 0xFF));
 			// Increase the data index to read the next analog values.
 			dataIndex += 2;
 			adcIndex += 1;
@@ -228,15 +283,6 @@ public class IOSample {
 			digitalLSBValues = ioSamplePayload[5] & 0xFF;
 			// Combine the values.
 			digitalValues = (digitalHSBValues << 8) + digitalLSBValues;
-			
-			for (int i = 0; i < 16; i++) {
-				if (!ByteUtils.isBitEnabled(digitalMask, i))
-					continue;
-				if (ByteUtils.isBitEnabled(digitalValues, i))
-					digitalValuesMap.put(IOLine.getDIO(i), IOValue.HIGH);
-				else
-					digitalValuesMap.put(IOLine.getDIO(i), IOValue.LOW);
-			}
 			// Increase the data index to read the analog values.
 			dataIndex += 2;
 		}
@@ -255,13 +301,26 @@ public class IOSample {
 			if (adcIndex == 7)
 				powerSupplyVoltage = ((ioSamplePayload[dataIndex] & 0xFF) << 8) + (ioSamplePayload[dataIndex + 1] & 0xFF);
 			else
-				analogValuesMap.put(IOLine.getDIO(adcIndex), ((ioSamplePayload[dataIndex] & 0xFF) << 8) + (ioSamplePayload[dataIndex + 1] & 0xFF));
+				putAnalogValue(adcIndex, ((ioSamplePayload[dataIndex] & 0xFF) << 8) + (ioSamplePayload[dataIndex + 1] & 0xFF));
 			// Increase the data index to read the next analog values.
 			dataIndex += 2;
 			adcIndex += 1;
 		}
 	}
 	
+	/**
+	 * Stores the analog value of the IO line with the given index.
+	 * 
+	 * @param index The index of the IO line.
+	 * @param value The analog value.
+	 */
+	private void putAnalogValue(int index, int value) {
+		if (analogValues == null)
+			analogValues = new int[ANALOG_LINES];
+		analogValues[index] = value;
+		analogLinesMask |= 1 << index;
+	}
+	
 	/**
 	 * Returns the HSB of the digital mask.
 	 * 
@@ -305,7 +364,7 @@ public class IOSample {
 	 *         otherwise.
 	 */
 	public boolean hasDigitalValues() {
-		return digitalValuesMap.size() > 0;
+		return digitalMask > 0;
 	}
 	
 	/**
@@ -321,7 +380,50 @@ public class IOSample {
 	 * @see IOLine
 	 */
 	public boolean hasDigitalValue(IOLine ioLine) {
-		return digitalValuesMap.containsKey(ioLine);
+		return ioLine != null && ioLine.getIndex() < DIGITAL_LINES 
+				&& ByteUtils.isBitEnabled(digitalMask, ioLine.getIndex());
+	}
+	
+	/**
+	 * Returns whether the given IO line is in high state.
+	 * 
+	 * <p>Unlike {@link #getDigitalValue(IOLine)}, this method does not 
+	 * distinguish an IO line in low state from an IO line without digital 
+	 * value. Use {@link #hasDigitalValue(IOLine)} to check it.</p>
+	 * 
+	 * @param ioLine The IO line to check.
+	 * 
+	 * @return {@code true} if the IO sample contains a digital value for the 
+	 *         given IO line and it is {@code IOValue.HIGH}, {@code false} 
+	 *         otherwise.
+	 * 
+	 * @throws NullPointerException if {@code ioLine == null}.
+	 * 
+	 * @see #getDigitalValuesMask()
+	 * @see #hasDigitalValue(IOLine)
+	 * @see IOLine
+	 */
+	public boolean isHigh(IOLine ioLine) {
+		if (ioLine == null)
+			throw new NullPointerException("IO line cannot be null.");
+		
+		return hasDigitalValue(ioLine) && ByteUtils.isBitEnabled(digitalValues, ioLine.getIndex());
+	}
+	
+	/**
+	 * Returns the bitmask of the IO lines in high state.
+	 * 
+	 * <p>Bit {@code n} is set when the IO line with index {@code n} has a 
+	 * digital value and it is {@code IOValue.HIGH}. Lines without digital 
+	 * value are never set.</p>
+	 * 
+	 * @return The bitmask of the IO lines in high state.
+	 * 
+	 * @see #getDigitalMask()
+	 * @see #isHigh(IOLine)
+	 */
+	public int getDigitalValuesMask() {
+		return digitalValues & digitalMask;
 	}
 	
 	/**
@@ -350,7 +452,16 @@ public class IOSample {
 	 * @see IOValue
 	 */
 	public HashMap<IOLine, IOValue> getDigitalValues() {
-		return (HashMap<IOLine, IOValue>) digitalValuesMap.clone();
+		HashMap<IOLine, IOValue> digitalValuesMap = new HashMap<IOLine, IOValue>();
+		for (int i = 0; i < DIGITAL_LINES; i++) {
+			if (!ByteUtils.isBitEnabled(digitalMask, i))
+				continue;
+			if (ByteUtils.isBitEnabled(digitalValues, i))
+				digitalValuesMap.put(IOLine.getDIO(i), IOValue.HIGH);
+			else
+				digitalValuesMap.put(IOLine.getDIO(i), IOValue.LOW);
+		}
+		return digitalValuesMap;
 	}
 	
 	/**
@@ -381,9 +492,9 @@ public class IOSample {
 	 * @see IOValue
 	 */
 	public IOValue getDigitalValue(IOLine ioLine) {
-		if (!digitalValuesMap.containsKey(ioLine))
+		if (!hasDigitalValue(ioLine))
 			return null;
-		return digitalValuesMap.get(ioLine);
+		return ByteUtils.isBitEnabled(digitalValues, ioLine.getIndex()) ? IOValue.HIGH : IOValue.LOW;
 	}
 	
 	/**
@@ -406,7 +517,7 @@ public class IOSample {
 	 * @see IOLine
 	 */
 	public boolean hasAnalogValues() {
-		return analogValuesMap.size() > 0;
+		return analogLinesMask != 0;
 	}
 	
 	/**
@@ -423,7 +534,25 @@ public class IOSample {
 	 * @see IOLine
 	 */
 	public boolean hasAnalogValue(IOLine ioLine) {
-		return analogValuesMap.containsKey(ioLine);
+		return ioLine != null && ioLine.getIndex() < ANALOG_LINES 
+				&& ByteUtils.isBitEnabled(analogLinesMask, ioLine.getIndex());
+	}
+	
+	/**
+	 * Returns the bitmask of the IO lines with analog value.
+	 * 
+	 * <p>Bit {@code n} is set when the IO line with index {@code n} has an 
+	 * analog value. Unlike {@link #getAnalogMask()}, the bits do not depend 
+	 * on the protocol and only the lines whose value was received are 
+	 * set.</p>
+	 * 
+	 * @return The bitmask of the IO lines with analog value.
+	 * 
+	 * @see #getAnalog(IOLine)
+	 * @see #getAnalogMask()
+	 */
+	public int getAnalogLinesMask() {
+		return analogLinesMask;
 	}
 	
 	/**
@@ -452,7 +581,12 @@ public class IOSample {
 	 * @see IOLine
 	 */
 	public HashMap<IOLine, Integer> getAnalogValues() {
-		return (HashMap<IOLine, Integer>) analogValuesMap.clone();
+		HashMap<IOLine, Integer> analogValuesMap = new HashMap<IOLine, Integer>();
+		for (int i = 0; i < ANALOG_LINES; i++) {
+			if (ByteUtils.isBitEnabled(analogLinesMask, i))
+				analogValuesMap.put(IOLine.getDIO(i), analogValues[i]);
+		}
+		return analogValuesMap;
 	}
 	
 	/**
@@ -483,9 +617,33 @@ public class IOSample {
 	 * @see IOLine
 	 */
 	public Integer getAnalogValue(IOLine ioLine) {
-		if (!analogValuesMap.containsKey(ioLine))
+		if (!hasAnalogValue(ioLine))
 			return null;
-		return analogValuesMap.get(ioLine);
+		return analogValues[ioLine.getIndex()];
+	}
+	
+	/**
+	 * Returns the analog value of the provided IO line without boxing it.
+	 * 
+	 * @param ioLine The IO line to get its analog value.
+	 * 
+	 * @return The analog value of the given IO line or {@code -1} if the IO 
+	 *         sample does not contain an analog value for the given IO line.
+	 * 
+	 * @throws NullPointerException if {@code ioLine == null}.
+	 * 
+	 * @see #getAnalogLinesMask()
+	 * @see #getAnalogValue(IOLine)
+	 * @see #hasAnalogValue(IOLine)
+	 * @see IOLine
+	 */
+	public int getAnalog(IOLine ioLine) {
+		if (ioLine == null)
+			throw new NullPointerException("IO line cannot be null.");
+		
+		if (!hasAnalogValue(ioLine))
+			return -1;
+		return analogValues[ioLine.getIndex()];
 	}
 	
 	/**
@@ -538,13 +696,15 @@ public class IOSample {
 	public String toString() {
 		StringBuilder sb = new StringBuilder("{");
 		if (hasDigitalValues()) {
-			for (IOLine line : digitalValuesMap.keySet()) {
-				sb.append("[").append(line).append(": ").append(digitalValuesMap.get(line)).append("], ");
+			for (int i = 0; i < DIGITAL_LINES; i++) {
+				if (ByteUtils.isBitEnabled(digitalMask, i))
+					sb.append("[").append(IOLine.getDIO(i)).append(": ").append(getDigitalValue(IOLine.getDIO(i))).append("], ");
 			}
 		}
 		if (hasAnalogValues()) {
-			for (IOLine line : analogValuesMap.keySet()) {
-				sb.append("[").append(line).append(": ").append(analogValuesMap.get(line)).append("], ");
+			for (int i = 0; i < ANALOG_LINES; i++) {
+				if (ByteUtils.isBitEnabled(analogLinesMask, i))
+					sb.append("[").append(IOLine.getDIO(i)).append(": ").append(analogValues[i]).append("], ");
 			}
 		}
 		if (hasPowerSupplyValue()) {
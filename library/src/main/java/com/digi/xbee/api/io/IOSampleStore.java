@@ -0,0 +1,246 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.utils.DeviceUtils;
+
+/**
+ * This class stores the history of the IO samples received from remote
+ * XBee devices.
+ * 
+ * <p>The store keeps an {@link IOLineHistory} for every IO line of every
+ * remote device a value has been received for. Each history holds up to
+ * the capacity of the store, so every line takes a fixed amount of memory:
+ * 13 bytes per value (timestamp, analog value and digital value). Histories
+ * are created the first time a value of the line is received.</p>
+ * 
+ * <p>Remote devices are identified by their 64-bit address, by their
+ * 16-bit address if the 64-bit one is unknown, or by their IPv6 address.
+ * The entries of a remote device are removed when it is evicted from the
+ * network of the local device.</p>
+ * 
+ * @see IOLineHistory
+ * @see com.digi.xbee.api.XBeeDevice#setIOSampleStore(IOSampleStore)
+ * @see com.digi.xbee.api.XBeeNetwork#setMaximumNumberOfDevices(int)
+ */
+public class IOSampleStore {
+	
+	// Constants.
+	/**
+	 * Default number of values stored for each IO line.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+	
+	private static final int NUMBER_OF_LINES = IOLine.values().length;
+	
+	// Variables.
+	private final int capacity;
+	
+	private final ConcurrentHashMap<Object, IOLineHistory[]> histories = new ConcurrentHashMap<Object, IOLineHistory[]>();
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IOSampleStore} that keeps
+	 * the latest {@link #DEFAULT_CAPACITY} values of each IO line.
+	 */
+	public IOSampleStore() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code IOSampleStore} that keeps
+	 * the given number of values of each IO line.
+	 * 
+	 * @param capacity The maximum number of values of each IO line.
+	 * 
+	 * @throws IllegalArgumentException if {@code capacity < 1}.
+	 */
+	public IOSampleStore(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be greater than 0.");
+		
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Returns the maximum number of values stored for each IO line.
+	 * 
+	 * @return The capacity of the histories of the store.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * Stores the values of the given IO sample received from the given
+	 * remote XBee device.
+	 * 
+	 * <p>A value is stored in the history of each IO line with a digital or
+	 * analog value in the sample.</p>
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the sample.
+	 * @param ioSample The received IO sample.
+	 * @param timestamp The time the sample was received, in milliseconds.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null} or
+	 *                              if {@code ioSample == null}.
+	 * 
+	 * @see #addSamples(RemoteXBeeDevice, List, long)
+	 */
+	public void addSample(RemoteXBeeDevice remoteDevice, IOSample ioSample, long timestamp) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (ioSample == null)
+			throw new NullPointerException("IO sample cannot be null.");
+		
+		IOLineHistory[] lines = getLines(DeviceUtils.getAddressKey(remoteDevice), true);
+		int digitalMask = ioSample.getDigitalMask();
+		int highMask = ioSample.getDigitalValuesMask();
+		int analogMask = ioSample.getAnalogLinesMask();
+		int mask = digitalMask | analogMask;
+		while (mask != 0) {
+			int index = Integer.numberOfTrailingZeros(mask);
+			mask &= mask - 1;
+			if (index >= NUMBER_OF_LINES)
+				break;
+			
+			IOLine ioLine = IOLine.getDIO(index);
+			IOValue digitalValue = null;
+			if ((digitalMask & (1 << index)) != 0)
+				digitalValue = (highMask & (1 << index)) != 0 ? IOValue.HIGH : IOValue.LOW;
+			getHistory(lines, ioLine).add(timestamp, ioSample.getAnalog(ioLine), digitalValue);
+		}
+	}
+	
+	/**
+	 * Stores the values of the given IO samples received from the given
+	 * remote XBee device in the same frame.
+	 * 
+	 * <p>All the samples are stored with the same timestamp, in the order of
+	 * the list.</p>
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the samples.
+	 * @param ioSamples The received IO samples.
+	 * @param timestamp The time the samples were received, in milliseconds.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null} or
+	 *                              if {@code ioSamples == null} or
+	 *                              if any sample is {@code null}.
+	 * 
+	 * @see #addSample(RemoteXBeeDevice, IOSample, long)
+	 */
+	public void addSamples(RemoteXBeeDevice remoteDevice, List<IOSample> ioSamples, long timestamp) {
+		if (ioSamples == null)
+			throw new NullPointerException("IO samples cannot be null.");
+		
+		for (IOSample ioSample:ioSamples)
+			addSample(remoteDevice, ioSample, timestamp);
+	}
+	
+	/**
+	 * Returns the history of the given IO line of the given remote XBee
+	 * device.
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * @param ioLine The IO line.
+	 * 
+	 * @return The history of the IO line, {@code null} if no value has been
+	 *         received for the line.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null} or
+	 *                              if {@code ioLine == null}.
+	 * 
+	 * @see IOLineHistory
+	 */
+	public IOLineHistory getHistory(RemoteXBeeDevice remoteDevice, IOLine ioLine) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (ioLine == null)
+			throw new NullPointerException("IO line cannot be null.");
+		
+		IOLineHistory[] lines = getLines(DeviceUtils.getAddressKey(remoteDevice), false);
+		if (lines == null)
+			return null;
+		synchronized (lines) {
+			return lines[ioLine.getIndex()];
+		}
+	}
+	
+	/**
+	 * Removes the history of all the IO lines of the given remote XBee
+	 * device.
+	 * 
+	 * @param remoteDevice The remote XBee device to remove.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 */
+	public void remove(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		
+		histories.remove(DeviceUtils.getAddressKey(remoteDevice));
+	}
+	
+	/**
+	 * Removes the history of all the remote XBee devices.
+	 */
+	public void clear() {
+		histories.clear();
+	}
+	
+	/**
+	 * Returns the histories of the remote device with the given key.
+	 * 
+	 * @param key The key of the remote device.
+	 * @param create {@code true} to create them if they do not exist.
+	 * 
+	 * @return The histories indexed by IO line, {@code null} if they do not
+	 *         exist and {@code create} is {@code false}.
+	 */
+	private IOLineHistory[] getLines(Object key, boolean create) {
+		IOLineHistory[] lines = histories.get(key);
+		if (lines == null && create) {
+			lines = new IOLineHistory[NUMBER_OF_LINES];
+			IOLineHistory[] existing = histories.putIfAbsent(key, lines);
+			if (existing != null)
+				lines = existing;
+		}
+		return lines;
+	}
+	
+	/**
+	 * Returns the history of the given IO line, creating it if it does not
+	 * exist.
+	 * 
+	 * @param lines The histories of a remote device.
+	 * @param ioLine The IO line.
+	 * 
+	 * @return The history of the IO line.
+	 */
+	private IOLineHistory getHistory(IOLineHistory[] lines, IOLine ioLine) {
+		synchronized (lines) {
+			IOLineHistory history = lines[ioLine.getIndex()];
+			if (history == null) {
+				history = new IOLineHistory(ioLine, capacity);
+				lines[ioLine.getIndex()] = history;
+			}
+			return history;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.utils.DeviceUtils;
+
+/**
+ * This class caches the latest IO sample known of each remote XBee device.
+ * 
+ * <p>The cache is updated with the IO samples received from the remote
+ * devices and with the responses of the IO samples read from them, so the
+ * IO values of a remote device can be read without communicating with it
+ * while the cached sample is recent enough.</p>
+ * 
+ * <p>Remote devices are identified by their 64-bit address, by their
+ * 16-bit address if the 64-bit one is unknown, or by their IPv6 address.
+ * The entries of a remote device are removed when it is evicted from the
+ * network of the local device.</p>
+ * 
+ * @see com.digi.xbee.api.RemoteXBeeDevice#readIOSample(long)
+ * @see com.digi.xbee.api.XBeeNetwork#setMaximumNumberOfDevices(int)
+ * @see com.digi.xbee.api.XBeeDevice#setIOStateCache(IOStateCache)
+ */
+public class IOStateCache {
+	
+	// Variables.
+	private final ConcurrentHashMap<Object, CachedSample> samples = new ConcurrentHashMap<Object, CachedSample>();
+	
+	/**
+	 * Updates the IO sample of the given remote XBee device.
+	 * 
+	 * <p>If the cached sample of the device is newer than the given one, this
+	 * method does nothing.</p>
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * @param ioSample The IO sample of the remote device.
+	 * @param timestamp The time the sample was received, in milliseconds.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null} or
+	 *                              if {@code ioSample == null}.
+	 */
+	public void update(RemoteXBeeDevice remoteDevice, IOSample ioSample, long timestamp) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (ioSample == null)
+			throw new NullPointerException("IO sample cannot be null.");
+		
+		Object key = DeviceUtils.getAddressKey(remoteDevice);
+		CachedSample sample = new CachedSample(ioSample, timestamp);
+		CachedSample current = samples.putIfAbsent(key, sample);
+		while (current != null && current.timestamp <= timestamp && !samples.replace(key, current, sample))
+			current = samples.putIfAbsent(key, sample);
+	}
+	
+	/**
+	 * Returns the cached IO sample of the given remote XBee device if it is
+	 * not older than the given age.
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * @param maxAge The maximum age of the sample in milliseconds.
+	 * 
+	 * @return The cached IO sample, {@code null} if there is no sample of the
+	 *         device or it is older than {@code maxAge}.
+	 * 
+	 * @throws IllegalArgumentException if {@code maxAge < 0}.
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 * 
+	 * @see IOSample
+	 */
+	public IOSample getIOSample(RemoteXBeeDevice remoteDevice, long maxAge) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		if (maxAge < 0)
+			throw new IllegalArgumentException("Maximum age cannot be negative.");
+		
+		CachedSample sample = samples.get(DeviceUtils.getAddressKey(remoteDevice));
+		if (sample == null || System.currentTimeMillis() - sample.timestamp > maxAge)
+			return null;
+		return sample.ioSample;
+	}
+	
+	/**
+	 * Returns the time the cached IO sample of the given remote XBee device
+	 * was received.
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * 
+	 * @return The timestamp of the cached sample in milliseconds, {@code -1}
+	 *         if there is no sample of the device.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 */
+	public long getTimestamp(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		
+		CachedSample sample = samples.get(DeviceUtils.getAddressKey(remoteDevice));
+		return sample == null ? -1 : sample.timestamp;
+	}
+	
+	/**
+	 * Removes the cached IO sample of the given remote XBee device.
+	 * 
+	 * @param remoteDevice The remote XBee device to remove.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 */
+	public void remove(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		
+		samples.remove(DeviceUtils.getAddressKey(remoteDevice));
+	}
+	
+	/**
+	 * Removes the cached IO samples of all the remote XBee devices.
+	 */
+	public void clear() {
+		samples.clear();
+	}
+	
+	/**
+	 * An IO sample with the time it was received.
+	 */
+	private static class CachedSample {
+		
+		// Variables.
+		final IOSample ioSample;
+		final long timestamp;
+		
+		/**
+		 * Class constructor. Instantiates a new {@code CachedSample} with the
+		 * given parameters.
+		 * 
+		 * @param ioSample The IO sample.
+		 * @param timestamp The time the sample was received, in milliseconds.
+		 */
+		CachedSample(IOSample ioSample, long timestamp) {
+			this.ioSample = ioSample;
+			this.timestamp = timestamp;
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.listeners;
+
+import java.util.List;
+
+import com.digi.xbee.api.models.XBeeMessage;
+
+/**
+ * This interface defines the required methods that should be implemented to 
+ * behave as a batch data listener and be notified with groups of the data 
+ * received from the remote XBee devices of the network.
+ * 
+ * <p>Batch listeners are suitable for high-rate consumers that process the 
+ * received data in bulk, as they are notified once for several messages.</p>
+ * 
+ * @see IDataReceiveListener
+ * @see com.digi.xbee.api.XBeeDevice#addDataBatchListener(IDataBatchReceiveListener, int, long)
+ */
+public interface IDataBatchReceiveListener {
+	
+	/**
+	 * Called when a batch of data messages has been received from the 
+	 * remote nodes of the network.
+	 * 
+	 * @param messages The list of received messages, in the order they were 
+	 *                 received. It always contains at least one message.
+	 * 
+	 * @see com.digi.xbee.api.models.XBeeMessage
+	 */
+	public void dataBatchReceived(List<XBeeMessage> messages);
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.listeners;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+
+/**
+ * Interface defining the required methods that an object should implement to be 
+ * notified when a remote device is automatically removed from an XBee network.
+ * 
+ * @see com.digi.xbee.api.XBeeNetwork#setMaximumNumberOfDevices(int)
+ * @see com.digi.xbee.api.XBeeNetwork#setDeviceTimeToLive(long)
+ */
+public interface IDeviceEvictionListener {
+	
+	/**
+	 * Notifies that a remote device was evicted from the network.
+	 * 
+	 * @param evictedDevice The evicted remote device.
+	 * @param expired {@code true} if the device was evicted because it was 
+	 *                not heard within the configured time to live, 
+	 *                {@code false} if it was the least recently heard device 
+	 *                when the network reached its maximum number of devices.
+	 * 
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 */
+	public void deviceEvicted(RemoteXBeeDevice evictedDevice, boolean expired);
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.listeners;
+
+import java.util.List;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.io.IOSample;
+
+/**
+ * This interface defines the required methods that an object should implement
+ * to behave as a batch IO sample listener and be notified with all the IO 
+ * samples of each IO frame received from a remote XBee device of the network.
+ * 
+ * <p>802.15.4 modules may send several IO samples in the same frame, 
+ * depending on their {@code IT} setting. Batch listeners are notified once 
+ * per frame with all of them, while {@link IIOSampleReceiveListener} 
+ * listeners are notified once per sample.</p>
+ * 
+ * @see IIOSampleReceiveListener
+ * @see com.digi.xbee.api.XBeeDevice#addIOSampleBatchListener(IIOSampleBatchReceiveListener)
+ */
+public interface IIOSampleBatchReceiveListener {
+	
+	/**
+	 * Called when an IO frame is received through the connection interface.
+	 * 
+	 * @param remoteDevice The remote XBee device that sent the samples.
+	 * @param ioSamples The received IO samples, in the order they were taken. 
+	 *                  It always contains at least one sample.
+	 * 
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 * @see com.digi.xbee.api.io.IOSample
+	 */
+	public void ioSamplesReceived(RemoteXBeeDevice remoteDevice, List<IOSample> ioSamples);
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.listeners;
+
+/**
+ * This interface represents a source of items that delivers them to its 
+ * subscribers only as fast as they request them.
+ * 
+ * <p>It is equivalent to {@code java.util.concurrent.Flow.Publisher} and can 
+ * be adapted to it in newer Java versions.</p>
+ * 
+ * @param <T> The type of the published items.
+ * 
+ * @see ISubscriber
+ * @see ISubscription
+ */
+public interface IPublisher<T> {
+	
+	/**
+	 * Subscribes the given subscriber to this publisher.
+	 * 
+	 * <p>The subscriber is notified with 
+	 * {@link ISubscriber#onSubscribe(ISubscription)} and does not receive any 
+	 * item until it requests them.</p>
+	 * 
+	 * @param subscriber The subscriber.
+	 * 
+	 * @throws NullPointerException if {@code subscriber == null}.
+	 * 
+	 * @see ISubscriber
+	 */
+	public void subscribe(ISubscriber<? super T> subscriber);
+}
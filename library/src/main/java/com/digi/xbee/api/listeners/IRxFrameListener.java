@@ -0,0 +1,43 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.listeners;
+
+import com.digi.xbee.api.packet.RxFrameView;
+
+/**
+ * This interface defines the required methods that should be implemented to 
+ * behave as a received frame listener and be notified with read-only views 
+ * of the received data frames.
+ * 
+ * <p>Listeners are called from the thread that reads the frames, and the 
+ * view is reused for the next frame, so its contents are only valid during 
+ * the call. Implementations must return quickly and copy any data they need 
+ * to keep.</p>
+ * 
+ * @see com.digi.xbee.api.packet.RxFrameView
+ */
+public interface IRxFrameListener {
+	
+	/**
+	 * Called when a data frame is received.
+	 * 
+	 * @param frame A read-only view of the received frame, only valid during 
+	 *              this call.
+	 * 
+	 * @see com.digi.xbee.api.packet.RxFrameView
+	 */
+	public void rxFrameReceived(RxFrameView frame);
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.listeners;
+
+/**
+ * This interface defines the required methods that should be implemented to 
+ * behave as a subscriber of a publisher and receive items as they are 
+ * requested.
+ * 
+ * <p>The methods of a subscriber are never called concurrently.</p>
+ * 
+ * @param <T> The type of the received items.
+ * 
+ * @see IPublisher
+ * @see ISubscription
+ */
+public interface ISubscriber<T> {
+	
+	/**
+	 * Called when the subscriber is subscribed to a publisher. No item is 
+	 * received until it is requested through the given subscription.
+	 * 
+	 * @param subscription The subscription to request items or cancel.
+	 * 
+	 * @see ISubscription
+	 */
+	public void onSubscribe(ISubscription subscription);
+	
+	/**
+	 * Called when a requested item is available.
+	 * 
+	 * @param item The received item.
+	 */
+	public void onNext(T item);
+	
+	/**
+	 * Called when the subscription finishes with an error. No more items are 
+	 * received after this call.
+	 * 
+	 * @param error The error.
+	 */
+	public void onError(Throwable error);
+	
+	/**
+	 * Called when the publisher is closed and all the buffered items have 
+	 * been received. No more items are received after this call.
+	 */
+	public void onComplete();
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.listeners;
+
+/**
+ * This interface represents the link between a publisher and one of its 
+ * subscribers.
+ * 
+ * <p>The subscriber uses it to request more items or to stop receiving 
+ * them. Items are only delivered while there is outstanding demand.</p>
+ * 
+ * @see IPublisher
+ * @see ISubscriber
+ */
+public interface ISubscription {
+	
+	/**
+	 * Requests the given number of items to the publisher.
+	 * 
+	 * <p>The demand is added to the outstanding one. A non-positive number 
+	 * cancels the subscription and notifies an 
+	 * {@code IllegalArgumentException} to the subscriber.</p>
+	 * 
+	 * @param n The number of items to request.
+	 * 
+	 * @see #cancel()
+	 */
+	public void request(long n);
+	
+	/**
+	 * Stops receiving items and releases the items buffered for the 
+	 * subscriber.
+	 * 
+	 * @see #request(long)
+	 */
+	public void cancel();
+}
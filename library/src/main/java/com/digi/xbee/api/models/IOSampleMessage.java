@@ -0,0 +1,79 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.io.IOSample;
+
+/**
+ * This class represents an IO sample message containing the remote XBee
+ * device the sample belongs to and the received IO sample.
+ * 
+ * <p>This class is used within the XBee Java Library to publish the IO
+ * samples sent by remote devices.</p>
+ * 
+ * @see com.digi.xbee.api.io.IOSample
+ */
+public class IOSampleMessage {
+	
+	// Variables.
+	private final RemoteXBeeDevice remoteXBeeDevice;
+	private final IOSample ioSample;
+	
+	/**
+	 * Class constructor. Instantiates a new object of type
+	 * {@code IOSampleMessage} with the given parameters.
+	 * 
+	 * @param remoteXBeeDevice The remote XBee device the sample belongs to,
+	 *                         {@code null} if it is unknown.
+	 * @param ioSample The received IO sample.
+	 * 
+	 * @throws NullPointerException if {@code ioSample == null}.
+	 * 
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 * @see com.digi.xbee.api.io.IOSample
+	 */
+	public IOSampleMessage(RemoteXBeeDevice remoteXBeeDevice, IOSample ioSample) {
+		if (ioSample == null)
+			throw new NullPointerException("IO sample cannot be null.");
+		
+		this.remoteXBeeDevice = remoteXBeeDevice;
+		this.ioSample = ioSample;
+	}
+	
+	/**
+	 * Returns the remote XBee device this IO sample is associated to.
+	 * 
+	 * @return The remote XBee device this IO sample is associated to,
+	 *         {@code null} if it is unknown.
+	 * 
+	 * @see com.digi.xbee.api.RemoteXBeeDevice
+	 */
+	public RemoteXBeeDevice getDevice() {
+		return remoteXBeeDevice;
+	}
+	
+	/**
+	 * Returns the received IO sample.
+	 * 
+	 * @return The received IO sample.
+	 * 
+	 * @see com.digi.xbee.api.io.IOSample
+	 */
+	public IOSample getIOSample() {
+		return ioSample;
+	}
+}
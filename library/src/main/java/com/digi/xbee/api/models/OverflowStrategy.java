@@ -0,0 +1,48 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+/**
+ * Enumerates the different strategies to apply when a subscriber does not 
+ * request items as fast as they are received and its buffer is full.
+ * 
+ * @see com.digi.xbee.api.XBeePublisher
+ * @see com.digi.xbee.api.connection.ListenerMailbox
+ */
+public enum OverflowStrategy {
+	
+	// Enumeration elements
+	/**
+	 * Discards the oldest buffered item to make room for the new one.
+	 */
+	DROP_OLDEST,
+	/**
+	 * Discards the new item.
+	 */
+	DROP_NEWEST,
+	/**
+	 * Blocks the thread that notifies the received item until the 
+	 * subscriber requests more items. This throttles the notification 
+	 * threads of the device, so a bounded listener executor or a dispatcher 
+	 * must be used with this strategy. Publishers install a bounded 
+	 * listener executor if the device has none, wait at most 
+	 * {@link com.digi.xbee.api.XBeePublisher#MAXIMUM_BLOCK_TIME} and then 
+	 * discard the new item.
+	 * 
+	 * @see com.digi.xbee.api.XBeeDevice#setListenerExecutor(java.util.concurrent.ExecutorService)
+	 */
+	BLOCK;
+}
@@ -0,0 +1,462 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import java.net.InetAddress;
+import java.util.EnumSet;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.packet.APIFrameType;
+
+/**
+ * This class represents the conditions a received message must meet to be
+ * notified to a filtered listener.
+ * 
+ * <p>Only the configured conditions are evaluated, so a new filter matches
+ * every message. The available conditions are the source addresses of the
+ * remote node, the API frame types, the endpoints, cluster ID and profile ID
+ * of explicit messages, and the source IP address and ports of IP
+ * messages.</p>
+ * 
+ * <p>Filters are copied when a listener is registered, so changing a filter
+ * afterwards does not affect the registered listeners.</p>
+ * 
+ * @see com.digi.xbee.api.XBeeDevice#addDataListener(com.digi.xbee.api.listeners.IDataReceiveListener, ReceiveFilter)
+ */
+public class ReceiveFilter {
+	
+	// Constants.
+	/**
+	 * Value of the numeric conditions that match any value.
+	 */
+	public static final int ANY = -1;
+	
+	// Variables.
+	private XBee64BitAddress source64BitAddress;
+	private XBee16BitAddress source16BitAddress;
+	
+	private EnumSet<APIFrameType> frameTypes;
+	
+	private int sourceEndpoint = ANY;
+	private int destinationEndpoint = ANY;
+	private int clusterID = ANY;
+	private int profileID = ANY;
+	
+	private InetAddress sourceIPAddress;
+	private int sourcePort = ANY;
+	private int destinationPort = ANY;
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ReceiveFilter} that
+	 * matches every message.
+	 */
+	public ReceiveFilter() {
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code ReceiveFilter} with the
+	 * same conditions as the given one.
+	 * 
+	 * @param filter The filter to copy.
+	 * 
+	 * @throws NullPointerException if {@code filter == null}.
+	 */
+	public ReceiveFilter(ReceiveFilter filter) {
+		if (filter == null)
+			throw new NullPointerException("Filter cannot be null.");
+		
+		source64BitAddress = filter.source64BitAddress;
+		source16BitAddress = filter.source16BitAddress;
+		frameTypes = filter.frameTypes == null ? null : EnumSet.copyOf(filter.frameTypes);
+		sourceEndpoint = filter.sourceEndpoint;
+		destinationEndpoint = filter.destinationEndpoint;
+		clusterID = filter.clusterID;
+		profileID = filter.profileID;
+		sourceIPAddress = filter.sourceIPAddress;
+		sourcePort = filter.sourcePort;
+		destinationPort = filter.destinationPort;
+	}
+	
+	/**
+	 * Sets the 64-bit address of the remote node that sent the message.
+	 * 
+	 * @param address The 64-bit source address, {@code null} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @see #getSource64BitAddress()
+	 */
+	public ReceiveFilter setSource64BitAddress(XBee64BitAddress address) {
+		source64BitAddress = address;
+		return this;
+	}
+	
+	/**
+	 * Returns the 64-bit address of the remote node that sent the message.
+	 * 
+	 * @return The 64-bit source address, {@code null} if any matches.
+	 * 
+	 * @see #setSource64BitAddress(XBee64BitAddress)
+	 */
+	public XBee64BitAddress getSource64BitAddress() {
+		return source64BitAddress;
+	}
+	
+	/**
+	 * Sets the 16-bit address of the remote node that sent the message.
+	 * 
+	 * @param address The 16-bit source address, {@code null} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @see #getSource16BitAddress()
+	 */
+	public ReceiveFilter setSource16BitAddress(XBee16BitAddress address) {
+		source16BitAddress = address;
+		return this;
+	}
+	
+	/**
+	 * Returns the 16-bit address of the remote node that sent the message.
+	 * 
+	 * @return The 16-bit source address, {@code null} if any matches.
+	 * 
+	 * @see #setSource16BitAddress(XBee16BitAddress)
+	 */
+	public XBee16BitAddress getSource16BitAddress() {
+		return source16BitAddress;
+	}
+	
+	/**
+	 * Sets the API frame types of the received packets.
+	 * 
+	 * @param types The API frame types, none to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @throws NullPointerException if any of the types is {@code null}.
+	 * 
+	 * @see #getFrameTypes()
+	 * @see com.digi.xbee.api.packet.APIFrameType
+	 */
+	public ReceiveFilter setFrameTypes(APIFrameType... types) {
+		if (types == null || types.length == 0) {
+			frameTypes = null;
+			return this;
+		}
+		EnumSet<APIFrameType> set = EnumSet.noneOf(APIFrameType.class);
+		for (APIFrameType type : types) {
+			if (type == null)
+				throw new NullPointerException("Frame type cannot be null.");
+			set.add(type);
+		}
+		frameTypes = set;
+		return this;
+	}
+	
+	/**
+	 * Returns the API frame types of the received packets.
+	 * 
+	 * @return The API frame types, {@code null} if any matches.
+	 * 
+	 * @see #setFrameTypes(APIFrameType...)
+	 */
+	public EnumSet<APIFrameType> getFrameTypes() {
+		return frameTypes == null ? null : EnumSet.copyOf(frameTypes);
+	}
+	
+	/**
+	 * Sets the source endpoint of explicit messages.
+	 * 
+	 * @param endpoint The source endpoint, {@link #ANY} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @throws IllegalArgumentException if {@code endpoint < -1} or
+	 *                                  if {@code endpoint > 0xFF}.
+	 * 
+	 * @see #getSourceEndpoint()
+	 */
+	public ReceiveFilter setSourceEndpoint(int endpoint) {
+		sourceEndpoint = checkRange(endpoint, 0xFF, "Source endpoint");
+		return this;
+	}
+	
+	/**
+	 * Returns the source endpoint of explicit messages.
+	 * 
+	 * @return The source endpoint, {@link #ANY} if any matches.
+	 * 
+	 * @see #setSourceEndpoint(int)
+	 */
+	public int getSourceEndpoint() {
+		return sourceEndpoint;
+	}
+	
+	/**
+	 * Sets the destination endpoint of explicit messages.
+	 * 
+	 * @param endpoint The destination endpoint, {@link #ANY} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @throws IllegalArgumentException if {@code endpoint < -1} or
+	 *                                  if {@code endpoint > 0xFF}.
+	 * 
+	 * @see #getDestinationEndpoint()
+	 */
+	public ReceiveFilter setDestinationEndpoint(int endpoint) {
+		destinationEndpoint = checkRange(endpoint, 0xFF, "Destination endpoint");
+		return this;
+	}
+	
+	/**
+	 * Returns the destination endpoint of explicit messages.
+	 * 
+	 * @return The destination endpoint, {@link #ANY} if any matches.
+	 * 
+	 * @see #setDestinationEndpoint(int)
+	 */
+	public int getDestinationEndpoint() {
+		return destinationEndpoint;
+	}
+	
+	/**
+	 * Sets the cluster ID of explicit messages.
+	 * 
+	 * @param clusterID The cluster ID, {@link #ANY} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @throws IllegalArgumentException if {@code clusterID < -1} or
+	 *                                  if {@code clusterID > 0xFFFF}.
+	 * 
+	 * @see #getClusterID()
+	 */
+	public ReceiveFilter setClusterID(int clusterID) {
+		this.clusterID = checkRange(clusterID, 0xFFFF, "Cluster ID");
+		return this;
+	}
+	
+	/**
+	 * Returns the cluster ID of explicit messages.
+	 * 
+	 * @return The cluster ID, {@link #ANY} if any matches.
+	 * 
+	 * @see #setClusterID(int)
+	 */
+	public int getClusterID() {
+		return clusterID;
+	}
+	
+	/**
+	 * Sets the profile ID of explicit messages.
+	 * 
+	 * @param profileID The profile ID, {@link #ANY} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @throws IllegalArgumentException if {@code profileID < -1} or
+	 *                                  if {@code profileID > 0xFFFF}.
+	 * 
+	 * @see #getProfileID()
+	 */
+	public ReceiveFilter setProfileID(int profileID) {
+		this.profileID = checkRange(profileID, 0xFFFF, "Profile ID");
+		return this;
+	}
+	
+	/**
+	 * Returns the profile ID of explicit messages.
+	 * 
+	 * @return The profile ID, {@link #ANY} if any matches.
+	 * 
+	 * @see #setProfileID(int)
+	 */
+	public int getProfileID() {
+		return profileID;
+	}
+	
+	/**
+	 * Sets the IP address that sent IP messages.
+	 * 
+	 * @param address The source IP address, {@code null} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @see #getSourceIPAddress()
+	 */
+	public ReceiveFilter setSourceIPAddress(InetAddress address) {
+		sourceIPAddress = address;
+		return this;
+	}
+	
+	/**
+	 * Returns the IP address that sent IP messages.
+	 * 
+	 * @return The source IP address, {@code null} if any matches.
+	 * 
+	 * @see #setSourceIPAddress(InetAddress)
+	 */
+	public InetAddress getSourceIPAddress() {
+		return sourceIPAddress;
+	}
+	
+	/**
+	 * Sets the source port of IP messages.
+	 * 
+	 * @param port The source port, {@link #ANY} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @throws IllegalArgumentException if {@code port < -1} or
+	 *                                  if {@code port > 65535}.
+	 * 
+	 * @see #getSourcePort()
+	 */
+	public ReceiveFilter setSourcePort(int port) {
+		sourcePort = checkRange(port, 0xFFFF, "Source port");
+		return this;
+	}
+	
+	/**
+	 * Returns the source port of IP messages.
+	 * 
+	 * @return The source port, {@link #ANY} if any matches.
+	 * 
+	 * @see #setSourcePort(int)
+	 */
+	public int getSourcePort() {
+		return sourcePort;
+	}
+	
+	/**
+	 * Sets the destination port of IP messages.
+	 * 
+	 * @param port The destination port, {@link #ANY} to match any.
+	 * 
+	 * @return This filter.
+	 * 
+	 * @throws IllegalArgumentException if {@code port < -1} or
+	 *                                  if {@code port > 65535}.
+	 * 
+	 * @see #getDestinationPort()
+	 */
+	public ReceiveFilter setDestinationPort(int port) {
+		destinationPort = checkRange(port, 0xFFFF, "Destination port");
+		return this;
+	}
+	
+	/**
+	 * Returns the destination port of IP messages.
+	 * 
+	 * @return The destination port, {@link #ANY} if any matches.
+	 * 
+	 * @see #setDestinationPort(int)
+	 */
+	public int getDestinationPort() {
+		return destinationPort;
+	}
+	
+	/**
+	 * Returns whether packets of the given API frame type match this filter.
+	 * 
+	 * @param type The API frame type of the received packet.
+	 * 
+	 * @return {@code true} if the frame type matches, {@code false}
+	 *         otherwise.
+	 */
+	public boolean matchesFrameType(APIFrameType type) {
+		return frameTypes == null || frameTypes.contains(type);
+	}
+	
+	/**
+	 * Returns whether the given message matches the address conditions of
+	 * this filter.
+	 * 
+	 * @param message The received message.
+	 * 
+	 * @return {@code true} if the message matches, {@code false} otherwise.
+	 * 
+	 * @see com.digi.xbee.api.models.XBeeMessage
+	 */
+	public boolean matches(XBeeMessage message) {
+		if (source64BitAddress == null && source16BitAddress == null)
+			return true;
+		RemoteXBeeDevice device = message.getDevice();
+		if (device == null)
+			return false;
+		if (source64BitAddress != null && !source64BitAddress.equals(device.get64BitAddress()))
+			return false;
+		return source16BitAddress == null || source16BitAddress.equals(device.get16BitAddress());
+	}
+	
+	/**
+	 * Returns whether the given explicit message matches the address,
+	 * endpoint, cluster and profile conditions of this filter.
+	 * 
+	 * @param message The received explicit message.
+	 * 
+	 * @return {@code true} if the message matches, {@code false} otherwise.
+	 * 
+	 * @see com.digi.xbee.api.models.ExplicitXBeeMessage
+	 */
+	public boolean matches(ExplicitXBeeMessage message) {
+		return (sourceEndpoint == ANY || sourceEndpoint == message.getSourceEndpoint())
+				&& (destinationEndpoint == ANY || destinationEndpoint == message.getDestinationEndpoint())
+				&& (clusterID == ANY || clusterID == message.getClusterID())
+				&& (profileID == ANY || profileID == message.getProfileID())
+				&& matches((XBeeMessage)message);
+	}
+	
+	/**
+	 * Returns whether the given IP message matches the IP address and port
+	 * conditions of this filter.
+	 * 
+	 * @param message The received IP message.
+	 * 
+	 * @return {@code true} if the message matches, {@code false} otherwise.
+	 * 
+	 * @see com.digi.xbee.api.models.IPMessage
+	 */
+	public boolean matches(IPMessage message) {
+		if (sourcePort != ANY && sourcePort != message.getSourcePort())
+			return false;
+		if (destinationPort != ANY && destinationPort != message.getDestPort())
+			return false;
+		return sourceIPAddress == null
+				|| sourceIPAddress.equals(message.getIPAddress())
+				|| sourceIPAddress.equals(message.getIPv6Address());
+	}
+	
+	/**
+	 * Checks that the given value is {@link #ANY} or is between 0 and the
+	 * given maximum.
+	 * 
+	 * @param value The value to check.
+	 * @param max The maximum value.
+	 * @param name The name of the value for the error message.
+	 * 
+	 * @return The value.
+	 * 
+	 * @throws IllegalArgumentException if the value is out of range.
+	 */
+	private static int checkRange(int value, int max, String name) {
+		if (value < ANY || value > max)
+			throw new IllegalArgumentException(name + " must be between 0 and " + max + ".");
+		return value;
+	}
+}
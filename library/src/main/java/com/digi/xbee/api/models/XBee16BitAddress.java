@@ -15,8 +15,6 @@
  */
 package com.digi.xbee.api.models;
 
-import java.util.Arrays;
-
 import com.digi.xbee.api.utils.HexUtils;
 
 /**
@@ -37,9 +35,13 @@ import com.digi.xbee.api.utils.HexUtils;
  * It is automatically assigned when the radio joins the network for ZigBee 
  * and ZNet 2.5, and manually configured in 802.15.4 radios.</p>
  * 
+ * <p>The address is stored as a {@code short}, so comparing and hashing
+ * addresses does not walk or copy any array. Use {@link #valueOf(int)} or
+ * {@link #valueOf(byte[], int)} to get a canonical instance of the addresses
+ * that are seen repeatedly, such as the source of the received frames.</p>
  */
 public final class XBee16BitAddress {
-
+	
 	// Constants
 	/**
 	 * 16-bit address reserved for the coordinator (value: 0000).
@@ -54,15 +56,28 @@ public final class XBee16BitAddress {
 	 */
 	public static final XBee16BitAddress UNKNOWN_ADDRESS = new XBee16BitAddress("FFFE");
 	
-	/**
-	 * Pattern for the 16-bit address string: {@value}.
-	 */
-	private static final String XBEE_16_BIT_ADDRESS_PATTERN = "(0[xX])?[0-9a-fA-F]{1,4}";
+	private static final String HEX_PREFIX = "0x";
+	
+	private static final int MAX_HEX_DIGITS = 4;
+	
+	private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
 	
-	private static final int HASH_SEED = 23;
+	// Size of the cache of canonical instances, must be a power of 2.
+	private static final int CACHE_SIZE = 1024;
+	
+	// Direct-mapped cache of canonical instances. An entry is replaced when
+	// another address maps to the same slot. Instances are immutable, so the
+	// entries can be read without synchronization.
+	private static final XBee16BitAddress[] CACHE = new XBee16BitAddress[CACHE_SIZE];
+	
+	static {
+		intern(COORDINATOR_ADDRESS);
+		intern(BROADCAST_ADDRESS);
+		intern(UNKNOWN_ADDRESS);
+	}
 	
 	// Variables
-	private final byte[] address;
+	private final short value;
 	
 	/**
 	 * Class constructor. Instantiates a new object of type 
@@ -82,9 +97,7 @@ public final class XBee16BitAddress {
 		if (lsb > 255 || lsb < 0)
 			throw new IllegalArgumentException("LSB must be between 0 and 255.");
 		
-		address = new byte[2];
-		address[0] = (byte) hsb;
-		address[1] = (byte) lsb;
+		value = (short) ((hsb << 8) | lsb);
 	}
 	
 	/**
@@ -105,13 +118,10 @@ public final class XBee16BitAddress {
 		if (address.length > 2)
 			throw new IllegalArgumentException("Address cannot contain more than 2 bytes.");
 		
-		// Check array size.
-		this.address = new byte[2];
-		int diff = this.address.length - address.length;
-		for (int i = 0; i < diff; i++)
-			this.address[i] = 0;
-		for (int i = diff; i < this.address.length; i++)
-			this.address[i] = address[i - diff];
+		int value = 0;
+		for (byte b : address)
+			value = (value << 8) | (b & 0xFF);
+		this.value = (short) value;
 	}
 	
 	/**
@@ -134,18 +144,64 @@ public final class XBee16BitAddress {
 			throw new NullPointerException("Address cannot be null.");
 		if (address.length() < 1)
 			throw new IllegalArgumentException("Address must contain at least 1 character.");
-		if (!address.matches(XBEE_16_BIT_ADDRESS_PATTERN))
-			throw new IllegalArgumentException("Address must follow this pattern: (0x)XXXX.");
 		
-		// Convert the string into a byte array.
-		byte[] byteAddress = HexUtils.hexStringToByteArray(address);
-		// Check array size.
-		this.address = new byte[2];
-		int diff = this.address.length - byteAddress.length;
-		for (int i = 0; i < diff; i++)
-			this.address[i] = 0;
-		for (int i = diff; i < this.address.length; i++)
-			this.address[i] = byteAddress[i - diff];
+		this.value = (short) parse(address);
+	}
+	
+	/**
+	 * Returns the canonical instance of the 16-bit address with the given
+	 * value.
+	 * 
+	 * <p>Repeated calls with the same value return the same instance as long
+	 * as it is not evicted from the cache by another address.</p>
+	 * 
+	 * @param value The 16-bit address as {@code int}.
+	 * 
+	 * @return The 16-bit address with the given value.
+	 * 
+	 * @throws IllegalArgumentException if {@code value < 0} or
+	 *                                  if {@code value > 0xFFFF}.
+	 * 
+	 * @see #valueOf(byte[], int)
+	 */
+	public static XBee16BitAddress valueOf(int value) {
+		if (value < 0 || value > 0xFFFF)
+			throw new IllegalArgumentException("Address must be between 0 and 0xFFFF.");
+		
+		int index = value & (CACHE_SIZE - 1);
+		XBee16BitAddress cached = CACHE[index];
+		if (cached != null && cached.intValue() == value)
+			return cached;
+		XBee16BitAddress address = new XBee16BitAddress(value >> 8, value & 0xFF);
+		CACHE[index] = address;
+		return address;
+	}
+	
+	/**
+	 * Returns the canonical instance of the 16-bit address stored in the
+	 * given buffer, being the byte at {@code offset} the most significant
+	 * one.
+	 * 
+	 * <p>The bytes are read in place, so no array is allocated.</p>
+	 * 
+	 * @param buffer The buffer that contains the address.
+	 * @param offset The position of the first byte of the address.
+	 * 
+	 * @return The 16-bit address read from the buffer.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code offset < 0} or
+	 *                                   if {@code offset + 2 > buffer.length}.
+	 * @throws NullPointerException if {@code buffer == null}.
+	 * 
+	 * @see #valueOf(int)
+	 */
+	public static XBee16BitAddress valueOf(byte[] buffer, int offset) {
+		if (buffer == null)
+			throw new NullPointerException("Buffer cannot be null.");
+		if (offset < 0 || offset > buffer.length - 2)
+			throw new IndexOutOfBoundsException("Address must be contained in the buffer.");
+		
+		return valueOf(((buffer[offset] & 0xFF) << 8) | (buffer[offset + 1] & 0xFF));
 	}
 	
 	/**
@@ -154,7 +210,7 @@ public final class XBee16BitAddress {
 	 * @return Address high significant byte.
 	 */
 	public int getHsb() {
-		return address[0];
+		return (byte) (value >> 8);
 	}
 	
 	/**
@@ -163,7 +219,7 @@ public final class XBee16BitAddress {
 	 * @return Address low significant byte.
 	 */
 	public int getLsb() {
-		return address[1];
+		return (byte) value;
 	}
 	
 	/**
@@ -172,7 +228,16 @@ public final class XBee16BitAddress {
 	 * @return Address value as byte array.
 	 */
 	public byte[] getValue() {
-		return Arrays.copyOf(address, address.length);
+		return new byte[] {(byte) (value >> 8), (byte) value};
+	}
+	
+	/**
+	 * Returns the 16-bit address value as {@code int}.
+	 * 
+	 * @return Address value as {@code int}, between 0 and 0xFFFF.
+	 */
+	public int intValue() {
+		return value & 0xFFFF;
 	}
 	
 	/*
@@ -184,7 +249,7 @@ public final class XBee16BitAddress {
 		if (!(obj instanceof XBee16BitAddress))
 			return false;
 		XBee16BitAddress addr = (XBee16BitAddress)obj;
-		return Arrays.equals(addr.getValue(), getValue());
+		return addr.value == value;
 	}
 	
 	/*
@@ -193,10 +258,7 @@ public final class XBee16BitAddress {
 	 */
 	@Override
 	public int hashCode() {
-		int hash = HASH_SEED;
-		for (byte b:getValue())
-			hash = hash * (hash + b);
-		return hash;
+		return intValue();
 	}
 	
 	/*
@@ -205,6 +267,47 @@ public final class XBee16BitAddress {
 	 */
 	@Override
 	public String toString() {
-		return HexUtils.byteArrayToHexString(address);
+		char[] chars = new char[MAX_HEX_DIGITS];
+		for (int i = 0; i < MAX_HEX_DIGITS; i++)
+			chars[i] = HEX_CHARS[(value >> (12 - 4 * i)) & 0x0F];
+		return new String(chars);
+	}
+	
+	/**
+	 * Parses the given hexadecimal representation of a 16-bit address.
+	 * 
+	 * <p>The string may start with the {@code 0x} or {@code 0X} prefix
+	 * followed by 1 to 4 hexadecimal digits.</p>
+	 * 
+	 * @param address String containing the 16-bit address.
+	 * 
+	 * @return The value of the address.
+	 * 
+	 * @throws IllegalArgumentException if {@code address} does not follow
+	 *                                  the pattern.
+	 */
+	private static int parse(String address) {
+		int start = address.regionMatches(true, 0, HEX_PREFIX, 0, HEX_PREFIX.length()) ? HEX_PREFIX.length() : 0;
+		int digits = address.length() - start;
+		if (digits < 1 || digits > MAX_HEX_DIGITS)
+			throw new IllegalArgumentException("Address must follow this pattern: (0x)XXXX.");
+		
+		int value = 0;
+		for (int i = start; i < address.length(); i++) {
+			int digit = HexUtils.hexCharToInt(address.charAt(i));
+			if (digit < 0)
+				throw new IllegalArgumentException("Address must follow this pattern: (0x)XXXX.");
+			value = (value << 4) | digit;
+		}
+		return value;
+	}
+	
+	/**
+	 * Stores the given address as the canonical instance of its value.
+	 * 
+	 * @param address The address to store.
+	 */
+	private static void intern(XBee16BitAddress address) {
+		CACHE[address.intValue() & (CACHE_SIZE - 1)] = address;
 	}
 }
@@ -15,8 +15,6 @@
  */
 package com.digi.xbee.api.models;
 
-import java.util.Arrays;
-
 import com.digi.xbee.api.utils.HexUtils;
 
 /**
@@ -24,9 +22,14 @@ import com.digi.xbee.api.utils.HexUtils;
  * 
  * <p>The 64-bit address is a unique device address assigned during 
  * manufacturing. This address is unique to each physical device.</p>
+ * 
+ * <p>The address is stored as a {@code long}, so comparing and hashing
+ * addresses does not walk or copy any array. Use {@link #valueOf(long)} or
+ * {@link #valueOf(byte[], int)} to get a canonical instance of the addresses
+ * that are seen repeatedly, such as the source of the received frames.</p>
  */
 public final class XBee64BitAddress {
-
+	
 	// Constants
 	/**
 	 * 64-bit address reserved for the coordinator (value: 0000000000000000).
@@ -44,15 +47,28 @@ public final class XBee64BitAddress {
 	private static final String DEVICE_ID_SEPARATOR = "-";
 	private static final String DEVICE_ID_MAC_SEPARATOR = "FF";
 	
-	/**
-	 * Pattern for the 64-bit address string: {@value}.
-	 */
-	private static final String XBEE_64_BIT_ADDRESS_PATTERN = "(0[xX])?[0-9a-fA-F]{1,16}";
+	private static final String HEX_PREFIX = "0x";
+	
+	private static final int MAX_HEX_DIGITS = 16;
+	
+	private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+	
+	// Size of the cache of canonical instances, must be a power of 2.
+	private static final int CACHE_SIZE = 1024;
 	
-	private static final int HASH_SEED = 23;
+	// Direct-mapped cache of canonical instances. An entry is replaced when
+	// another address maps to the same slot. Instances are immutable, so the
+	// entries can be read without synchronization.
+	private static final XBee64BitAddress[] CACHE = new XBee64BitAddress[CACHE_SIZE];
+	
+	static {
+		intern(COORDINATOR_ADDRESS);
+		intern(BROADCAST_ADDRESS);
+		intern(UNKNOWN_ADDRESS);
+	}
 	
 	// Variables
-	private final byte[] address;
+	private final long value;
 	
 	/**
 	 * Class constructor. Instantiates a new object of type 
@@ -72,12 +88,10 @@ public final class XBee64BitAddress {
 		if (address.length > 8)
 			throw new IllegalArgumentException("Address cannot contain more than 8 bytes.");
 		
-		this.address = new byte[8];
-		int diff = this.address.length - address.length;
-		for (int i = 0; i < diff; i++)
-			this.address[i] = 0;
-		for (int i = diff; i < this.address.length; i++)
-			this.address[i] = address[i - diff];
+		long value = 0;
+		for (byte b : address)
+			value = (value << 8) | (b & 0xFF);
+		this.value = value;
 	}
 	
 	/**
@@ -100,16 +114,20 @@ public final class XBee64BitAddress {
 			throw new NullPointerException("Address cannot be null.");
 		if (address.length() < 1)
 			throw new IllegalArgumentException("Address must contain at least 1 character.");
-		if (!address.matches(XBEE_64_BIT_ADDRESS_PATTERN))
-			throw new IllegalArgumentException("Address must follow this pattern: (0x)0013A20040XXXXXX.");
 		
-		byte[] byteAddress = HexUtils.hexStringToByteArray(address);
-		this.address = new byte[8];
-		int diff = this.address.length - byteAddress.length;
-		for (int i = 0; i < diff; i++)
-			this.address[i] = 0;
-		for (int i = diff; i < this.address.length; i++)
-			this.address[i] = byteAddress[i - diff];
+		this.value = parse(address);
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new object of type 
+	 * {@code XBee64BitAddress} with the given value.
+	 * 
+	 * @param value The XBee 64-bit address as {@code long}.
+	 * 
+	 * @see #valueOf(long)
+	 */
+	public XBee64BitAddress(long value) {
+		this.value = value;
 	}
 	
 	/**
@@ -161,15 +179,61 @@ public final class XBee64BitAddress {
 		if (b7 > 255 || b7 < 0)
 			throw new IllegalArgumentException("B7 must be between 0 and 255.");
 		
-		address = new byte[8];
-		address[0] = (byte) b0;
-		address[1] = (byte) b1;
-		address[2] = (byte) b2;
-		address[3] = (byte) b3;
-		address[4] = (byte) b4;
-		address[5] = (byte) b5;
-		address[6] = (byte) b6;
-		address[7] = (byte) b7;
+		value = ((long) b0 << 56) | ((long) b1 << 48) | ((long) b2 << 40) | ((long) b3 << 32)
+				| ((long) b4 << 24) | ((long) b5 << 16) | ((long) b6 << 8) | b7;
+	}
+	
+	/**
+	 * Returns the canonical instance of the 64-bit address with the given
+	 * value.
+	 * 
+	 * <p>Repeated calls with the same value return the same instance as long
+	 * as it is not evicted from the cache by another address.</p>
+	 * 
+	 * @param value The XBee 64-bit address as {@code long}.
+	 * 
+	 * @return The XBee 64-bit address with the given value.
+	 * 
+	 * @see #valueOf(byte[], int)
+	 */
+	public static XBee64BitAddress valueOf(long value) {
+		int index = cacheIndex(value);
+		XBee64BitAddress cached = CACHE[index];
+		if (cached != null && cached.value == value)
+			return cached;
+		XBee64BitAddress address = new XBee64BitAddress(value);
+		CACHE[index] = address;
+		return address;
+	}
+	
+	/**
+	 * Returns the canonical instance of the 64-bit address stored in the
+	 * given buffer, being the byte at {@code offset} the most significant
+	 * one.
+	 * 
+	 * <p>The bytes are read in place, so no array is allocated.</p>
+	 * 
+	 * @param buffer The buffer that contains the address.
+	 * @param offset The position of the first byte of the address.
+	 * 
+	 * @return The XBee 64-bit address read from the buffer.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code offset < 0} or
+	 *                                   if {@code offset + 8 > buffer.length}.
+	 * @throws NullPointerException if {@code buffer == null}.
+	 * 
+	 * @see #valueOf(long)
+	 */
+	public static XBee64BitAddress valueOf(byte[] buffer, int offset) {
+		if (buffer == null)
+			throw new NullPointerException("Buffer cannot be null.");
+		if (offset < 0 || offset > buffer.length - 8)
+			throw new IndexOutOfBoundsException("Address must be contained in the buffer.");
+		
+		long value = 0;
+		for (int i = offset; i < offset + 8; i++)
+			value = (value << 8) | (buffer[i] & 0xFF);
+		return valueOf(value);
 	}
 	
 	/**
@@ -178,7 +242,19 @@ public final class XBee64BitAddress {
 	 * @return XBee 64-bit address value as byte array.
 	 */
 	public byte[] getValue() {
-		return Arrays.copyOf(address, address.length);
+		byte[] address = new byte[8];
+		for (int i = 0; i < 8; i++)
+			address[i] = (byte) (value >>> (56 - 8 * i));
+		return address;
+	}
+	
+	/**
+	 * Returns the XBee 64-bit address value as {@code long}.
+	 * 
+	 * @return XBee 64-bit address value as {@code long}.
+	 */
+	public long longValue() {
+		return value;
 	}
 	
 	/**
@@ -188,6 +264,7 @@ public final class XBee64BitAddress {
 	 * @return Device ID corresponding to this address.
 	 */
 	public String generateDeviceID() {
+		byte[] address = getValue();
 		StringBuilder sb = new StringBuilder();
 		for (int i = 0; i < 2; i++) {
 			for (int j = 0; j < 4; j++)
@@ -215,7 +292,7 @@ public final class XBee64BitAddress {
 		if (!(obj instanceof XBee64BitAddress))
 			return false;
 		XBee64BitAddress addr = (XBee64BitAddress)obj;
-		return Arrays.equals(addr.getValue(), getValue());
+		return addr.value == value;
 	}
 	
 	/*
@@ -224,10 +301,7 @@ public final class XBee64BitAddress {
 	 */
 	@Override
 	public int hashCode() {
-		int hash = HASH_SEED;
-		for (byte b:getValue())
-			hash = hash * (hash + b);
-		return hash;
+		return (int) (value ^ (value >>> 32));
 	}
 	
 	/*
@@ -236,6 +310,62 @@ public final class XBee64BitAddress {
 	 */
 	@Override
 	public String toString() {
-		return HexUtils.byteArrayToHexString(address);
+		char[] chars = new char[MAX_HEX_DIGITS];
+		for (int i = 0; i < MAX_HEX_DIGITS; i++)
+			chars[i] = HEX_CHARS[(int) (value >>> (60 - 4 * i)) & 0x0F];
+		return new String(chars);
+	}
+	
+	/**
+	 * Parses the given hexadecimal representation of a 64-bit address.
+	 * 
+	 * <p>The string may start with the {@code 0x} or {@code 0X} prefix
+	 * followed by 1 to 16 hexadecimal digits.</p>
+	 * 
+	 * @param address The XBee 64-bit address as string.
+	 * 
+	 * @return The value of the address.
+	 * 
+	 * @throws IllegalArgumentException if {@code address} does not follow
+	 *                                  the pattern.
+	 */
+	private static long parse(String address) {
+		int start = address.regionMatches(true, 0, HEX_PREFIX, 0, HEX_PREFIX.length()) ? HEX_PREFIX.length() : 0;
+		int digits = address.length() - start;
+		if (digits < 1 || digits > MAX_HEX_DIGITS)
+			throw new IllegalArgumentException("Address must follow this pattern: (0x)0013A20040XXXXXX.");
+		
+		long value = 0;
+		for (int i = start; i < address.length(); i++) {
+			int digit = HexUtils.hexCharToInt(address.charAt(i));
+			if (digit < 0)
+				throw new IllegalArgumentException("Address must follow this pattern: (0x)0013A20040XXXXXX.");
+			value = (value << 4) | digit;
+		}
+		return value;
+	}
+	
+	/**
+	 * Stores the given address as the canonical instance of its value.
+	 * 
+	 * @param address The address to store.
+	 */
+	private static void intern(XBee64BitAddress address) {
+		CACHE[cacheIndex(address.value)] = address;
+	}
+	
+	/**
+	 * Returns the slot of the cache for the given address value.
+	 * 
+	 * <p>The value is mixed so addresses that only differ in their upper
+	 * bytes are spread too.</p>
+	 * 
+	 * @param value The value of the address.
+	 * 
+	 * @return The index in the cache.
+	 */
+	private static int cacheIndex(long value) {
+		long hash = value * 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 54) & (CACHE_SIZE - 1);
 	}
 }
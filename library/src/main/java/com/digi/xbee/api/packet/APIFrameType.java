@@ -15,8 +15,6 @@
  */
 package com.digi.xbee.api.packet;
 
-import java.util.HashMap;
-
 import com.digi.xbee.api.utils.ByteUtils;
 import com.digi.xbee.api.utils.HexUtils;
 
@@ -74,11 +72,14 @@ public enum APIFrameType {
 	
 	private final String name;
 	
-	private static final HashMap<Integer, APIFrameType> lookupTable = new HashMap<Integer, APIFrameType>();
+	// Frame types indexed by their value.
+	private static final APIFrameType[] lookupTable = new APIFrameType[256];
 	
 	static {
-		for (APIFrameType type:values())
-			lookupTable.put(type.getValue(), type);
+		for (APIFrameType type:values()) {
+			if (type.getValue() >= 0)
+				lookupTable[type.getValue()] = type;
+		}
 	}
 	
 	/**
@@ -102,7 +103,9 @@ public enum APIFrameType {
 	 *         if it does not supported.
 	 */
 	public static APIFrameType get(int value) {
-		APIFrameType type = lookupTable.get(value);
+		if (value < 0 || value >= lookupTable.length)
+			return UNKNOWN;
+		APIFrameType type = lookupTable[value];
 		if (type == null)
 			return UNKNOWN;
 		return type; 
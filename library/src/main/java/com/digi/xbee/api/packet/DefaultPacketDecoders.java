@@ -0,0 +1,484 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.packet;
+
+import com.digi.xbee.api.packet.cellular.RXSMSPacket;
+import com.digi.xbee.api.packet.cellular.TXSMSPacket;
+import com.digi.xbee.api.packet.common.ATCommandPacket;
+import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ModemStatusPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
+import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.common.TransmitStatusPacket;
+import com.digi.xbee.api.packet.devicecloud.DeviceRequestPacket;
+import com.digi.xbee.api.packet.devicecloud.DeviceResponsePacket;
+import com.digi.xbee.api.packet.devicecloud.DeviceResponseStatusPacket;
+import com.digi.xbee.api.packet.devicecloud.FrameErrorPacket;
+import com.digi.xbee.api.packet.devicecloud.SendDataRequestPacket;
+import com.digi.xbee.api.packet.devicecloud.SendDataResponsePacket;
+import com.digi.xbee.api.packet.ip.RXIPv4Packet;
+import com.digi.xbee.api.packet.ip.TXIPv4Packet;
+import com.digi.xbee.api.packet.raw.RX16IOPacket;
+import com.digi.xbee.api.packet.raw.RX16Packet;
+import com.digi.xbee.api.packet.raw.RX64IOPacket;
+import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+import com.digi.xbee.api.packet.raw.TXStatusPacket;
+import com.digi.xbee.api.packet.thread.CoAPRxResponsePacket;
+import com.digi.xbee.api.packet.thread.CoAPTxRequestPacket;
+import com.digi.xbee.api.packet.thread.IPv6IODataSampleRxIndicator;
+import com.digi.xbee.api.packet.thread.IPv6RemoteATCommandRequestPacket;
+import com.digi.xbee.api.packet.thread.IPv6RemoteATCommandResponsePacket;
+import com.digi.xbee.api.packet.thread.RXIPv6Packet;
+import com.digi.xbee.api.packet.thread.TXIPv6Packet;
+import com.digi.xbee.api.packet.wifi.IODataSampleRxIndicatorWifiPacket;
+import com.digi.xbee.api.packet.wifi.RemoteATCommandResponseWifiPacket;
+import com.digi.xbee.api.packet.wifi.RemoteATCommandWifiPacket;
+
+/**
+ * Decoders of the API frame types supported by the library.
+ * 
+ * @see XBeePacketParser#registerDecoder(int, IPacketDecoder)
+ */
+final class DefaultPacketDecoders {
+	
+	/**
+	 * This class is not instantiable.
+	 */
+	private DefaultPacketDecoders() {
+	}
+	
+	/**
+	 * Returns a new table with the decoder of every supported API frame 
+	 * type, indexed by the frame type value.
+	 * 
+	 * <p>Frame types not supported by the library have a {@code null} 
+	 * decoder.</p>
+	 * 
+	 * @return A new table of 256 decoders.
+	 */
+	static IPacketDecoder[] create() {
+		IPacketDecoder[] decoders = new IPacketDecoder[256];
+		decoders[APIFrameType.TX_64.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return TX64Packet.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.TX_16.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return TX16Packet.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.REMOTE_AT_COMMAND_REQUEST_WIFI.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RemoteATCommandWifiPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.AT_COMMAND.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return ATCommandPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.AT_COMMAND_QUEUE.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return ATCommandQueuePacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.TRANSMIT_REQUEST.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return TransmitPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.EXPLICIT_ADDRESSING_COMMAND_FRAME.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return ExplicitAddressingPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.REMOTE_AT_COMMAND_REQUEST.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RemoteATCommandPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.IPV6_REMOTE_AT_COMMAND_REQUEST.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return IPv6RemoteATCommandRequestPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.TX_SMS.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return TXSMSPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.TX_IPV4.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return TXIPv4Packet.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.TX_IPV6.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return TXIPv6Packet.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.SEND_DATA_REQUEST.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return SendDataRequestPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.DEVICE_RESPONSE.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return DeviceResponsePacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.RX_64.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RX64Packet.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.RX_16.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RX16Packet.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.RX_IPV6.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RXIPv6Packet.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.RX_IO_64.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RX64IOPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.RX_IO_16.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RX16IOPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.REMOTE_AT_COMMAND_RESPONSE_WIFI.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RemoteATCommandResponseWifiPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.AT_COMMAND_RESPONSE.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return ATCommandResponsePacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.TX_STATUS.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return TXStatusPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.MODEM_STATUS.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return ModemStatusPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.TRANSMIT_STATUS.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return TransmitStatusPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.IO_DATA_SAMPLE_RX_INDICATOR_WIFI.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return IODataSampleRxIndicatorWifiPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.RECEIVE_PACKET.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return ReceivePacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.EXPLICIT_RX_INDICATOR.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return ExplicitRxIndicatorPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.IO_DATA_SAMPLE_RX_INDICATOR.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return IODataSampleRxIndicatorPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.IPV6_IO_DATA_SAMPLE_RX_INDICATOR.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return IPv6IODataSampleRxIndicator.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.REMOTE_AT_COMMAND_RESPONSE.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RemoteATCommandResponsePacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.IPV6_REMOTE_AT_COMMAND_RESPONSE.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return IPv6RemoteATCommandResponsePacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.RX_SMS.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RXSMSPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.RX_IPV4.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return RXIPv4Packet.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.SEND_DATA_RESPONSE.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return SendDataResponsePacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.DEVICE_REQUEST.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return DeviceRequestPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.DEVICE_RESPONSE_STATUS.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return DeviceResponseStatusPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.COAP_TX_REQUEST.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return CoAPTxRequestPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.COAP_RX_RESPONSE.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return CoAPRxResponsePacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.FRAME_ERROR.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return FrameErrorPacket.createPacket(payload);
+			}
+		};
+		decoders[APIFrameType.GENERIC.getValue()] = new IPacketDecoder() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.packet.IPacketDecoder#decode(byte[])
+			 */
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return GenericXBeePacket.createPacket(payload);
+			}
+		};
+		return decoders;
+	}
+}
@@ -39,7 +39,7 @@ public class GenericXBeePacket extends XBeeAPIPacket {
 	// Variables.
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(GenericXBeePacket.class);
 	
 	/**
 	 * Creates a new {@code GenericXBeePacket} from the given payload.
@@ -84,7 +84,6 @@ public class GenericXBeePacket extends XBeeAPIPacket {
 	public GenericXBeePacket(byte[] rfData) {
 		super(APIFrameType.GENERIC);
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(GenericXBeePacket.class);
 	}
 	
 	/*
@@ -0,0 +1,49 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.packet;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+
+/**
+ * This interface defines the method that should be implemented to decode 
+ * the payload of an API frame type into an XBee packet.
+ * 
+ * <p>Decoders are registered by frame type value with 
+ * {@link XBeePacketParser#registerDecoder(int, IPacketDecoder)}. This allows 
+ * decoding frame types not supported by the library, or replacing the 
+ * decoder of a supported one, without modifying the parser.</p>
+ * 
+ * <p>Decoders may be called from several threads at the same time, so they 
+ * must be thread-safe.</p>
+ * 
+ * @see XBeePacketParser#registerDecoder(int, IPacketDecoder)
+ */
+public interface IPacketDecoder {
+	
+	/**
+	 * Decodes the given payload of an API frame.
+	 * 
+	 * @param payload The payload of the API frame, starting with the frame 
+	 *                type and without the checksum.
+	 * 
+	 * @return The decoded XBee packet.
+	 * 
+	 * @throws InvalidPacketException if the payload is not valid.
+	 * 
+	 * @see XBeePacket
+	 */
+	public XBeePacket decode(byte[] payload) throws InvalidPacketException;
+}
@@ -0,0 +1,504 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.packet;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.digi.xbee.api.exceptions.InvalidPacketException;
+
+/**
+ * Read-only view over the payload of a received data frame.
+ * 
+ * <p>Unlike the packet classes, a view does not copy the payload: the
+ * addresses and the rest of fields are read as primitives directly from the
+ * buffer the frame was read into, and the RF data is exposed as a read-only
+ * {@code ByteBuffer} slice of it. A view can be reused for several frames
+ * with {@link #wrap(byte[], int, int)}, so decoding a frame does not
+ * allocate any object.</p>
+ * 
+ * <p>The supported frame types are:</p>
+ * 
+ * <ul>
+ * <li>{@link APIFrameType#RECEIVE_PACKET}</li>
+ * <li>{@link APIFrameType#EXPLICIT_RX_INDICATOR}</li>
+ * <li>{@link APIFrameType#RX_64}</li>
+ * <li>{@link APIFrameType#RX_16}</li>
+ * <li>{@link APIFrameType#RX_IPV4}</li>
+ * <li>{@link APIFrameType#RX_IPV6}</li>
+ * </ul>
+ * 
+ * <p>The contents of a view are only valid until the buffer is reused, so
+ * consumers that need to keep any data must copy it with
+ * {@link #copyRFData()} or {@link #toPacket()}.</p>
+ * 
+ * @see com.digi.xbee.api.listeners.IRxFrameListener
+ */
+public class RxFrameView {
+	
+	// Constants.
+	/**
+	 * Value returned by the fields that are not present in the frame.
+	 */
+	public static final int NOT_PRESENT = -1;
+	
+	// Variables.
+	private byte[] buffer;
+	
+	private int offset;
+	private int length;
+	
+	private APIFrameType frameType;
+	
+	// Offsets of the fields relative to the buffer, -1 if not present.
+	private int address64Offset;
+	private int address16Offset;
+	private int endpointsOffset;
+	private int portsOffset;
+	private int sourceIPOffset;
+	private int sourceIPLength;
+	private int rssiOffset;
+	private int optionsOffset;
+	private int dataOffset;
+	
+	/**
+	 * Returns whether the given API frame type value can be viewed with an
+	 * {@code RxFrameView}.
+	 * 
+	 * @param frameTypeValue The API frame type value.
+	 * 
+	 * @return {@code true} if the frame type is supported, {@code false}
+	 *         otherwise.
+	 */
+	public static boolean isSupported(int frameTypeValue) {
+		return getMinimumLength(APIFrameType.get(frameTypeValue)) > 0;
+	}
+	
+	/**
+	 * Makes this view point to the given payload.
+	 * 
+	 * <p>The payload is not copied, so it must not be modified while the
+	 * view is used.</p>
+	 * 
+	 * @param buffer The buffer containing the payload.
+	 * @param offset The offset of the payload in the buffer. The first byte
+	 *               of the payload is the frame type.
+	 * @param length The length of the payload.
+	 * 
+	 * @return This view.
+	 * 
+	 * @throws IllegalArgumentException if {@code offset < 0} or
+	 *                                  if {@code length < 0} or
+	 *                                  if {@code offset + length > buffer.length} or
+	 *                                  if the frame type is not supported or
+	 *                                  if the payload is incomplete.
+	 * @throws NullPointerException if {@code buffer == null}.
+	 * 
+	 * @see #isSupported(int)
+	 */
+	public RxFrameView wrap(byte[] buffer, int offset, int length) {
+		if (buffer == null)
+			throw new NullPointerException("Buffer cannot be null.");
+		if (offset < 0 || length < 0 || offset + length > buffer.length)
+			throw new IllegalArgumentException("Payload is out of the buffer bounds.");
+		if (length == 0)
+			throw new IllegalArgumentException("Payload cannot be empty.");
+		
+		APIFrameType type = APIFrameType.get(buffer[offset] & 0xFF);
+		int minimumLength = getMinimumLength(type);
+		if (minimumLength < 0)
+			throw new IllegalArgumentException("Frame type is not supported.");
+		if (length < minimumLength)
+			throw new IllegalArgumentException("Incomplete " + type.getName() + " frame.");
+		
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+		this.frameType = type;
+		
+		address64Offset = NOT_PRESENT;
+		address16Offset = NOT_PRESENT;
+		endpointsOffset = NOT_PRESENT;
+		portsOffset = NOT_PRESENT;
+		sourceIPOffset = NOT_PRESENT;
+		sourceIPLength = 0;
+		rssiOffset = NOT_PRESENT;
+		optionsOffset = NOT_PRESENT;
+		
+		// offset + 0 is the frame type.
+		int index = offset + 1;
+		switch (type) {
+		case RECEIVE_PACKET:
+			address64Offset = index;
+			address16Offset = index + 8;
+			optionsOffset = index + 10;
+			dataOffset = index + 11;
+			break;
+		case EXPLICIT_RX_INDICATOR:
+			address64Offset = index;
+			address16Offset = index + 8;
+			endpointsOffset = index + 10;
+			optionsOffset = index + 16;
+			dataOffset = index + 17;
+			break;
+		case RX_64:
+			address64Offset = index;
+			rssiOffset = index + 8;
+			optionsOffset = index + 9;
+			dataOffset = index + 10;
+			break;
+		case RX_16:
+			address16Offset = index;
+			rssiOffset = index + 2;
+			optionsOffset = index + 3;
+			dataOffset = index + 4;
+			break;
+		case RX_IPV4:
+			sourceIPOffset = index;
+			sourceIPLength = 4;
+			portsOffset = index + 4;
+			dataOffset = index + 10;
+			break;
+		case RX_IPV6:
+			// The destination address goes before the source one.
+			sourceIPOffset = index + 16;
+			sourceIPLength = 16;
+			portsOffset = index + 32;
+			dataOffset = index + 38;
+			break;
+		default:
+			break;
+		}
+		return this;
+	}
+	
+	/**
+	 * Returns the API frame type of the viewed frame.
+	 * 
+	 * @return The API frame type.
+	 */
+	public APIFrameType getFrameType() {
+		return frameType;
+	}
+	
+	/**
+	 * Returns whether the frame contains the 64-bit source address.
+	 * 
+	 * @return {@code true} if the frame contains the 64-bit source address,
+	 *         {@code false} otherwise.
+	 * 
+	 * @see #get64BitSourceAddress()
+	 */
+	public boolean has64BitSourceAddress() {
+		return address64Offset != NOT_PRESENT;
+	}
+	
+	/**
+	 * Returns the 64-bit source address.
+	 * 
+	 * @return The 64-bit source address.
+	 * 
+	 * @throws IllegalStateException if the frame does not contain a 64-bit
+	 *                               source address.
+	 * 
+	 * @see #has64BitSourceAddress()
+	 */
+	public long get64BitSourceAddress() {
+		if (address64Offset == NOT_PRESENT)
+			throw new IllegalStateException("Frame does not contain a 64-bit source address.");
+		
+		long address = 0;
+		for (int i = 0; i < 8; i++)
+			address = address << 8 | (buffer[address64Offset + i] & 0xFF);
+		return address;
+	}
+	
+	/**
+	 * Returns the 16-bit source address.
+	 * 
+	 * @return The 16-bit source address, {@link #NOT_PRESENT} if the frame
+	 *         does not contain it.
+	 */
+	public int get16BitSourceAddress() {
+		return readShort(address16Offset);
+	}
+	
+	/**
+	 * Returns the receive options.
+	 * 
+	 * @return The receive options, {@link #NOT_PRESENT} if the frame does
+	 *         not contain them.
+	 * 
+	 * @see com.digi.xbee.api.models.XBeeReceiveOptions
+	 */
+	public int getReceiveOptions() {
+		return readByte(optionsOffset);
+	}
+	
+	/**
+	 * Returns the received signal strength.
+	 * 
+	 * @return The received signal strength, {@link #NOT_PRESENT} if the
+	 *         frame does not contain it.
+	 */
+	public int getRSSI() {
+		return readByte(rssiOffset);
+	}
+	
+	/**
+	 * Returns the source endpoint of explicit frames.
+	 * 
+	 * @return The source endpoint, {@link #NOT_PRESENT} if the frame does
+	 *         not contain it.
+	 */
+	public int getSourceEndpoint() {
+		return readByte(endpointsOffset);
+	}
+	
+	/**
+	 * Returns the destination endpoint of explicit frames.
+	 * 
+	 * @return The destination endpoint, {@link #NOT_PRESENT} if the frame
+	 *         does not contain it.
+	 */
+	public int getDestinationEndpoint() {
+		return endpointsOffset == NOT_PRESENT ? NOT_PRESENT : readByte(endpointsOffset + 1);
+	}
+	
+	/**
+	 * Returns the cluster ID of explicit frames.
+	 * 
+	 * @return The cluster ID, {@link #NOT_PRESENT} if the frame does not
+	 *         contain it.
+	 */
+	public int getClusterID() {
+		return endpointsOffset == NOT_PRESENT ? NOT_PRESENT : readShort(endpointsOffset + 2);
+	}
+	
+	/**
+	 * Returns the profile ID of explicit frames.
+	 * 
+	 * @return The profile ID, {@link #NOT_PRESENT} if the frame does not
+	 *         contain it.
+	 */
+	public int getProfileID() {
+		return endpointsOffset == NOT_PRESENT ? NOT_PRESENT : readShort(endpointsOffset + 4);
+	}
+	
+	/**
+	 * Returns the destination port of IP frames.
+	 * 
+	 * @return The destination port, {@link #NOT_PRESENT} if the frame does
+	 *         not contain it.
+	 */
+	public int getDestinationPort() {
+		return readShort(portsOffset);
+	}
+	
+	/**
+	 * Returns the source port of IP frames.
+	 * 
+	 * @return The source port, {@link #NOT_PRESENT} if the frame does not
+	 *         contain it.
+	 */
+	public int getSourcePort() {
+		return portsOffset == NOT_PRESENT ? NOT_PRESENT : readShort(portsOffset + 2);
+	}
+	
+	/**
+	 * Returns the protocol value of IP frames.
+	 * 
+	 * @return The protocol value, {@link #NOT_PRESENT} if the frame does not
+	 *         contain it.
+	 * 
+	 * @see com.digi.xbee.api.models.IPProtocol
+	 */
+	public int getProtocolValue() {
+		return portsOffset == NOT_PRESENT ? NOT_PRESENT : readByte(portsOffset + 4);
+	}
+	
+	/**
+	 * Returns the length of the source IP address of IP frames.
+	 * 
+	 * @return {@code 4} for IPv4 frames, {@code 16} for IPv6 frames and
+	 *         {@code 0} for the rest.
+	 * 
+	 * @see #copySourceIPAddress(byte[], int)
+	 */
+	public int getSourceIPAddressLength() {
+		return sourceIPLength;
+	}
+	
+	/**
+	 * Copies the source IP address of IP frames to the given array.
+	 * 
+	 * @param destination The array to copy the address to.
+	 * @param destinationOffset The position in the array to copy the address
+	 *                          to.
+	 * 
+	 * @return The number of copied bytes, {@code 0} if the frame does not
+	 *         contain a source IP address.
+	 * 
+	 * @throws IndexOutOfBoundsException if the address does not fit in the
+	 *                                   array.
+	 * @throws NullPointerException if {@code destination == null}.
+	 * 
+	 * @see #getSourceIPAddressLength()
+	 */
+	public int copySourceIPAddress(byte[] destination, int destinationOffset) {
+		if (destination == null)
+			throw new NullPointerException("Destination cannot be null.");
+		
+		System.arraycopy(buffer, sourceIPOffset < 0 ? 0 : sourceIPOffset, destination, destinationOffset, sourceIPLength);
+		return sourceIPLength;
+	}
+	
+	/**
+	 * Returns the length of the RF data.
+	 * 
+	 * @return The length of the RF data.
+	 */
+	public int getRFDataLength() {
+		return offset + length - dataOffset;
+	}
+	
+	/**
+	 * Returns a read-only slice of the buffer with the RF data.
+	 * 
+	 * <p>The data is not copied, so its contents are only valid until the
+	 * buffer is reused.</p>
+	 * 
+	 * @return A read-only buffer with the RF data.
+	 * 
+	 * @see #copyRFData()
+	 */
+	public ByteBuffer getRFData() {
+		return ByteBuffer.wrap(buffer, dataOffset, getRFDataLength()).slice().asReadOnlyBuffer();
+	}
+	
+	/**
+	 * Returns a copy of the RF data.
+	 * 
+	 * @return A new array with the RF data.
+	 * 
+	 * @see #getRFData()
+	 * @see #copyRFData(byte[], int)
+	 */
+	public byte[] copyRFData() {
+		return Arrays.copyOfRange(buffer, dataOffset, offset + length);
+	}
+	
+	/**
+	 * Copies the RF data to the given array.
+	 * 
+	 * @param destination The array to copy the data to.
+	 * @param destinationOffset The position in the array to copy the data to.
+	 * 
+	 * @return The number of copied bytes.
+	 * 
+	 * @throws IndexOutOfBoundsException if the data does not fit in the
+	 *                                   array.
+	 * @throws NullPointerException if {@code destination == null}.
+	 * 
+	 * @see #getRFDataLength()
+	 */
+	public int copyRFData(byte[] destination, int destinationOffset) {
+		if (destination == null)
+			throw new NullPointerException("Destination cannot be null.");
+		
+		int dataLength = getRFDataLength();
+		System.arraycopy(buffer, dataOffset, destination, destinationOffset, dataLength);
+		return dataLength;
+	}
+	
+	/**
+	 * Decodes the viewed frame into a new packet that does not depend on the
+	 * buffer.
+	 * 
+	 * @return The decoded packet.
+	 * 
+	 * @throws InvalidPacketException if the payload is not valid.
+	 * 
+	 * @see XBeePacketParser#parsePayload(byte[])
+	 */
+	public XBeePacket toPacket() throws InvalidPacketException {
+		return new XBeePacketParser().parsePayload(Arrays.copyOfRange(buffer, offset, offset + length));
+	}
+	
+	/**
+	 * Returns the unsigned byte at the given position of the buffer.
+	 * 
+	 * @param position The position in the buffer, {@link #NOT_PRESENT} if
+	 *                 the field is not present.
+	 * 
+	 * @return The value of the byte, {@link #NOT_PRESENT} if the field is
+	 *         not present.
+	 */
+	private int readByte(int position) {
+		if (position == NOT_PRESENT)
+			return NOT_PRESENT;
+		return buffer[position] & 0xFF;
+	}
+	
+	/**
+	 * Returns the unsigned big endian short at the given position of the
+	 * buffer.
+	 * 
+	 * @param position The position in the buffer, {@link #NOT_PRESENT} if
+	 *                 the field is not present.
+	 * 
+	 * @return The value of the short, {@link #NOT_PRESENT} if the field is
+	 *         not present.
+	 */
+	private int readShort(int position) {
+		if (position == NOT_PRESENT)
+			return NOT_PRESENT;
+		return (buffer[position] & 0xFF) << 8 | buffer[position + 1] & 0xFF;
+	}
+	
+	/**
+	 * Returns the minimum payload length of the given frame type.
+	 * 
+	 * @param type The API frame type.
+	 * 
+	 * @return The minimum payload length, {@code -1} if the frame type is not
+	 *         supported.
+	 */
+	private static int getMinimumLength(APIFrameType type) {
+		switch (type) {
+		case RECEIVE_PACKET:
+			// 1 (Frame type) + 8 (64-bit address) + 2 (16-bit address) + 1 (receive options)
+			return 12;
+		case EXPLICIT_RX_INDICATOR:
+			// 1 (Frame type) + 8 (64-bit address) + 2 (16-bit address) + 2 (endpoints) + 4 (cluster and profile) + 1 (receive options)
+			return 18;
+		case RX_64:
+			// 1 (Frame type) + 8 (64-bit address) + 1 (signal strength) + 1 (receive options)
+			return 11;
+		case RX_16:
+			// 1 (Frame type) + 2 (16-bit address) + 1 (signal strength) + 1 (receive options)
+			return 5;
+		case RX_IPV4:
+			// 1 (Frame type) + 4 (source address) + 4 (ports) + 1 (protocol) + 1 (status)
+			return 11;
+		case RX_IPV6:
+			// 1 (Frame type) + 32 (addresses) + 4 (ports) + 1 (protocol) + 1 (status)
+			return 39;
+		default:
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,311 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.packet;
+
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.SpecialByte;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+/**
+ * This class encodes transmit frames to a fixed destination into a reusable 
+ * buffer.
+ * 
+ * <p>The destination address and the transmit options are fixed when the 
+ * encoder is created, so the header of the frame and its contribution to 
+ * the checksum are computed only once. Encoding a message only writes the 
+ * frame ID and the RF data into the buffer of the encoder, which grows to 
+ * the largest frame encoded and is then reused, so no objects are created 
+ * per message.</p>
+ * 
+ * <p>Depending on the constructor, the encoded frames are Transmit Request 
+ * ({@code 0x10}), TX (Transmit) Request 64-bit address ({@code 0x00}) or TX 
+ * (Transmit) Request 16-bit address ({@code 0x01}) frames.</p>
+ * 
+ * <p>Encoders are not thread-safe: the buffer is overwritten by every call 
+ * to {@link #encode(int, byte[], int, int, OperatingMode)}.</p>
+ * 
+ * @see com.digi.xbee.api.packet.common.TransmitPacket
+ * @see com.digi.xbee.api.packet.raw.TX64Packet
+ * @see com.digi.xbee.api.packet.raw.TX16Packet
+ */
+public class TransmitFrameEncoder {
+	
+	// Constants.
+	// Start delimiter and 2 bytes of length.
+	private static final int FRAME_HEADER_LENGTH = 3;
+	
+	private static final int MAXIMUM_PAYLOAD_LENGTH = 0xFFFF;
+	
+	// Position of the frame ID in the payload.
+	private static final int FRAME_ID_INDEX = 1;
+	
+	// Variables.
+	private final APIFrameType frameType;
+	
+	// Payload bytes before the RF data, with a frame ID of 0.
+	private final byte[] header;
+	private final int headerSum;
+	
+	private byte[] buffer = new byte[0];
+	
+	/**
+	 * Class constructor. Instantiates a new {@code TransmitFrameEncoder} 
+	 * that encodes Transmit Request frames with the given parameters.
+	 * 
+	 * @param destAddress64 64-bit address of the destination device.
+	 * @param destAddress16 16-bit address of the destination device.
+	 * @param broadcastRadius Broadcast radius.
+	 * @param transmitOptions Bitfield of supported transmission options.
+	 * 
+	 * @throws IllegalArgumentException if {@code broadcastRadius < 0} or
+	 *                                  if {@code broadcastRadius > 255} or
+	 *                                  if {@code transmitOptions < 0} or
+	 *                                  if {@code transmitOptions > 255}.
+	 * @throws NullPointerException if {@code destAddress64 == null} or
+	 *                              if {@code destAddress16 == null}.
+	 * 
+	 * @see com.digi.xbee.api.models.XBeeTransmitOptions
+	 * @see com.digi.xbee.api.packet.common.TransmitPacket
+	 */
+	public TransmitFrameEncoder(XBee64BitAddress destAddress64, XBee16BitAddress destAddress16, 
+			int broadcastRadius, int transmitOptions) {
+		if (destAddress64 == null)
+			throw new NullPointerException("64-bit destination address cannot be null.");
+		if (destAddress16 == null)
+			throw new NullPointerException("16-bit destination address cannot be null.");
+		if (broadcastRadius < 0 || broadcastRadius > 255)
+			throw new IllegalArgumentException("Broadcast radius must be between 0 and 255.");
+		checkTransmitOptions(transmitOptions);
+		
+		frameType = APIFrameType.TRANSMIT_REQUEST;
+		header = new byte[14];
+		System.arraycopy(destAddress64.getValue(), 0, header, 2, 8);
+		System.arraycopy(destAddress16.getValue(), 0, header, 10, 2);
+		header[12] = (byte)broadcastRadius;
+		header[13] = (byte)transmitOptions;
+		headerSum = initializeHeader();
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code TransmitFrameEncoder} 
+	 * that encodes TX (Transmit) Request 64-bit address frames with the 
+	 * given parameters.
+	 * 
+	 * @param destAddress64 64-bit address of the destination device.
+	 * @param transmitOptions Bitfield of supported transmission options.
+	 * 
+	 * @throws IllegalArgumentException if {@code transmitOptions < 0} or
+	 *                                  if {@code transmitOptions > 255}.
+	 * @throws NullPointerException if {@code destAddress64 == null}.
+	 * 
+	 * @see com.digi.xbee.api.models.XBeeTransmitOptions
+	 * @see com.digi.xbee.api.packet.raw.TX64Packet
+	 */
+	public TransmitFrameEncoder(XBee64BitAddress destAddress64, int transmitOptions) {
+		if (destAddress64 == null)
+			throw new NullPointerException("64-bit destination address cannot be null.");
+		checkTransmitOptions(transmitOptions);
+		
+		frameType = APIFrameType.TX_64;
+		header = new byte[11];
+		System.arraycopy(destAddress64.getValue(), 0, header, 2, 8);
+		header[10] = (byte)transmitOptions;
+		headerSum = initializeHeader();
+	}
+	
+	/**
+	 * Class constructor. Instantiates a new {@code TransmitFrameEncoder} 
+	 * that encodes TX (Transmit) Request 16-bit address frames with the 
+	 * given parameters.
+	 * 
+	 * @param destAddress16 16-bit address of the destination device.
+	 * @param transmitOptions Bitfield of supported transmission options.
+	 * 
+	 * @throws IllegalArgumentException if {@code transmitOptions < 0} or
+	 *                                  if {@code transmitOptions > 255}.
+	 * @throws NullPointerException if {@code destAddress16 == null}.
+	 * 
+	 * @see com.digi.xbee.api.models.XBeeTransmitOptions
+	 * @see com.digi.xbee.api.packet.raw.TX16Packet
+	 */
+	public TransmitFrameEncoder(XBee16BitAddress destAddress16, int transmitOptions) {
+		if (destAddress16 == null)
+			throw new NullPointerException("16-bit destination address cannot be null.");
+		checkTransmitOptions(transmitOptions);
+		
+		frameType = APIFrameType.TX_16;
+		header = new byte[5];
+		System.arraycopy(destAddress16.getValue(), 0, header, 2, 2);
+		header[4] = (byte)transmitOptions;
+		headerSum = initializeHeader();
+	}
+	
+	/**
+	 * Encodes a frame with the given frame ID and RF data into the buffer of 
+	 * this encoder.
+	 * 
+	 * <p>The encoded frame starts at the beginning of the buffer returned by 
+	 * {@link #getBuffer()}. The contents of the buffer are only valid until 
+	 * the next call to this method.</p>
+	 * 
+	 * @param frameID The frame ID.
+	 * @param data Byte array containing the RF data.
+	 * @param offset The position of the RF data in the array.
+	 * @param length The number of bytes of RF data.
+	 * @param mode The operating mode to encode the frame for.
+	 * 
+	 * @return The length of the encoded frame.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameID < 0} or
+	 *                                  if {@code frameID > 255} or
+	 *                                  if {@code mode != OperatingMode.API} and
+	 *                                  if {@code mode != OperatingMode.API_ESCAPE} or
+	 *                                  if the RF data does not fit in a frame.
+	 * @throws IndexOutOfBoundsException if {@code offset < 0} or 
+	 *                                   if {@code length < 0} or 
+	 *                                   if {@code offset + length > data.length}.
+	 * @throws NullPointerException if {@code data == null} or 
+	 *                              if {@code mode == null}.
+	 * 
+	 * @see #getBuffer()
+	 */
+	public int encode(int frameID, byte[] data, int offset, int length, OperatingMode mode) {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (frameID < 0 || frameID > 255)
+			throw new IllegalArgumentException("Frame ID must be between 0 and 255.");
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API Escaped.");
+		if (offset < 0 || length < 0 || offset + length > data.length)
+			throw new IndexOutOfBoundsException("Data is out of the array bounds.");
+		
+		int payloadLength = header.length + length;
+		if (payloadLength > MAXIMUM_PAYLOAD_LENGTH)
+			throw new IllegalArgumentException("Data is too long to fit in a frame.");
+		
+		int sum = headerSum + frameID;
+		for (int i = offset; i < offset + length; i++)
+			sum += data[i];
+		int checksum = 0xFF - (sum & 0xFF);
+		
+		if (mode == OperatingMode.API) {
+			ensureCapacity(FRAME_HEADER_LENGTH + payloadLength + 1);
+			buffer[0] = (byte)SpecialByte.HEADER_BYTE.getValue();
+			buffer[1] = (byte)(payloadLength >> 8);
+			buffer[2] = (byte)payloadLength;
+			System.arraycopy(header, 0, buffer, FRAME_HEADER_LENGTH, header.length);
+			buffer[FRAME_HEADER_LENGTH + FRAME_ID_INDEX] = (byte)frameID;
+			System.arraycopy(data, offset, buffer, FRAME_HEADER_LENGTH + header.length, length);
+			buffer[FRAME_HEADER_LENGTH + payloadLength] = (byte)checksum;
+			return FRAME_HEADER_LENGTH + payloadLength + 1;
+		}
+		
+		// In the worst case every byte but the start delimiter is escaped.
+		ensureCapacity(1 + 2 * (FRAME_HEADER_LENGTH - 1 + payloadLength + 1));
+		int index = 0;
+		buffer[index++] = (byte)SpecialByte.HEADER_BYTE.getValue();
+		index = writeEscaped(payloadLength >> 8, index);
+		index = writeEscaped(payloadLength, index);
+		for (int i = 0; i < header.length; i++)
+			index = writeEscaped(i == FRAME_ID_INDEX ? frameID : header[i], index);
+		for (int i = offset; i < offset + length; i++)
+			index = writeEscaped(data[i], index);
+		return writeEscaped(checksum, index);
+	}
+	
+	/**
+	 * Returns the buffer that contains the last encoded frame.
+	 * 
+	 * <p>The buffer is reused by the next encoded frames and may be longer 
+	 * than the frame.</p>
+	 * 
+	 * @return The buffer of this encoder.
+	 * 
+	 * @see #encode(int, byte[], int, int, OperatingMode)
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+	
+	/**
+	 * Returns the API frame type of the frames encoded by this encoder.
+	 * 
+	 * @return The API frame type.
+	 * 
+	 * @see APIFrameType
+	 */
+	public APIFrameType getFrameType() {
+		return frameType;
+	}
+	
+	/**
+	 * Writes the frame type in the header and returns the sum of its bytes.
+	 * 
+	 * @return The sum of the header bytes, without the frame ID.
+	 */
+	private int initializeHeader() {
+		header[0] = (byte)frameType.getValue();
+		int sum = 0;
+		for (int i = 0; i < header.length; i++)
+			sum += header[i];
+		return sum;
+	}
+	
+	/**
+	 * Makes sure the buffer can hold the given number of bytes.
+	 * 
+	 * @param capacity The required number of bytes.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (buffer.length < capacity)
+			buffer = new byte[capacity];
+	}
+	
+	/**
+	 * Writes the given byte in the buffer, escaping it if it is special.
+	 * 
+	 * @param value The byte to write.
+	 * @param index The position of the buffer to write the byte to.
+	 * 
+	 * @return The position after the written bytes.
+	 */
+	private int writeEscaped(int value, int index) {
+		int b = value & 0xFF;
+		if (b == SpecialByte.ESCAPE_BYTE.getValue() || b == SpecialByte.HEADER_BYTE.getValue()
+				|| b == SpecialByte.XON_BYTE.getValue() || b == SpecialByte.XOFF_BYTE.getValue()) {
+			buffer[index++] = (byte)SpecialByte.ESCAPE_BYTE.getValue();
+			buffer[index++] = (byte)(b ^ 0x20);
+		} else
+			buffer[index++] = (byte)b;
+		return index;
+	}
+	
+	/**
+	 * Checks that the given transmit options are in range.
+	 * 
+	 * @param transmitOptions The transmit options.
+	 * 
+	 * @throws IllegalArgumentException if {@code transmitOptions < 0} or
+	 *                                  if {@code transmitOptions > 255}.
+	 */
+	private static void checkTransmitOptions(int transmitOptions) {
+		if (transmitOptions < 0 || transmitOptions > 255)
+			throw new IllegalArgumentException("Transmit options must be between 0 and 255.");
+	}
+}
@@ -39,7 +39,7 @@ public class UnknownXBeePacket extends XBeeAPIPacket {
 	// Variables
 	protected byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(UnknownXBeePacket.class);
 	
 	/**
 	 * Creates a new {@code UnknownXBeePacket} from the given payload.
@@ -85,7 +85,6 @@ public class UnknownXBeePacket extends XBeeAPIPacket {
 	public UnknownXBeePacket(int apiIDValue, byte[] rfData) {
 		super(apiIDValue);
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(UnknownXBeePacket.class);
 	}
 	
 	/*
@@ -47,7 +47,7 @@ public abstract class XBeeAPIPacket extends XBeePacket {
 	
 	private int frameTypeValue;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(XBeeAPIPacket.class);
 
 	/**
 	 * Class constructor. Instantiates a new {@code XBeeAPIPacket} object with 
@@ -67,8 +67,6 @@ public abstract class XBeeAPIPacket extends XBeePacket {
 		
 		this.frameType = frameType;
 		frameTypeValue = frameType.getValue();
-		
-		this.logger = LoggerFactory.getLogger(XBeeAPIPacket.class);
 	}
 	
 	/**
@@ -88,8 +86,6 @@ public abstract class XBeeAPIPacket extends XBeePacket {
 		
 		this.frameTypeValue = frameTypeValue;
 		this.frameType = APIFrameType.get(frameTypeValue);
-		
-		this.logger = LoggerFactory.getLogger(XBeeAPIPacket.class);
 	}
 	
 	/**
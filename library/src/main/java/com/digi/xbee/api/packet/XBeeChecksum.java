@@ -32,10 +32,37 @@ package com.digi.xbee.api.packet;
  * checksum is correct, the sum will equal {@code 0xFF}.</p>
  */
 public class XBeeChecksum {
-
+	
 	// Variables.
 	private int value = 0;
 	
+	/**
+	 * Computes the checksum byte of the given data without creating any 
+	 * object.
+	 * 
+	 * @param data Byte array with the non-escaped API data.
+	 * @param offset The position of the first byte of the data.
+	 * @param length The number of bytes of the data.
+	 * 
+	 * @return Checksum byte.
+	 * 
+	 * @throws IndexOutOfBoundsException if {@code offset < 0} or 
+	 *                                   if {@code length < 0} or 
+	 *                                   if {@code offset + length > data.length}.
+	 * @throws NullPointerException if {@code data == null}.
+	 */
+	public static int compute(byte[] data, int offset, int length) {
+		if (data == null)
+			throw new NullPointerException("Data cannot be null.");
+		if (offset < 0 || length < 0 || offset + length > data.length)
+			throw new IndexOutOfBoundsException("Data is out of the array bounds.");
+		
+		int sum = 0;
+		for (int i = offset; i < offset + length; i++)
+			sum += data[i];
+		return 0xFF - (sum & 0xFF);
+	}
+	
 	/**
 	 * Adds the given byte to the checksum.
 	 * 
@@ -23,7 +23,6 @@ import java.util.LinkedHashMap;
 import com.digi.xbee.api.exceptions.InvalidPacketException;
 import com.digi.xbee.api.models.SpecialByte;
 import com.digi.xbee.api.models.OperatingMode;
-import com.digi.xbee.api.utils.ByteUtils;
 import com.digi.xbee.api.utils.HexUtils;
 
 /**
@@ -36,19 +35,15 @@ import com.digi.xbee.api.utils.HexUtils;
  * performed here.</p>
  */
 public abstract class XBeePacket {
-
-	private static final int HASH_SEED = 23;
 	
-	// Variables.
-	private XBeeChecksum checksum;
+	private static final int HASH_SEED = 23;
 	
 	/**
 	 * Class constructor. Instantiates a new {@code XBeePacket} object.
 	 */
 	protected XBeePacket() {
-		checksum = new XBeeChecksum();
 	}
-
+	
 	/**
 	 * Generates the XBee packet byte array. 
 	 * 
@@ -60,28 +55,18 @@ public abstract class XBeePacket {
 	 * @see #generateByteArrayEscaped()
 	 */
 	public byte[] generateByteArray() {
-		checksum.reset();
 		byte[] packetData = getPacketData();
-		ByteArrayOutputStream os = new ByteArrayOutputStream();
-		os.write(SpecialByte.HEADER_BYTE.getValue());
-		if (packetData != null) {
-			byte[] length = ByteUtils.shortToByteArray((short)packetData.length);
-			int msb = length[0];
-			int lsb = length[1];
-			os.write(msb);
-			os.write(lsb);
-			for (int i = 0; i < packetData.length; i++) {
-				checksum.add(packetData[i]);
-				os.write(packetData[i]);
-			}
-		} else {
-			os.write(0);
-			os.write(0);
-		}
-		os.write((byte)checksum.generate() & 0xFF);
-		return os.toByteArray();
+		int length = packetData == null ? 0 : packetData.length;
+		byte[] frame = new byte[length + 4];
+		frame[0] = (byte)SpecialByte.HEADER_BYTE.getValue();
+		frame[1] = (byte)(length >> 8);
+		frame[2] = (byte)length;
+		if (length > 0)
+			System.arraycopy(packetData, 0, frame, 3, length);
+		frame[length + 3] = (byte)(length > 0 ? XBeeChecksum.compute(packetData, 0, length) : 0xFF);
+		return frame;
 	}
-
+	
 	/**
 	 * Generates the XBee packet byte array escaping the special bytes.
 	 * 
@@ -108,14 +93,14 @@ public abstract class XBeePacket {
 		}
 		return os.toByteArray();
 	}
-
+	
 	/**
 	 * Returns the packet data.
 	 * 
 	 * @return The packet data.
 	 */
 	public abstract byte[] getPacketData();
-
+	
 	/**
 	 * Returns the packet length.
 	 * 
@@ -138,11 +123,10 @@ public abstract class XBeePacket {
 	 * @return The packet checksum.
 	 */
 	public int getChecksum() {
-		checksum.reset();
 		byte[] packetData = getPacketData();
-		if (packetData != null)
-			checksum.add(packetData);
-		return (byte)checksum.generate() & 0xFF;
+		if (packetData == null)
+			return 0xFF;
+		return XBeeChecksum.compute(packetData, 0, packetData.length);
 	}
 	
 	/**
@@ -240,7 +224,7 @@ public abstract class XBeePacket {
 	public static XBeePacket parsePacket(String packet, OperatingMode mode) throws InvalidPacketException {
 		if (packet == null)
 			throw new NullPointerException("Packet cannot be null.");
-			
+		
 		return parsePacket(HexUtils.hexStringToByteArray(packet.trim().replace(" ",  "")), mode);
 	}
 	
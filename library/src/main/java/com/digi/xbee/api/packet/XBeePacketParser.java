@@ -19,49 +19,11 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.digi.xbee.api.exceptions.InvalidPacketException;
 import com.digi.xbee.api.models.SpecialByte;
 import com.digi.xbee.api.models.OperatingMode;
-import com.digi.xbee.api.packet.cellular.RXSMSPacket;
-import com.digi.xbee.api.packet.cellular.TXSMSPacket;
-import com.digi.xbee.api.packet.common.ATCommandPacket;
-import com.digi.xbee.api.packet.common.ATCommandQueuePacket;
-import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
-import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
-import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
-import com.digi.xbee.api.packet.common.IODataSampleRxIndicatorPacket;
-import com.digi.xbee.api.packet.common.ModemStatusPacket;
-import com.digi.xbee.api.packet.common.ReceivePacket;
-import com.digi.xbee.api.packet.common.RemoteATCommandPacket;
-import com.digi.xbee.api.packet.common.RemoteATCommandResponsePacket;
-import com.digi.xbee.api.packet.common.TransmitPacket;
-import com.digi.xbee.api.packet.common.TransmitStatusPacket;
-import com.digi.xbee.api.packet.devicecloud.DeviceRequestPacket;
-import com.digi.xbee.api.packet.devicecloud.DeviceResponsePacket;
-import com.digi.xbee.api.packet.devicecloud.DeviceResponseStatusPacket;
-import com.digi.xbee.api.packet.devicecloud.FrameErrorPacket;
-import com.digi.xbee.api.packet.devicecloud.SendDataRequestPacket;
-import com.digi.xbee.api.packet.devicecloud.SendDataResponsePacket;
-import com.digi.xbee.api.packet.ip.RXIPv4Packet;
-import com.digi.xbee.api.packet.ip.TXIPv4Packet;
-import com.digi.xbee.api.packet.raw.RX16IOPacket;
-import com.digi.xbee.api.packet.raw.RX16Packet;
-import com.digi.xbee.api.packet.raw.RX64IOPacket;
-import com.digi.xbee.api.packet.raw.RX64Packet;
-import com.digi.xbee.api.packet.raw.TX16Packet;
-import com.digi.xbee.api.packet.raw.TX64Packet;
-import com.digi.xbee.api.packet.raw.TXStatusPacket;
-import com.digi.xbee.api.packet.thread.CoAPRxResponsePacket;
-import com.digi.xbee.api.packet.thread.CoAPTxRequestPacket;
-import com.digi.xbee.api.packet.thread.IPv6IODataSampleRxIndicator;
-import com.digi.xbee.api.packet.thread.IPv6RemoteATCommandRequestPacket;
-import com.digi.xbee.api.packet.thread.IPv6RemoteATCommandResponsePacket;
-import com.digi.xbee.api.packet.thread.RXIPv6Packet;
-import com.digi.xbee.api.packet.thread.TXIPv6Packet;
-import com.digi.xbee.api.packet.wifi.IODataSampleRxIndicatorWifiPacket;
-import com.digi.xbee.api.packet.wifi.RemoteATCommandResponseWifiPacket;
-import com.digi.xbee.api.packet.wifi.RemoteATCommandWifiPacket;
 import com.digi.xbee.api.utils.HexUtils;
 
 /**
@@ -159,6 +121,80 @@ import com.digi.xbee.api.utils.HexUtils;
  */
 public class XBeePacketParser {
 	
+	// Constants.
+	private static final IPacketDecoder[] DEFAULT_DECODERS = DefaultPacketDecoders.create();
+	
+	// Variables.
+	// Decoders indexed by the frame type value.
+	private static final AtomicReferenceArray<IPacketDecoder> decoders = new AtomicReferenceArray<IPacketDecoder>(DEFAULT_DECODERS);
+	
+	/**
+	 * Registers the given decoder for the given API frame type value.
+	 * 
+	 * <p>The decoder is used by every parser from then on. It replaces the 
+	 * decoder of the library if the frame type is already supported.</p>
+	 * 
+	 * @param frameType The API frame type value, from 0 to 255.
+	 * @param decoder The decoder of the payloads of the frame type.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameType < 0} or 
+	 *                                  if {@code frameType > 255}.
+	 * @throws NullPointerException if {@code decoder == null}.
+	 * 
+	 * @see #unregisterDecoder(int)
+	 * @see #getDecoder(int)
+	 * @see IPacketDecoder
+	 */
+	public static void registerDecoder(int frameType, IPacketDecoder decoder) {
+		if (frameType < 0 || frameType > 255)
+			throw new IllegalArgumentException("Frame type must be between 0 and 255.");
+		if (decoder == null)
+			throw new NullPointerException("Decoder cannot be null.");
+		
+		decoders.set(frameType, decoder);
+	}
+	
+	/**
+	 * Unregisters the decoder of the given API frame type value, restoring 
+	 * the decoder of the library (if any).
+	 * 
+	 * <p>Payloads of frame types without decoder are decoded as 
+	 * {@link UnknownXBeePacket}.</p>
+	 * 
+	 * @param frameType The API frame type value, from 0 to 255.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameType < 0} or 
+	 *                                  if {@code frameType > 255}.
+	 * 
+	 * @see #registerDecoder(int, IPacketDecoder)
+	 */
+	public static void unregisterDecoder(int frameType) {
+		if (frameType < 0 || frameType > 255)
+			throw new IllegalArgumentException("Frame type must be between 0 and 255.");
+		
+		decoders.set(frameType, DEFAULT_DECODERS[frameType]);
+	}
+	
+	/**
+	 * Returns the decoder of the given API frame type value.
+	 * 
+	 * @param frameType The API frame type value, from 0 to 255.
+	 * 
+	 * @return The decoder of the frame type, {@code null} if it has no 
+	 *         decoder.
+	 * 
+	 * @throws IllegalArgumentException if {@code frameType < 0} or 
+	 *                                  if {@code frameType > 255}.
+	 * 
+	 * @see #registerDecoder(int, IPacketDecoder)
+	 */
+	public static IPacketDecoder getDecoder(int frameType) {
+		if (frameType < 0 || frameType > 255)
+			throw new IllegalArgumentException("Frame type must be between 0 and 255.");
+		
+		return decoders.get(frameType);
+	}
+	
 	/**
 	 * Parses the bytes from the given input stream depending on the provided 
 	 * operating mode and returns the API packet.
@@ -184,6 +220,34 @@ public class XBeePacketParser {
 	 * @see com.digi.xbee.api.models.OperatingMode#API_ESCAPE
 	 */
 	public XBeePacket parsePacket(InputStream inputStream, OperatingMode mode) throws InvalidPacketException {
+		return parsePayload(readPayload(inputStream, mode));
+	}
+	
+	/**
+	 * Reads a frame from the given input stream depending on the provided 
+	 * operating mode, verifies its checksum and returns its payload without 
+	 * parsing it.
+	 * 
+	 * <p>The start delimiter must have been already read from the stream. 
+	 * This allows framing the received bytes in one thread and parsing the 
+	 * payloads with {@link #parsePayload(byte[])} in others.</p>
+	 * 
+	 * @param inputStream Input stream to read bytes from.
+	 * @param mode XBee device operating mode.
+	 * 
+	 * @return The unescaped payload of the frame.
+	 * 
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws InvalidPacketException if there is not enough data in the stream or 
+	 *                                if there is an error verifying the checksum.
+	 * @throws NullPointerException if {@code inputStream == null} or 
+	 *                              if {@code mode == null}.
+	 * 
+	 * @see #parsePayload(byte[])
+	 * @see #parsePacket(InputStream, OperatingMode)
+	 */
+	public byte[] readPayload(InputStream inputStream, OperatingMode mode) throws InvalidPacketException {
 		if (inputStream == null)
 			throw new NullPointerException("Input stream cannot be null.");
 		
@@ -203,9 +267,7 @@ public class XBeePacketParser {
 			byte[] payload = readBytes(inputStream, mode, length);
 			
 			// Calculate the expected checksum.
-			XBeeChecksum checksum = new XBeeChecksum();
-			checksum.add(payload);
-			byte expectedChecksum = (byte)(checksum.generate() & 0xFF);
+			byte expectedChecksum = (byte)XBeeChecksum.compute(payload, 0, payload.length);
 			
 			// Read checksum from the input stream.
 			byte readChecksum = (byte)(readByte(inputStream, mode) & 0xFF);
@@ -215,7 +277,7 @@ public class XBeePacketParser {
 				throw new InvalidPacketException("Invalid checksum (expected 0x" 
 							+ HexUtils.byteToHexString(expectedChecksum) + ").");
 			
-			return parsePayload(payload);
+			return payload;
 			
 		} catch (IOException e) {
 			throw new InvalidPacketException("Error parsing packet: " + e.getMessage(), e);
@@ -269,157 +331,110 @@ public class XBeePacketParser {
 		return parsePacket(new ByteArrayInputStream(packetByteArray, 1, packetByteArray.length - 1), mode);
 	}
 	
+	/**
+	 * Reads a frame from the given input stream depending on the provided 
+	 * operating mode, verifies its checksum and stores its payload in the 
+	 * given buffer.
+	 * 
+	 * <p>The start delimiter must have been already read from the stream. 
+	 * Unlike {@link #readPayload(InputStream, OperatingMode)}, this method 
+	 * does not allocate any array, so the same buffer can be reused for every 
+	 * frame.</p>
+	 * 
+	 * @param inputStream Input stream to read bytes from.
+	 * @param mode XBee device operating mode.
+	 * @param buffer The buffer to store the unescaped payload in.
+	 * 
+	 * @return The length of the payload.
+	 * 
+	 * @throws IllegalArgumentException if {@code mode != OperatingMode.API } and
+	 *                              if {@code mode != OperatingMode.API_ESCAPE}.
+	 * @throws InvalidPacketException if there is not enough data in the stream or 
+	 *                                if the payload does not fit in the buffer or
+	 *                                if there is an error verifying the checksum.
+	 * @throws NullPointerException if {@code inputStream == null} or 
+	 *                              if {@code mode == null} or 
+	 *                              if {@code buffer == null}.
+	 * 
+	 * @see #readPayload(InputStream, OperatingMode)
+	 */
+	public int readPayload(InputStream inputStream, OperatingMode mode, byte[] buffer) throws InvalidPacketException {
+		if (inputStream == null)
+			throw new NullPointerException("Input stream cannot be null.");
+		if (mode == null)
+			throw new NullPointerException("Operating mode cannot be null.");
+		if (buffer == null)
+			throw new NullPointerException("Buffer cannot be null.");
+		
+		if (mode != OperatingMode.API && mode != OperatingMode.API_ESCAPE)
+			throw new IllegalArgumentException("Operating mode must be API or API Escaped.");
+		
+		try {
+			// Read packet size.
+			int hSize = readByte(inputStream, mode);
+			int lSize = readByte(inputStream, mode);
+			int length = hSize << 8 | lSize;
+			if (length > buffer.length)
+				throw new InvalidPacketException("Error parsing packet: Payload does not fit in the buffer.");
+			
+			// Read the payload and calculate the expected checksum.
+			int sum = 0;
+			for (int i = 0; i < length; i++) {
+				int b = readByte(inputStream, mode);
+				buffer[i] = (byte)b;
+				sum += b;
+			}
+			byte expectedChecksum = (byte)(0xFF - (sum & 0xFF));
+			
+			// Read checksum from the input stream.
+			byte readChecksum = (byte)(readByte(inputStream, mode) & 0xFF);
+			
+			// Verify the checksum of the read bytes.
+			if (readChecksum != expectedChecksum)
+				throw new InvalidPacketException("Invalid checksum (expected 0x" 
+							+ HexUtils.byteToHexString(expectedChecksum) + ").");
+			
+			return length;
+		
+		} catch (IOException e) {
+			throw new InvalidPacketException("Error parsing packet: " + e.getMessage(), e);
+		}
+	}
+	
 	/**
 	 * Parses the given API payload to get the right API packet, depending 
 	 * on its API type ({@code payload[0]}).
 	 * 
+	 * <p>The decoder of the API type is looked up in a table indexed by the 
+	 * frame type value.</p>
+	 * 
 	 * @param payload The payload of the API frame.
 	 * 
 	 * @return The corresponding API packet or {@code UnknownXBeePacket} if 
 	 *         the frame API type is unknown.
 	 *         
-	 * @throws InvalidPacketException if the payload is invalid for the 
-	 *                                specified frame type.
+	 * @throws InvalidPacketException if the payload is empty or invalid for 
+	 *                                the specified frame type.
+	 * @throws NullPointerException if {@code payload == null}.
 	 * 
 	 * @see APIFrameType
 	 * @see XBeePacket
+	 * @see #readPayload(InputStream, OperatingMode)
+	 * @see #registerDecoder(int, IPacketDecoder)
 	 */
-	private XBeePacket parsePayload(byte[] payload) throws InvalidPacketException {
-		// Get the API frame type.
-		APIFrameType apiType = APIFrameType.get(payload[0] & 0xFF);
+	public XBeePacket parsePayload(byte[] payload) throws InvalidPacketException {
+		if (payload == null)
+			throw new NullPointerException("Payload cannot be null.");
+		if (payload.length == 0)
+			throw new InvalidPacketException("Error parsing packet: Empty payload.");
 		
-		if (apiType == null)
+		// Look up the decoder of the API ID.
+		IPacketDecoder decoder = decoders.get(payload[0] & 0xFF);
+		if (decoder == null)
 			// Create unknown packet.
 			return UnknownXBeePacket.createPacket(payload);
 		
-		// Parse API payload depending on API ID.
-		XBeePacket packet = null;
-		switch (apiType) {
-		case TX_64:
-			packet = TX64Packet.createPacket(payload);
-			break;
-		case TX_16:
-			packet = TX16Packet.createPacket(payload);
-			break;
-		case REMOTE_AT_COMMAND_REQUEST_WIFI:
-			packet = RemoteATCommandWifiPacket.createPacket(payload);
-			break;
-		case AT_COMMAND:
-			packet = ATCommandPacket.createPacket(payload);
-			break;
-		case AT_COMMAND_QUEUE:
-			packet = ATCommandQueuePacket.createPacket(payload);
-			break;
-		case TRANSMIT_REQUEST:
-			packet = TransmitPacket.createPacket(payload);
-			break;
-		case EXPLICIT_ADDRESSING_COMMAND_FRAME:
-			packet = ExplicitAddressingPacket.createPacket(payload);
-			break;
-		case REMOTE_AT_COMMAND_REQUEST:
-			packet = RemoteATCommandPacket.createPacket(payload);
-			break;
-		case IPV6_REMOTE_AT_COMMAND_REQUEST:
-			packet = IPv6RemoteATCommandRequestPacket.createPacket(payload);
-			break;
-		case TX_SMS:
-			packet = TXSMSPacket.createPacket(payload);
-			break;
-		case TX_IPV4:
-			packet = TXIPv4Packet.createPacket(payload);
-			break;
-		case TX_IPV6:
-			packet = TXIPv6Packet.createPacket(payload);
-			break;
-		case SEND_DATA_REQUEST:
-			packet = SendDataRequestPacket.createPacket(payload);
-			break;
-		case DEVICE_RESPONSE:
-			packet = DeviceResponsePacket.createPacket(payload);
-			break;
-		case RX_64:
-			packet = RX64Packet.createPacket(payload);
-			break;
-		case RX_16:
-			packet = RX16Packet.createPacket(payload);
-			break;
-		case RX_IPV6:
-			packet = RXIPv6Packet.createPacket(payload);
-			break;
-		case RX_IO_64:
-			packet = RX64IOPacket.createPacket(payload);
-			break;
-		case RX_IO_16:
-			packet = RX16IOPacket.createPacket(payload);
-			break;
-		case REMOTE_AT_COMMAND_RESPONSE_WIFI:
-			packet = RemoteATCommandResponseWifiPacket.createPacket(payload);
-			break;
-		case AT_COMMAND_RESPONSE:
-			packet = ATCommandResponsePacket.createPacket(payload);
-			break;
-		case TX_STATUS:
-			packet = TXStatusPacket.createPacket(payload);
-			break;
-		case MODEM_STATUS:
-			packet = ModemStatusPacket.createPacket(payload);
-			break;
-		case TRANSMIT_STATUS:
-			packet = TransmitStatusPacket.createPacket(payload);
-			break;
-		case IO_DATA_SAMPLE_RX_INDICATOR_WIFI:
-			packet = IODataSampleRxIndicatorWifiPacket.createPacket(payload);
-			break;
-		case RECEIVE_PACKET:
-			packet = ReceivePacket.createPacket(payload);
-			break;
-		case EXPLICIT_RX_INDICATOR:
-			packet = ExplicitRxIndicatorPacket.createPacket(payload);
-			break;
-		case IO_DATA_SAMPLE_RX_INDICATOR:
-			packet = IODataSampleRxIndicatorPacket.createPacket(payload);
-			break;
-		case IPV6_IO_DATA_SAMPLE_RX_INDICATOR:
-			packet = IPv6IODataSampleRxIndicator.createPacket(payload);
-			break;
-		case REMOTE_AT_COMMAND_RESPONSE:
-			packet = RemoteATCommandResponsePacket.createPacket(payload);
-			break;
-		case IPV6_REMOTE_AT_COMMAND_RESPONSE:
-			packet = IPv6RemoteATCommandResponsePacket.createPacket(payload);
-			break;
-		case RX_SMS:
-			packet = RXSMSPacket.createPacket(payload);
-			break;
-		case RX_IPV4:
-			packet = RXIPv4Packet.createPacket(payload);
-			break;
-		case SEND_DATA_RESPONSE:
-			packet = SendDataResponsePacket.createPacket(payload);
-			break;
-		case DEVICE_REQUEST:
-			packet = DeviceRequestPacket.createPacket(payload);
-			break;
-		case DEVICE_RESPONSE_STATUS:
-			packet = DeviceResponseStatusPacket.createPacket(payload);
-			break;
-		case COAP_TX_REQUEST:
-			packet = CoAPTxRequestPacket.createPacket(payload);
-			break;
-		case COAP_RX_RESPONSE:
-			packet = CoAPRxResponsePacket.createPacket(payload);
-			break;
-		case FRAME_ERROR:
-			packet = FrameErrorPacket.createPacket(payload);
-			break;
-		case GENERIC:
-			packet = GenericXBeePacket.createPacket(payload);
-			break;
-		case UNKNOWN:
-		default:
-			packet = UnknownXBeePacket.createPacket(payload);
-		}
-		return packet;
+		return decoder.decode(payload);
 	}
 	
 	/**
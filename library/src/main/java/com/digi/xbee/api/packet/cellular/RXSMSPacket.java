@@ -50,7 +50,7 @@ public class RXSMSPacket extends XBeeAPIPacket {
 	private byte[] phoneNumber;
 	private String data;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RXSMSPacket.class);
 
 	/**
 	 * Creates a new {@code RXSMSPacket} object from the given payload.
@@ -113,7 +113,6 @@ public class RXSMSPacket extends XBeeAPIPacket {
 
 		this.phoneNumber = Arrays.copyOf(phoneNumber.getBytes(), TXSMSPacket.PHONE_NUMBER_LENGTH);
 		this.data = data;
-		this.logger = LoggerFactory.getLogger(RXSMSPacket.class);
 	}
 
 	/*
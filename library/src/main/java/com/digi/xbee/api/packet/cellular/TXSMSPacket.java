@@ -63,7 +63,7 @@ public class TXSMSPacket extends XBeeAPIPacket {
 
 	private String data;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(TXSMSPacket.class);
 
 	/**
 	 * Creates a new {@code TXSMSPacket} object from the given payload.
@@ -139,7 +139,6 @@ public class TXSMSPacket extends XBeeAPIPacket {
 		this.frameID = frameID;
 		this.phoneNumber = Arrays.copyOf(phoneNumber.getBytes(), PHONE_NUMBER_LENGTH);
 		this.data = data;
-		this.logger = LoggerFactory.getLogger(TXSMSPacket.class);
 	}
 
 	/*
@@ -51,7 +51,7 @@ public class ATCommandPacket extends XBeeAPIPacket {
 	
 	private byte[] parameter;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(ATCommandPacket.class);
 	
 	/**
 	 * Creates a new {@code ATCommandPacket} object from the given payload.
@@ -138,7 +138,6 @@ public class ATCommandPacket extends XBeeAPIPacket {
 		this.frameID = frameID;
 		this.command = command;
 		this.parameter = parameter;
-		this.logger = LoggerFactory.getLogger(ATCommandPacket.class);
 	}
 	
 	/*
@@ -55,7 +55,7 @@ public class ATCommandQueuePacket extends XBeeAPIPacket {
 	
 	private byte[] parameter;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(ATCommandQueuePacket.class);
 	
 	/**
 	 * Creates a new {@code ATCommandQueuePacket} object from the given 
@@ -144,7 +144,6 @@ public class ATCommandQueuePacket extends XBeeAPIPacket {
 		this.frameID = frameID;
 		this.command = command;
 		this.parameter = parameter;
-		this.logger = LoggerFactory.getLogger(ATCommandQueuePacket.class);
 	}
 	
 	/*
@@ -58,7 +58,7 @@ public class ATCommandResponsePacket extends XBeeAPIPacket {
 	
 	private byte[] commandValue;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(ATCommandResponsePacket.class);
 	
 	/**
 	 * Creates a new {@code ATCommandResponsePacket} object from the given 
@@ -141,7 +141,6 @@ public class ATCommandResponsePacket extends XBeeAPIPacket {
 		this.status = status;
 		this.command = command;
 		this.commandValue = commandValue;
-		this.logger = LoggerFactory.getLogger(ATCommandResponsePacket.class);
 	}
 	
 	/*
@@ -101,7 +101,7 @@ public class ExplicitAddressingPacket extends XBeeAPIPacket {
 	private final int profileID;
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(ExplicitAddressingPacket.class);
 	
 	/**
 	 * Creates a new {@code ExplicitAddressingPacket} object from the given 
@@ -151,11 +151,11 @@ public class ExplicitAddressingPacket extends XBeeAPIPacket {
 		index = index + 1;
 		
 		// 8 bytes of 64-bit address.
-		XBee64BitAddress destAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress destAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress destAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress destAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Source endpoint byte.
@@ -262,7 +262,6 @@ public class ExplicitAddressingPacket extends XBeeAPIPacket {
 		this.broadcastRadius = broadcastRadius;
 		this.transmitOptions = transmitOptions;
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(ExplicitAddressingPacket.class);
 	}
 	
 	/*
@@ -70,7 +70,7 @@ public class ExplicitRxIndicatorPacket extends XBeeAPIPacket {
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(ExplicitRxIndicatorPacket.class);
 	
 	/**
 	 * Creates a new {@code ExplicitRxIndicatorPacket} object from the given 
@@ -112,11 +112,11 @@ public class ExplicitRxIndicatorPacket extends XBeeAPIPacket {
 		int index = 1;
 		
 		// 8 bytes of 64-bit address.
-		XBee64BitAddress destAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress destAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress destAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress destAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Source endpoint byte.
@@ -207,7 +207,6 @@ public class ExplicitRxIndicatorPacket extends XBeeAPIPacket {
 		this.profileID = profileID;
 		this.receiveOptions = receiveOptions;
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(ExplicitRxIndicatorPacket.class);
 	}
 	
 	/*
@@ -62,7 +62,7 @@ public class IODataSampleRxIndicatorPacket extends XBeeAPIPacket {
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(IODataSampleRxIndicatorPacket.class);
 	
 	/**
 	 * Creates a new {@code IODataSampleRxIndicatorPacket} object from the 
@@ -95,11 +95,11 @@ public class IODataSampleRxIndicatorPacket extends XBeeAPIPacket {
 		int index = 1;
 		
 		// 2 bytes of 16-bit address.
-		XBee64BitAddress sourceAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress sourceAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress sourceAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress sourceAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Receive options
@@ -150,7 +150,6 @@ public class IODataSampleRxIndicatorPacket extends XBeeAPIPacket {
 			ioSample = new IOSample(rfData);
 		else
 			ioSample = null;
-		this.logger = LoggerFactory.getLogger(IODataSampleRxIndicatorPacket.class);
 	}
 	
 	/*
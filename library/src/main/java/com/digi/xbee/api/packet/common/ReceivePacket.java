@@ -61,7 +61,7 @@ public class ReceivePacket extends XBeeAPIPacket {
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(ReceivePacket.class);
 
 	/**
 	 * Creates a new {@code ReceivePacket} object from the given payload.
@@ -93,11 +93,11 @@ public class ReceivePacket extends XBeeAPIPacket {
 		int index = 1;
 		
 		// 2 bytes of 16-bit address.
-		XBee64BitAddress sourceAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress sourceAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress sourceAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress sourceAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Receive options
@@ -144,7 +144,6 @@ public class ReceivePacket extends XBeeAPIPacket {
 		this.sourceAddress16 = sourceAddress16;
 		this.receiveOptions = receiveOptions;
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(ReceivePacket.class);
 	}
 
 	/*
@@ -64,7 +64,7 @@ public class RemoteATCommandPacket extends XBeeAPIPacket {
 	
 	private byte[] parameter;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RemoteATCommandPacket.class);
 	
 	/**
 	 * Creates a new {@code RemoteATCommandPacket} object from the given 
@@ -103,11 +103,11 @@ public class RemoteATCommandPacket extends XBeeAPIPacket {
 		index = index + 1;
 		
 		// 8 bytes of 64-bit address.
-		XBee64BitAddress destAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress destAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress destAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress destAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Options byte.
@@ -172,7 +172,6 @@ public class RemoteATCommandPacket extends XBeeAPIPacket {
 		this.command = command;
 		if (parameter != null)
 			this.parameter = parameter.getBytes();
-		this.logger = LoggerFactory.getLogger(RemoteATCommandPacket.class);
 	}
 	
 	/**
@@ -219,7 +218,6 @@ public class RemoteATCommandPacket extends XBeeAPIPacket {
 		this.transmitOptions = transmitOptions;
 		this.command = command;
 		this.parameter = parameter;
-		this.logger = LoggerFactory.getLogger(RemoteATCommandPacket.class);
 	}
 	
 	/*
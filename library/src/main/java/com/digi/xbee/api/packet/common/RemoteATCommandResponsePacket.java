@@ -67,7 +67,7 @@ public class RemoteATCommandResponsePacket extends XBeeAPIPacket {
 	
 	private byte[] commandValue;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RemoteATCommandResponsePacket.class);
 	
 	/**
 	 * Creates an new {@code RemoteATCommandResponsePacket} object from the 
@@ -104,11 +104,11 @@ public class RemoteATCommandResponsePacket extends XBeeAPIPacket {
 		index = index + 1;
 		
 		// 8 bytes of 64-bit address.
-		XBee64BitAddress sourceAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress sourceAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress sourceAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress sourceAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// 2 bytes of AT command.
@@ -173,7 +173,6 @@ public class RemoteATCommandResponsePacket extends XBeeAPIPacket {
 		this.command = command;
 		this.status = status;
 		this.commandValue = commandValue;
-		this.logger = LoggerFactory.getLogger(RemoteATCommandResponsePacket.class);
 	}
 	
 	/*
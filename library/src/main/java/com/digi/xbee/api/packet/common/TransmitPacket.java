@@ -88,7 +88,7 @@ public class TransmitPacket extends XBeeAPIPacket {
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(TransmitPacket.class);
 	
 	/**
 	 * Creates a new {@code TransmitPacket} object from the given payload.
@@ -128,11 +128,11 @@ public class TransmitPacket extends XBeeAPIPacket {
 		index = index + 1;
 		
 		// 8 bytes of 64-bit address.
-		XBee64BitAddress destAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress destAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress destAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress destAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Broadcast radious byte.
@@ -197,7 +197,6 @@ public class TransmitPacket extends XBeeAPIPacket {
 		this.broadcastRadius = broadcastRadius;
 		this.transmitOptions = transmitOptions;
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(TransmitPacket.class);
 	}
 
 	/*
@@ -54,7 +54,7 @@ public class TransmitStatusPacket extends XBeeAPIPacket {
 	private final XBeeTransmitStatus transmitStatus;
 	private final XBeeDiscoveryStatus discoveryStatus;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(TransmitStatusPacket.class);
 	
 	/**
 	 * Creates a new {@code TransmitStatusPacket} object from the given payload.
@@ -92,7 +92,7 @@ public class TransmitStatusPacket extends XBeeAPIPacket {
 		index = index + 1;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress address = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress address = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Retry count byte.
@@ -154,7 +154,6 @@ public class TransmitStatusPacket extends XBeeAPIPacket {
 		this.tranmistRetryCount = tranmistRetryCount;
 		this.transmitStatus = transmitStatus;
 		this.discoveryStatus = discoveryStatus;
-		this.logger = LoggerFactory.getLogger(TransmitStatusPacket.class);
 	}
 
 	/*
@@ -60,7 +60,7 @@ public class DeviceRequestPacket extends XBeeAPIPacket {
 
 	private byte[] requestData;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(DeviceRequestPacket.class);
 
 	/**
 	 * Creates a new {@code DeviceRequestPacket} object from the given payload.
@@ -140,7 +140,6 @@ public class DeviceRequestPacket extends XBeeAPIPacket {
 		this.requestID = requestID;
 		this.target = target;
 		this.requestData = requestData;
-		this.logger = LoggerFactory.getLogger(DeviceRequestPacket.class);
 	}
 
 	/*
@@ -56,7 +56,7 @@ public class DeviceResponsePacket extends XBeeAPIPacket {
 
 	private byte[] responseData;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(DeviceResponsePacket.class);
 
 	/**
 	 * Creates a new {@code DeviceResponsePacket} object from the given payload.
@@ -129,7 +129,6 @@ public class DeviceResponsePacket extends XBeeAPIPacket {
 		this.frameID = frameID;
 		this.requestID = requestID;
 		this.responseData = responseData;
-		this.logger = LoggerFactory.getLogger(DeviceResponsePacket.class);
 	}
 
 	/*
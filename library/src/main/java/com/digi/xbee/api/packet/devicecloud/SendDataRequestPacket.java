@@ -65,7 +65,7 @@ public class SendDataRequestPacket extends XBeeAPIPacket {
 
 	private byte[] fileData;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(SendDataRequestPacket.class);
 
 	/**
 	 * Creates a new {@code SendDataRequestPacket} object from the given payload.
@@ -164,7 +164,6 @@ public class SendDataRequestPacket extends XBeeAPIPacket {
 		this.contentType = contentType;
 		this.options = options;
 		this.fileData = fileData;
-		this.logger = LoggerFactory.getLogger(SendDataRequestPacket.class);
 	}
 
 	/*
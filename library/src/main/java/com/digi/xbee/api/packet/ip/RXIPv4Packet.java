@@ -63,7 +63,7 @@ public class RXIPv4Packet extends XBeeAPIPacket {
 
 	private byte[] data;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RXIPv4Packet.class);
 
 	/**
 	 * Creates a new {@code RXIPv4Packet} object from the given payload.
@@ -162,7 +162,6 @@ public class RXIPv4Packet extends XBeeAPIPacket {
 		this.sourcePort = sourcePort;
 		this.protocol = protocol;
 		this.data = data;
-		this.logger = LoggerFactory.getLogger(RXIPv4Packet.class);
 	}
 
 	/*
@@ -72,7 +72,7 @@ public class TXIPv4Packet extends XBeeAPIPacket {
 
 	private byte[] data;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(TXIPv4Packet.class);
 
 	/**
 	 * Creates a new {@code TXIPv4Packet} object from the given payload.
@@ -188,7 +188,6 @@ public class TXIPv4Packet extends XBeeAPIPacket {
 		this.protocol = protocol;
 		this.transmitOptions = transmitOptions;
 		this.data = data;
-		this.logger = LoggerFactory.getLogger(TXIPv4Packet.class);
 	}
 
 	/*
@@ -55,7 +55,7 @@ public class RX16Packet extends XBeeAPIPacket {
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RX16Packet.class);
 	
 	/**
 	 * Creates a new {@code RX16Packet} object from the given payload.
@@ -89,7 +89,7 @@ public class RX16Packet extends XBeeAPIPacket {
 		int index = 1;
 		
 		// 2 bytes of 16-bit address.
-		XBee16BitAddress sourceAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress sourceAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Signal strength byte.
@@ -140,7 +140,6 @@ public class RX16Packet extends XBeeAPIPacket {
 		this.rssi = rssi;
 		this.receiveOptions = receiveOptions;
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(RX16Packet.class);
 	}
 	
 	/*
@@ -18,7 +18,9 @@ package com.digi.xbee.api.packet.raw;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,13 +50,14 @@ public class RX64IOPacket extends XBeeAPIPacket {
 	private final XBee64BitAddress sourceAddress64;
 	
 	private IOSample ioSample;
+	private List<IOSample> ioSamples;
 	
 	private final int rssi;
 	private final int receiveOptions;
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RX64Packet.class);
 	
 	/**
 	 * Creates an new {@code RX64IOPacket} object from the given payload.
@@ -88,7 +91,7 @@ public class RX64IOPacket extends XBeeAPIPacket {
 		int index = 1;
 		
 		// 8 bytes of 64-bit address.
-		XBee64BitAddress sourceAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress sourceAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// Received Signal Strength Indicator byte.
@@ -139,11 +142,7 @@ public class RX64IOPacket extends XBeeAPIPacket {
 		this.rssi = rssi;
 		this.receiveOptions = receiveOptions;
 		this.rfData = rfData;
-		if (rfData != null && rfData.length >= 5)
-			ioSample = new IOSample(rfData);
-		else
-			ioSample = null;
-		this.logger = LoggerFactory.getLogger(RX64Packet.class);
+		parseIOSamples(rfData);
 	}
 	
 	/*
@@ -227,6 +226,38 @@ public class RX64IOPacket extends XBeeAPIPacket {
 		return ioSample;
 	}
 	
+	/**
+	 * Returns all the IO samples contained in the packet, in the order they 
+	 * were taken.
+	 * 
+	 * <p>The module sends several samples in the same packet when it is 
+	 * configured to do so with the {@code IT} setting.</p>
+	 * 
+	 * @return The unmodifiable list of IO samples of the packet, an empty 
+	 *         list if the packet has not any sample.
+	 * 
+	 * @see #getIOSample()
+	 * @see com.digi.xbee.api.io.IOSample#parseIOSamples(byte[])
+	 */
+	public List<IOSample> getIOSamples() {
+		return ioSamples;
+	}
+	
+	/**
+	 * Parses the IO samples contained in the given data.
+	 * 
+	 * @param rfData The received data.
+	 */
+	private void parseIOSamples(byte[] rfData) {
+		if (rfData != null && rfData.length >= 5) {
+			ioSamples = IOSample.parseIOSamples(rfData);
+			ioSample = ioSamples.get(0);
+		} else {
+			ioSamples = Collections.emptyList();
+			ioSample = null;
+		}
+	}
+	
 	/**
 	 * Sets the received RF data.
 	 * 
@@ -239,10 +270,7 @@ public class RX64IOPacket extends XBeeAPIPacket {
 			this.rfData = Arrays.copyOf(rfData, rfData.length);
 		
 		// Modify the ioSample accordingly.
-		if (rfData != null && rfData.length >= 5)
-			ioSample = new IOSample(this.rfData);
-		else
-			ioSample = null;
+		parseIOSamples(this.rfData);
 	}
 	
 	/**
@@ -267,7 +295,7 @@ public class RX64IOPacket extends XBeeAPIPacket {
 		parameters.put("RSSI", HexUtils.prettyHexString(HexUtils.integerToHexString(rssi, 1)));
 		parameters.put("Options", HexUtils.prettyHexString(HexUtils.integerToHexString(receiveOptions, 1)));
 		if (ioSample != null) {
-			parameters.put("Number of samples", HexUtils.prettyHexString(HexUtils.integerToHexString(1, 1))); // There is always 1 sample.
+			parameters.put("Number of samples", HexUtils.prettyHexString(HexUtils.integerToHexString(ioSamples.size(), 1)));
 			parameters.put("Digital channel mask", HexUtils.prettyHexString(HexUtils.integerToHexString(ioSample.getDigitalMask(), 2)));
 			parameters.put("Analog channel mask", HexUtils.prettyHexString(HexUtils.integerToHexString(ioSample.getAnalogMask(), 2)));
 			for (int i = 0; i < 16; i++) {
@@ -55,7 +55,7 @@ public class RX64Packet extends XBeeAPIPacket {
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RX64Packet.class);
 	
 	/**
 	 * Creates a new {@code RX64Packet} object from the given payload.
@@ -89,7 +89,7 @@ public class RX64Packet extends XBeeAPIPacket {
 		int index = 1;
 		
 		// 8 bytes of 64-bit address.
-		XBee64BitAddress sourceAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress sourceAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// Signal strength byte.
@@ -140,7 +140,6 @@ public class RX64Packet extends XBeeAPIPacket {
 		this.rssi = rssi;
 		this.receiveOptions = receiveOptions;
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(RX64Packet.class);
 	}
 	
 	/*
@@ -49,7 +49,7 @@ public class TX16Packet extends XBeeAPIPacket {
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(TX16Packet.class);
 	
 	/**
 	 * Creates a new {@code TX16Packet} object from the given payload.
@@ -87,7 +87,7 @@ public class TX16Packet extends XBeeAPIPacket {
 		index = index + 1;
 		
 		// 2 bytes of address, starting at 2nd byte.
-		XBee16BitAddress destAddress16 = new XBee16BitAddress(payload[index] & 0xFF, payload[index + 1] & 0xFF);
+		XBee16BitAddress destAddress16 = XBee16BitAddress.valueOf(payload, index);
 		index = index + 2;
 		
 		// Transmit options byte.
@@ -134,7 +134,6 @@ public class TX16Packet extends XBeeAPIPacket {
 		this.destAddress16 = destAddress16;
 		this.transmitOptions = transmitOptions;
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(TX16Packet.class);
 	}
 
 	/*
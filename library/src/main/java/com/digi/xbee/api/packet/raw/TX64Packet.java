@@ -49,7 +49,7 @@ public class TX64Packet extends XBeeAPIPacket {
 	
 	private byte[] rfData;
 	
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(TX64Packet.class);
 	
 	/**
 	 * Creates a new {@code TX64Packet} object from the given payload.
@@ -87,7 +87,7 @@ public class TX64Packet extends XBeeAPIPacket {
 		index = index + 1;
 		
 		// 8 bytes of address, starting at 2nd byte.
-		XBee64BitAddress destAddress64 = new XBee64BitAddress(Arrays.copyOfRange(payload, index, index + 8));
+		XBee64BitAddress destAddress64 = XBee64BitAddress.valueOf(payload, index);
 		index = index + 8;
 		
 		// Transmit options byte.
@@ -134,7 +134,6 @@ public class TX64Packet extends XBeeAPIPacket {
 		this.destAddress64 = destAddress64;
 		this.transmitOptions = transmitOptions;
 		this.rfData = rfData;
-		this.logger = LoggerFactory.getLogger(TX64Packet.class);
 	}
 
 	/*
@@ -80,7 +80,7 @@ public class CoAPRxResponsePacket extends XBeeAPIPacket {
 
 	private byte[] data;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(CoAPRxResponsePacket.class);
 
 	/**
 	 * Creates a new {@code CoAPRxResponsePacket} object from the given payload.
@@ -209,7 +209,6 @@ public class CoAPRxResponsePacket extends XBeeAPIPacket {
 		this.protocol = protocol;
 		this.restFulStatus = restFulStatus;
 		this.data = rfData;
-		this.logger = LoggerFactory.getLogger(CoAPRxResponsePacket.class);
 	}
 
 	/*
@@ -89,7 +89,7 @@ public class CoAPTxRequestPacket extends XBeeAPIPacket {
 
 	private byte[] payload;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(CoAPTxRequestPacket.class);
 
 	/**
 	 * Creates a new {@code CoAPTxRequestPacket} object from the given payload.
@@ -201,7 +201,6 @@ public class CoAPTxRequestPacket extends XBeeAPIPacket {
 		this.destAddress = destAddress;
 		this.uri = uri;
 		this.payload = payload;
-		this.logger = LoggerFactory.getLogger(CoAPTxRequestPacket.class);
 	}
 
 	/*
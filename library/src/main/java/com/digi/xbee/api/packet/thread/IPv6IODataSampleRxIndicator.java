@@ -110,7 +110,7 @@ public class IPv6IODataSampleRxIndicator extends XBeeAPIPacket {
 
 	private byte[] rfData;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(IPv6IODataSampleRxIndicator.class);
 
 	/**
 	 * Creates a new {@code IPv6IODataSampleRxIndicator} object from the 
@@ -181,7 +181,6 @@ public class IPv6IODataSampleRxIndicator extends XBeeAPIPacket {
 			ioSample = new IOSample(rfData);
 		else
 			ioSample = null;
-		this.logger = LoggerFactory.getLogger(IPv6IODataSampleRxIndicator.class);
 	}
 
 	/*
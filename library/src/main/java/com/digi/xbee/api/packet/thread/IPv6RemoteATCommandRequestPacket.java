@@ -76,7 +76,7 @@ public class IPv6RemoteATCommandRequestPacket extends XBeeAPIPacket {
 
 	private byte[] parameter;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(IPv6RemoteATCommandRequestPacket.class);
 
 	/**
 	 * Creates a new {@code IPv6RemoteATCommandRequestPacket} object from the given 
@@ -174,7 +174,6 @@ public class IPv6RemoteATCommandRequestPacket extends XBeeAPIPacket {
 		this.command = command;
 		if (parameter != null)
 			this.parameter = parameter.getBytes();
-		this.logger = LoggerFactory.getLogger(IPv6RemoteATCommandRequestPacket.class);
 	}
 
 	/**
@@ -215,7 +214,6 @@ public class IPv6RemoteATCommandRequestPacket extends XBeeAPIPacket {
 		this.transmitOptions = transmitOptions;
 		this.command = command;
 		this.parameter = parameter;
-		this.logger = LoggerFactory.getLogger(IPv6RemoteATCommandRequestPacket.class);
 	}
 
 	/*
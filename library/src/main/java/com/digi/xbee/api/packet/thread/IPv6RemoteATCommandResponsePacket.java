@@ -77,7 +77,7 @@ public class IPv6RemoteATCommandResponsePacket extends XBeeAPIPacket {
 
 	private byte[] commandValue;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(IPv6RemoteATCommandResponsePacket.class);
 
 	/**
 	 * Creates a new {@code IPv6RemoteATCommandResponsePacket} object from the given 
@@ -176,7 +176,6 @@ public class IPv6RemoteATCommandResponsePacket extends XBeeAPIPacket {
 		this.status = status;
 		if (commandValue != null)
 			this.commandValue = commandValue.getBytes();
-		this.logger = LoggerFactory.getLogger(IPv6RemoteATCommandResponsePacket.class);
 	}
 
 	/**
@@ -216,7 +215,6 @@ public class IPv6RemoteATCommandResponsePacket extends XBeeAPIPacket {
 		this.command = command;
 		this.status = status;
 		this.commandValue = commandValue;
-		this.logger = LoggerFactory.getLogger(IPv6RemoteATCommandResponsePacket.class);
 	}
 
 	/*
@@ -68,7 +68,7 @@ public class RXIPv6Packet extends XBeeAPIPacket {
 
 	private byte[] data;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RXIPv6Packet.class);
 
 	/**
 	 * Creates a new {@code RXIPv6Packet} object from the given payload.
@@ -180,7 +180,6 @@ public class RXIPv6Packet extends XBeeAPIPacket {
 		this.sourcePort = sourcePort;
 		this.protocol = protocol;
 		this.data = data;
-		this.logger = LoggerFactory.getLogger(RXIPv6Packet.class);
 	}
 
 	/*
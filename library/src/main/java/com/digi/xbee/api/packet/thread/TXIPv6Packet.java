@@ -66,7 +66,7 @@ public class TXIPv6Packet extends XBeeAPIPacket {
 
 	private byte[] data;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(TXIPv6Packet.class);
 
 	/**
 	 * Creates a new {@code TXIPv6Packet} object from the given payload.
@@ -174,7 +174,6 @@ public class TXIPv6Packet extends XBeeAPIPacket {
 		this.sourcePort = sourcePort;
 		this.protocol = protocol;
 		this.data = data;
-		this.logger = LoggerFactory.getLogger(TXIPv6Packet.class);
 	}
 
 	/*
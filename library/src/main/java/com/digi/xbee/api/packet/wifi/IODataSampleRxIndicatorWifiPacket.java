@@ -69,7 +69,7 @@ public class IODataSampleRxIndicatorWifiPacket extends XBeeAPIPacket {
 
 	private byte[] rfData;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(IODataSampleRxIndicatorWifiPacket.class);
 
 	/**
 	 * Creates a new {@code IODataSampleRxIndicatorWifiPacket} object from the
@@ -162,7 +162,6 @@ public class IODataSampleRxIndicatorWifiPacket extends XBeeAPIPacket {
 			ioSample = new IOSample(rfData);
 		else
 			ioSample = null;
-		this.logger = LoggerFactory.getLogger(IODataSampleRxIndicatorWifiPacket.class);
 	}
 
 	/*
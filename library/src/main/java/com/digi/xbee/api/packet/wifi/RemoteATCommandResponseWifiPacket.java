@@ -76,7 +76,7 @@ public class RemoteATCommandResponseWifiPacket extends XBeeAPIPacket {
 
 	private byte[] commandValue;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RemoteATCommandResponseWifiPacket.class);
 
 	/**
 	 * Creates an new {@code RemoteATCommandResponseWifiPacket} object from the
@@ -176,7 +176,6 @@ public class RemoteATCommandResponseWifiPacket extends XBeeAPIPacket {
 		this.command = command;
 		this.status = status;
 		this.commandValue = commandValue;
-		this.logger = LoggerFactory.getLogger(RemoteATCommandResponseWifiPacket.class);
 	}
 
 	/*
@@ -73,7 +73,7 @@ public class RemoteATCommandWifiPacket extends XBeeAPIPacket {
 
 	private byte[] parameter;
 
-	private Logger logger;
+	private static final Logger logger = LoggerFactory.getLogger(RemoteATCommandWifiPacket.class);
 
 	/**
 	 * Creates a new {@code RemoteATCommandWifiPacket} object from the given
@@ -171,7 +171,6 @@ public class RemoteATCommandWifiPacket extends XBeeAPIPacket {
 		this.transmitOptions = transmitOptions;
 		this.command = command;
 		this.parameter = parameter;
-		this.logger = LoggerFactory.getLogger(RemoteATCommandWifiPacket.class);
 	}
 
 	/**
@@ -0,0 +1,58 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import java.net.Inet6Address;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+/**
+ * Utility class containing methods to work with remote XBee devices.
+ */
+public class DeviceUtils {
+	
+	/**
+	 * Returns the object that identifies the given remote XBee device.
+	 * 
+	 * <p>The same key is returned for every instance of a remote device, so
+	 * it can be used to index the state kept for the device.</p>
+	 * 
+	 * @param remoteDevice The remote XBee device.
+	 * 
+	 * @return The 64-bit address of the remote device, its 16-bit address if
+	 *         the 64-bit one is unknown, its IPv6 address if both are 
+	 *         unknown, or the device itself if it has no known address.
+	 * 
+	 * @throws NullPointerException if {@code remoteDevice == null}.
+	 */
+	public static Object getAddressKey(RemoteXBeeDevice remoteDevice) {
+		if (remoteDevice == null)
+			throw new NullPointerException("Remote XBee device cannot be null.");
+		
+		XBee64BitAddress address64 = remoteDevice.get64BitAddress();
+		if (address64 != null && !address64.equals(XBee64BitAddress.UNKNOWN_ADDRESS))
+			return address64;
+		XBee16BitAddress address16 = remoteDevice.get16BitAddress();
+		if (address16 != null && !address16.equals(XBee16BitAddress.UNKNOWN_ADDRESS))
+			return address16;
+		Inet6Address ipv6Address = remoteDevice.getIPv6Address();
+		if (ipv6Address != null)
+			return ipv6Address;
+		return remoteDevice;
+	}
+}
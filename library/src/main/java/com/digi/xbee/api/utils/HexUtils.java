@@ -20,7 +20,7 @@ package com.digi.xbee.api.utils;
  * data type conversions.
  */
 public class HexUtils {
-
+	
 	// Constants.
 	private static final String HEXES = "0123456789ABCDEF";
 	private static final String HEX_HEADER = "0x";
@@ -94,6 +94,27 @@ public class HexUtils {
 		return data;
 	}
 	
+	/**
+	 * Returns the value of the given hexadecimal digit.
+	 * 
+	 * <p>Unlike {@link Character#digit(char, int)}, only the ASCII digits
+	 * {@code 0-9}, {@code a-f} and {@code A-F} are accepted.</p>
+	 * 
+	 * @param c The hexadecimal digit.
+	 * 
+	 * @return The value of the digit, {@code -1} if it is not an hexadecimal
+	 *         digit.
+	 */
+	public static int hexCharToInt(char c) {
+		if (c >= '0' && c <= '9')
+			return c - '0';
+		if (c >= 'a' && c <= 'f')
+			return c - 'a' + 10;
+		if (c >= 'A' && c <= 'F')
+			return c - 'A' + 10;
+		return -1;
+	}
+	
 	/**
 	 * Checks whether the given parameter is a string or a numeric value.
 	 * 
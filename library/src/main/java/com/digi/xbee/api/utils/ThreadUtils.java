@@ -0,0 +1,222 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class to configure and create the threads used by the library.
+ * 
+ * <p>By default, the library runs its data readers, listener notifications
+ * and background tasks in platform threads. A different thread factory can
+ * be configured for the whole library, for example to run them in virtual
+ * threads when the Java runtime supports them. The configured factory is
+ * used by the threads started after the change.</p>
+ * 
+ * @see #setThreadFactory(ThreadFactory)
+ * @see #enableVirtualThreads()
+ */
+public class ThreadUtils {
+	
+	// Constants.
+	private static final String VIRTUAL_THREAD_PREFIX = "XBee-virtual-";
+	
+	private static final Method IS_VIRTUAL_METHOD = getIsVirtualMethod();
+	
+	// Variables.
+	private static volatile ThreadFactory threadFactory;
+	
+	/**
+	 * Sets the thread factory used to create the threads of the library.
+	 * 
+	 * @param factory The thread factory, {@code null} to use platform
+	 *                threads.
+	 * 
+	 * @see #getThreadFactory()
+	 * @see #enableVirtualThreads()
+	 */
+	public static void setThreadFactory(ThreadFactory factory) {
+		threadFactory = factory;
+	}
+	
+	/**
+	 * Returns the thread factory used to create the threads of the library.
+	 * 
+	 * @return The thread factory, {@code null} if platform threads are used.
+	 * 
+	 * @see #setThreadFactory(ThreadFactory)
+	 */
+	public static ThreadFactory getThreadFactory() {
+		return threadFactory;
+	}
+	
+	/**
+	 * Configures the library to run its threads in virtual threads.
+	 * 
+	 * <p>Blocking calls such as sending data and waiting for the response
+	 * then cost almost nothing, so thousands of them can run at the same
+	 * time.</p>
+	 * 
+	 * @throws UnsupportedOperationException if the Java runtime does not
+	 *                                       support virtual threads.
+	 * 
+	 * @see #isVirtualThreadsSupported()
+	 * @see #setThreadFactory(ThreadFactory)
+	 */
+	public static void enableVirtualThreads() {
+		ThreadFactory factory = createVirtualThreadFactory();
+		if (factory == null)
+			throw new UnsupportedOperationException("Virtual threads are not supported by this Java runtime.");
+		threadFactory = factory;
+	}
+	
+	/**
+	 * Returns whether the Java runtime supports virtual threads.
+	 * 
+	 * @return {@code true} if virtual threads are supported, {@code false}
+	 *         otherwise.
+	 * 
+	 * @see #enableVirtualThreads()
+	 */
+	public static boolean isVirtualThreadsSupported() {
+		return createVirtualThreadFactory() != null;
+	}
+	
+	/**
+	 * Creates a new thread using the configured thread factory.
+	 * 
+	 * @param task The task to run.
+	 * @param name The name of the thread.
+	 * 
+	 * @return The new thread, not started.
+	 * 
+	 * @throws NullPointerException if {@code task == null} or
+	 *                              if {@code name == null}.
+	 * 
+	 * @see #newThreadFactory(String, boolean)
+	 */
+	public static Thread newThread(Runnable task, String name) {
+		if (task == null)
+			throw new NullPointerException("Task cannot be null.");
+		if (name == null)
+			throw new NullPointerException("Name cannot be null.");
+		
+		ThreadFactory factory = threadFactory;
+		if (factory == null)
+			return new Thread(task, name);
+		
+		Thread thread = factory.newThread(task);
+		thread.setName(name);
+		return thread;
+	}
+	
+	/**
+	 * Creates a thread factory whose threads are created using the configured
+	 * thread factory.
+	 * 
+	 * <p>The threads are named with the given prefix followed by a number
+	 * that starts at {@code 0}. The thread factory of the library is read
+	 * every time a thread is created, so thread pools created with the
+	 * returned factory follow its changes.</p>
+	 * 
+	 * <p>Virtual threads are always daemon threads, so the daemon status is 
+	 * only applied to platform threads.</p>
+	 * 
+	 * @param namePrefix The prefix of the name of the threads.
+	 * @param daemon {@code true} to create daemon threads, {@code false}
+	 *               otherwise.
+	 * 
+	 * @return The thread factory.
+	 * 
+	 * @throws NullPointerException if {@code namePrefix == null}.
+	 * 
+	 * @see #newThread(Runnable, String)
+	 */
+	public static ThreadFactory newThreadFactory(final String namePrefix, final boolean daemon) {
+		if (namePrefix == null)
+			throw new NullPointerException("Name prefix cannot be null.");
+		
+		final AtomicInteger threadNumber = new AtomicInteger();
+		return new ThreadFactory() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+			 */
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = ThreadUtils.newThread(task, namePrefix + threadNumber.getAndIncrement());
+				if (thread.isDaemon() != daemon && !isVirtual(thread))
+					thread.setDaemon(daemon);
+				return thread;
+			}
+		};
+	}
+	
+	/**
+	 * Returns whether the given thread is a virtual thread.
+	 * 
+	 * @param thread The thread.
+	 * 
+	 * @return {@code true} if the thread is a virtual thread, {@code false} 
+	 *         otherwise.
+	 */
+	private static boolean isVirtual(Thread thread) {
+		if (IS_VIRTUAL_METHOD == null)
+			return false;
+		try {
+			return (Boolean)IS_VIRTUAL_METHOD.invoke(thread);
+		} catch (Exception e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Returns the method that tells whether a thread is virtual using 
+	 * reflection, so the library can still be built and run with older Java 
+	 * versions.
+	 * 
+	 * @return The method, {@code null} if the Java runtime does not have 
+	 *         virtual threads.
+	 */
+	private static Method getIsVirtualMethod() {
+		try {
+			return Thread.class.getMethod("isVirtual");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Creates a factory of virtual threads using reflection, so the library
+	 * can still be built and run with older Java versions.
+	 * 
+	 * @return The virtual thread factory, {@code null} if the Java runtime
+	 *         does not support virtual threads.
+	 */
+	private static ThreadFactory createVirtualThreadFactory() {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, VIRTUAL_THREAD_PREFIX, 0L);
+			return (ThreadFactory)builderClass.getMethod("factory").invoke(builder);
+		} catch (Exception e) {
+			// Virtual threads are not available or are a disabled preview feature.
+			return null;
+		}
+	}
+}
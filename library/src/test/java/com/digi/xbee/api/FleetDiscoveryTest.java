@@ -0,0 +1,219 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+@RunWith(PowerMockRunner.class)
+public class FleetDiscoveryTest {
+	
+	// Constants.
+	private static final int NUMBER_OF_DEVICES = 4;
+	private static final long DISCOVERY_TIME = 500;
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Variables.
+	private List<XBeeDevice> localDevices;
+	private List<XBeeNetwork> networks;
+	private List<List<RemoteXBeeDevice>> found;
+	
+	@Before
+	public void setUp() throws Exception {
+		localDevices = new ArrayList<XBeeDevice>();
+		networks = new ArrayList<XBeeNetwork>();
+		found = new ArrayList<List<RemoteXBeeDevice>>();
+		
+		for (int i = 0; i < NUMBER_OF_DEVICES; i++) {
+			XBeeDevice device = PowerMockito.mock(XBeeDevice.class);
+			XBeeNetwork network = PowerMockito.mock(XBeeNetwork.class);
+			final List<RemoteXBeeDevice> remotes = new ArrayList<RemoteXBeeDevice>();
+			remotes.add(Mockito.mock(RemoteXBeeDevice.class));
+			
+			Mockito.when(device.isOpen()).thenReturn(true);
+			Mockito.when(device.getNetwork()).thenReturn(network);
+			Mockito.when(network.discoverDevices(Mockito.anyListOf(String.class))).thenAnswer(
+				new Answer<List<RemoteXBeeDevice>>() {
+					@Override
+					public List<RemoteXBeeDevice> answer(InvocationOnMock invocation) throws Throwable {
+						Thread.sleep(DISCOVERY_TIME);
+						return remotes;
+					}
+			});
+			
+			localDevices.add(device);
+			networks.add(network);
+			found.add(remotes);
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.FleetDiscovery#FleetDiscovery(List)}.
+	 * 
+	 * <p>A {@code NullPointerException} exception must be thrown when passing
+	 * a {@code null} list.</p>
+	 */
+	@Test
+	public void testCreateNullList() {
+		// Setup the resources for the test.
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("List of local XBee devices cannot be null.")));
+		
+		// Call the method under test.
+		new FleetDiscovery(null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.FleetDiscovery#FleetDiscovery(List)}.
+	 * 
+	 * <p>An {@code IllegalArgumentException} exception must be thrown when
+	 * passing an empty list.</p>
+	 */
+	@Test
+	public void testCreateEmptyList() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("List of local XBee devices cannot be empty.")));
+		
+		// Call the method under test.
+		new FleetDiscovery(new ArrayList<XBeeDevice>());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.FleetDiscovery#discoverDevices(List)}.
+	 * 
+	 * <p>An {@code InterfaceNotOpenException} exception must be thrown when
+	 * any of the local devices is not open.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testDiscoverDevicesNotOpen() throws Exception {
+		// Setup the resources for the test.
+		Mockito.when(localDevices.get(2).isOpen()).thenReturn(false);
+		List<String> ids = new ArrayList<String>();
+		ids.add("id");
+		
+		exception.expect(InterfaceNotOpenException.class);
+		
+		// Call the method under test.
+		new FleetDiscovery(localDevices).discoverDevices(ids);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.FleetDiscovery#discoverDevices(List)}.
+	 * 
+	 * <p>Verify that all the local devices discover in parallel and the result
+	 * of each one is reported.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testDiscoverDevicesParallel() throws Exception {
+		// Setup the resources for the test.
+		List<String> ids = new ArrayList<String>();
+		ids.add("id");
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		Map<XBeeDevice, List<RemoteXBeeDevice>> result = new FleetDiscovery(localDevices).discoverDevices(ids);
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertThat(result.size(), is(equalTo(NUMBER_OF_DEVICES)));
+		for (int i = 0; i < NUMBER_OF_DEVICES; i++) {
+			assertThat(result.get(localDevices.get(i)), is(equalTo(found.get(i))));
+			Mockito.verify(networks.get(i), Mockito.times(1)).discoverDevices(ids);
+		}
+		assertThat(elapsed < DISCOVERY_TIME * (NUMBER_OF_DEVICES - 1), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.FleetDiscovery#discoverDevices(List)}.
+	 * 
+	 * <p>Verify that a remote device found by several local devices is only 
+	 * reported under the first local device that found it.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testDiscoverDevicesDuplicated() throws Exception {
+		// Setup the resources for the test.
+		List<String> ids = new ArrayList<String>();
+		ids.add("id");
+		XBee64BitAddress address = new XBee64BitAddress("0013A20040A6A0DB");
+		Mockito.when(found.get(1).get(0).get64BitAddress()).thenReturn(address);
+		Mockito.when(found.get(3).get(0).get64BitAddress()).thenReturn(address);
+		
+		// Call the method under test.
+		Map<XBeeDevice, List<RemoteXBeeDevice>> result = new FleetDiscovery(localDevices).discoverDevices(ids);
+		
+		// Verify the result.
+		assertThat(result.size(), is(equalTo(NUMBER_OF_DEVICES)));
+		assertThat(result.get(localDevices.get(0)), is(equalTo(found.get(0))));
+		assertThat(result.get(localDevices.get(1)), is(equalTo(found.get(1))));
+		assertThat(result.get(localDevices.get(2)), is(equalTo(found.get(2))));
+		assertThat(result.get(localDevices.get(3)).isEmpty(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.FleetDiscovery#discoverDevices(List)}.
+	 * 
+	 * <p>Verify that an error in one local device is thrown after the rest of
+	 * discoveries have finished.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testDiscoverDevicesError() throws Exception {
+		// Setup the resources for the test.
+		List<String> ids = new ArrayList<String>();
+		ids.add("id");
+		Mockito.when(networks.get(1).discoverDevices(ids)).thenThrow(new XBeeException("Error"));
+		
+		exception.expect(XBeeException.class);
+		exception.expectMessage(is(equalTo("Error")));
+		
+		// Call the method under test.
+		try {
+			new FleetDiscovery(localDevices).discoverDevices(ids);
+		} finally {
+			Mockito.verify(networks.get(NUMBER_OF_DEVICES - 1), Mockito.times(1)).discoverDevices(ids);
+		}
+	}
+}
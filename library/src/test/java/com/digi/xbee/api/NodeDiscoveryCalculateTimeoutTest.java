@@ -23,6 +23,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -226,5 +228,88 @@ public class NodeDiscoveryCalculateTimeoutTest {
 		long result = Whitebox.<Long> invokeMethod(nd, CALCULATE_TIMEOUT_METHOD, (List<IDiscoveryListenerTest>) null);
 		assertEquals(timeout, result);
 	}
+	
+	/**
+	 * Check that the timeout parameters are read only once and read again 
+	 * after clearing the cache.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testCalculateTimeoutCached() throws Exception {
+		// Setup the resources for the test.
+		long timeout = 7000;
+		byte[] deviceTimeout = ByteUtils.longToByteArray(timeout / 100);
+		
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		PowerMockito.doThrow(new XBeeException()).when(deviceMock).getParameter("N?");
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(deviceTimeout);
+		
+		// Call the method under test.
+		long result1 = Whitebox.<Long> invokeMethod(nd, CALCULATE_TIMEOUT_METHOD, (List<IDiscoveryListenerTest>) null);
+		long result2 = Whitebox.<Long> invokeMethod(nd, CALCULATE_TIMEOUT_METHOD, (List<IDiscoveryListenerTest>) null);
+		
+		// Verify the result.
+		assertEquals(timeout, result1);
+		assertEquals(timeout, result2);
+		Mockito.verify(deviceMock, Mockito.times(1)).getParameter("NT");
+		
+		// Call the method under test.
+		nd.clearTimeoutCache();
+		Whitebox.<Long> invokeMethod(nd, CALCULATE_TIMEOUT_METHOD, (List<IDiscoveryListenerTest>) null);
+		
+		// Verify the result.
+		Mockito.verify(deviceMock, Mockito.times(2)).getParameter("NT");
+	}
+	
+	/**
+	 * Check that the timeout is not cached when the parameters cannot be 
+	 * read.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testCalculateTimeoutNotCachedOnError() throws Exception {
+		// Setup the resources for the test.
+		PowerMockito.doThrow(new XBeeException()).when(deviceMock).getParameter("N?");
+		PowerMockito.doThrow(new XBeeException()).when(deviceMock).getParameter("NT");
+		
+		// Call the method under test.
+		Whitebox.<Long> invokeMethod(nd, CALCULATE_TIMEOUT_METHOD, (List<IDiscoveryListenerTest>) null);
+		Whitebox.<Long> invokeMethod(nd, CALCULATE_TIMEOUT_METHOD, (List<IDiscoveryListenerTest>) null);
+		
+		// Verify the result.
+		Mockito.verify(deviceMock, Mockito.times(2)).getParameter("NT");
+	}
+	
+	/**
+	 * Check that a timeout read while the cache is being cleared is not 
+	 * cached, so the parameters are read again in the next discovery.
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testCalculateTimeoutClearedWhileReading() throws Exception {
+		// Setup the resources for the test.
+		final byte[] deviceTimeout = ByteUtils.longToByteArray(70);
+		
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		PowerMockito.doThrow(new XBeeException()).when(deviceMock).getParameter("N?");
+		PowerMockito.doAnswer(new Answer<byte[]>() {
+			@Override
+			public byte[] answer(InvocationOnMock invocation) throws Throwable {
+				// The discovery timeout changes while it is being read.
+				nd.clearTimeoutCache();
+				return deviceTimeout;
+			}
+		}).when(deviceMock).getParameter("NT");
+		
+		// Call the method under test.
+		Whitebox.<Long> invokeMethod(nd, CALCULATE_TIMEOUT_METHOD, (List<IDiscoveryListenerTest>) null);
+		Whitebox.<Long> invokeMethod(nd, CALCULATE_TIMEOUT_METHOD, (List<IDiscoveryListenerTest>) null);
+		
+		// Verify the result.
+		Mockito.verify(deviceMock, Mockito.times(2)).getParameter("NT");
+	}
 
 }
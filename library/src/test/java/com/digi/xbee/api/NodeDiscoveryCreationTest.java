@@ -26,6 +26,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -81,4 +82,23 @@ public class NodeDiscoveryCreationTest {
 		// Verify the result.
 		assertThat("Node discovery should not be null", nd, is(not(nullValue())));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#NodeDiscovery(com.digi.xbee.api.XBeeDevice)}.
+	 * 
+	 * <p>Verify that the frame ID used by the discovery is not taken from the 
+	 * local device when the discovery is created, but when each discovery 
+	 * starts.</p>
+	 */
+	@Test
+	public final void testCreateNodeDiscoveryNoFrameID() {
+		// Setup the resources for the test.
+		XBeeDevice device = PowerMockito.mock(XBeeDevice.class);
+		
+		// Call the method under test.
+		new NodeDiscovery(device);
+		
+		// Verify the result.
+		Mockito.verify(device, Mockito.never()).getNextFrameID();
+	}
 }
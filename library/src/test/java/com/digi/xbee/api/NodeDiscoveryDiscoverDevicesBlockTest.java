@@ -83,6 +83,7 @@ public class NodeDiscoveryDiscoverDevicesBlockTest {
 		networkMock = PowerMockito.mock(XBeeNetwork.class);
 		
 		PowerMockito.when(deviceMock.isOpen()).thenReturn(true);
+		PowerMockito.when(deviceMock.getNextFrameID()).thenReturn(1);
 		PowerMockito.when(deviceMock.getConnectionInterface()).thenReturn(cInterfaceMock);
 		PowerMockito.when(cInterfaceMock.toString()).thenReturn("Mocked IConnectionInterface for NodeDiscovery test.");
 		PowerMockito.when(deviceMock.getNetwork()).thenReturn(networkMock);
@@ -632,6 +633,138 @@ public class NodeDiscoveryDiscoverDevicesBlockTest {
 		Mockito.verify(networkMock, Mockito.times(list.size())).addRemoteDevice(Mockito.any(RemoteXBeeDevice.class));
 	}
 	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevices(List, boolean)}.
+	 * 
+	 * <p>Verify that the discovery finishes as soon as all the requested 
+	 * devices are found, without waiting for the discovery timeout.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public void testDiscoverDevicesStopWhenFound() throws Exception {
+		// Setup the resources for the test.
+		String[] nIds = new String[]{"id", "id2"};
+		List<String> list = new ArrayList<String>();
+		list.add(nIds[0]);
+		list.add(nIds[1]);
+		
+		byte[] deviceTimeoutByteArray = new byte[]{0x50}; // 8 seconds.
+		
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(deviceTimeoutByteArray);
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		
+		ATCommandResponsePacket packet = createPacket(1, ATCommandStatus.OK, 
+				new XBee16BitAddress("0000"), new XBee64BitAddress("0013A20040A6A0DB"), 
+				nIds[0], new XBee16BitAddress("FFFE"), (byte)0x00, (byte)0x49, false);
+		ndAnswers.add(packet);
+		packet = createPacket(1, ATCommandStatus.OK, 
+				new XBee16BitAddress("7971"), new XBee64BitAddress("0013A20040AD1585"), 
+				nIds[1], new XBee16BitAddress("0000"), (byte)0x01, (byte)0x67, false);
+		ndAnswers.add(packet);
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		List<RemoteXBeeDevice> remotes = nd.discoverDevices(list, true);
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertThat("The discovered devices list must have a size of " + ndAnswers.size(), remotes.size(), is(equalTo(ndAnswers.size())));
+		assertThat("The discovery should finish before the timeout", elapsed < 4000, is(equalTo(true)));
+		
+		Mockito.verify(deviceMock, Mockito.times(1)).removePacketListener(packetListener);
+		Mockito.verify(networkMock, Mockito.times(list.size())).addRemoteDevice(Mockito.any(RemoteXBeeDevice.class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevice(String)}.
+	 * 
+	 * <p>Verify that the discovery finishes as soon as the requested device 
+	 * answers and that it is added to the network at that moment.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public void testDiscoverDeviceStopWhenFound() throws Exception {
+		// Setup the resources for the test.
+		String id = "id";
+		
+		byte[] deviceTimeoutByteArray = new byte[]{0x50}; // 8 seconds.
+		
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(deviceTimeoutByteArray);
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		
+		ATCommandResponsePacket packet = createPacket(1, ATCommandStatus.OK, 
+				new XBee16BitAddress("0000"), new XBee64BitAddress("0013A20040A6A0DB"), 
+				id, new XBee16BitAddress("FFFE"), (byte)0x00, (byte)0x49, false);
+		ndAnswers.add(packet);
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		RemoteXBeeDevice remote = nd.discoverDevice(id);
+		long elapsed = System.currentTimeMillis() - start;
+		
+		// Verify the result.
+		assertThat("The discovered device should not be null", remote, is(not(equalTo(null))));
+		assertThat("The discovery should finish before the timeout", elapsed < 4000, is(equalTo(true)));
+		
+		Mockito.verify(networkMock, Mockito.times(1)).addRemoteDevice(Mockito.any(RemoteXBeeDevice.class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevice(String)}.
+	 * 
+	 * <p>Verify that every discovery takes a new frame ID from the local 
+	 * device, so the responses with the frame ID of a previous discovery 
+	 * are ignored.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public void testDiscoverDeviceNewFrameIDPerDiscovery() throws Exception {
+		// Setup the resources for the test.
+		String id = "id";
+		
+		byte[] deviceTimeoutByteArray = new byte[]{0x0A}; // 1 second.
+		
+		PowerMockito.when(deviceMock.getNextFrameID()).thenReturn(1, 2);
+		PowerMockito.when(deviceMock.getParameter("NT")).thenReturn(deviceTimeoutByteArray);
+		PowerMockito.when(deviceMock.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		
+		ATCommandResponsePacket packet = createPacket(1, ATCommandStatus.OK, 
+				new XBee16BitAddress("0000"), new XBee64BitAddress("0013A20040A6A0DB"), 
+				id, new XBee16BitAddress("FFFE"), (byte)0x00, (byte)0x49, false);
+		ndAnswers.add(packet);
+		
+		// Call the method under test.
+		RemoteXBeeDevice first = nd.discoverDevice(id);
+		RemoteXBeeDevice second = nd.discoverDevice(id);
+		
+		// Verify the result.
+		assertThat("The first discovered device should not be null", first, is(not(equalTo(null))));
+		assertThat("The second discovered device should be null", second, is(equalTo(null)));
+		
+		Mockito.verify(deviceMock, Mockito.times(2)).getNextFrameID();
+		Mockito.verify(networkMock, Mockito.times(1)).addRemoteDevice(Mockito.any(RemoteXBeeDevice.class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.NodeDiscovery#discoverDevice(String)}.
+	 * 
+	 * <p>An {@code IllegalStateException} exception must be thrown when a 
+	 * discovery is already running in the same local device.</p>
+	 * 
+	 * @throws XBeeException 
+	 */
+	@Test(expected=IllegalStateException.class)
+	public final void testDiscoverDeviceAlreadyRunning() throws XBeeException {
+		// Setup the resources for the test.
+		Whitebox.setInternalState(nd, "running", true);
+		
+		// Call the method under test.
+		nd.discoverDevice("id");
+	}
+	
 	/**
 	 * Helper method to create ND responses.
 	 * 
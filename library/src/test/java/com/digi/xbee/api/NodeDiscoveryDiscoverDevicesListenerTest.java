@@ -100,6 +100,7 @@ public class NodeDiscoveryDiscoverDevicesListenerTest {
 		networkMock = PowerMockito.mock(XBeeNetwork.class);
 		
 		PowerMockito.when(deviceMock.isOpen()).thenReturn(true);
+		PowerMockito.when(deviceMock.getNextFrameID()).thenReturn(1);
 		PowerMockito.when(deviceMock.getConnectionInterface()).thenReturn(cInterfaceMock);
 		PowerMockito.when(cInterfaceMock.toString()).thenReturn("Mocked IConnectionInterface for NodeDiscovery test.");
 		PowerMockito.when(deviceMock.getNetwork()).thenReturn(networkMock);
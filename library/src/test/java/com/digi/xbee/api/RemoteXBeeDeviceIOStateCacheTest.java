@@ -0,0 +1,194 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.digi.xbee.api.connection.serial.SerialPortRxTx;
+import com.digi.xbee.api.io.IOLine;
+import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.io.IOStateCache;
+import com.digi.xbee.api.io.IOValue;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeProtocol;
+
+@RunWith(PowerMockRunner.class)
+public class RemoteXBeeDeviceIOStateCacheTest {
+	
+	// Constants.
+	private static final String PARAMETER_IS = "IS";
+	
+	// DIO0 and DIO9 HIGH, DIO4 LOW, AD1 value 0x020C and AD3 value 0x00FA.
+	private static final byte[] IO_DATA = new byte[]{0x01, 0x02, 0x11, 0x0A, 0x02, 0x01, 0x02, 0x0C, 0x00, (byte)0xFA};
+	
+	// DIO0, DIO4 and DIO9 LOW, AD1 value 0x0100 and AD3 value 0x0000.
+	private static final byte[] IO_DATA_RADIO = new byte[]{0x01, 0x02, 0x11, 0x0A, 0x00, 0x00, 0x01, 0x00, 0x00, 0x00};
+	
+	// Variables.
+	private XBeeDevice localXBeeDevice;
+	
+	private RemoteXBeeDevice remoteXBeeDevice;
+	
+	private IOStateCache cache;
+	
+	@Before
+	public void setup() throws Exception {
+		SerialPortRxTx mockPort = Mockito.mock(SerialPortRxTx.class);
+		Mockito.when(mockPort.isOpen()).thenReturn(true);
+		
+		cache = new IOStateCache();
+		
+		// Mock the local XBee device necessary to instantiate a remote one.
+		localXBeeDevice = Mockito.mock(XBeeDevice.class);
+		Mockito.when(localXBeeDevice.getConnectionInterface()).thenReturn(mockPort);
+		Mockito.when(localXBeeDevice.getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		Mockito.when(localXBeeDevice.getIOStateCache()).thenReturn(cache);
+		
+		remoteXBeeDevice = PowerMockito.spy(new RemoteXBeeDevice(localXBeeDevice, new XBee64BitAddress("0013A20040A9E77E")));
+		Mockito.doReturn(IO_DATA_RADIO).when(remoteXBeeDevice).getParameter(PARAMETER_IS);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.RemoteXBeeDevice#readIOSample(long)}.
+	 * 
+	 * <p>Verify that a cached IO sample newer than the maximum age is returned
+	 * without communicating with the remote device.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testReadIOSampleFromCache() throws Exception {
+		// Setup the resources for the test.
+		IOSample ioSample = new IOSample(IO_DATA);
+		cache.update(remoteXBeeDevice, ioSample, System.currentTimeMillis());
+		
+		// Call the method under test.
+		IOSample readSample = remoteXBeeDevice.readIOSample(60000);
+		
+		// Verify the result.
+		assertSame(ioSample, readSample);
+		Mockito.verify(remoteXBeeDevice, Mockito.never()).getParameter(PARAMETER_IS);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.RemoteXBeeDevice#readIOSample(long)}.
+	 * 
+	 * <p>Verify that the IO sample is read from the remote device when the
+	 * cached one is older than the maximum age, and the cache is updated with
+	 * the response.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testReadIOSampleStaleCache() throws Exception {
+		// Setup the resources for the test.
+		IOSample ioSample = new IOSample(IO_DATA);
+		cache.update(remoteXBeeDevice, ioSample, System.currentTimeMillis() - 120000);
+		
+		// Call the method under test.
+		IOSample readSample = remoteXBeeDevice.readIOSample(60000);
+		
+		// Verify the result.
+		assertNotSame(ioSample, readSample);
+		assertThat(readSample.getDigitalValue(IOLine.DIO0_AD0), is(equalTo(IOValue.LOW)));
+		Mockito.verify(remoteXBeeDevice, Mockito.times(1)).getParameter(PARAMETER_IS);
+		assertSame(readSample, cache.getIOSample(remoteXBeeDevice, 60000));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.RemoteXBeeDevice#readIOSample(long)}.
+	 * 
+	 * <p>Verify that the IO sample is read from the remote device when the
+	 * local device does not have an IO state cache.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testReadIOSampleNoCache() throws Exception {
+		// Setup the resources for the test.
+		Mockito.when(localXBeeDevice.getIOStateCache()).thenReturn(null);
+		
+		// Call the method under test.
+		IOSample readSample = remoteXBeeDevice.readIOSample(60000);
+		
+		// Verify the result.
+		assertThat(readSample.getAnalog(IOLine.DIO1_AD1), is(equalTo(0x0100)));
+		Mockito.verify(remoteXBeeDevice, Mockito.times(1)).getParameter(PARAMETER_IS);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.RemoteXBeeDevice#readIOSample(long)}.
+	 * 
+	 * <p>Verify that the maximum age cannot be negative.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testReadIOSampleNegativeMaxAge() throws Exception {
+		remoteXBeeDevice.readIOSample(-1);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.RemoteXBeeDevice#getDIOValue(IOLine, long)}.
+	 * 
+	 * <p>Verify that the digital value is taken from the cached IO sample.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testGetDIOValueFromCache() throws Exception {
+		// Setup the resources for the test.
+		cache.update(remoteXBeeDevice, new IOSample(IO_DATA), System.currentTimeMillis());
+		
+		// Call the method under test.
+		IOValue value = remoteXBeeDevice.getDIOValue(IOLine.DIO9, 60000);
+		
+		// Verify the result.
+		assertThat(value, is(equalTo(IOValue.HIGH)));
+		Mockito.verify(remoteXBeeDevice, Mockito.never()).getParameter(PARAMETER_IS);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.RemoteXBeeDevice#getADCValue(IOLine, long)}.
+	 * 
+	 * <p>Verify that the analog value is taken from the cached IO sample.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testGetADCValueFromCache() throws Exception {
+		// Setup the resources for the test.
+		cache.update(remoteXBeeDevice, new IOSample(IO_DATA), System.currentTimeMillis());
+		
+		// Call the method under test.
+		int value = remoteXBeeDevice.getADCValue(IOLine.DIO3_AD3, 60000);
+		
+		// Verify the result.
+		assertThat(value, is(equalTo(0x00FA)));
+		Mockito.verify(remoteXBeeDevice, Mockito.never()).getParameter(PARAMETER_IS);
+	}
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.digi.xbee.api.connection.serial.SerialPortRxTx;
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.InvalidOperatingModeException;
+import com.digi.xbee.api.exceptions.OperationNotSupportedException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeProtocol;
+import com.digi.xbee.api.models.XBeeTransmitOptions;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.TransmitFrameEncoder;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({XBeeDevice.class})
+public class SendDataAsyncEncoderTest {
+	
+	// Constants.
+	private static final XBee64BitAddress XBEE_64BIT_ADDRESS = new XBee64BitAddress("0123456789ABCDEF");
+	private static final XBee16BitAddress XBEE_16BIT_ADDRESS = new XBee16BitAddress("0A2F");
+	
+	private static final String DATA = "data";
+	
+	// Variables.
+	private XBeeDevice xbeeDevice;
+	
+	private SerialPortRxTx mockPort;
+	
+	private TransmitFrameEncoder encoder;
+	
+	@Before
+	public void setup() throws Exception {
+		// Instantiate an XBeeDevice object with a mocked interface.
+		mockPort = Mockito.mock(SerialPortRxTx.class);
+		Mockito.when(mockPort.isOpen()).thenReturn(true);
+		xbeeDevice = PowerMockito.spy(new XBeeDevice(mockPort));
+		Mockito.doReturn(OperatingMode.API).when(xbeeDevice).getOperatingMode();
+		Mockito.doReturn(1).when(xbeeDevice).getNextFrameID();
+		
+		encoder = new TransmitFrameEncoder(XBEE_64BIT_ADDRESS, XBee16BitAddress.UNKNOWN_ADDRESS, 0, XBeeTransmitOptions.NONE);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataAsync(TransmitFrameEncoder, byte[])}.
+	 * 
+	 * <p>Verify that async. data cannot be sent if the encoder is {@code null}.</p>
+	 * 
+	 * @throws XBeeException 
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testSendDataAsyncEncoderNull() throws XBeeException {
+		xbeeDevice.sendDataAsync((TransmitFrameEncoder)null, DATA.getBytes());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataAsync(TransmitFrameEncoder, byte[])}.
+	 * 
+	 * <p>Verify that async. data cannot be sent if the data is {@code null}.</p>
+	 * 
+	 * @throws XBeeException 
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testSendDataAsyncDataNull() throws XBeeException {
+		xbeeDevice.sendDataAsync(encoder, null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataAsync(TransmitFrameEncoder, byte[])}.
+	 * 
+	 * <p>Verify that async. data cannot be sent if the sender is a remote XBee device.</p>
+	 * 
+	 * @throws XBeeException 
+	 */
+	@Test(expected=OperationNotSupportedException.class)
+	public void testSendDataAsyncFromRemoteDevices() throws XBeeException {
+		// Return that the XBee device is remote when asked.
+		Mockito.when(xbeeDevice.isRemote()).thenReturn(true);
+		
+		xbeeDevice.sendDataAsync(encoder, DATA.getBytes());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataAsync(TransmitFrameEncoder, byte[])}.
+	 * 
+	 * <p>Verify that async. data cannot be sent if the device is not open.</p>
+	 * 
+	 * @throws XBeeException 
+	 */
+	@Test(expected=InterfaceNotOpenException.class)
+	public void testSendDataAsyncConnectionClosed() throws XBeeException {
+		Mockito.when(mockPort.isOpen()).thenReturn(false);
+		
+		xbeeDevice.sendDataAsync(encoder, DATA.getBytes());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataAsync(TransmitFrameEncoder, byte[])}.
+	 * 
+	 * <p>Verify that async. data cannot be sent if the device has an invalid operating mode.</p>
+	 * 
+	 * @throws XBeeException 
+	 */
+	@Test(expected=InvalidOperatingModeException.class)
+	public void testSendDataAsyncInvalidOperatingMode() throws XBeeException {
+		Mockito.doReturn(OperatingMode.AT).when(xbeeDevice).getOperatingMode();
+		
+		xbeeDevice.sendDataAsync(encoder, DATA.getBytes());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataAsync(TransmitFrameEncoder, byte[])}.
+	 * 
+	 * <p>Verify that async. data cannot be sent if there is an IO error writing the frame.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test(expected=XBeeException.class)
+	public void testSendDataAsyncIOException() throws Exception {
+		Mockito.doThrow(new IOException()).when(mockPort).writeData(Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt());
+		
+		xbeeDevice.sendDataAsync(encoder, DATA.getBytes());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#sendDataAsync(TransmitFrameEncoder, byte[])}.
+	 * 
+	 * <p>Verify that the encoded frame is written to the connection interface 
+	 * without creating any packet.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public void testSendDataAsyncSuccess() throws Exception {
+		// Setup the resources for the test.
+		byte[] expected = new TransmitPacket(1, XBEE_64BIT_ADDRESS, XBee16BitAddress.UNKNOWN_ADDRESS, 0, 
+				XBeeTransmitOptions.NONE, DATA.getBytes()).generateByteArray();
+		PowerMockito.whenNew(TransmitPacket.class).withAnyArguments().thenThrow(new AssertionError());
+		
+		// Call the method under test.
+		xbeeDevice.sendDataAsync(encoder, DATA.getBytes());
+		
+		// Verify the result.
+		Mockito.verify(mockPort, Mockito.times(1)).writeData(encoder.getBuffer(), 0, expected.length);
+		byte[] written = new byte[expected.length];
+		System.arraycopy(encoder.getBuffer(), 0, written, 0, expected.length);
+		assertThat(written, is(equalTo(expected)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#createTransmitEncoder(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the frame type of the encoder depends on the protocol 
+	 * and the addresses of the remote device.</p>
+	 */
+	@Test
+	public void testCreateTransmitEncoder() {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(XBEE_64BIT_ADDRESS);
+		Mockito.when(remoteDevice.get16BitAddress()).thenReturn(XBEE_16BIT_ADDRESS);
+		
+		// Call the method under test and verify the result.
+		Mockito.doReturn(XBeeProtocol.ZIGBEE).when(xbeeDevice).getXBeeProtocol();
+		assertThat(xbeeDevice.createTransmitEncoder(remoteDevice).getFrameType(), is(equalTo(APIFrameType.TRANSMIT_REQUEST)));
+		
+		Mockito.doReturn(XBeeProtocol.RAW_802_15_4).when(xbeeDevice).getXBeeProtocol();
+		assertThat(xbeeDevice.createTransmitEncoder(remoteDevice).getFrameType(), is(equalTo(APIFrameType.TX_64)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#createTransmitEncoder(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that an encoder cannot be created for a {@code null} remote device.</p>
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testCreateTransmitEncoderNull() {
+		xbeeDevice.createTransmitEncoder(null);
+	}
+}
@@ -27,6 +27,7 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import com.digi.xbee.api.connection.ConnectionEventLoop;
 import com.digi.xbee.api.connection.DataReader;
 import com.digi.xbee.api.connection.serial.SerialPortRxTx;
 import com.digi.xbee.api.exceptions.InterfaceAlreadyOpenException;
@@ -259,4 +260,33 @@ public class XBeeDeviceConnectTest {
 		// Verify the dataReader is not running.
 		assertFalse(dataReader.isRunning());
 	}
+	
+	/**
+	 * Verify that the data reader is serviced by the event loop instead of 
+	 * starting its own thread when the device has an event loop.
+	 * 
+	 * @throws XBeeException 
+	 */
+	@Test
+	public void testConnectEventLoop() throws XBeeException {
+		// Configure the determineOperatingMode method to return 'API'.
+		Mockito.doReturn(OperatingMode.API).when(xbeeDevice).determineOperatingMode();
+		ConnectionEventLoop eventLoop = Mockito.mock(ConnectionEventLoop.class);
+		xbeeDevice.setEventLoop(eventLoop);
+		
+		// Execute the connect method.
+		xbeeDevice.open();
+		
+		// Verify the dataReader is registered in the event loop.
+		assertTrue(xbeeDevice.isOpen());
+		Mockito.verify(eventLoop, Mockito.times(1)).register(dataReader);
+		Mockito.verify(dataReader, Mockito.never()).start();
+		
+		// Close the connection.
+		xbeeDevice.close();
+		
+		// Verify the dataReader is unregistered from the event loop.
+		assertFalse(xbeeDevice.isOpen());
+		Mockito.verify(eventLoop, Mockito.times(1)).unregister(dataReader);
+	}
 }
@@ -0,0 +1,357 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import com.digi.xbee.api.exceptions.InterfaceNotOpenException;
+import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeMessage;
+import com.digi.xbee.api.models.XBeeProtocol;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+
+@RunWith(PowerMockRunner.class)
+public class XBeeGatewayTest {
+	
+	// Constants.
+	private static final XBee64BitAddress DESTINATION = new XBee64BitAddress("0013A20040A6A0DB");
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Variables.
+	private List<XBeeDevice> localDevices;
+	private List<XBeeNetwork> networks;
+	
+	private XBeeGateway gateway;
+	
+	@Before
+	public void setUp() throws Exception {
+		localDevices = new ArrayList<XBeeDevice>();
+		networks = new ArrayList<XBeeNetwork>();
+		
+		for (int i = 0; i < 3; i++) {
+			XBeeDevice device = PowerMockito.mock(XBeeDevice.class);
+			XBeeNetwork network = PowerMockito.mock(XBeeNetwork.class);
+			Mockito.when(device.isOpen()).thenReturn(true);
+			Mockito.when(device.getNetwork()).thenReturn(network);
+			localDevices.add(device);
+			networks.add(network);
+		}
+		
+		gateway = new XBeeGateway(localDevices);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#XBeeGateway(List)}.
+	 * 
+	 * <p>An {@code IllegalArgumentException} exception must be thrown when
+	 * passing an empty list.</p>
+	 */
+	@Test
+	public void testCreateEmptyList() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("List of local XBee devices cannot be empty.")));
+		
+		// Call the method under test.
+		new XBeeGateway(new ArrayList<XBeeDevice>());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#open()}.
+	 * 
+	 * <p>Verify that all the local devices share the same listener executor
+	 * and are closed if any of them fails to open.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testOpenError() throws Exception {
+		// Setup the resources for the test.
+		Mockito.doThrow(new XBeeException("Error")).when(localDevices.get(1)).open();
+		
+		// Call the method under test.
+		try {
+			gateway.open();
+		} catch (XBeeException e) {
+			assertThat(e.getMessage(), is(equalTo("Error")));
+		}
+		
+		// Verify the result.
+		assertThat(gateway.isOpen(), is(equalTo(false)));
+		ArgumentCaptor<ExecutorService> captor = ArgumentCaptor.forClass(ExecutorService.class);
+		Mockito.verify(localDevices.get(0), Mockito.times(2)).setListenerExecutor(captor.capture());
+		Mockito.verify(localDevices.get(1), Mockito.times(1)).setListenerExecutor(captor.getAllValues().get(0));
+		Mockito.verify(localDevices.get(1), Mockito.times(1)).setListenerExecutor(null);
+		Mockito.verify(localDevices.get(0), Mockito.times(1)).close();
+		Mockito.verify(localDevices.get(2), Mockito.never()).open();
+		assertThat(captor.getAllValues().get(1), is(equalTo((ExecutorService)null)));
+		assertThat(captor.getAllValues().get(0).isShutdown(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#open()}.
+	 * 
+	 * <p>Verify that the open devices are closed and the shared threads are 
+	 * stopped if a device fails to open with a runtime exception.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testOpenRuntimeError() throws Exception {
+		// Setup the resources for the test.
+		Mockito.doThrow(new IllegalStateException("Error")).when(localDevices.get(1)).open();
+		
+		// Call the method under test.
+		try {
+			gateway.open();
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is(equalTo("Error")));
+		}
+		
+		// Verify the result.
+		assertThat(gateway.isOpen(), is(equalTo(false)));
+		assertThat(gateway.getTimer(), is(equalTo((ScheduledExecutorService)null)));
+		Mockito.verify(localDevices.get(0), Mockito.times(1)).close();
+		Mockito.verify(localDevices.get(0), Mockito.times(1)).setListenerExecutor(null);
+		Mockito.verify(localDevices.get(1), Mockito.times(1)).setListenerExecutor(null);
+		Mockito.verify(localDevices.get(2), Mockito.never()).open();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#getRoute(XBee64BitAddress)}.
+	 * 
+	 * <p>Verify that the local devices that know the destination are preferred
+	 * and, among them, the one with fewer pending transmissions.</p>
+	 */
+	@Test
+	public void testGetRoute() {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remote = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(networks.get(1).getDevice(DESTINATION)).thenReturn(remote);
+		Mockito.when(networks.get(2).getDevice(DESTINATION)).thenReturn(remote);
+		
+		// Call the method under test.
+		setPendingSends(localDevices.get(1), 3);
+		XBeeDevice route1 = gateway.getRoute(DESTINATION);
+		setPendingSends(localDevices.get(1), 0);
+		setPendingSends(localDevices.get(2), 1);
+		XBeeDevice route2 = gateway.getRoute(DESTINATION);
+		
+		// Verify the result.
+		assertThat(route1, is(equalTo(localDevices.get(2))));
+		assertThat(route2, is(equalTo(localDevices.get(1))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#getRoute(XBee64BitAddress)}.
+	 * 
+	 * <p>Verify that any open local device is used when none of them knows the
+	 * destination.</p>
+	 */
+	@Test
+	public void testGetRouteUnknownDestination() {
+		// Setup the resources for the test.
+		Mockito.when(localDevices.get(0).isOpen()).thenReturn(false);
+		setPendingSends(localDevices.get(1), 2);
+		
+		// Call the method under test.
+		XBeeDevice route = gateway.getRoute(DESTINATION);
+		
+		// Verify the result.
+		assertThat(route, is(equalTo(localDevices.get(2))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#getRoute(XBee64BitAddress)}.
+	 * 
+	 * <p>An {@code InterfaceNotOpenException} exception must be thrown when
+	 * none of the local devices is open.</p>
+	 */
+	@Test
+	public void testGetRouteNotOpen() {
+		// Setup the resources for the test.
+		for (XBeeDevice device : localDevices)
+			Mockito.when(device.isOpen()).thenReturn(false);
+		
+		exception.expect(InterfaceNotOpenException.class);
+		
+		// Call the method under test.
+		gateway.getRoute(DESTINATION);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#sendData(XBee64BitAddress, byte[])}.
+	 * 
+	 * <p>Verify that data is sent through the selected local device and the
+	 * pending transmissions counter is restored.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendData() throws Exception {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remote = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(networks.get(2).getDevice(DESTINATION)).thenReturn(remote);
+		byte[] data = "data".getBytes();
+		
+		// Call the method under test.
+		gateway.sendData(DESTINATION, data);
+		
+		// Verify the result.
+		Mockito.verify(localDevices.get(2), Mockito.times(1)).sendData(remote, data);
+		Mockito.verify(localDevices.get(0), Mockito.never()).sendData(Mockito.any(RemoteXBeeDevice.class), Mockito.any(byte[].class));
+		assertThat(gateway.getPendingSends(localDevices.get(2)), is(equalTo(0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#sendDataAsync(XBee64BitAddress, byte[])}.
+	 * 
+	 * <p>Verify that an asynchronous transmission is pending until its 
+	 * transmit status is received.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendDataAsyncPendingUntilStatus() throws Exception {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remote = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remote.get64BitAddress()).thenReturn(DESTINATION);
+		Mockito.when(networks.get(2).getDevice(DESTINATION)).thenReturn(remote);
+		Mockito.when(localDevices.get(2).getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		Mockito.when(localDevices.get(2).getNextFrameID()).thenReturn(5);
+		Mockito.when(localDevices.get(2).getReceiveTimeout()).thenReturn(10000);
+		gateway.open();
+		
+		// Call the method under test.
+		gateway.sendDataAsync(DESTINATION, "data".getBytes());
+		
+		// Verify the result.
+		ArgumentCaptor<XBeePacket> packetCaptor = ArgumentCaptor.forClass(XBeePacket.class);
+		ArgumentCaptor<IPacketReceiveListener> listenerCaptor = ArgumentCaptor.forClass(IPacketReceiveListener.class);
+		Mockito.verify(localDevices.get(2), Mockito.times(1)).sendPacket(packetCaptor.capture(), listenerCaptor.capture());
+		assertThat(((XBeeAPIPacket)packetCaptor.getValue()).getFrameID(), is(equalTo(5)));
+		assertThat(gateway.getPendingSends(localDevices.get(2)), is(equalTo(1)));
+		
+		listenerCaptor.getValue().packetReceived(Mockito.mock(XBeePacket.class));
+		assertThat(gateway.getPendingSends(localDevices.get(2)), is(equalTo(0)));
+		
+		gateway.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#sendDataAsync(XBee64BitAddress, byte[])}.
+	 * 
+	 * <p>Verify that an asynchronous transmission stops being pending when 
+	 * the receive timeout expires without transmit status.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendDataAsyncPendingUntilTimeout() throws Exception {
+		// Setup the resources for the test.
+		RemoteXBeeDevice remote = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remote.get64BitAddress()).thenReturn(DESTINATION);
+		Mockito.when(networks.get(2).getDevice(DESTINATION)).thenReturn(remote);
+		Mockito.when(localDevices.get(2).getXBeeProtocol()).thenReturn(XBeeProtocol.ZIGBEE);
+		Mockito.when(localDevices.get(2).getReceiveTimeout()).thenReturn(100);
+		gateway.open();
+		
+		// Call the method under test.
+		gateway.sendDataAsync(DESTINATION, "data".getBytes());
+		int pending = gateway.getPendingSends(localDevices.get(2));
+		long deadline = System.currentTimeMillis() + 5000;
+		while (gateway.getPendingSends(localDevices.get(2)) != 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(20);
+		
+		// Verify the result.
+		assertThat(pending, is(equalTo(1)));
+		assertThat(gateway.getPendingSends(localDevices.get(2)), is(equalTo(0)));
+		Mockito.verify(localDevices.get(2), Mockito.times(1)).removePacketListener(Mockito.any(IPacketReceiveListener.class));
+		
+		gateway.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeGateway#addDataListener(IDataReceiveListener)}.
+	 * 
+	 * <p>Verify that data received by any local device is delivered to the
+	 * gateway listeners.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testMergedDataListener() throws Exception {
+		// Setup the resources for the test.
+		IDataReceiveListener listener = Mockito.mock(IDataReceiveListener.class);
+		gateway.addDataListener(listener);
+		gateway.open();
+		
+		ArgumentCaptor<IDataReceiveListener> captor0 = ArgumentCaptor.forClass(IDataReceiveListener.class);
+		ArgumentCaptor<IDataReceiveListener> captor2 = ArgumentCaptor.forClass(IDataReceiveListener.class);
+		Mockito.verify(localDevices.get(0)).addDataListener(captor0.capture());
+		Mockito.verify(localDevices.get(2)).addDataListener(captor2.capture());
+		
+		XBeeMessage message0 = Mockito.mock(XBeeMessage.class);
+		XBeeMessage message2 = Mockito.mock(XBeeMessage.class);
+		
+		// Call the method under test.
+		captor0.getValue().dataReceived(message0);
+		captor2.getValue().dataReceived(message2);
+		gateway.close();
+		
+		// Verify the result.
+		Mockito.verify(listener, Mockito.times(1)).dataReceived(message0);
+		Mockito.verify(listener, Mockito.times(1)).dataReceived(message2);
+		Mockito.verify(localDevices.get(1), Mockito.times(1)).removeDataListener(captor0.getValue());
+	}
+	
+	/**
+	 * Sets the number of pending transmissions of the given local device.
+	 * 
+	 * @param device The local device.
+	 * @param pending The number of pending transmissions.
+	 */
+	private void setPendingSends(XBeeDevice device, int pending) {
+		Map<XBeeDevice, AtomicInteger> pendingSends = Whitebox.getInternalState(gateway, "pendingSends");
+		pendingSends.get(device).set(pending);
+	}
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.io.IODeadbandFilter;
+import com.digi.xbee.api.io.IOLine;
+import com.digi.xbee.api.io.IOLineHistory;
+import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.io.IOSampleStore;
+import com.digi.xbee.api.io.IOStateCache;
+import com.digi.xbee.api.listeners.IDeviceEvictionListener;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeProtocol;
+
+@RunWith(PowerMockRunner.class)
+public class XBeeNetworkEvictionTest {
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Constants.
+	// 802.15.4 sample with DIO0, DIO3, DIO5, AD1 and AD2 enabled.
+	private static final byte[] IO_DATA_802 = new byte[]{0x01, 0x0C, 0x29, 0x00, 0x21, 0x01, 0x23, 0x03, (byte)0xFF};
+	
+	// Variables.
+	private XBeeNetwork network;
+	
+	private XBeeDevice localDevice;
+	
+	private RemoteXBeeDevice remoteDevice1;
+	private RemoteXBeeDevice remoteDevice2;
+	private RemoteXBeeDevice remoteDevice3;
+	
+	private IDeviceEvictionListener evictionListener;
+	
+	@Before
+	public void setUp() {
+		// Mock the local device.
+		localDevice = PowerMockito.mock(XBeeDevice.class);
+		Mockito.when(localDevice.getConnectionInterface()).thenReturn(Mockito.mock(IConnectionInterface.class));
+		Mockito.when(localDevice.getXBeeProtocol()).thenReturn(XBeeProtocol.UNKNOWN);
+		
+		network = new XBeeNetwork(localDevice);
+		
+		remoteDevice1 = new RemoteXBeeDevice(localDevice, new XBee64BitAddress("0013A20040000001"),
+				XBee16BitAddress.UNKNOWN_ADDRESS, "NODE1");
+		remoteDevice2 = new RemoteXBeeDevice(localDevice, new XBee64BitAddress("0013A20040000002"),
+				XBee16BitAddress.UNKNOWN_ADDRESS, "NODE2");
+		remoteDevice3 = new RemoteXBeeDevice(localDevice, new XBee64BitAddress("0013A20040000003"),
+				XBee16BitAddress.UNKNOWN_ADDRESS, "NODE3");
+		
+		evictionListener = Mockito.mock(IDeviceEvictionListener.class);
+		network.addEvictionListener(evictionListener);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#setMaximumNumberOfDevices(int)}.
+	 * 
+	 * <p>An {@code IllegalArgumentException} exception must be thrown when
+	 * passing a negative value.</p>
+	 */
+	@Test
+	public void testSetMaximumNumberOfDevicesNegative() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Maximum number of devices cannot be negative.")));
+		
+		// Call the method under test.
+		network.setMaximumNumberOfDevices(-1);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the least recently heard device is evicted when a new
+	 * device is added to a full network.</p>
+	 */
+	@Test
+	public void testAddRemoteDeviceEvictsLeastRecentlyHeard() {
+		// Setup the resources for the test.
+		network.setMaximumNumberOfDevices(2);
+		network.addRemoteDevice(remoteDevice1);
+		network.addRemoteDevice(remoteDevice2);
+		// Device 1 is heard again, so device 2 is now the least recently heard.
+		network.updateLastHeardTime(remoteDevice1);
+		
+		// Call the method under test.
+		network.addRemoteDevice(remoteDevice3);
+		
+		// Verify the result.
+		assertThat(network.getNumberOfDevices(), is(equalTo(2)));
+		assertThat(network.getDevice(remoteDevice2.get64BitAddress()), is(nullValue(RemoteXBeeDevice.class)));
+		assertThat(network.getDevice("NODE2"), is(nullValue(RemoteXBeeDevice.class)));
+		assertThat(network.getLastHeardTime(remoteDevice2), is(equalTo(-1L)));
+		assertThat(network.getDevice(remoteDevice1.get64BitAddress()), is(equalTo(remoteDevice1)));
+		assertThat(network.getDevice(remoteDevice3.get64BitAddress()), is(equalTo(remoteDevice3)));
+		Mockito.verify(evictionListener, Mockito.times(1)).deviceEvicted(remoteDevice2, false);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the IO state the local device keeps for an evicted
+	 * device is removed, and the one of the other devices is kept.</p>
+	 */
+	@Test
+	public void testAddRemoteDeviceEvictsIOState() {
+		// Setup the resources for the test.
+		IOSampleStore ioSampleStore = new IOSampleStore();
+		IODeadbandFilter ioDeadbandFilter = Mockito.mock(IODeadbandFilter.class);
+		IOStateCache ioStateCache = new IOStateCache();
+		Mockito.when(localDevice.getIOSampleStore()).thenReturn(ioSampleStore);
+		Mockito.when(localDevice.getIODeadbandFilter()).thenReturn(ioDeadbandFilter);
+		Mockito.when(localDevice.getIOStateCache()).thenReturn(ioStateCache);
+		
+		IOSample ioSample = new IOSample(IO_DATA_802);
+		ioSampleStore.addSample(remoteDevice1, ioSample, 1000);
+		ioSampleStore.addSample(remoteDevice2, ioSample, 1000);
+		ioStateCache.update(remoteDevice1, ioSample, 1000);
+		ioStateCache.update(remoteDevice2, ioSample, 1000);
+		
+		network.setMaximumNumberOfDevices(1);
+		network.addRemoteDevice(remoteDevice1);
+		
+		// Call the method under test.
+		network.addRemoteDevice(remoteDevice2);
+		
+		// Verify the result.
+		assertThat(ioSampleStore.getHistory(remoteDevice1, IOLine.DIO0_AD0), is(nullValue(IOLineHistory.class)));
+		assertThat(ioSampleStore.getHistory(remoteDevice2, IOLine.DIO0_AD0).size(), is(equalTo(1)));
+		assertThat(ioStateCache.getTimestamp(remoteDevice1), is(equalTo(-1L)));
+		assertThat(ioStateCache.getTimestamp(remoteDevice2), is(equalTo(1000L)));
+		Mockito.verify(ioDeadbandFilter, Mockito.times(1)).reset(remoteDevice1);
+		Mockito.verify(ioDeadbandFilter, Mockito.never()).reset(remoteDevice2);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#setMaximumNumberOfDevices(int)}.
+	 * 
+	 * <p>Verify that reducing the maximum number of devices evicts the
+	 * exceeding ones immediately.</p>
+	 */
+	@Test
+	public void testSetMaximumNumberOfDevicesEvictsExceeding() {
+		// Setup the resources for the test.
+		network.addRemoteDevice(remoteDevice1);
+		network.addRemoteDevice(remoteDevice2);
+		network.addRemoteDevice(remoteDevice3);
+		
+		// Call the method under test.
+		network.setMaximumNumberOfDevices(1);
+		
+		// Verify the result.
+		assertThat(network.getNumberOfDevices(), is(equalTo(1)));
+		assertThat(network.getDevice(remoteDevice3.get64BitAddress()), is(equalTo(remoteDevice3)));
+		Mockito.verify(evictionListener, Mockito.times(1)).deviceEvicted(remoteDevice1, false);
+		Mockito.verify(evictionListener, Mockito.times(1)).deviceEvicted(remoteDevice2, false);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#purgeExpiredDevices()}.
+	 * 
+	 * <p>Verify that the devices not heard within the time to live are
+	 * evicted.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testPurgeExpiredDevices() throws Exception {
+		// Setup the resources for the test.
+		network.setDeviceTimeToLive(200);
+		network.addRemoteDevice(remoteDevice1);
+		network.addRemoteDevice(remoteDevice2);
+		Thread.sleep(300);
+		network.updateLastHeardTime(remoteDevice2);
+		
+		// Call the method under test.
+		network.purgeExpiredDevices();
+		
+		// Verify the result.
+		assertThat(network.getNumberOfDevices(), is(equalTo(1)));
+		assertThat(network.getDevice(remoteDevice2.get64BitAddress()), is(equalTo(remoteDevice2)));
+		Mockito.verify(evictionListener, Mockito.times(1)).deviceEvicted(remoteDevice1, true);
+		Mockito.verify(evictionListener, Mockito.never()).deviceEvicted(remoteDevice2, true);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#removeRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that removed devices are no longer tracked and the eviction
+	 * listeners are not notified.</p>
+	 */
+	@Test
+	public void testRemoveRemoteDeviceNotEvicted() {
+		// Setup the resources for the test.
+		network.setMaximumNumberOfDevices(2);
+		network.addRemoteDevice(remoteDevice1);
+		network.addRemoteDevice(remoteDevice2);
+		
+		// Call the method under test.
+		network.removeRemoteDevice(remoteDevice1);
+		network.addRemoteDevice(remoteDevice3);
+		
+		// Verify the result.
+		assertThat(network.getLastHeardTime(remoteDevice1), is(equalTo(-1L)));
+		assertThat(network.getNumberOfDevices(), is(equalTo(2)));
+		Mockito.verify(evictionListener, Mockito.never()).deviceEvicted(Mockito.any(RemoteXBeeDevice.class), Mockito.anyBoolean());
+	}
+}
@@ -0,0 +1,293 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+
+import com.digi.xbee.api.connection.IConnectionInterface;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeProtocol;
+
+@RunWith(PowerMockRunner.class)
+public class XBeeNetworkNodeIDIndexTest {
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Variables.
+	private XBeeNetwork network;
+	
+	private XBeeDevice localDevice;
+	
+	private RemoteXBeeDevice pump1;
+	private RemoteXBeeDevice pump2;
+	private RemoteXBeeDevice valve1;
+	private RemoteXBeeDevice otherSite;
+	
+	@Before
+	public void setUp() throws Exception {
+		// Mock the local device.
+		localDevice = PowerMockito.mock(XBeeDevice.class);
+		Mockito.when(localDevice.getConnectionInterface()).thenReturn(Mockito.mock(IConnectionInterface.class));
+		Mockito.when(localDevice.getXBeeProtocol()).thenReturn(XBeeProtocol.UNKNOWN);
+		
+		network = new XBeeNetwork(localDevice);
+		Whitebox.setInternalState(localDevice, "network", network);
+		
+		pump1 = createRemote("0013A20040000001", "SITE1-L1-PUMP1");
+		pump2 = createRemote("0013A20040000002", "SITE1-L2-PUMP2");
+		valve1 = createRemote("0013A20040000003", "SITE1-L1-VALVE1");
+		otherSite = createRemote("0013A20040000004", "SITE2-L1-PUMP1");
+		
+		network.addRemoteDevice(pump1);
+		network.addRemoteDevice(pump2);
+		network.addRemoteDevice(valve1);
+		network.addRemoteDevice(otherSite);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getDevicesByPrefix(String)}.
+	 * 
+	 * <p>A {@code NullPointerException} exception must be thrown when passing a
+	 * {@code null} prefix.</p>
+	 */
+	@Test
+	public void testGetDevicesByPrefixNull() {
+		// Setup the resources for the test.
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Node identifier prefix cannot be null.")));
+		
+		// Call the method under test.
+		network.getDevicesByPrefix(null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getDevicesByPrefix(String)}.
+	 * 
+	 * <p>Verify that all the devices whose node identifier starts with the
+	 * given prefix are returned sorted by node identifier.</p>
+	 */
+	@Test
+	public void testGetDevicesByPrefix() {
+		// Call the method under test.
+		List<RemoteXBeeDevice> site1 = network.getDevicesByPrefix("SITE1-");
+		List<RemoteXBeeDevice> line1 = network.getDevicesByPrefix("SITE1-L1-");
+		List<RemoteXBeeDevice> none = network.getDevicesByPrefix("SITE3");
+		
+		// Verify the result.
+		assertThat(site1.size(), is(equalTo(3)));
+		assertThat(site1.get(0), is(equalTo(pump1)));
+		assertThat(site1.get(1), is(equalTo(valve1)));
+		assertThat(site1.get(2), is(equalTo(pump2)));
+		assertThat(line1.size(), is(equalTo(2)));
+		assertThat(none.size(), is(equalTo(0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getDevicesMatching(String)}.
+	 * 
+	 * <p>Verify that the {@code '*'} and {@code '?'} wildcards are
+	 * supported.</p>
+	 */
+	@Test
+	public void testGetDevicesMatching() {
+		// Call the method under test.
+		List<RemoteXBeeDevice> pumps = network.getDevicesMatching("*-PUMP?");
+		List<RemoteXBeeDevice> site1Pumps = network.getDevicesMatching("SITE1-*-PUMP*");
+		List<RemoteXBeeDevice> line1 = network.getDevicesMatching("SITE?-L1-*");
+		List<RemoteXBeeDevice> exact = network.getDevicesMatching("SITE1-L1-VALVE1");
+		
+		// Verify the result.
+		assertThat(pumps.size(), is(equalTo(3)));
+		assertThat(pumps.contains(valve1), is(equalTo(false)));
+		assertThat(site1Pumps.size(), is(equalTo(2)));
+		assertThat(site1Pumps.contains(otherSite), is(equalTo(false)));
+		assertThat(line1.size(), is(equalTo(3)));
+		assertThat(line1.contains(pump2), is(equalTo(false)));
+		assertThat(exact.size(), is(equalTo(1)));
+		assertThat(exact.get(0), is(equalTo(valve1)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#getDevice(String)}.
+	 * 
+	 * <p>Verify that the index is updated when the node identifier of a
+	 * device of the network is changed with
+	 * {@link RemoteXBeeDevice#setNodeID(String)}.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testIndexUpdatedAfterSetNodeID() throws Exception {
+		// Setup the resources for the test.
+		Mockito.doNothing().when(pump1).setParameter(Mockito.eq("NI"), Matchers.any(byte[].class));
+		
+		// Call the method under test.
+		pump1.setNodeID("SITE3-L1-PUMP1");
+		
+		// Verify the result.
+		assertThat(network.getDevice("SITE1-L1-PUMP1"), is(nullValue(RemoteXBeeDevice.class)));
+		assertThat(network.getDevice("SITE3-L1-PUMP1"), is(equalTo(pump1)));
+		assertThat(network.getDevicesByPrefix("SITE1-").size(), is(equalTo(2)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the index is updated when a discovered device updates the
+	 * node identifier of an existing one.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testIndexUpdatedAfterDiscovery() throws Exception {
+		// Setup the resources for the test.
+		RemoteXBeeDevice discovered = new RemoteXBeeDevice(localDevice,
+				pump2.get64BitAddress(), XBee16BitAddress.UNKNOWN_ADDRESS, "SITE1-L1-PUMP1");
+		
+		// Call the method under test.
+		RemoteXBeeDevice added = network.addRemoteDevice(discovered);
+		
+		// Verify the result.
+		assertThat(added, is(equalTo(pump2)));
+		assertThat(network.getDevices("SITE1-L1-PUMP1").size(), is(equalTo(2)));
+		assertThat(network.getDevices("SITE1-L2-PUMP2").size(), is(equalTo(0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#removeRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that removed devices are no longer indexed and that changing
+	 * their node identifier does not add them again.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testIndexUpdatedAfterRemove() throws Exception {
+		// Setup the resources for the test.
+		Mockito.doNothing().when(valve1).setParameter(Mockito.eq("NI"), Matchers.any(byte[].class));
+		
+		// Call the method under test.
+		network.removeRemoteDevice(valve1);
+		valve1.setNodeID("SITE1-L1-VALVE2");
+		
+		// Verify the result.
+		assertThat(network.getDevice("SITE1-L1-VALVE1"), is(nullValue(RemoteXBeeDevice.class)));
+		assertThat(network.getDevice("SITE1-L1-VALVE2"), is(nullValue(RemoteXBeeDevice.class)));
+		
+		network.clearDeviceList();
+		assertThat(network.getDevicesMatching("*").size(), is(equalTo(0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeNetwork#addRemoteDevice(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the node identifier index and the last heard times stay 
+	 * consistent with the address maps when the same device is added and 
+	 * removed concurrently.</p>
+	 */
+	@Test
+	public void testIndexConsistentWithConcurrentRemove() throws Exception {
+		// Setup the resources for the test.
+		final int iterations = 2000;
+		final XBee64BitAddress addr64 = new XBee64BitAddress("0013A20040000005");
+		final RemoteXBeeDevice sensor = new RemoteXBeeDevice(localDevice, addr64,
+				XBee16BitAddress.UNKNOWN_ADDRESS, "SITE3-L1-SENSOR1");
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread adder = new Thread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < iterations; i++)
+					network.addRemoteDevice(sensor);
+			}
+		});
+		Thread remover = new Thread(new Runnable() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Runnable#run()
+			 */
+			@Override
+			public void run() {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < iterations; i++)
+					network.removeRemoteDevice(sensor);
+			}
+		});
+		adder.start();
+		remover.start();
+		
+		// Call the method under test.
+		start.countDown();
+		adder.join(10000);
+		remover.join(10000);
+		
+		// Verify the result.
+		Map<RemoteXBeeDevice, Long> lastHeardTimes = Whitebox.getInternalState(network, "lastHeardTimes");
+		if (network.getDevice(addr64) != null) {
+			assertThat(network.getDevice("SITE3-L1-SENSOR1"), is(equalTo(sensor)));
+			assertThat(lastHeardTimes.containsKey(sensor), is(equalTo(true)));
+		} else {
+			assertThat(network.getDevice("SITE3-L1-SENSOR1"), is(nullValue(RemoteXBeeDevice.class)));
+			assertThat(lastHeardTimes.containsKey(sensor), is(equalTo(false)));
+		}
+	}
+	
+	/**
+	 * Creates a spied remote device with the given 64-bit address and node
+	 * identifier.
+	 * 
+	 * @param addr64 The 64-bit address of the remote device.
+	 * @param ni The node identifier of the remote device.
+	 * 
+	 * @return The spied remote device.
+	 */
+	private RemoteXBeeDevice createRemote(String addr64, String ni) {
+		return PowerMockito.spy(new RemoteXBeeDevice(localDevice,
+				new XBee64BitAddress(addr64), XBee16BitAddress.UNKNOWN_ADDRESS, ni));
+	}
+}
@@ -0,0 +1,399 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.digi.xbee.api.listeners.IDataReceiveListener;
+import com.digi.xbee.api.listeners.ISubscriber;
+import com.digi.xbee.api.listeners.ISubscription;
+import com.digi.xbee.api.models.OverflowStrategy;
+import com.digi.xbee.api.models.XBeeMessage;
+
+@RunWith(PowerMockRunner.class)
+public class XBeePublisherTest {
+	
+	// Variables.
+	private XBeeDevice device;
+	
+	private List<XBeeMessage> messages;
+	
+	/**
+	 * Subscriber that stores the received items.
+	 */
+	class TestSubscriber implements ISubscriber<XBeeMessage> {
+		
+		ISubscription subscription;
+		List<XBeeMessage> received = new ArrayList<XBeeMessage>();
+		Throwable error;
+		boolean completed = false;
+		
+		@Override
+		public void onSubscribe(ISubscription subscription) {
+			this.subscription = subscription;
+		}
+		
+		@Override
+		public void onNext(XBeeMessage item) {
+			received.add(item);
+		}
+		
+		@Override
+		public void onError(Throwable error) {
+			this.error = error;
+		}
+		
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+	
+	@Before
+	public void setUp() throws Exception {
+		device = PowerMockito.mock(XBeeDevice.class);
+		messages = new ArrayList<XBeeMessage>();
+		for (int i = 0; i < 4; i++)
+			messages.add(Mockito.mock(XBeeMessage.class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeePublisher#subscribe(ISubscriber)}.
+	 * 
+	 * <p>Verify that items are only delivered as they are requested.</p>
+	 */
+	@Test
+	public void testDeliverOnDemand() {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 10, OverflowStrategy.DROP_OLDEST);
+		TestSubscriber subscriber = new TestSubscriber();
+		publisher.subscribe(subscriber);
+		IDataReceiveListener listener = captureDataListener();
+		
+		// Call the method under test.
+		subscriber.subscription.request(2);
+		for (int i = 0; i < 3; i++)
+			listener.dataReceived(messages.get(i));
+		
+		// Verify the result.
+		assertThat(subscriber.received, is(equalTo(messages.subList(0, 2))));
+		
+		// Call the method under test.
+		subscriber.subscription.request(5);
+		
+		// Verify the result.
+		assertThat(subscriber.received, is(equalTo(messages.subList(0, 3))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeePublisher#subscribe(ISubscriber)}.
+	 * 
+	 * <p>Verify that the oldest items are discarded when the buffer of a slow
+	 * subscriber is full.</p>
+	 */
+	@Test
+	public void testDropOldest() {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 2, OverflowStrategy.DROP_OLDEST);
+		TestSubscriber subscriber = new TestSubscriber();
+		publisher.subscribe(subscriber);
+		IDataReceiveListener listener = captureDataListener();
+		
+		// Call the method under test.
+		for (int i = 0; i < 4; i++)
+			listener.dataReceived(messages.get(i));
+		subscriber.subscription.request(10);
+		
+		// Verify the result.
+		assertThat(subscriber.received, is(equalTo(messages.subList(2, 4))));
+		assertThat(publisher.getDroppedItems(), is(equalTo(2L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeePublisher#subscribe(ISubscriber)}.
+	 * 
+	 * <p>Verify that the notifying thread is blocked until the subscriber
+	 * requests more items.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testBlock() throws Exception {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 1, OverflowStrategy.BLOCK);
+		TestSubscriber subscriber = new TestSubscriber();
+		publisher.subscribe(subscriber);
+		final IDataReceiveListener listener = captureDataListener();
+		
+		// Call the method under test.
+		Thread notifier = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 3; i++)
+					listener.dataReceived(messages.get(i));
+			}
+		};
+		notifier.start();
+		notifier.join(200);
+		
+		// Verify the result.
+		assertThat(notifier.isAlive(), is(equalTo(true)));
+		
+		// Call the method under test.
+		subscriber.subscription.request(3);
+		notifier.join(5000);
+		
+		// Verify the result.
+		assertThat(notifier.isAlive(), is(equalTo(false)));
+		assertThat(subscriber.received, is(equalTo(messages.subList(0, 3))));
+		assertThat(publisher.getDroppedItems(), is(equalTo(0L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeePublisher#subscribe(ISubscriber)}.
+	 * 
+	 * <p>Verify that the notifying thread waits at most the maximum block 
+	 * time for a stalled subscriber and then discards the item.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testBlockTimeout() throws Exception {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 1, OverflowStrategy.BLOCK);
+		TestSubscriber subscriber = new TestSubscriber();
+		publisher.subscribe(subscriber);
+		final IDataReceiveListener listener = captureDataListener();
+		
+		// Call the method under test.
+		Thread notifier = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 2; i++)
+					listener.dataReceived(messages.get(i));
+			}
+		};
+		notifier.start();
+		notifier.join(XBeePublisher.MAXIMUM_BLOCK_TIME + 5000);
+		
+		// Verify the result.
+		assertThat(notifier.isAlive(), is(equalTo(false)));
+		assertThat(publisher.getDroppedItems(), is(equalTo(1L)));
+		
+		// Call the method under test.
+		subscriber.subscription.request(2);
+		
+		// Verify the result.
+		assertThat(subscriber.received, is(equalTo(messages.subList(0, 1))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.listeners.ISubscription#cancel()}.
+	 * 
+	 * <p>Verify that the listener is removed from the device when the last
+	 * subscription is cancelled.</p>
+	 */
+	@Test
+	public void testCancel() {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 10, OverflowStrategy.DROP_NEWEST);
+		TestSubscriber subscriber1 = new TestSubscriber();
+		TestSubscriber subscriber2 = new TestSubscriber();
+		publisher.subscribe(subscriber1);
+		publisher.subscribe(subscriber2);
+		IDataReceiveListener listener = captureDataListener();
+		
+		// Call the method under test.
+		subscriber1.subscription.cancel();
+		
+		// Verify the result.
+		assertThat(publisher.getNumberOfSubscribers(), is(equalTo(1)));
+		Mockito.verify(device, Mockito.never()).removeDataListener(listener);
+		
+		// Call the method under test.
+		subscriber2.subscription.cancel();
+		
+		// Verify the result.
+		assertThat(publisher.getNumberOfSubscribers(), is(equalTo(0)));
+		Mockito.verify(device, Mockito.times(1)).removeDataListener(listener);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.listeners.ISubscription#request(long)}.
+	 * 
+	 * <p>Verify that requesting a non-positive number of items finishes the
+	 * subscription with an error.</p>
+	 */
+	@Test
+	public void testRequestInvalid() {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 10, OverflowStrategy.DROP_NEWEST);
+		TestSubscriber subscriber = new TestSubscriber();
+		publisher.subscribe(subscriber);
+		
+		// Call the method under test.
+		subscriber.subscription.request(0);
+		
+		// Verify the result.
+		assertThat(subscriber.error instanceof IllegalArgumentException, is(equalTo(true)));
+		assertThat(publisher.getNumberOfSubscribers(), is(equalTo(0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeePublisher#close()}.
+	 * 
+	 * <p>Verify that subscribers are completed after receiving their buffered
+	 * items.</p>
+	 */
+	@Test
+	public void testClose() {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 10, OverflowStrategy.DROP_NEWEST);
+		TestSubscriber subscriber = new TestSubscriber();
+		publisher.subscribe(subscriber);
+		IDataReceiveListener listener = captureDataListener();
+		listener.dataReceived(messages.get(0));
+		
+		// Call the method under test.
+		publisher.close();
+		
+		// Verify the result.
+		assertThat(subscriber.completed, is(equalTo(false)));
+		Mockito.verify(device, Mockito.times(1)).removeDataListener(listener);
+		
+		// Call the method under test.
+		subscriber.subscription.request(1);
+		
+		// Verify the result.
+		assertThat(subscriber.received, is(equalTo(messages.subList(0, 1))));
+		assertThat(subscriber.completed, is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeePublisher#subscribe(ISubscriber)}.
+	 * 
+	 * <p>Verify that a bounded listener executor is installed in a device 
+	 * without one while a {@code BLOCK} publisher has subscribers, and that 
+	 * it is removed and shut down with the last subscriber.</p>
+	 */
+	@Test
+	public void testBlockInstallsListenerExecutor() {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 1, OverflowStrategy.BLOCK);
+		TestSubscriber subscriber = new TestSubscriber();
+		ArgumentCaptor<ExecutorService> captor = ArgumentCaptor.forClass(ExecutorService.class);
+		
+		// Call the method under test.
+		publisher.subscribe(subscriber);
+		
+		// Verify the result.
+		Mockito.verify(device, Mockito.times(1)).setListenerExecutor(captor.capture());
+		ExecutorService executor = captor.getValue();
+		assertThat(executor.isShutdown(), is(equalTo(false)));
+		
+		// Call the method under test.
+		Mockito.when(device.getListenerExecutor()).thenReturn(executor);
+		subscriber.subscription.cancel();
+		
+		// Verify the result.
+		Mockito.verify(device, Mockito.times(1)).setListenerExecutor(null);
+		assertThat(executor.isShutdown(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeePublisher#subscribe(ISubscriber)}.
+	 * 
+	 * <p>Verify that no listener executor is installed when the device 
+	 * already has one.</p>
+	 */
+	@Test
+	public void testBlockDeviceListenerExecutor() {
+		// Setup the resources for the test.
+		Mockito.when(device.getListenerExecutor()).thenReturn(Mockito.mock(ExecutorService.class));
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 1, OverflowStrategy.BLOCK);
+		
+		// Call the method under test.
+		publisher.subscribe(new TestSubscriber());
+		
+		// Verify the result.
+		Mockito.verify(device, Mockito.never()).setListenerExecutor(Mockito.any(ExecutorService.class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeePublisher#subscribe(ISubscriber)}.
+	 * 
+	 * <p>Verify that a subscriber that throws an exception is cancelled and 
+	 * does not prevent the other subscribers from receiving the items.</p>
+	 */
+	@Test
+	public void testSubscriberException() {
+		// Setup the resources for the test.
+		XBeePublisher<XBeeMessage> publisher = XBeePublisher.dataPublisher(device, 1, OverflowStrategy.BLOCK);
+		TestSubscriber failing = new TestSubscriber() {
+			@Override
+			public void onNext(XBeeMessage item) {
+				throw new IllegalStateException("Subscriber failure.");
+			}
+		};
+		TestSubscriber subscriber = new TestSubscriber();
+		publisher.subscribe(failing);
+		publisher.subscribe(subscriber);
+		IDataReceiveListener listener = captureDataListener();
+		failing.subscription.request(10);
+		subscriber.subscription.request(10);
+		
+		// Call the method under test.
+		try {
+			listener.dataReceived(messages.get(0));
+		} catch (IllegalStateException e) {
+			// The failure of the subscriber is thrown to the caller.
+		}
+		long start = System.currentTimeMillis();
+		for (int i = 1; i < 4; i++)
+			listener.dataReceived(messages.get(i));
+		
+		// Verify the result.
+		assertThat(System.currentTimeMillis() - start < XBeePublisher.MAXIMUM_BLOCK_TIME, is(equalTo(true)));
+		assertThat(subscriber.received, is(equalTo(messages)));
+		assertThat(publisher.getNumberOfSubscribers(), is(equalTo(1)));
+		assertThat(publisher.getDroppedItems(), is(equalTo(0L)));
+	}
+	
+	/**
+	 * Returns the data listener registered in the device.
+	 * 
+	 * @return The registered data listener.
+	 */
+	private IDataReceiveListener captureDataListener() {
+		ArgumentCaptor<IDataReceiveListener> captor = ArgumentCaptor.forClass(IDataReceiveListener.class);
+		Mockito.verify(device, Mockito.times(1)).addDataListener(captor.capture());
+		return captor.getValue();
+	}
+}
@@ -0,0 +1,333 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+
+public class ConnectionEventLoopTest {
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Variables.
+	private ConnectionEventLoop eventLoop;
+	
+	private XBeeDevice mockDevice;
+	
+	private XBeePacket packet;
+	
+	/**
+	 * Connection interface that reads the data written to a pipe.
+	 */
+	class PipeConnectionInterface implements IConnectionInterface {
+		
+		boolean isOpen = true;
+		PipedInputStream input;
+		PipedOutputStream output;
+		
+		PipeConnectionInterface() throws IOException {
+			input = new PipedInputStream();
+			output = new PipedOutputStream(input);
+		}
+		
+		@Override
+		public void open() {
+			isOpen = true;
+		}
+		
+		@Override
+		public void close() {
+			isOpen = false;
+		}
+		
+		@Override
+		public boolean isOpen() {
+			return isOpen;
+		}
+		
+		@Override
+		public InputStream getInputStream() {
+			return isOpen ? input : null;
+		}
+		
+		@Override
+		public OutputStream getOutputStream() {
+			return null;
+		}
+		
+		@Override
+		public void writeData(byte[] data) throws IOException {}
+		
+		@Override
+		public void writeData(byte[] data, int offset, int length) throws IOException {}
+		
+		@Override
+		public int readData(byte[] data) throws IOException {
+			return 0;
+		}
+		
+		@Override
+		public int readData(byte[] data, int offset, int length) throws IOException {
+			return 0;
+		}
+		
+		void receive(byte[] data, int offset, int length) throws IOException {
+			output.write(data, offset, length);
+			output.flush();
+		}
+	}
+	
+	/**
+	 * Connection interface that reads the data written to a pipe and notifies
+	 * when new data is written.
+	 */
+	class NotifyingPipeConnectionInterface extends PipeConnectionInterface implements IDataAvailableNotifier {
+		
+		List<IDataAvailableListener> listeners = new CopyOnWriteArrayList<IDataAvailableListener>();
+		
+		NotifyingPipeConnectionInterface() throws IOException {
+			super();
+		}
+		
+		@Override
+		public void addDataAvailableListener(IDataAvailableListener listener) {
+			listeners.add(listener);
+		}
+		
+		@Override
+		public void removeDataAvailableListener(IDataAvailableListener listener) {
+			listeners.remove(listener);
+		}
+		
+		@Override
+		void receive(byte[] data, int offset, int length) throws IOException {
+			super.receive(data, offset, length);
+			for (IDataAvailableListener listener : listeners)
+				listener.dataAvailable(this);
+		}
+	}
+	
+	/**
+	 * Packet listener that counts down a latch for every received packet.
+	 */
+	class LatchPacketListener implements IPacketReceiveListener {
+		
+		CountDownLatch latch;
+		XBeePacket receivedPacket;
+		
+		LatchPacketListener(int packets) {
+			latch = new CountDownLatch(packets);
+		}
+		
+		@Override
+		public void packetReceived(XBeePacket receivedPacket) {
+			this.receivedPacket = receivedPacket;
+			latch.countDown();
+		}
+	}
+	
+	@Before
+	public void setUp() throws Exception {
+		eventLoop = new ConnectionEventLoop(1);
+		mockDevice = Mockito.mock(XBeeDevice.class);
+		packet = new ATCommandResponsePacket(1, ATCommandStatus.OK, "NI", new byte[]{0x7E, 0x11});
+	}
+	
+	@After
+	public void tearDown() throws Exception {
+		eventLoop.shutdown();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ConnectionEventLoop#register(DataReader)}.
+	 * 
+	 * <p>An {@code IllegalStateException} exception must be thrown when the
+	 * event loop is not running.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRegisterNotRunning() throws Exception {
+		// Setup the resources for the test.
+		DataReader reader = new DataReader(new PipeConnectionInterface(), OperatingMode.API, mockDevice);
+		
+		exception.expect(IllegalStateException.class);
+		exception.expectMessage(is(equalTo("The event loop is not running.")));
+		
+		// Call the method under test.
+		eventLoop.register(reader);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ConnectionEventLoop#register(DataReader)}.
+	 * 
+	 * <p>Verify that a single event loop thread reads and dispatches the
+	 * packets of several connection interfaces, even if the frames are split
+	 * across several reads.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testServiceSeveralInterfaces() throws Exception {
+		// Setup the resources for the test.
+		PipeConnectionInterface escapedCI = new PipeConnectionInterface();
+		PipeConnectionInterface apiCI = new PipeConnectionInterface();
+		DataReader escapedReader = new DataReader(escapedCI, OperatingMode.API_ESCAPE, mockDevice);
+		DataReader apiReader = new DataReader(apiCI, OperatingMode.API, mockDevice);
+		LatchPacketListener escapedListener = new LatchPacketListener(1);
+		LatchPacketListener apiListener = new LatchPacketListener(2);
+		escapedReader.addPacketReceiveListener(escapedListener);
+		apiReader.addPacketReceiveListener(apiListener);
+		
+		eventLoop.start();
+		
+		// Call the method under test.
+		eventLoop.register(escapedReader);
+		eventLoop.register(apiReader);
+		
+		byte[] escaped = packet.generateByteArrayEscaped();
+		escapedCI.receive(escaped, 0, 5);
+		Thread.sleep(50);
+		escapedCI.receive(escaped, 5, escaped.length - 5);
+		
+		byte[] frame = packet.generateByteArray();
+		apiCI.receive(frame, 0, frame.length);
+		apiCI.receive(frame, 0, frame.length);
+		
+		// Verify the result.
+		assertThat(escapedListener.latch.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(apiListener.latch.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(escapedListener.receivedPacket.generateByteArray(), is(equalTo(frame)));
+		assertThat(eventLoop.getNumberOfThreads(), is(equalTo(1)));
+		assertThat(eventLoop.getNumberOfReaders(), is(equalTo(2)));
+		assertThat(escapedReader.isAlive(), is(equalTo(false)));
+		assertThat(escapedReader.isRunning(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ConnectionEventLoop#register(DataReader)}.
+	 * 
+	 * <p>Verify that the event loop thread is woken up by the connection
+	 * interfaces that notify new data, instead of waiting for the poll
+	 * interval, and that it stops listening to them when they are
+	 * unregistered.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDataAvailableNotification() throws Exception {
+		// Setup the resources for the test.
+		eventLoop = new ConnectionEventLoop(1, 60000);
+		NotifyingPipeConnectionInterface connectionInterface = new NotifyingPipeConnectionInterface();
+		DataReader reader = new DataReader(connectionInterface, OperatingMode.API, mockDevice);
+		LatchPacketListener listener = new LatchPacketListener(2);
+		reader.addPacketReceiveListener(listener);
+		
+		eventLoop.start();
+		
+		// Call the method under test.
+		eventLoop.register(reader);
+		Thread.sleep(100);
+		
+		byte[] frame = packet.generateByteArray();
+		connectionInterface.receive(frame, 0, frame.length);
+		Thread.sleep(100);
+		connectionInterface.receive(frame, 0, frame.length);
+		
+		// Verify the result.
+		assertThat(listener.latch.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(connectionInterface.listeners.size(), is(equalTo(1)));
+		
+		eventLoop.unregister(reader);
+		assertThat(connectionInterface.listeners.size(), is(equalTo(0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ConnectionEventLoop#unregister(DataReader)}.
+	 * 
+	 * <p>Verify that unregistered data readers are stopped.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testUnregister() throws Exception {
+		// Setup the resources for the test.
+		DataReader reader = new DataReader(new PipeConnectionInterface(), OperatingMode.API, mockDevice);
+		eventLoop.start();
+		eventLoop.register(reader);
+		
+		// Call the method under test.
+		eventLoop.unregister(reader);
+		
+		// Verify the result.
+		assertThat(eventLoop.getNumberOfReaders(), is(equalTo(0)));
+		assertThat(reader.isRunning(), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ConnectionEventLoop#register(DataReader)}.
+	 * 
+	 * <p>Verify that data readers whose input stream is no longer available
+	 * are stopped and their connection interfaces closed.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testInputStreamNotAvailable() throws Exception {
+		// Setup the resources for the test.
+		PipeConnectionInterface connectionInterface = new PipeConnectionInterface();
+		connectionInterface.input = null;
+		DataReader reader = new DataReader(connectionInterface, OperatingMode.API, mockDevice);
+		eventLoop.start();
+		
+		// Call the method under test.
+		eventLoop.register(reader);
+		for (int i = 0; i < 100 && reader.isRunning(); i++)
+			Thread.sleep(10);
+		
+		// Verify the result.
+		assertThat(reader.isRunning(), is(equalTo(false)));
+		assertThat(connectionInterface.isOpen(), is(equalTo(false)));
+		assertThat(eventLoop.getNumberOfReaders(), is(equalTo(0)));
+	}
+}
@@ -20,6 +20,8 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertThat;
 
+import java.net.Inet6Address;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -38,6 +40,7 @@ import com.digi.xbee.api.XBeeDevice;
 import com.digi.xbee.api.XBeeNetwork;
 import com.digi.xbee.api.exceptions.OperationNotSupportedException;
 import com.digi.xbee.api.exceptions.XBeeException;
+import com.digi.xbee.api.models.IPProtocol;
 import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.OperatingMode;
 import com.digi.xbee.api.models.XBee16BitAddress;
@@ -53,6 +56,7 @@ import com.digi.xbee.api.packet.raw.RX16IOPacket;
 import com.digi.xbee.api.packet.raw.RX16Packet;
 import com.digi.xbee.api.packet.raw.RX64IOPacket;
 import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.thread.RXIPv6Packet;
 
 @RunWith(PowerMockRunner.class)
 public class DataReaderGetRemoteXBeeDeviceFromPacketTest {
@@ -863,4 +867,37 @@ public class DataReaderGetRemoteXBeeDeviceFromPacketTest {
 		assertThat("The network must contain 1 device and not " + network.getNumberOfDevices(), 
 				network.getNumberOfDevices(), is(equalTo(1)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.XBeeDevice#getRemoteXBeeDeviceFromPacket(com.digi.xbee.api.packet.XBeeAPIPacket)}.
+	 * 
+	 * <p>Verify that the same remote device instance is returned for every 
+	 * frame received from the same IPv6 address.</p>
+	 * 
+	 * @throws Exception 
+	 */
+	@Test
+	public final void testGetRemoteXBeeDeviceFromPacketRXIPv6PacketSameSource() throws Exception {
+		// Setup the resources for the test.
+		Inet6Address destAddress = (Inet6Address) Inet6Address.getByName("FDB3:0001:0002:0000:0004:0005:0006:0007");
+		Inet6Address sourceAddress1 = (Inet6Address) Inet6Address.getByName("FDB4:0002:0003:0000:0005:0006:0007:0008");
+		Inet6Address sourceAddress2 = (Inet6Address) Inet6Address.getByName("FDB4:0002:0003:0000:0005:0006:0007:0009");
+		
+		RXIPv6Packet packet1 = new RXIPv6Packet(destAddress, sourceAddress1, 1234, 5678, IPProtocol.UDP, new byte[0]);
+		RXIPv6Packet packet2 = new RXIPv6Packet(destAddress, sourceAddress1, 1234, 5678, IPProtocol.UDP, new byte[] {0x01});
+		RXIPv6Packet packet3 = new RXIPv6Packet(destAddress, sourceAddress2, 1234, 5678, IPProtocol.UDP, new byte[0]);
+		
+		// Call the method under test.
+		RemoteXBeeDevice remoteDevice1 = dataReader.getRemoteXBeeDeviceFromPacket(packet1);
+		RemoteXBeeDevice remoteDevice2 = dataReader.getRemoteXBeeDeviceFromPacket(packet2);
+		RemoteXBeeDevice remoteDevice3 = dataReader.getRemoteXBeeDeviceFromPacket(packet3);
+		
+		// Verify the result.
+		assertThat("Returned remote device IPv6 address must be '" + sourceAddress1 + "' and not '" + remoteDevice1.getIPv6Address() + "'", 
+				remoteDevice1.getIPv6Address(), is(equalTo(sourceAddress1)));
+		assertThat("The same remote device must be returned for the same source", remoteDevice2 == remoteDevice1, is(equalTo(true)));
+		assertThat("A different remote device must be returned for other source", remoteDevice3 == remoteDevice1, is(equalTo(false)));
+		assertThat("Returned remote device IPv6 address must be '" + sourceAddress2 + "' and not '" + remoteDevice3.getIPv6Address() + "'", 
+				remoteDevice3.getIPv6Address(), is(equalTo(sourceAddress2)));
+	}
 }
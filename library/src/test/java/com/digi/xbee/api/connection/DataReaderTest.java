@@ -19,6 +19,7 @@ import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertThat;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -27,9 +28,16 @@ import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -55,25 +63,39 @@ import com.digi.xbee.api.exceptions.InvalidConfigurationException;
 import com.digi.xbee.api.exceptions.InvalidInterfaceException;
 import com.digi.xbee.api.exceptions.InvalidPacketException;
 import com.digi.xbee.api.exceptions.PermissionDeniedException;
+import com.digi.xbee.api.io.IODeadbandFilter;
+import com.digi.xbee.api.io.IOLine;
+import com.digi.xbee.api.io.IOLineHistory;
 import com.digi.xbee.api.io.IOSample;
+import com.digi.xbee.api.io.IOSampleStore;
+import com.digi.xbee.api.io.IOStateCache;
+import com.digi.xbee.api.io.IOValue;
+import com.digi.xbee.api.listeners.IDataBatchReceiveListener;
 import com.digi.xbee.api.listeners.IDataReceiveListener;
 import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
+import com.digi.xbee.api.listeners.IIOSampleBatchReceiveListener;
 import com.digi.xbee.api.listeners.IIOSampleReceiveListener;
 import com.digi.xbee.api.listeners.IIPDataReceiveListener;
 import com.digi.xbee.api.listeners.IModemStatusReceiveListener;
 import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.listeners.IRxFrameListener;
 import com.digi.xbee.api.models.ExplicitXBeeMessage;
 import com.digi.xbee.api.models.IPMessage;
 import com.digi.xbee.api.models.ModemStatusEvent;
 import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.OverflowStrategy;
+import com.digi.xbee.api.models.ReceiveFilter;
 import com.digi.xbee.api.models.SpecialByte;
 import com.digi.xbee.api.models.XBee16BitAddress;
 import com.digi.xbee.api.models.XBee64BitAddress;
 import com.digi.xbee.api.models.XBeeMessage;
 import com.digi.xbee.api.models.XBeePacketsQueue;
 import com.digi.xbee.api.models.XBeeProtocol;
+import com.digi.xbee.api.packet.APIFrameType;
+import com.digi.xbee.api.packet.RxFrameView;
 import com.digi.xbee.api.packet.XBeePacket;
 import com.digi.xbee.api.packet.XBeePacketParser;
+import com.digi.xbee.api.packet.raw.RX16IOPacket;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({DataReader.class})
@@ -402,7 +424,7 @@ public class DataReaderTest {
 		reader.addDataReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IDataReceiveListener> list = Whitebox.getInternalState(reader, "dataReceiveListeners");
+		List<IDataReceiveListener> list = Whitebox.getInternalState(reader, "dataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 	}
@@ -418,7 +440,7 @@ public class DataReaderTest {
 		
 		reader.addDataReceiveListener(l);
 		
-		ArrayList<IDataReceiveListener> list = Whitebox.getInternalState(reader, "dataReceiveListeners");
+		List<IDataReceiveListener> list = Whitebox.getInternalState(reader, "dataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		
@@ -447,7 +469,7 @@ public class DataReaderTest {
 		reader.removeDataReceiveListener(l1);
 		
 		// Verify the result.
-		ArrayList<IDataReceiveListener> list = Whitebox.getInternalState(reader, "dataReceiveListeners");
+		List<IDataReceiveListener> list = Whitebox.getInternalState(reader, "dataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		assertThat(list.contains(l1), is(equalTo(false)));
@@ -468,7 +490,7 @@ public class DataReaderTest {
 		reader.removeDataReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IDataReceiveListener> list = Whitebox.getInternalState(reader, "dataReceiveListeners");
+		List<IDataReceiveListener> list = Whitebox.getInternalState(reader, "dataReceiveListeners");
 		assertThat(list.size(), is(equalTo(0)));
 		assertThat(list.contains(l), is(equalTo(false)));
 	}
@@ -502,7 +524,7 @@ public class DataReaderTest {
 		reader.addPacketReceiveListener(l);
 		
 		// Verify the result.
-		HashMap<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
+		Map<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
 		assertThat(map.size(), is(equalTo(1)));
 		assertThat(map.containsKey(l), is(equalTo(true)));
 		assertThat(map.get(l), is(equalTo(99999)));
@@ -519,7 +541,7 @@ public class DataReaderTest {
 		
 		reader.addPacketReceiveListener(l);
 		
-		HashMap<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
+		Map<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
 		assertThat(map.size(), is(equalTo(1)));
 		assertThat(map.containsKey(l), is(equalTo(true)));
 		
@@ -563,7 +585,7 @@ public class DataReaderTest {
 		reader.addPacketReceiveListener(l, frameID);
 		
 		// Verify the result.
-		HashMap<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
+		Map<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
 		assertThat(map.size(), is(equalTo(1)));
 		assertThat(map.containsKey(l), is(equalTo(true)));
 		assertThat(map.get(l), is(equalTo(frameID)));
@@ -581,7 +603,7 @@ public class DataReaderTest {
 		
 		reader.addPacketReceiveListener(l, frameID);
 		
-		HashMap<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
+		Map<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
 		assertThat(map.size(), is(equalTo(1)));
 		assertThat(map.containsKey(l), is(equalTo(true)));
 		
@@ -607,7 +629,7 @@ public class DataReaderTest {
 		
 		reader.addPacketReceiveListener(l, frameID);
 		
-		HashMap<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
+		Map<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
 		assertThat(map.size(), is(equalTo(1)));
 		assertThat(map.containsKey(l), is(equalTo(true)));
 		
@@ -637,7 +659,7 @@ public class DataReaderTest {
 		reader.removePacketReceiveListener(l1);
 		
 		// Verify the result.
-		HashMap<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
+		Map<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
 		assertThat(map.size(), is(equalTo(1)));
 		assertThat(map.containsKey(l), is(equalTo(true)));
 		assertThat(map.get(l), is(equalTo(99999)));
@@ -659,7 +681,7 @@ public class DataReaderTest {
 		reader.removePacketReceiveListener(l);
 		
 		// Verify the result.
-		HashMap<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
+		Map<IPacketReceiveListener, Integer> map = Whitebox.getInternalState(reader, "packetReceiveListeners");
 		assertThat(map.size(), is(equalTo(0)));
 		assertThat(map.containsKey(l), is(equalTo(false)));
 	}
@@ -693,7 +715,7 @@ public class DataReaderTest {
 		reader.addIOSampleReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ioSampleReceiveListeners");
+		List<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ioSampleReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 	}
@@ -709,7 +731,7 @@ public class DataReaderTest {
 		
 		reader.addIOSampleReceiveListener(l);
 		
-		ArrayList<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ioSampleReceiveListeners");
+		List<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ioSampleReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		
@@ -738,7 +760,7 @@ public class DataReaderTest {
 		reader.removeIOSampleReceiveListener(l1);
 		
 		// Verify the result.
-		ArrayList<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ioSampleReceiveListeners");
+		List<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ioSampleReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		assertThat(list.contains(l1), is(equalTo(false)));
@@ -759,7 +781,7 @@ public class DataReaderTest {
 		reader.removeIOSampleReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ioSampleReceiveListeners");
+		List<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ioSampleReceiveListeners");
 		assertThat(list.size(), is(equalTo(0)));
 		assertThat(list.contains(l), is(equalTo(false)));
 	}
@@ -793,7 +815,7 @@ public class DataReaderTest {
 		reader.addModemStatusReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IModemStatusReceiveListener> list = Whitebox.getInternalState(reader, "modemStatusListeners");
+		List<IModemStatusReceiveListener> list = Whitebox.getInternalState(reader, "modemStatusListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 	}
@@ -809,7 +831,7 @@ public class DataReaderTest {
 		
 		reader.addModemStatusReceiveListener(l);
 		
-		ArrayList<IModemStatusReceiveListener> list = Whitebox.getInternalState(reader, "modemStatusListeners");
+		List<IModemStatusReceiveListener> list = Whitebox.getInternalState(reader, "modemStatusListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		
@@ -838,7 +860,7 @@ public class DataReaderTest {
 		reader.removeModemStatusReceiveListener(l1);
 		
 		// Verify the result.
-		ArrayList<IModemStatusReceiveListener> list = Whitebox.getInternalState(reader, "modemStatusListeners");
+		List<IModemStatusReceiveListener> list = Whitebox.getInternalState(reader, "modemStatusListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		assertThat(list.contains(l1), is(equalTo(false)));
@@ -859,7 +881,7 @@ public class DataReaderTest {
 		reader.removeModemStatusReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IModemStatusReceiveListener> list = Whitebox.getInternalState(reader, "modemStatusListeners");
+		List<IModemStatusReceiveListener> list = Whitebox.getInternalState(reader, "modemStatusListeners");
 		assertThat(list.size(), is(equalTo(0)));
 		assertThat(list.contains(l), is(equalTo(false)));
 	}
@@ -893,7 +915,7 @@ public class DataReaderTest {
 		reader.addExplicitDataReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IExplicitDataReceiveListener> list = Whitebox.getInternalState(reader, "explicitDataReceiveListeners");
+		List<IExplicitDataReceiveListener> list = Whitebox.getInternalState(reader, "explicitDataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 	}
@@ -909,7 +931,7 @@ public class DataReaderTest {
 		
 		reader.addExplicitDataReceiveListener(l);
 		
-		ArrayList<IExplicitDataReceiveListener> list = Whitebox.getInternalState(reader, "explicitDataReceiveListeners");
+		List<IExplicitDataReceiveListener> list = Whitebox.getInternalState(reader, "explicitDataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		
@@ -938,7 +960,7 @@ public class DataReaderTest {
 		reader.removeExplicitDataReceiveListener(l1);
 		
 		// Verify the result.
-		ArrayList<IExplicitDataReceiveListener> list = Whitebox.getInternalState(reader, "explicitDataReceiveListeners");
+		List<IExplicitDataReceiveListener> list = Whitebox.getInternalState(reader, "explicitDataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		assertThat(list.contains(l1), is(equalTo(false)));
@@ -959,7 +981,7 @@ public class DataReaderTest {
 		reader.removeExplicitDataReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IExplicitDataReceiveListener> list = Whitebox.getInternalState(reader, "explicitDataReceiveListeners");
+		List<IExplicitDataReceiveListener> list = Whitebox.getInternalState(reader, "explicitDataReceiveListeners");
 		assertThat(list.size(), is(equalTo(0)));
 		assertThat(list.contains(l), is(equalTo(false)));
 	}
@@ -993,7 +1015,7 @@ public class DataReaderTest {
 		reader.addIPDataReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IIPDataReceiveListener> list = Whitebox.getInternalState(reader, "ipDataReceiveListeners");
+		List<IIPDataReceiveListener> list = Whitebox.getInternalState(reader, "ipDataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 	}
@@ -1009,7 +1031,7 @@ public class DataReaderTest {
 		
 		reader.addIPDataReceiveListener(l);
 		
-		ArrayList<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ipDataReceiveListeners");
+		List<IIOSampleReceiveListener> list = Whitebox.getInternalState(reader, "ipDataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		
@@ -1038,7 +1060,7 @@ public class DataReaderTest {
 		reader.removeIPDataReceiveListener(l1);
 		
 		// Verify the result.
-		ArrayList<IIPDataReceiveListener> list = Whitebox.getInternalState(reader, "ipDataReceiveListeners");
+		List<IIPDataReceiveListener> list = Whitebox.getInternalState(reader, "ipDataReceiveListeners");
 		assertThat(list.size(), is(equalTo(1)));
 		assertThat(list.contains(l), is(equalTo(true)));
 		assertThat(list.contains(l1), is(equalTo(false)));
@@ -1059,7 +1081,7 @@ public class DataReaderTest {
 		reader.removeIPDataReceiveListener(l);
 		
 		// Verify the result.
-		ArrayList<IIPDataReceiveListener> list = Whitebox.getInternalState(reader, "ipDataReceiveListeners");
+		List<IIPDataReceiveListener> list = Whitebox.getInternalState(reader, "ipDataReceiveListeners");
 		assertThat(list.size(), is(equalTo(0)));
 		assertThat(list.contains(l), is(equalTo(false)));
 	}
@@ -1550,6 +1572,651 @@ public class DataReaderTest {
 		Mockito.verify(ipListener, Mockito.times(0)).ipDataReceived(Mockito.any(IPMessage.class));
 	}
 	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setListenerExecutor(ExecutorService)}. 
+	 * 
+	 * <p>Verify that listeners are notified using the shared executor, that 
+	 * it is not shut down and that no thread pool is created per packet.</p>
+	 */
+	@Test
+	public final void testDataReaderReceivePacketSharedListenerExecutor() throws Exception {
+		// Setup the resources for the test.
+		ScheduledThreadPoolExecutor sharedExecutor = Mockito.mock(ScheduledThreadPoolExecutor.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				((Runnable) invocation.getArguments()[0]).run();
+				testCI.transmissionFinished = true;
+				return null;
+			}
+		}).when(sharedExecutor).execute(Mockito.any(Runnable.class));
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setListenerExecutor(sharedExecutor);
+		
+		IDataReceiveListener dataListener = Mockito.mock(IDataReceiveListener.class);
+		dataReader.addDataReceiveListener(dataListener);
+		
+		PACKET_TO_BE_RECEIVED = RX_PACKET;
+		
+		// Call the method under test.
+		dataReader.start();
+		
+		waitForInitialization(dataReader.getId());
+		testCI.notifyData();
+		while (dataReader.isRunning() || !testCI.transmissionFinished)
+			Thread.sleep(30);
+		
+		// Verify the result.
+		Mockito.verify(dataListener, Mockito.times(1)).dataReceived(Mockito.any(XBeeMessage.class));
+		Mockito.verify(sharedExecutor, Mockito.atLeastOnce()).execute(Mockito.any(Runnable.class));
+		Mockito.verify(sharedExecutor, Mockito.never()).shutdown();
+		PowerMockito.verifyStatic(Mockito.never());
+		Executors.newScheduledThreadPool(Mockito.anyInt());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setListenerExecutor(ExecutorService)}. 
+	 * 
+	 * <p>Verify that the shared executor is not shut down when it is 
+	 * replaced while its listeners are being notified.</p>
+	 */
+	@Test
+	public final void testDataReaderReceivePacketSharedListenerExecutorReplaced() throws Exception {
+		// Setup the resources for the test.
+		ScheduledThreadPoolExecutor sharedExecutor = Mockito.mock(ScheduledThreadPoolExecutor.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				((Runnable) invocation.getArguments()[0]).run();
+				testCI.transmissionFinished = true;
+				return null;
+			}
+		}).when(sharedExecutor).execute(Mockito.any(Runnable.class));
+		
+		final DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setListenerExecutor(sharedExecutor);
+		
+		IDataReceiveListener dataListener = Mockito.mock(IDataReceiveListener.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				dataReader.setListenerExecutor(null);
+				return null;
+			}
+		}).when(dataListener).dataReceived(Mockito.any(XBeeMessage.class));
+		dataReader.addDataReceiveListener(dataListener);
+		
+		PACKET_TO_BE_RECEIVED = RX_PACKET;
+		
+		// Call the method under test.
+		dataReader.start();
+		
+		waitForInitialization(dataReader.getId());
+		testCI.notifyData();
+		while (dataReader.isRunning() || !testCI.transmissionFinished)
+			Thread.sleep(30);
+		
+		// Verify the result.
+		Mockito.verify(dataListener, Mockito.times(1)).dataReceived(Mockito.any(XBeeMessage.class));
+		Mockito.verify(sharedExecutor, Mockito.never()).shutdown();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setListenerExecutor(ExecutorService)}. 
+	 * 
+	 * <p>Verify that the listeners are notified without holding their 
+	 * monitor, so a listener that blocks does not pin the carrier of a 
+	 * virtual thread.</p>
+	 */
+	@Test
+	public final void testDataReceiveListenerNotifiedWithoutMonitor() throws Exception {
+		// Setup the resources for the test.
+		ScheduledThreadPoolExecutor sharedExecutor = Mockito.mock(ScheduledThreadPoolExecutor.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(sharedExecutor).execute(Mockito.any(Runnable.class));
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setListenerExecutor(sharedExecutor);
+		
+		final IDataReceiveListener dataListener = Mockito.mock(IDataReceiveListener.class);
+		final AtomicBoolean monitorHeld = new AtomicBoolean(true);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				monitorHeld.set(Thread.holdsLock(dataListener));
+				return null;
+			}
+		}).when(dataListener).dataReceived(Mockito.any(XBeeMessage.class));
+		dataReader.addDataReceiveListener(dataListener);
+		
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(new XBee64BitAddress("0013A20040A9E77E"));
+		XBeeMessage message = new XBeeMessage(remoteDevice, "Data".getBytes());
+		
+		// Call the method under test.
+		Whitebox.invokeMethod(dataReader, "dataReceived", APIFrameType.RECEIVE_PACKET, message);
+		
+		// Verify the result.
+		Mockito.verify(dataListener, Mockito.times(1)).dataReceived(message);
+		assertThat(monitorHeld.get(), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#addDataBatchReceiveListener(IDataBatchReceiveListener, int, long, int, OverflowStrategy)}.
+	 * 
+	 * <p>A {@code NullPointerException} exception must be thrown when passing 
+	 * a {@code null} listener.</p>
+	 */
+	@Test
+	public final void testAddDataBatchReceiveListenerNullListener() {
+		// Setup the resources for the test.
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Listener cannot be null.")));
+		
+		// Call the method under test.
+		dataReader.addDataBatchReceiveListener(null, 10, 1000, 100, OverflowStrategy.DROP_OLDEST);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#addDataBatchReceiveListener(IDataBatchReceiveListener, int, long, int, OverflowStrategy)}.
+	 * 
+	 * <p>Verify that batch data listeners are notified with the received data 
+	 * and that their mailbox is closed when the listener is removed.</p>
+	 */
+	@Test
+	public final void testDataReaderReceivePacketDataBatchListener() throws Exception {
+		// Setup the resources for the test.
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		
+		IDataBatchReceiveListener batchListener = Mockito.mock(IDataBatchReceiveListener.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				testCI.transmissionFinished = true;
+				return null;
+			}
+		}).when(batchListener).dataBatchReceived(Mockito.anyListOf(XBeeMessage.class));
+		dataReader.addDataBatchReceiveListener(batchListener, 10, 1000, 100, OverflowStrategy.DROP_OLDEST);
+		@SuppressWarnings("unchecked")
+		ListenerMailbox<XBeeMessage> mailbox = ((Map<IDataBatchReceiveListener, ListenerMailbox<XBeeMessage>>)
+				Whitebox.getInternalState(dataReader, "dataBatchReceiveListeners")).get(batchListener);
+		
+		PACKET_TO_BE_RECEIVED = RX_PACKET;
+		
+		// Call the method under test.
+		dataReader.start();
+		
+		waitForInitialization(dataReader.getId());
+		testCI.notifyData();
+		while (dataReader.isRunning() || !testCI.transmissionFinished)
+			Thread.sleep(30);
+		dataReader.removeDataBatchReceiveListener(batchListener);
+		
+		// Verify the result.
+		Mockito.verify(batchListener, Mockito.times(1)).dataBatchReceived(Mockito.anyListOf(XBeeMessage.class));
+		assertThat(mailbox.isClosed(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#addDataBatchReceiveListener(IDataBatchReceiveListener, int, long, int, OverflowStrategy)}.
+	 * 
+	 * <p>Verify that the messages for a full batch data listener with the 
+	 * {@code BLOCK} overflow strategy do not block the reader nor use the 
+	 * notification threads, and that they are delivered in order.</p>
+	 */
+	@Test
+	public final void testDataBatchReceiveListenerBlockHandOff() throws Exception {
+		// Setup the resources for the test.
+		ScheduledThreadPoolExecutor sharedExecutor = Mockito.mock(ScheduledThreadPoolExecutor.class);
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setListenerExecutor(sharedExecutor);
+		
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<XBeeMessage> received = Collections.synchronizedList(new ArrayList<XBeeMessage>());
+		IDataBatchReceiveListener batchListener = Mockito.mock(IDataBatchReceiveListener.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			@SuppressWarnings("unchecked")
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				release.await(5, TimeUnit.SECONDS);
+				received.addAll((List<XBeeMessage>) invocation.getArguments()[0]);
+				return null;
+			}
+		}).when(batchListener).dataBatchReceived(Mockito.anyListOf(XBeeMessage.class));
+		dataReader.addDataBatchReceiveListener(batchListener, 1, 0, 1, OverflowStrategy.BLOCK);
+		
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(new XBee64BitAddress("0013A20040A9E77E"));
+		List<XBeeMessage> messages = new ArrayList<XBeeMessage>();
+		for (int i = 0; i < 20; i++)
+			messages.add(new XBeeMessage(remoteDevice, new byte[]{(byte)i}));
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		for (XBeeMessage message:messages)
+			Whitebox.invokeMethod(dataReader, "dataReceived", APIFrameType.RECEIVE_PACKET, message);
+		long elapsed = System.currentTimeMillis() - start;
+		release.countDown();
+		
+		// Verify the result.
+		assertThat(elapsed < 1000, is(equalTo(true)));
+		Mockito.verify(batchListener, Mockito.timeout(5000).times(20)).dataBatchReceived(Mockito.anyListOf(XBeeMessage.class));
+		assertThat(received, is(equalTo(messages)));
+		Mockito.verify(sharedExecutor, Mockito.never()).execute(Mockito.any(Runnable.class));
+		dataReader.removeDataBatchReceiveListener(batchListener);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#addDataReceiveListener(IDataReceiveListener, ReceiveFilter)}.
+	 * 
+	 * <p>Verify that filtered listeners are only notified with the messages 
+	 * that match their filter.</p>
+	 */
+	@Test
+	public final void testFilteredDataReceiveListener() throws Exception {
+		// Setup the resources for the test.
+		ScheduledThreadPoolExecutor sharedExecutor = Mockito.mock(ScheduledThreadPoolExecutor.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(sharedExecutor).execute(Mockito.any(Runnable.class));
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setListenerExecutor(sharedExecutor);
+		
+		XBee64BitAddress address = new XBee64BitAddress("0013A20040A9E77E");
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(address);
+		XBeeMessage message = new XBeeMessage(remoteDevice, "Data".getBytes());
+		
+		IDataReceiveListener addressListener = Mockito.mock(IDataReceiveListener.class);
+		dataReader.addDataReceiveListener(addressListener, new ReceiveFilter().setSource64BitAddress(address));
+		IDataReceiveListener otherAddressListener = Mockito.mock(IDataReceiveListener.class);
+		dataReader.addDataReceiveListener(otherAddressListener, 
+				new ReceiveFilter().setSource64BitAddress(new XBee64BitAddress("0013A20040A9E77F")));
+		IDataReceiveListener frameTypeListener = Mockito.mock(IDataReceiveListener.class);
+		dataReader.addDataReceiveListener(frameTypeListener, new ReceiveFilter().setFrameTypes(APIFrameType.RX_64));
+		
+		// Call the method under test.
+		Whitebox.invokeMethod(dataReader, "dataReceived", APIFrameType.RECEIVE_PACKET, message);
+		
+		// Verify the result.
+		Mockito.verify(addressListener, Mockito.times(1)).dataReceived(message);
+		Mockito.verify(otherAddressListener, Mockito.never()).dataReceived(Mockito.any(XBeeMessage.class));
+		Mockito.verify(frameTypeListener, Mockito.never()).dataReceived(Mockito.any(XBeeMessage.class));
+		
+		// Call the method under test.
+		dataReader.removeDataReceiveListener(addressListener);
+		Whitebox.invokeMethod(dataReader, "dataReceived", APIFrameType.RX_64, message);
+		
+		// Verify the result.
+		Mockito.verify(addressListener, Mockito.times(1)).dataReceived(message);
+		Mockito.verify(frameTypeListener, Mockito.times(1)).dataReceived(message);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#addExplicitDataRoute(int, int, int, IExplicitDataReceiveListener)}.
+	 * 
+	 * <p>Verify that only the handlers of the route matching the received 
+	 * explicit data are notified.</p>
+	 */
+	@Test
+	public final void testExplicitDataRoute() throws Exception {
+		// Setup the resources for the test.
+		ScheduledThreadPoolExecutor sharedExecutor = Mockito.mock(ScheduledThreadPoolExecutor.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(sharedExecutor).execute(Mockito.any(Runnable.class));
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setListenerExecutor(sharedExecutor);
+		
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(new XBee64BitAddress("0013A20040A9E77E"));
+		ExplicitXBeeMessage message = new ExplicitXBeeMessage(remoteDevice, 0x01, 0x01, 0x0006, 0x0104, "Data".getBytes());
+		
+		IExplicitDataReceiveListener onOffHandler = Mockito.mock(IExplicitDataReceiveListener.class);
+		dataReader.addExplicitDataRoute(0x0104, 0x0006, 0x01, onOffHandler);
+		IExplicitDataReceiveListener levelHandler = Mockito.mock(IExplicitDataReceiveListener.class);
+		dataReader.addExplicitDataRoute(0x0104, 0x0008, 0x01, levelHandler);
+		IExplicitDataReceiveListener defaultHandler = Mockito.mock(IExplicitDataReceiveListener.class);
+		dataReader.addExplicitDataRoute(ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, defaultHandler);
+		
+		// Call the method under test.
+		Whitebox.invokeMethod(dataReader, "explicitDataReceived", APIFrameType.EXPLICIT_RX_INDICATOR, message);
+		
+		// Verify the result.
+		Mockito.verify(onOffHandler, Mockito.times(1)).explicitDataReceived(message);
+		Mockito.verify(levelHandler, Mockito.never()).explicitDataReceived(Mockito.any(ExplicitXBeeMessage.class));
+		Mockito.verify(defaultHandler, Mockito.never()).explicitDataReceived(Mockito.any(ExplicitXBeeMessage.class));
+		
+		// Call the method under test.
+		dataReader.removeExplicitDataRoute(0x0104, 0x0006, 0x01, onOffHandler);
+		Whitebox.invokeMethod(dataReader, "explicitDataReceived", APIFrameType.EXPLICIT_RX_INDICATOR, message);
+		
+		// Verify the result.
+		Mockito.verify(onOffHandler, Mockito.times(1)).explicitDataReceived(message);
+		Mockito.verify(defaultHandler, Mockito.times(1)).explicitDataReceived(message);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setDecodeWorkers(int)}.
+	 * 
+	 * <p>Verify that the decode stage can be enabled and disabled.</p>
+	 */
+	@Test
+	public final void testSetDecodeWorkers() {
+		// Setup the resources for the test.
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		
+		// Call the method under test and verify the result.
+		assertThat(dataReader.getDecodeWorkers(), is(equalTo(0)));
+		dataReader.setDecodeWorkers(3);
+		assertThat(dataReader.getDecodeWorkers(), is(equalTo(3)));
+		dataReader.setDecodeWorkers(0);
+		assertThat(dataReader.getDecodeWorkers(), is(equalTo(0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setDecodeWorkers(int)}.
+	 * 
+	 * <p>Verify that a negative number of workers is rejected.</p>
+	 */
+	@Test
+	public final void testSetDecodeWorkersNegative() {
+		// Setup the resources for the test.
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Number of workers cannot be negative.")));
+		
+		// Call the method under test.
+		dataReader.setDecodeWorkers(-1);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#addRxFrameListener(IRxFrameListener)}.
+	 * 
+	 * <p>Verify that, in flyweight mode, received data frames are delivered 
+	 * as views to the received frame listeners without being parsed into 
+	 * packets.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testRxFrameListenerFlyweight() throws Exception {
+		// Setup the resources for the test.
+		byte[] frame = new byte[] {0x00, 0x10, (byte)0x90, 
+				0x00, 0x13, (byte)0xA2, 0x00, 0x40, 0x32, 0x16, (byte)0x9C, 
+				(byte)0xFF, (byte)0xFE, 0x01, 0x48, 0x6F, 0x6C, 0x61, 0x14};
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		Mockito.doCallRealMethod().when(mockParser).readPayload(Mockito.any(InputStream.class), 
+				Mockito.any(OperatingMode.class), Mockito.any(byte[].class));
+		dataReader.setFlyweightDecode(true);
+		
+		final long[] sourceAddress = new long[1];
+		final byte[][] data = new byte[1][];
+		IRxFrameListener listener = Mockito.mock(IRxFrameListener.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				RxFrameView view = (RxFrameView) invocation.getArguments()[0];
+				sourceAddress[0] = view.get64BitSourceAddress();
+				data[0] = view.copyRFData();
+				return null;
+			}
+		}).when(listener).rxFrameReceived(Mockito.any(RxFrameView.class));
+		dataReader.addRxFrameListener(listener);
+		
+		// Call the method under test.
+		Whitebox.invokeMethod(dataReader, "frameReceived", new ByteArrayInputStream(frame), OperatingMode.API);
+		
+		// Verify the result.
+		Mockito.verify(listener, Mockito.times(1)).rxFrameReceived(Mockito.any(RxFrameView.class));
+		assertThat(sourceAddress[0], is(equalTo(0x0013A2004032169CL)));
+		assertThat(data[0], is(equalTo("Hola".getBytes())));
+		Mockito.verify(mockQueue, Mockito.never()).addPacket(Mockito.any(XBeePacket.class));
+		
+		// Call the method under test.
+		dataReader.removeRxFrameListener(listener);
+		
+		// Verify the result.
+		assertThat(((List<?>)Whitebox.getInternalState(dataReader, "rxFrameListeners")).isEmpty(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#addIOSampleBatchReceiveListener(IIOSampleBatchReceiveListener)}.
+	 * 
+	 * <p>Verify that all the samples of a multi-sample 802.15.4 IO packet are 
+	 * notified in order, one by one to the IO sample listeners and at once 
+	 * to the IO sample batch listeners.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testIOSampleBatchReceiveListener() throws Exception {
+		// Setup the resources for the test.
+		ScheduledThreadPoolExecutor sharedExecutor = Mockito.mock(ScheduledThreadPoolExecutor.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(sharedExecutor).execute(Mockito.any(Runnable.class));
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setListenerExecutor(sharedExecutor);
+		
+		// 3 samples of DIO0 and AD0 with analog values 0x0100, 0x0200 and 0x0300.
+		RX16IOPacket packet = new RX16IOPacket(new XBee16BitAddress("1234"), 40, 0, new byte[]{0x03, 0x02, 0x01, 
+				0x00, 0x01, 0x01, 0x00, 
+				0x00, 0x00, 0x02, 0x00, 
+				0x00, 0x01, 0x03, 0x00});
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		
+		final List<Integer> analogValues = new ArrayList<Integer>();
+		IIOSampleReceiveListener ioListener = Mockito.mock(IIOSampleReceiveListener.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				analogValues.add(((IOSample) invocation.getArguments()[1]).getAnalog(IOLine.DIO0_AD0));
+				return null;
+			}
+		}).when(ioListener).ioSampleReceived(Mockito.any(RemoteXBeeDevice.class), Mockito.any(IOSample.class));
+		dataReader.addIOSampleReceiveListener(ioListener);
+		IIOSampleBatchReceiveListener batchListener = Mockito.mock(IIOSampleBatchReceiveListener.class);
+		dataReader.addIOSampleBatchReceiveListener(batchListener);
+		
+		// Call the method under test.
+		dataReader.dispatchPacket(new PacketDecodeStage.DecodedPacket(packet, remoteDevice, null));
+		
+		// Verify the result.
+		assertThat(analogValues.toString(), is(equalTo("[256, 512, 768]")));
+		Mockito.verify(batchListener, Mockito.times(1)).ioSamplesReceived(remoteDevice, packet.getIOSamples());
+		assertThat(packet.getIOSamples().size(), is(equalTo(3)));
+		
+		// Call the method under test.
+		dataReader.removeIOSampleBatchReceiveListener(batchListener);
+		dataReader.dispatchPacket(new PacketDecodeStage.DecodedPacket(packet, remoteDevice, null));
+		
+		// Verify the result.
+		Mockito.verify(batchListener, Mockito.times(1)).ioSamplesReceived(Mockito.any(RemoteXBeeDevice.class), 
+				Mockito.anyListOf(IOSample.class));
+		Mockito.verify(ioListener, Mockito.times(6)).ioSampleReceived(Mockito.any(RemoteXBeeDevice.class), Mockito.any(IOSample.class));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setIOSampleStore(IOSampleStore)}. 
+	 * 
+	 * <p>Verify that all the samples of a received IO packet are kept in the 
+	 * IO sample store even if there are no IO sample listeners.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testIOSampleStore() throws Exception {
+		// Setup the resources for the test.
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		IOSampleStore store = new IOSampleStore(4);
+		dataReader.setIOSampleStore(store);
+		
+		// 3 samples of DIO0 and AD0 with analog values 0x0100, 0x0200 and 0x0300.
+		RX16IOPacket packet = new RX16IOPacket(new XBee16BitAddress("1234"), 40, 0, new byte[]{0x03, 0x02, 0x01, 
+				0x00, 0x01, 0x01, 0x00, 
+				0x00, 0x00, 0x02, 0x00, 
+				0x00, 0x01, 0x03, 0x00});
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get16BitAddress()).thenReturn(new XBee16BitAddress("1234"));
+		
+		// Call the method under test.
+		dataReader.dispatchPacket(new PacketDecodeStage.DecodedPacket(packet, remoteDevice, null));
+		
+		// Verify the result.
+		assertThat(dataReader.getIOSampleStore(), is(equalTo(store)));
+		IOLineHistory history = store.getHistory(remoteDevice, IOLine.DIO0_AD0);
+		assertThat(history.size(), is(equalTo(3)));
+		assertThat(history.getLatestAnalogValue(), is(equalTo(0x0300)));
+		assertThat(history.getLatestDigitalValue(), is(equalTo(IOValue.HIGH)));
+		assertThat(history.aggregateLast(0).getMean(), is(equalTo(512.0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setIODeadbandFilter(IODeadbandFilter)}. 
+	 * 
+	 * <p>Verify that only the IO samples accepted by the deadband filter are 
+	 * delivered to the IO sample listeners, while the IO sample store keeps 
+	 * all of them.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testIODeadbandFilter() throws Exception {
+		// Setup the resources for the test.
+		ScheduledThreadPoolExecutor sharedExecutor = Mockito.mock(ScheduledThreadPoolExecutor.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(sharedExecutor).execute(Mockito.any(Runnable.class));
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setListenerExecutor(sharedExecutor);
+		IOSampleStore store = new IOSampleStore(4);
+		dataReader.setIOSampleStore(store);
+		IODeadbandFilter filter = new IODeadbandFilter();
+		filter.setDeadband(IOLine.DIO0_AD0, 0x0200);
+		dataReader.setIODeadbandFilter(filter);
+		
+		// 3 samples of DIO0 and AD0 with analog values 0x0100, 0x0200 and 0x0300.
+		// Only the first and the last one are delivered.
+		RX16IOPacket packet = new RX16IOPacket(new XBee16BitAddress("1234"), 40, 0, new byte[]{0x03, 0x02, 0x01, 
+				0x00, 0x01, 0x01, 0x00, 
+				0x00, 0x01, 0x02, 0x00, 
+				0x00, 0x01, 0x03, 0x00});
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get16BitAddress()).thenReturn(new XBee16BitAddress("1234"));
+		
+		IIOSampleReceiveListener ioListener = Mockito.mock(IIOSampleReceiveListener.class);
+		dataReader.addIOSampleReceiveListener(ioListener);
+		IIOSampleBatchReceiveListener batchListener = Mockito.mock(IIOSampleBatchReceiveListener.class);
+		dataReader.addIOSampleBatchReceiveListener(batchListener);
+		
+		// Call the method under test.
+		dataReader.dispatchPacket(new PacketDecodeStage.DecodedPacket(packet, remoteDevice, null));
+		
+		// Verify the result.
+		Mockito.verify(ioListener, Mockito.times(1)).ioSampleReceived(remoteDevice, packet.getIOSamples().get(0));
+		Mockito.verify(ioListener, Mockito.times(1)).ioSampleReceived(remoteDevice, packet.getIOSamples().get(2));
+		Mockito.verify(ioListener, Mockito.times(2)).ioSampleReceived(Mockito.any(RemoteXBeeDevice.class), Mockito.any(IOSample.class));
+		Mockito.verify(batchListener, Mockito.times(1)).ioSamplesReceived(Mockito.any(RemoteXBeeDevice.class), 
+				Mockito.anyListOf(IOSample.class));
+		assertThat(dataReader.getIODeadbandFilter(), is(equalTo(filter)));
+		assertThat(store.getHistory(remoteDevice, IOLine.DIO0_AD0).size(), is(equalTo(3)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setIOStateCache(IOStateCache)}. 
+	 * 
+	 * <p>Verify that the last sample of a received IO packet is cached as the 
+	 * IO state of the remote device.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testIOStateCache() throws Exception {
+		// Setup the resources for the test.
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		IOStateCache cache = new IOStateCache();
+		dataReader.setIOStateCache(cache);
+		
+		// 3 samples of DIO0 and AD0 with analog values 0x0100, 0x0200 and 0x0300.
+		RX16IOPacket packet = new RX16IOPacket(new XBee16BitAddress("1234"), 40, 0, new byte[]{0x03, 0x02, 0x01, 
+				0x00, 0x01, 0x01, 0x00, 
+				0x00, 0x00, 0x02, 0x00, 
+				0x00, 0x01, 0x03, 0x00});
+		RemoteXBeeDevice remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get16BitAddress()).thenReturn(new XBee16BitAddress("1234"));
+		
+		// Call the method under test.
+		dataReader.dispatchPacket(new PacketDecodeStage.DecodedPacket(packet, remoteDevice, null));
+		
+		// Verify the result.
+		assertThat(dataReader.getIOStateCache(), is(equalTo(cache)));
+		assertThat(cache.getIOSample(remoteDevice, 60000), is(equalTo(packet.getIOSamples().get(2))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setDispatcher(PartitionedDispatcher)}. 
+	 * 
+	 * <p>Verify that listeners are notified by the partition of the 
+	 * dispatcher assigned to the source of the message.</p>
+	 */
+	@Test
+	public final void testDataReaderReceivePacketDispatcher() throws Exception {
+		// Setup the resources for the test.
+		PartitionedDispatcher dispatcher = new PartitionedDispatcher(1);
+		final ArrayList<String> threadNames = new ArrayList<String>();
+		
+		DataReader dataReader = new DataReader(testCI, OperatingMode.API, mockDevice);
+		dataReader.setDispatcher(dispatcher);
+		
+		IDataReceiveListener dataListener = Mockito.mock(IDataReceiveListener.class);
+		Mockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				synchronized (threadNames) {
+					threadNames.add(Thread.currentThread().getName());
+				}
+				testCI.transmissionFinished = true;
+				return null;
+			}
+		}).when(dataListener).dataReceived(Mockito.any(XBeeMessage.class));
+		dataReader.addDataReceiveListener(dataListener);
+		
+		PACKET_TO_BE_RECEIVED = RX_PACKET;
+		
+		// Call the method under test.
+		dataReader.start();
+		
+		waitForInitialization(dataReader.getId());
+		testCI.notifyData();
+		while (dataReader.isRunning() || !testCI.transmissionFinished)
+			Thread.sleep(30);
+		dispatcher.shutdown();
+		
+		// Verify the result.
+		Mockito.verify(dataListener, Mockito.times(1)).dataReceived(Mockito.any(XBeeMessage.class));
+		synchronized (threadNames) {
+			assertThat(threadNames.get(0), is(equalTo("XBeeDispatcher-0")));
+		}
+	}
+	
 	/**
 	 * Test method for {@link com.digi.xbee.api.connection.DataReader#start()}. 
 	 */
@@ -1979,4 +2646,56 @@ public class DataReaderTest {
 		Mockito.verify(packetListener, Mockito.times(0)).packetReceived(Mockito.any(XBeePacket.class));
 		assertThat(testCI.isOpen(), is(equalTo(false)));
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#start()}.
+	 * 
+	 * <p>Verify that the data reader waiting for data is woken up by the data 
+	 * available listeners of a connection interface that notifies them, and 
+	 * that its listener is removed when the reader finishes.</p>
+	 */
+	@Test
+	public final void testDataReaderReceivePacketDataAvailableListener() throws Exception {
+		// Setup the resources for the test.
+		final List<IDataAvailableListener> dataListeners = new ArrayList<IDataAvailableListener>();
+		class NotifyingConnectionInterface extends TestConnectionInterface implements IDataAvailableNotifier {
+			@Override
+			public InputStream getInputStream() {
+				setAlreadyRead();
+				return null;
+			}
+			
+			@Override
+			public synchronized void addDataAvailableListener(IDataAvailableListener listener) {
+				dataListeners.add(listener);
+			}
+			
+			@Override
+			public synchronized void removeDataAvailableListener(IDataAvailableListener listener) {
+				dataListeners.remove(listener);
+			}
+			
+			synchronized void notifyDataAvailable() {
+				for (IDataAvailableListener listener : dataListeners)
+					listener.dataAvailable(this);
+			}
+		}
+		NotifyingConnectionInterface testCI = new NotifyingConnectionInterface();
+		DataReader dataReader = new DataReader(testCI, OperatingMode.AT, mockDevice);
+		
+		// Call the method under test.
+		dataReader.start();
+		
+		waitForInitialization(dataReader.getId());
+		testCI.notifyDataAvailable();
+		while (dataReader.isRunning())
+			Thread.sleep(30);
+		
+		// Verify the result.
+		Mockito.verify(mockInput, Mockito.times(0)).read();
+		assertThat(testCI.isOpen(), is(equalTo(false)));
+		while (dataReader.isAlive())
+			Thread.sleep(30);
+		assertThat(dataListeners.isEmpty(), is(equalTo(true)));
+	}
+}
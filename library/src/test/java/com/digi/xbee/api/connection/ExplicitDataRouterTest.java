@@ -0,0 +1,162 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.listeners.IExplicitDataReceiveListener;
+
+public class ExplicitDataRouterTest {
+	
+	// Constants.
+	private static final int PROFILE = 0x0104;
+	private static final int CLUSTER = 0x0006;
+	private static final int ENDPOINT = 0x01;
+	
+	// Variables.
+	private ExplicitDataRouter router;
+	
+	private IExplicitDataReceiveListener handler1;
+	private IExplicitDataReceiveListener handler2;
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		router = new ExplicitDataRouter();
+		handler1 = Mockito.mock(IExplicitDataReceiveListener.class);
+		handler2 = Mockito.mock(IExplicitDataReceiveListener.class);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ExplicitDataRouter#route(int, int, int)}.
+	 * 
+	 * <p>Verify that an empty router does not return any handler.</p>
+	 */
+	@Test
+	public void testRouteEmpty() {
+		// Call the method under test and verify the result.
+		assertThat(router.isEmpty(), is(equalTo(true)));
+		assertThat(router.route(PROFILE, CLUSTER, ENDPOINT).isEmpty(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ExplicitDataRouter#route(int, int, int)}.
+	 * 
+	 * <p>Verify that the exact route is returned and other values do not 
+	 * match it.</p>
+	 */
+	@Test
+	public void testRouteExact() {
+		// Setup the resources for the test.
+		router.addRoute(PROFILE, CLUSTER, ENDPOINT, handler1);
+		router.addRoute(PROFILE, CLUSTER, ENDPOINT, handler2);
+		router.addRoute(PROFILE, CLUSTER, ENDPOINT, handler1);
+		
+		// Call the method under test and verify the result.
+		assertThat(router.route(PROFILE, CLUSTER, ENDPOINT), is(equalTo(Arrays.asList(handler1, handler2))));
+		assertThat(router.route(PROFILE, CLUSTER, ENDPOINT + 1).isEmpty(), is(equalTo(true)));
+		assertThat(router.route(PROFILE, CLUSTER + 1, ENDPOINT).isEmpty(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ExplicitDataRouter#route(int, int, int)}.
+	 * 
+	 * <p>Verify that only the handlers of the most specific matching route 
+	 * are returned.</p>
+	 */
+	@Test
+	public void testRouteWildcardFallback() {
+		// Setup the resources for the test.
+		router.addRoute(PROFILE, CLUSTER, ENDPOINT, handler1);
+		router.addRoute(PROFILE, ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, handler2);
+		
+		// Call the method under test and verify the result.
+		assertThat(router.route(PROFILE, CLUSTER, ENDPOINT), is(equalTo(Collections.singletonList(handler1))));
+		assertThat(router.route(PROFILE, 0x0008, ENDPOINT), is(equalTo(Collections.singletonList(handler2))));
+		assertThat(router.route(0xC105, CLUSTER, ENDPOINT).isEmpty(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ExplicitDataRouter#removeRoute(int, int, int, IExplicitDataReceiveListener)}.
+	 * 
+	 * <p>Verify that removing the last handler of a route makes the wildcard 
+	 * routes match again.</p>
+	 */
+	@Test
+	public void testRemoveRoute() {
+		// Setup the resources for the test.
+		router.addRoute(PROFILE, CLUSTER, ENDPOINT, handler1);
+		router.addRoute(ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, handler2);
+		
+		// Call the method under test.
+		router.removeRoute(PROFILE, CLUSTER, ENDPOINT, handler1);
+		
+		// Verify the result.
+		assertThat(router.route(PROFILE, CLUSTER, ENDPOINT), is(equalTo(Collections.singletonList(handler2))));
+		
+		// Call the method under test.
+		router.removeRoute(ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, ExplicitDataRouter.ANY, handler2);
+		
+		// Verify the result.
+		assertThat(router.isEmpty(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ExplicitDataRouter#addRoute(int, int, int, IExplicitDataReceiveListener)}.
+	 * 
+	 * <p>Verify that an endpoint out of range is rejected.</p>
+	 */
+	@Test
+	public void testAddRouteInvalidEndpoint() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Endpoint must be between 0 and 0xFF.")));
+		
+		// Call the method under test.
+		router.addRoute(PROFILE, CLUSTER, 0x100, handler1);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ExplicitDataRouter#addRoute(int, int, int, IExplicitDataReceiveListener)}.
+	 * 
+	 * <p>Verify that a null handler is rejected.</p>
+	 */
+	@Test
+	public void testAddRouteNullHandler() {
+		// Setup the resources for the test.
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Handler cannot be null.")));
+		
+		// Call the method under test.
+		router.addRoute(PROFILE, CLUSTER, ENDPOINT, null);
+	}
+}
@@ -0,0 +1,303 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.models.OverflowStrategy;
+
+public class ListenerMailboxTest {
+	
+	// Variables.
+	private TestMailbox mailbox;
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * Mailbox that stores the delivered batches.
+	 */
+	class TestMailbox extends ListenerMailbox<Integer> {
+		
+		final List<List<Integer>> batches = new ArrayList<List<Integer>>();
+		
+		// Delivery is blocked until this latch is released.
+		CountDownLatch release = new CountDownLatch(0);
+		
+		TestMailbox(int capacity, OverflowStrategy overflowStrategy, int maxBatchSize, long maxDelay) {
+			super(capacity, overflowStrategy, maxBatchSize, maxDelay);
+		}
+		
+		@Override
+		protected void deliver(List<Integer> batch) {
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			synchronized (batches) {
+				batches.add(batch);
+				batches.notifyAll();
+			}
+		}
+		
+		List<List<Integer>> waitForItems(int count) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 5000;
+			synchronized (batches) {
+				while (countItems() < count && System.currentTimeMillis() < deadline)
+					batches.wait(50);
+				return new ArrayList<List<Integer>>(batches);
+			}
+		}
+		
+		private int countItems() {
+			int count = 0;
+			for (List<Integer> batch : batches)
+				count += batch.size();
+			return count;
+		}
+	}
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception {
+		if (mailbox != null)
+			mailbox.close();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerMailbox#ListenerMailbox(int, OverflowStrategy, int, long)}.
+	 * 
+	 * <p>An {@code IllegalArgumentException} exception must be thrown when 
+	 * passing a batch size lower than one.</p>
+	 */
+	@Test
+	public final void testCreateMailboxInvalidBatchSize() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Maximum batch size must be greater than 0.")));
+		
+		// Call the method under test.
+		new TestMailbox(10, OverflowStrategy.DROP_OLDEST, 0, 0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerMailbox#ListenerMailbox(int, OverflowStrategy, int, long)}.
+	 * 
+	 * <p>A {@code NullPointerException} exception must be thrown when passing 
+	 * a {@code null} overflow strategy.</p>
+	 */
+	@Test
+	public final void testCreateMailboxNullStrategy() {
+		// Setup the resources for the test.
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Overflow strategy cannot be null.")));
+		
+		// Call the method under test.
+		new TestMailbox(10, null, 1, 0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerMailbox#offer(Object)}.
+	 * 
+	 * <p>Verify that items are delivered in order in batches of the maximum 
+	 * size.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testOfferBatchSize() throws Exception {
+		// Setup the resources for the test.
+		mailbox = new TestMailbox(100, OverflowStrategy.BLOCK, 3, TimeUnit.SECONDS.toMicros(10));
+		
+		// Call the method under test.
+		for (int i = 0; i < 6; i++)
+			mailbox.offer(i);
+		
+		// Verify the result.
+		List<List<Integer>> batches = mailbox.waitForItems(6);
+		assertThat(batches.size(), is(equalTo(2)));
+		assertThat(batches.get(0), is(equalTo(Arrays.asList(0, 1, 2))));
+		assertThat(batches.get(1), is(equalTo(Arrays.asList(3, 4, 5))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerMailbox#offer(Object)}.
+	 * 
+	 * <p>Verify that an incomplete batch is delivered once the maximum delay 
+	 * has elapsed.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testOfferMaxDelay() throws Exception {
+		// Setup the resources for the test.
+		mailbox = new TestMailbox(100, OverflowStrategy.BLOCK, 10, 1000);
+		
+		// Call the method under test.
+		mailbox.offer(1);
+		mailbox.offer(2);
+		
+		// Verify the result.
+		List<List<Integer>> batches = mailbox.waitForItems(2);
+		int delivered = 0;
+		for (List<Integer> batch : batches)
+			delivered += batch.size();
+		assertThat(delivered, is(equalTo(2)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerMailbox#offer(Object)}.
+	 * 
+	 * <p>Verify that the oldest items are discarded when the mailbox is full 
+	 * and the strategy is {@code DROP_OLDEST}.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testOfferDropOldest() throws Exception {
+		// Setup the resources for the test.
+		mailbox = new TestMailbox(2, OverflowStrategy.DROP_OLDEST, 1, 0);
+		mailbox.release = new CountDownLatch(1);
+		mailbox.offer(0);
+		waitUntilEmpty(mailbox);
+		
+		// Call the method under test.
+		for (int i = 1; i < 5; i++)
+			assertThat(mailbox.offer(i), is(equalTo(true)));
+		mailbox.release.countDown();
+		
+		// Verify the result.
+		List<List<Integer>> batches = mailbox.waitForItems(3);
+		assertThat(batches, is(equalTo(Arrays.asList(Arrays.asList(0), Arrays.asList(3), Arrays.asList(4)))));
+		assertThat(mailbox.getDroppedItems(), is(equalTo(2L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerMailbox#offer(Object)}.
+	 * 
+	 * <p>Verify that new items are discarded when the mailbox is full and the 
+	 * strategy is {@code DROP_NEWEST}.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testOfferDropNewest() throws Exception {
+		// Setup the resources for the test.
+		mailbox = new TestMailbox(2, OverflowStrategy.DROP_NEWEST, 1, 0);
+		mailbox.release = new CountDownLatch(1);
+		mailbox.offer(0);
+		waitUntilEmpty(mailbox);
+		
+		// Call the method under test.
+		assertThat(mailbox.offer(1), is(equalTo(true)));
+		assertThat(mailbox.offer(2), is(equalTo(true)));
+		assertThat(mailbox.offer(3), is(equalTo(false)));
+		mailbox.release.countDown();
+		
+		// Verify the result.
+		List<List<Integer>> batches = mailbox.waitForItems(3);
+		assertThat(batches, is(equalTo(Arrays.asList(Arrays.asList(0), Arrays.asList(1), Arrays.asList(2)))));
+		assertThat(mailbox.getDroppedItems(), is(equalTo(1L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerMailbox#handOff(Object)}.
+	 * 
+	 * <p>Verify that handing off items to a full mailbox with the 
+	 * {@code BLOCK} strategy does not block the caller and that the items 
+	 * are delivered in order.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testHandOffBlock() throws Exception {
+		// Setup the resources for the test.
+		mailbox = new TestMailbox(1, OverflowStrategy.BLOCK, 1, 0);
+		mailbox.release = new CountDownLatch(1);
+		mailbox.offer(0);
+		waitUntilEmpty(mailbox);
+		List<List<Integer>> expected = new ArrayList<List<Integer>>();
+		for (int i = 0; i < 50; i++)
+			expected.add(Arrays.asList(i));
+		
+		// Call the method under test.
+		long start = System.currentTimeMillis();
+		for (int i = 1; i < 50; i++)
+			mailbox.handOff(i);
+		long elapsed = System.currentTimeMillis() - start;
+		mailbox.release.countDown();
+		
+		// Verify the result.
+		assertThat(elapsed < 1000, is(equalTo(true)));
+		assertThat(mailbox.waitForItems(50), is(equalTo(expected)));
+		assertThat(mailbox.getDroppedItems(), is(equalTo(0L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.ListenerMailbox#close()}.
+	 * 
+	 * <p>Verify that the pending items are delivered after closing the 
+	 * mailbox and that new items are discarded.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testClose() throws Exception {
+		// Setup the resources for the test.
+		mailbox = new TestMailbox(100, OverflowStrategy.BLOCK, 10, TimeUnit.SECONDS.toMicros(10));
+		mailbox.offer(1);
+		mailbox.offer(2);
+		
+		// Call the method under test.
+		mailbox.close();
+		
+		// Verify the result.
+		List<List<Integer>> batches = mailbox.waitForItems(2);
+		assertThat(batches, is(equalTo(Arrays.asList(Arrays.asList(1, 2)))));
+		assertThat(mailbox.offer(3), is(equalTo(false)));
+		assertThat(mailbox.isClosed(), is(equalTo(true)));
+	}
+	
+	/**
+	 * Waits until the delivery thread of the given mailbox takes all the 
+	 * items.
+	 * 
+	 * @param mailbox The mailbox to wait for.
+	 * 
+	 * @throws InterruptedException
+	 */
+	private void waitUntilEmpty(ListenerMailbox<?> mailbox) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (mailbox.size() > 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+	}
+}
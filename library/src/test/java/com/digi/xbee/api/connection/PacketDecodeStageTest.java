@@ -0,0 +1,294 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.digi.xbee.api.XBeeDevice;
+import com.digi.xbee.api.listeners.IPacketReceiveListener;
+import com.digi.xbee.api.models.ATCommandStatus;
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.packet.XBeeAPIPacket;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.XBeePacketParser;
+import com.digi.xbee.api.packet.common.ATCommandResponsePacket;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({DataReader.class})
+public class PacketDecodeStageTest {
+	
+	// Constants.
+	private static final int NUMBER_OF_PACKETS = 200;
+	
+	// Variables.
+	private DataReader reader;
+	private PacketDecodeStage stage;
+	
+	private List<Integer> dispatchedFrameIDs;
+	private CountDownLatch dispatched;
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		reader = PowerMockito.mock(DataReader.class);
+		dispatchedFrameIDs = Collections.synchronizedList(new ArrayList<Integer>());
+		
+		final Random random = new Random();
+		// Resolving takes a random time, so packets are completed out of order.
+		PowerMockito.doAnswer(new Answer<PacketDecodeStage.DecodedPacket>() {
+			public PacketDecodeStage.DecodedPacket answer(InvocationOnMock invocation) throws Exception {
+				Thread.sleep(random.nextInt(3));
+				return new PacketDecodeStage.DecodedPacket((XBeePacket)invocation.getArguments()[0], null, null);
+			}
+		}).when(reader).resolvePacket(Mockito.any(XBeePacket.class));
+		PowerMockito.doAnswer(new Answer<Object>() {
+			public Object answer(InvocationOnMock invocation) throws Exception {
+				PacketDecodeStage.DecodedPacket decodedPacket = (PacketDecodeStage.DecodedPacket)invocation.getArguments()[0];
+				dispatchedFrameIDs.add(((XBeeAPIPacket)decodedPacket.packet).getFrameID());
+				dispatched.countDown();
+				return null;
+			}
+		}).when(reader).dispatchPacket(Mockito.any(PacketDecodeStage.DecodedPacket.class));
+		
+		stage = new PacketDecodeStage(reader, new XBeePacketParser(), 4);
+	}
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception {
+		stage.shutdown();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PacketDecodeStage#submit(byte[])}.
+	 * 
+	 * <p>Verify that packets decoded in parallel are dispatched in the order 
+	 * they were submitted.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSubmitPreservesOrder() throws Exception {
+		// Setup the resources for the test.
+		dispatched = new CountDownLatch(NUMBER_OF_PACKETS);
+		List<Integer> expectedFrameIDs = new ArrayList<Integer>();
+		
+		// Call the method under test.
+		for (int i = 0; i < NUMBER_OF_PACKETS; i++) {
+			expectedFrameIDs.add(i % 256);
+			stage.submit(createPayload(i % 256));
+		}
+		
+		// Verify the result.
+		assertThat(dispatched.await(10, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(dispatchedFrameIDs, is(equalTo(expectedFrameIDs)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PacketDecodeStage#submit(byte[])}.
+	 * 
+	 * <p>Verify that invalid payloads are discarded without blocking the 
+	 * dispatch of the following packets.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSubmitInvalidPayload() throws Exception {
+		// Setup the resources for the test.
+		dispatched = new CountDownLatch(2);
+		
+		// Call the method under test.
+		stage.submit(createPayload(1));
+		stage.submit(new byte[0]);
+		stage.submit(createPayload(2));
+		
+		// Verify the result.
+		assertThat(dispatched.await(10, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(dispatchedFrameIDs, is(equalTo(Arrays.asList(1, 2))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PacketDecodeStage#submit(byte[])}.
+	 * 
+	 * <p>Verify that the payloads submitted after the stage is shut down are 
+	 * decoded by the calling thread and dispatched in order after the 
+	 * pending ones.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testSubmitAfterShutdown() throws Exception {
+		// Setup the resources for the test.
+		dispatched = new CountDownLatch(NUMBER_OF_PACKETS);
+		List<Integer> expectedFrameIDs = new ArrayList<Integer>();
+		for (int i = 0; i < NUMBER_OF_PACKETS / 2; i++) {
+			expectedFrameIDs.add(i % 256);
+			stage.submit(createPayload(i % 256));
+		}
+		
+		// Call the method under test.
+		stage.shutdown();
+		for (int i = NUMBER_OF_PACKETS / 2; i < NUMBER_OF_PACKETS; i++) {
+			expectedFrameIDs.add(i % 256);
+			stage.submit(createPayload(i % 256));
+		}
+		stage.awaitDrained();
+		
+		// Verify the result.
+		assertThat(dispatched.await(10, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(dispatchedFrameIDs, is(equalTo(expectedFrameIDs)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PacketDecodeStage#PacketDecodeStage(DataReader, XBeePacketParser, int)}.
+	 * 
+	 * <p>Verify that the stage cannot be created without workers.</p>
+	 */
+	@Test
+	public void testCreateWithoutWorkers() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Number of workers must be greater than 0.")));
+		
+		// Call the method under test.
+		new PacketDecodeStage(reader, new XBeePacketParser(), 0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.DataReader#setDecodeWorkers(int)}.
+	 * 
+	 * <p>Verify that no packet is lost or reordered when the decode workers 
+	 * of a data reader are replaced while it is receiving frames.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testDecodeWorkersSwappedUnderLoad() throws Exception {
+		// Setup the resources for the test.
+		final int packets = 2000;
+		PipedInputStream input = new PipedInputStream();
+		PipedOutputStream output = new PipedOutputStream(input);
+		IConnectionInterface connectionInterface = Mockito.mock(IConnectionInterface.class);
+		Mockito.when(connectionInterface.isOpen()).thenReturn(true);
+		Mockito.when(connectionInterface.getInputStream()).thenReturn(input);
+		final DataReader dataReader = new DataReader(connectionInterface, OperatingMode.API, Mockito.mock(XBeeDevice.class));
+		ExecutorService listenerExecutor = Executors.newSingleThreadExecutor();
+		dataReader.setListenerExecutor(listenerExecutor);
+		final List<Integer> receivedFrameIDs = new CopyOnWriteArrayList<Integer>();
+		final CountDownLatch received = new CountDownLatch(packets);
+		dataReader.addPacketReceiveListener(new IPacketReceiveListener() {
+			/*
+			 * (non-Javadoc)
+			 * @see com.digi.xbee.api.listeners.IPacketReceiveListener#packetReceived(com.digi.xbee.api.packet.XBeePacket)
+			 */
+			@Override
+			public void packetReceived(XBeePacket receivedPacket) {
+				receivedFrameIDs.add(((XBeeAPIPacket)receivedPacket).getFrameID());
+				received.countDown();
+			}
+		});
+		dataReader.setDecodeWorkers(4);
+		dataReader.startPolling();
+		
+		final AtomicBoolean sending = new AtomicBoolean(true);
+		Thread swapper = new Thread() {
+			/*
+			 * (non-Javadoc)
+			 * @see java.lang.Thread#run()
+			 */
+			@Override
+			public void run() {
+				int[] workers = {0, 2, 1, 4, 3};
+				for (int i = 0; sending.get(); i++) {
+					dataReader.setDecodeWorkers(workers[i % workers.length]);
+					try {
+						Thread.sleep(2);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		};
+		
+		// Call the method under test.
+		swapper.start();
+		List<Integer> expectedFrameIDs = new ArrayList<Integer>();
+		for (int i = 0; i < packets; i++) {
+			int frameID = i % 255 + 1;
+			expectedFrameIDs.add(frameID);
+			output.write(new ATCommandResponsePacket(frameID, ATCommandStatus.OK, "NI", new byte[]{0x01}).generateByteArray());
+			output.flush();
+			// Read as the connection event loop does.
+			dataReader.readAvailableData();
+		}
+		sending.set(false);
+		swapper.join();
+		
+		// Verify the result.
+		assertThat(received.await(10, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(receivedFrameIDs, is(equalTo(expectedFrameIDs)));
+		
+		dataReader.stopReader();
+		listenerExecutor.shutdown();
+	}
+	
+	/**
+	 * Returns the payload of an AT command response with the given frame ID.
+	 * 
+	 * @param frameID The frame ID of the response.
+	 * 
+	 * @return The payload of the response.
+	 */
+	private byte[] createPayload(int frameID) {
+		return new byte[] {(byte)0x88, (byte)frameID, 'N', 'I', 0x00};
+	}
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class PartitionedDispatcherTest {
+	
+	// Constants.
+	private static final XBee64BitAddress SOURCE_1 = new XBee64BitAddress("0013A20040A9E77E");
+	private static final XBee64BitAddress SOURCE_2 = new XBee64BitAddress("0013A20040A9E77F");
+	
+	// Variables.
+	private PartitionedDispatcher dispatcher;
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		dispatcher = new PartitionedDispatcher(4);
+	}
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception {
+		dispatcher.shutdown();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PartitionedDispatcher#PartitionedDispatcher(int)}.
+	 * 
+	 * <p>An {@code IllegalArgumentException} exception must be thrown when 
+	 * passing less than one partition.</p>
+	 */
+	@Test
+	public final void testCreateDispatcherInvalidPartitions() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Number of partitions must be greater than 0.")));
+		
+		// Call the method under test.
+		new PartitionedDispatcher(0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PartitionedDispatcher#dispatch(Object, Runnable)}.
+	 * 
+	 * <p>A {@code NullPointerException} exception must be thrown when passing 
+	 * a {@code null} task.</p>
+	 */
+	@Test
+	public final void testDispatchNullTask() {
+		// Setup the resources for the test.
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Task cannot be null.")));
+		
+		// Call the method under test.
+		dispatcher.dispatch(SOURCE_1, null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PartitionedDispatcher#getPartition(Object)}.
+	 * 
+	 * <p>Verify that a source is always assigned to the same partition and 
+	 * that unknown sources are assigned to the first one.</p>
+	 */
+	@Test
+	public final void testGetPartition() {
+		// Call the method under test.
+		int partition = dispatcher.getPartition(SOURCE_1);
+		
+		// Verify the result.
+		assertThat(partition, is(equalTo(dispatcher.getPartition(new XBee64BitAddress("0013A20040A9E77E")))));
+		assertThat(partition >= 0 && partition < dispatcher.getNumberOfPartitions(), is(equalTo(true)));
+		assertThat(dispatcher.getPartition(null), is(equalTo(0)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PartitionedDispatcher#dispatch(Object, Runnable)}.
+	 * 
+	 * <p>Verify that the tasks of the same source are executed in the order 
+	 * they were dispatched.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDispatchSameSourceInOrder() throws Exception {
+		// Setup the resources for the test.
+		final List<Integer> executed = new ArrayList<Integer>();
+		final CountDownLatch finished = new CountDownLatch(100);
+		
+		// Call the method under test.
+		for (int i = 0; i < 100; i++) {
+			final int index = i;
+			dispatcher.dispatch(SOURCE_1, new Runnable() {
+				@Override
+				public void run() {
+					synchronized (executed) {
+						executed.add(index);
+					}
+					finished.countDown();
+				}
+			});
+		}
+		
+		// Verify the result.
+		assertThat(finished.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		synchronized (executed) {
+			for (int i = 0; i < 100; i++)
+				assertThat(executed.get(i), is(equalTo(i)));
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PartitionedDispatcher#dispatch(Object, Runnable)}.
+	 * 
+	 * <p>Verify that a slow task of a source does not delay the tasks of a 
+	 * source assigned to a different partition.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testDispatchDifferentSourcesInParallel() throws Exception {
+		// Setup the resources for the test.
+		assertThat(dispatcher.getPartition(SOURCE_1), is(not(equalTo(dispatcher.getPartition(SOURCE_2)))));
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch executed = new CountDownLatch(1);
+		
+		// Call the method under test.
+		dispatcher.dispatch(SOURCE_1, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		dispatcher.dispatch(SOURCE_2, new Runnable() {
+			@Override
+			public void run() {
+				executed.countDown();
+			}
+		});
+		
+		// Verify the result.
+		assertThat(executed.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		release.countDown();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.PartitionedDispatcher#shutdown()}.
+	 * 
+	 * <p>Verify that the dispatcher is shut down.</p>
+	 */
+	@Test
+	public final void testShutdown() {
+		// Call the method under test.
+		dispatcher.shutdown();
+		
+		// Verify the result.
+		assertThat(dispatcher.isShutdown(), is(equalTo(true)));
+	}
+}
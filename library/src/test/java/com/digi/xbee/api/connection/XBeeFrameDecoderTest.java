@@ -0,0 +1,142 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.connection;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.packet.XBeePacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+
+public class XBeeFrameDecoderTest {
+	
+	// Constants.
+	private static final byte[] DATA = new byte[]{0x7E, 0x7D, 0x11, 0x13, 0x45};
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Variables.
+	private XBeeFrameDecoder decoder;
+	
+	private XBeePacket packet;
+	
+	private List<byte[]> frames;
+	
+	@Before
+	public void setUp() throws Exception {
+		decoder = new XBeeFrameDecoder();
+		packet = new ReceivePacket(new XBee64BitAddress("0013A20040A6A0DB"), XBee16BitAddress.UNKNOWN_ADDRESS, 0, DATA);
+		frames = new ArrayList<byte[]>();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.XBeeFrameDecoder#decode(byte[], int, int, OperatingMode, List)}.
+	 * 
+	 * <p>An {@code IllegalArgumentException} exception must be thrown when
+	 * decoding in AT mode.</p>
+	 */
+	@Test
+	public final void testDecodeATMode() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Operating mode must be API or API Escaped.")));
+		
+		// Call the method under test.
+		decoder.decode(new byte[1], 0, 1, OperatingMode.AT, frames);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.XBeeFrameDecoder#decode(byte[], int, int, OperatingMode, List)}.
+	 * 
+	 * <p>Verify that several frames in the same chunk are decoded and the bytes
+	 * outside of a frame are discarded.</p>
+	 */
+	@Test
+	public final void testDecodeSeveralFrames() {
+		// Setup the resources for the test.
+		byte[] frame = packet.generateByteArray();
+		byte[] data = new byte[frame.length * 2 + 2];
+		data[0] = 0x33;
+		System.arraycopy(frame, 0, data, 1, frame.length);
+		data[frame.length + 1] = 0x44;
+		System.arraycopy(frame, 0, data, frame.length + 2, frame.length);
+		
+		// Call the method under test.
+		int decoded = decoder.decode(data, 0, data.length, OperatingMode.API, frames);
+		
+		// Verify the result.
+		assertThat(decoded, is(equalTo(2)));
+		assertThat(frames.get(0), is(equalTo(frame)));
+		assertThat(frames.get(1), is(equalTo(frame)));
+		assertThat(decoder.hasPartialFrame(), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.XBeeFrameDecoder#decode(byte[], int, int, OperatingMode, List)}.
+	 * 
+	 * <p>Verify that an escaped frame received byte by byte is decoded and
+	 * unescaped.</p>
+	 */
+	@Test
+	public final void testDecodeEscapedByteByByte() {
+		// Setup the resources for the test.
+		byte[] escaped = packet.generateByteArrayEscaped();
+		
+		// Call the method under test.
+		for (int i = 0; i < escaped.length; i++) {
+			decoder.decode(escaped, i, 1, OperatingMode.API_ESCAPE, frames);
+			if (i < escaped.length - 1)
+				assertThat(decoder.hasPartialFrame(), is(equalTo(true)));
+		}
+		
+		// Verify the result.
+		assertThat(frames.size(), is(equalTo(1)));
+		assertThat(frames.get(0), is(equalTo(packet.generateByteArray())));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.connection.XBeeFrameDecoder#decode(byte[], int, int, OperatingMode, List)}.
+	 * 
+	 * <p>Verify that a non-escaped header byte in API escaped mode discards the
+	 * incomplete frame.</p>
+	 */
+	@Test
+	public final void testDecodeEscapedIncompleteFrame() {
+		// Setup the resources for the test.
+		byte[] escaped = packet.generateByteArrayEscaped();
+		
+		// Call the method under test.
+		decoder.decode(escaped, 0, 6, OperatingMode.API_ESCAPE, frames);
+		decoder.decode(escaped, 0, escaped.length, OperatingMode.API_ESCAPE, frames);
+		
+		// Verify the result.
+		assertThat(frames.size(), is(equalTo(1)));
+		assertThat(frames.get(0), is(equalTo(packet.generateByteArray())));
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class IODeadbandFilterTest {
+	
+	// Variables.
+	private IODeadbandFilter filter;
+	
+	private RemoteXBeeDevice remoteDevice;
+	
+	@Before
+	public void setup() {
+		filter = new IODeadbandFilter();
+		
+		remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(new XBee64BitAddress("0013A20040A9E77E"));
+	}
+	
+	/**
+	 * Returns an 802.15.4 IO sample with DIO0 and AD1 enabled.
+	 * 
+	 * @param high Whether DIO0 is high.
+	 * @param analogValue The value of AD1.
+	 * 
+	 * @return The IO sample.
+	 */
+	private static IOSample createSample(boolean high, int analogValue) {
+		return new IOSample(new byte[]{0x01, 0x04, 0x01, 0x00, (byte)(high ? 0x01 : 0x00),
+				(byte)(analogValue >> 8), (byte)analogValue});
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IODeadbandFilter#accept(RemoteXBeeDevice, IOSample, long)}.
+	 * 
+	 * <p>Verify that the first sample is delivered and unchanged samples are
+	 * suppressed.</p>
+	 */
+	@Test
+	public void testAcceptUnchanged() {
+		// Call the method under test.
+		boolean first = filter.accept(remoteDevice, createSample(true, 500), 1000);
+		boolean second = filter.accept(remoteDevice, createSample(true, 500), 2000);
+		
+		// Verify the result.
+		assertTrue(first);
+		assertFalse(second);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IODeadbandFilter#accept(RemoteXBeeDevice, IOSample, long)}.
+	 * 
+	 * <p>Verify that digital changes are always delivered.</p>
+	 */
+	@Test
+	public void testAcceptDigitalChange() {
+		// Setup the resources for the test.
+		filter.setDeadband(IOLine.DIO1_AD1, 100);
+		filter.accept(remoteDevice, createSample(true, 500), 1000);
+		
+		// Call the method under test.
+		boolean accepted = filter.accept(remoteDevice, createSample(false, 500), 2000);
+		
+		// Verify the result.
+		assertTrue(accepted);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IODeadbandFilter#accept(RemoteXBeeDevice, IOSample, long)}.
+	 * 
+	 * <p>Verify that analog changes are compared with the last delivered value
+	 * and only the ones reaching the deadband are delivered.</p>
+	 */
+	@Test
+	public void testAcceptDeadband() {
+		// Setup the resources for the test.
+		filter.setDeadband(IOLine.DIO1_AD1, 10);
+		filter.accept(remoteDevice, createSample(true, 500), 1000);
+		
+		// Call the method under test.
+		boolean small = filter.accept(remoteDevice, createSample(true, 506), 2000);
+		boolean drift = filter.accept(remoteDevice, createSample(true, 491), 3000);
+		boolean large = filter.accept(remoteDevice, createSample(true, 510), 4000);
+		
+		// Verify the result.
+		assertFalse(small);
+		assertFalse(drift);
+		assertTrue(large);
+		assertThat(filter.getDeadband(IOLine.DIO1_AD1), is(equalTo(10)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IODeadbandFilter#accept(RemoteXBeeDevice, IOSample, long)}.
+	 * 
+	 * <p>Verify that an unchanged sample is delivered when the heartbeat
+	 * interval has elapsed.</p>
+	 */
+	@Test
+	public void testAcceptHeartbeat() {
+		// Setup the resources for the test.
+		filter.setHeartbeatInterval(5000);
+		filter.accept(remoteDevice, createSample(true, 500), 1000);
+		
+		// Call the method under test.
+		boolean beforeHeartbeat = filter.accept(remoteDevice, createSample(true, 500), 5999);
+		boolean heartbeat = filter.accept(remoteDevice, createSample(true, 500), 6000);
+		boolean afterHeartbeat = filter.accept(remoteDevice, createSample(true, 500), 7000);
+		
+		// Verify the result.
+		assertFalse(beforeHeartbeat);
+		assertTrue(heartbeat);
+		assertFalse(afterHeartbeat);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IODeadbandFilter#reset(RemoteXBeeDevice)}.
+	 */
+	@Test
+	public void testReset() {
+		// Setup the resources for the test.
+		filter.accept(remoteDevice, createSample(true, 500), 1000);
+		
+		// Call the method under test.
+		filter.reset(remoteDevice);
+		
+		// Verify the result.
+		assertTrue(filter.accept(remoteDevice, createSample(true, 500), 2000));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IODeadbandFilter#setDeadband(IOLine, int)}.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetDeadbandNegative() {
+		filter.setDeadband(IOLine.DIO1_AD1, -1);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IODeadbandFilter#IODeadbandFilter(long)}.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateFilterNegativeHeartbeat() {
+		new IODeadbandFilter(-1);
+	}
+}
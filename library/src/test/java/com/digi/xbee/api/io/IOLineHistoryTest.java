@@ -0,0 +1,250 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IOLineHistoryTest {
+	
+	// Constants.
+	private static final int CAPACITY = 4;
+	
+	// Variables.
+	private IOLineHistory history;
+	
+	@Before
+	public void setup() {
+		history = new IOLineHistory(IOLine.DIO1_AD1, CAPACITY);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#IOLineHistory(IOLine, int)}.
+	 * 
+	 * <p>Verify that the history cannot be created with a capacity smaller
+	 * than 1.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateHistoryInvalidCapacity() {
+		new IOLineHistory(IOLine.DIO1_AD1, 0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#IOLineHistory(IOLine, int)}.
+	 * 
+	 * <p>Verify that the history cannot be created without IO line.</p>
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testCreateHistoryNullLine() {
+		new IOLineHistory(null, CAPACITY);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#getLatestAnalogValue()}.
+	 * 
+	 * <p>Verify that an empty history does not have latest values.</p>
+	 */
+	@Test
+	public void testLatestValuesEmpty() {
+		// Verify the result.
+		assertThat(history.size(), is(equalTo(0)));
+		assertThat(history.getCapacity(), is(equalTo(CAPACITY)));
+		assertThat(history.getLatestTimestamp(), is(equalTo(-1L)));
+		assertThat(history.getLatestAnalogValue(), is(equalTo(-1)));
+		assertNull(history.getLatestDigitalValue());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#add(long, int, IOValue)}.
+	 * 
+	 * <p>Verify that the latest values are returned and the oldest ones are
+	 * overwritten when the history is full.</p>
+	 */
+	@Test
+	public void testAddOverwritesOldest() {
+		// Call the method under test.
+		for (int i = 0; i < CAPACITY + 2; i++)
+			history.add(1000 + i, 100 + i, i % 2 == 0 ? IOValue.LOW : IOValue.HIGH);
+		
+		// Verify the result.
+		assertThat(history.size(), is(equalTo(CAPACITY)));
+		assertThat(history.getLatestTimestamp(), is(equalTo(1005L)));
+		assertThat(history.getLatestAnalogValue(), is(equalTo(105)));
+		assertThat(history.getLatestDigitalValue(), is(equalTo(IOValue.HIGH)));
+		
+		IOAggregate aggregate = history.aggregate(0, 2000);
+		assertThat(aggregate.getCount(), is(equalTo(CAPACITY)));
+		assertThat(aggregate.getMinimum(), is(equalTo(102)));
+		assertThat(aggregate.getMaximum(), is(equalTo(105)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#add(long, int, IOValue)}.
+	 * 
+	 * <p>Verify that the timestamps are kept in non-decreasing order.</p>
+	 */
+	@Test
+	public void testAddOlderTimestamp() {
+		// Call the method under test.
+		history.add(1000, 10, null);
+		history.add(900, 20, null);
+		
+		// Verify the result.
+		assertThat(history.getLatestTimestamp(), is(equalTo(1000L)));
+		assertThat(history.getLatestAnalogValue(), is(equalTo(20)));
+		assertNull(history.getLatestDigitalValue());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#aggregate(long, long)}.
+	 * 
+	 * <p>Verify that only the values of the period are aggregated.</p>
+	 */
+	@Test
+	public void testAggregate() {
+		// Setup the resources for the test.
+		history.add(1000, 10, IOValue.HIGH);
+		history.add(2000, 20, IOValue.LOW);
+		history.add(3000, -1, IOValue.HIGH);
+		history.add(4000, 50, null);
+		
+		// Call the method under test.
+		IOAggregate aggregate = history.aggregate(2000, 4000);
+		IOAggregate empty = history.aggregate(5000, 6000);
+		
+		// Verify the result.
+		assertThat(aggregate.getStartTime(), is(equalTo(2000L)));
+		assertThat(aggregate.getEndTime(), is(equalTo(4000L)));
+		assertThat(aggregate.getCount(), is(equalTo(2)));
+		assertThat(aggregate.getAnalogCount(), is(equalTo(1)));
+		assertThat(aggregate.getMinimum(), is(equalTo(20)));
+		assertThat(aggregate.getMaximum(), is(equalTo(20)));
+		assertEquals(20.0, aggregate.getMean(), 0);
+		assertThat(aggregate.getHighCount(), is(equalTo(1)));
+		assertThat(aggregate.getLowCount(), is(equalTo(1)));
+		
+		assertThat(empty.getCount(), is(equalTo(0)));
+		assertThat(empty.getMinimum(), is(equalTo(-1)));
+		assertThat(empty.getMaximum(), is(equalTo(-1)));
+		assertTrue(Double.isNaN(empty.getMean()));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#aggregate(long, long)}.
+	 * 
+	 * <p>Verify that the period cannot end before it starts.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testAggregateInvalidPeriod() {
+		history.aggregate(2000, 1000);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#aggregateLast(long)}.
+	 * 
+	 * <p>Verify that the window ends at the latest value, both included.</p>
+	 */
+	@Test
+	public void testAggregateLast() {
+		// Setup the resources for the test.
+		history.add(1000, 10, null);
+		history.add(2000, 20, null);
+		history.add(3000, 30, null);
+		
+		// Call the method under test.
+		IOAggregate aggregate = history.aggregateLast(1000);
+		
+		// Verify the result.
+		assertThat(aggregate.getCount(), is(equalTo(2)));
+		assertEquals(25.0, aggregate.getMean(), 0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#aggregateLast(long)}.
+	 * 
+	 * <p>Verify that the longest windows aggregate all the values of the
+	 * history instead of overflowing.</p>
+	 */
+	@Test
+	public void testAggregateLastLargeWindow() {
+		// Setup the resources for the test.
+		history.add(1000, 10, null);
+		history.add(2000, 20, null);
+		history.add(3000, 30, null);
+		
+		// Call the method under test.
+		IOAggregate last = history.aggregateLast(Long.MAX_VALUE);
+		IOAggregate all = history.aggregate(Long.MIN_VALUE, Long.MAX_VALUE);
+		IOAggregate[] halves = history.downsample(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+		
+		// Verify the result.
+		assertThat(last.getCount(), is(equalTo(3)));
+		assertThat(last.getEndTime(), is(equalTo(3001L)));
+		assertThat(all.getCount(), is(equalTo(3)));
+		assertThat(halves.length, is(equalTo(3)));
+		assertThat(halves[1].getCount(), is(equalTo(3)));
+		assertThat(halves[2].getEndTime(), is(equalTo(Long.MAX_VALUE)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#downsample(long, long, long)}.
+	 * 
+	 * <p>Verify that the values are aggregated in consecutive intervals and
+	 * the last interval ends at the end of the period.</p>
+	 */
+	@Test
+	public void testDownsample() {
+		// Setup the resources for the test.
+		history.add(1000, 10, null);
+		history.add(1500, 30, null);
+		history.add(3200, 40, null);
+		
+		// Call the method under test.
+		IOAggregate[] aggregates = history.downsample(1000, 3500, 1000);
+		
+		// Verify the result.
+		assertThat(aggregates.length, is(equalTo(3)));
+		assertThat(aggregates[0].getCount(), is(equalTo(2)));
+		assertEquals(20.0, aggregates[0].getMean(), 0);
+		assertThat(aggregates[1].getCount(), is(equalTo(0)));
+		assertThat(aggregates[1].getStartTime(), is(equalTo(2000L)));
+		assertThat(aggregates[2].getCount(), is(equalTo(1)));
+		assertThat(aggregates[2].getEndTime(), is(equalTo(3500L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOLineHistory#clear()}.
+	 */
+	@Test
+	public void testClear() {
+		// Setup the resources for the test.
+		history.add(1000, 10, IOValue.HIGH);
+		
+		// Call the method under test.
+		history.clear();
+		
+		// Verify the result.
+		assertThat(history.size(), is(equalTo(0)));
+		assertThat(history.aggregate(0, 2000).getCount(), is(equalTo(0)));
+	}
+}
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.net.Inet6Address;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class IOSampleStoreTest {
+	
+	// Constants.
+	// 802.15.4 sample with DIO0, DIO3, DIO5, AD1 and AD2 enabled (mask 0x0C29).
+	// DIO0 and DIO5 are HIGH, AD1 value is 0x0123 and AD2 value is 0x03FF.
+	private static final byte[] IO_DATA_802 = new byte[]{0x01, 0x0C, 0x29, 0x00, 0x21, 0x01, 0x23, 0x03, (byte)0xFF};
+	
+	// Same sample with all the digital lines LOW and AD1 value 0x0100.
+	private static final byte[] IO_DATA_802_LOW = new byte[]{0x01, 0x0C, 0x29, 0x00, 0x00, 0x01, 0x00, 0x03, (byte)0xFF};
+	
+	// Variables.
+	private IOSampleStore store;
+	
+	private RemoteXBeeDevice remoteDevice;
+	
+	@Before
+	public void setup() {
+		store = new IOSampleStore(8);
+		
+		remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(new XBee64BitAddress("0013A20040A9E77E"));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSampleStore#IOSampleStore(int)}.
+	 * 
+	 * <p>Verify that the store cannot be created with a capacity smaller than
+	 * 1.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateStoreInvalidCapacity() {
+		new IOSampleStore(0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSampleStore#addSample(RemoteXBeeDevice, IOSample, long)}.
+	 * 
+	 * <p>Verify that a value is stored for every digital and analog line of
+	 * the sample.</p>
+	 */
+	@Test
+	public void testAddSample() {
+		// Call the method under test.
+		store.addSample(remoteDevice, new IOSample(IO_DATA_802), 1000);
+		
+		// Verify the result.
+		IOLineHistory dio0 = store.getHistory(remoteDevice, IOLine.DIO0_AD0);
+		assertThat(dio0.getLatestDigitalValue(), is(equalTo(IOValue.HIGH)));
+		assertThat(dio0.getLatestAnalogValue(), is(equalTo(-1)));
+		assertThat(dio0.getCapacity(), is(equalTo(8)));
+		
+		IOLineHistory dio3 = store.getHistory(remoteDevice, IOLine.DIO3_AD3);
+		assertThat(dio3.getLatestDigitalValue(), is(equalTo(IOValue.LOW)));
+		
+		IOLineHistory ad1 = store.getHistory(remoteDevice, IOLine.DIO1_AD1);
+		assertNull(ad1.getLatestDigitalValue());
+		assertThat(ad1.getLatestAnalogValue(), is(equalTo(0x0123)));
+		assertThat(ad1.getLatestTimestamp(), is(equalTo(1000L)));
+		
+		assertNull(store.getHistory(remoteDevice, IOLine.DIO4_AD4));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSampleStore#addSamples(RemoteXBeeDevice, java.util.List, long)}.
+	 * 
+	 * <p>Verify that all the samples are stored in order.</p>
+	 */
+	@Test
+	public void testAddSamples() {
+		// Call the method under test.
+		store.addSamples(remoteDevice, Arrays.asList(new IOSample(IO_DATA_802), new IOSample(IO_DATA_802_LOW)), 1000);
+		
+		// Verify the result.
+		IOLineHistory dio0 = store.getHistory(remoteDevice, IOLine.DIO0_AD0);
+		assertThat(dio0.size(), is(equalTo(2)));
+		assertThat(dio0.getLatestDigitalValue(), is(equalTo(IOValue.LOW)));
+		
+		IOAggregate ad1 = store.getHistory(remoteDevice, IOLine.DIO1_AD1).aggregateLast(0);
+		assertThat(ad1.getMinimum(), is(equalTo(0x0100)));
+		assertThat(ad1.getMaximum(), is(equalTo(0x0123)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSampleStore#getHistory(RemoteXBeeDevice, IOLine)}.
+	 * 
+	 * <p>Verify that the histories of a remote device are found by its 16-bit
+	 * address when the 64-bit one is unknown.</p>
+	 */
+	@Test
+	public void testGetHistory16BitAddress() {
+		// Setup the resources for the test.
+		RemoteXBeeDevice device16 = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(device16.get64BitAddress()).thenReturn(XBee64BitAddress.UNKNOWN_ADDRESS);
+		Mockito.when(device16.get16BitAddress()).thenReturn(new XBee16BitAddress("1234"));
+		RemoteXBeeDevice other16 = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(other16.get16BitAddress()).thenReturn(new XBee16BitAddress("1234"));
+		
+		// Call the method under test.
+		store.addSample(device16, new IOSample(IO_DATA_802), 1000);
+		
+		// Verify the result.
+		assertThat(store.getHistory(other16, IOLine.DIO0_AD0).size(), is(equalTo(1)));
+		assertNull(store.getHistory(remoteDevice, IOLine.DIO0_AD0));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSampleStore#getHistory(RemoteXBeeDevice, IOLine)}.
+	 * 
+	 * <p>Verify that the histories of a remote device are found by its IPv6
+	 * address when it has no 64-bit nor 16-bit address, so every instance of
+	 * the device shares them.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testGetHistoryIPv6Address() throws Exception {
+		// Setup the resources for the test.
+		Inet6Address ipv6Address = (Inet6Address)Inet6Address.getByName("FDB3:0001:0002:0000:0004:0005:0006:0007");
+		RemoteXBeeDevice deviceIPv6 = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(deviceIPv6.getIPv6Address()).thenReturn(ipv6Address);
+		RemoteXBeeDevice otherIPv6 = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(otherIPv6.getIPv6Address()).thenReturn(ipv6Address);
+		
+		// Call the method under test.
+		store.addSample(deviceIPv6, new IOSample(IO_DATA_802), 1000);
+		
+		// Verify the result.
+		assertThat(store.getHistory(otherIPv6, IOLine.DIO0_AD0).size(), is(equalTo(1)));
+		assertThat(store.getHistory(deviceIPv6, IOLine.DIO0_AD0), is(sameInstance(store.getHistory(otherIPv6, IOLine.DIO0_AD0))));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSampleStore#remove(RemoteXBeeDevice)}.
+	 */
+	@Test
+	public void testRemove() {
+		// Setup the resources for the test.
+		store.addSample(remoteDevice, new IOSample(IO_DATA_802), 1000);
+		
+		// Call the method under test.
+		store.remove(remoteDevice);
+		
+		// Verify the result.
+		assertNull(store.getHistory(remoteDevice, IOLine.DIO0_AD0));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSampleStore#addSample(RemoteXBeeDevice, IOSample, long)}.
+	 * 
+	 * <p>Verify that a sample cannot be stored without remote device.</p>
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testAddSampleNullDevice() {
+		store.addSample(null, new IOSample(IO_DATA_802), 1000);
+	}
+}
@@ -26,6 +26,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -68,6 +69,10 @@ public class IOSampleTest {
 	private static final int DIGITAL_MASK = 529; // 0x0211
 	private static final int ANALOG_MASK = 138; // 0x8A
 	
+	// 802.15.4 sample with DIO0, DIO3, DIO5, AD1 and AD2 enabled (mask 0x0C29).
+	// DIO0 and DIO5 are HIGH, AD1 value is 0x0123 and AD2 value is 0x03FF.
+	private static final byte[] IO_DATA_802 = new byte[]{0x01, 0x0C, 0x29, 0x00, 0x21, 0x01, 0x23, 0x03, (byte)0xFF};
+	
 	/**
 	 * Verify that the IOSample object is not correctly instantiated when the IO data byte 
 	 * array is null.
@@ -461,4 +466,114 @@ public class IOSampleTest {
 		// Verify the result.
 		assertThat(result, is(equalTo(expected)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSample#isHigh(IOLine)}.
+	 * 
+	 * <p>Verify that only the lines with a digital value in high state are 
+	 * reported as high, and that the mask of values matches them.</p>
+	 */
+	@Test
+	public void testIsHigh() {
+		// Setup the resources for the test.
+		IOSample ioSample = new IOSample(IO_DATA_MIXED);
+		IOSample ioSample802 = new IOSample(IO_DATA_802);
+		
+		// Verify the result.
+		assertTrue(ioSample.isHigh(IOLine.DIO0_AD0));
+		assertFalse(ioSample.isHigh(IOLine.DIO4_AD4));
+		assertTrue(ioSample.isHigh(IOLine.DIO9));
+		assertFalse(ioSample.isHigh(IOLine.DIO1_AD1));
+		assertFalse(ioSample.isHigh(IOLine.DIO19));
+		assertThat(ioSample.getDigitalValuesMask(), is(equalTo(0x0201)));
+		
+		assertTrue(ioSample802.isHigh(IOLine.DIO0_AD0));
+		assertFalse(ioSample802.isHigh(IOLine.DIO3_AD3));
+		assertTrue(ioSample802.isHigh(IOLine.DIO5_AD5));
+		assertThat(ioSample802.getDigitalValuesMask(), is(equalTo(0x0021)));
+		assertThat(ioSample802.getDigitalValue(IOLine.DIO3_AD3), is(equalTo(IOValue.LOW)));
+		assertNull(ioSample802.getDigitalValue(IOLine.DIO1_AD1));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSample#isHigh(IOLine)}.
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testIsHighNullLine() {
+		new IOSample(IO_DATA_MIXED).isHigh(null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSample#getAnalog(IOLine)}.
+	 * 
+	 * <p>Verify that the analog values are returned without boxing and that 
+	 * {@code -1} is returned for the lines without analog value.</p>
+	 */
+	@Test
+	public void testGetAnalog() {
+		// Setup the resources for the test.
+		IOSample ioSample = new IOSample(IO_DATA_MIXED);
+		IOSample ioSample802 = new IOSample(IO_DATA_802);
+		IOSample digitalSample = new IOSample(IO_DATA_ONLY_DIGITAL);
+		
+		// Verify the result.
+		assertThat(ioSample.getAnalog(IOLine.DIO1_AD1), is(equalTo(DIO1_ANALOG_VALUE)));
+		assertThat(ioSample.getAnalog(IOLine.DIO3_AD3), is(equalTo(DIO3_ANALOG_VALUE)));
+		assertThat(ioSample.getAnalog(IOLine.DIO0_AD0), is(equalTo(-1)));
+		assertThat(ioSample.getAnalog(IOLine.DIO7), is(equalTo(-1)));
+		assertThat(ioSample.getAnalogLinesMask(), is(equalTo(0x0A)));
+		
+		assertThat(ioSample802.getAnalog(IOLine.DIO1_AD1), is(equalTo(0x0123)));
+		assertThat(ioSample802.getAnalog(IOLine.DIO2_AD2), is(equalTo(0x03FF)));
+		assertThat(ioSample802.getAnalogValue(IOLine.DIO2_AD2), is(equalTo(0x03FF)));
+		assertThat(ioSample802.getAnalogLinesMask(), is(equalTo(0x06)));
+		assertThat(ioSample802.getAnalogValues().size(), is(equalTo(2)));
+		
+		assertThat(digitalSample.getAnalog(IOLine.DIO1_AD1), is(equalTo(-1)));
+		assertThat(digitalSample.getAnalogLinesMask(), is(equalTo(0)));
+		assertFalse(digitalSample.hasAnalogValue(null));
+		assertTrue(digitalSample.getAnalogValues().isEmpty());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSample#getAnalog(IOLine)}.
+	 */
+	@Test(expected=NullPointerException.class)
+	public void testGetAnalogNullLine() {
+		new IOSample(IO_DATA_MIXED).getAnalog(null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOSample#parseIOSamples(byte[])}.
+	 * 
+	 * <p>Verify that all the complete samples of an 802.15.4 payload are 
+	 * parsed in order, and that the payloads of other protocols contain a 
+	 * single sample.</p>
+	 */
+	@Test
+	public void testParseIOSamples() {
+		// Setup the resources for the test.
+		// 3 samples announced with the masks of IO_DATA_802, the last one is incomplete.
+		byte[] payload = new byte[]{0x03, 0x0C, 0x29, 
+				0x00, 0x21, 0x01, 0x23, 0x03, (byte)0xFF, 
+				0x00, 0x08, 0x00, 0x10, 0x00, 0x20, 
+				0x00, 0x01};
+		
+		// Call the method under test.
+		List<IOSample> samples = IOSample.parseIOSamples(payload);
+		List<IOSample> singleSamples = IOSample.parseIOSamples(IO_DATA_MIXED);
+		
+		// Verify the result.
+		assertThat(samples.size(), is(equalTo(2)));
+		assertThat(samples.get(0).getDigitalValuesMask(), is(equalTo(0x0021)));
+		assertThat(samples.get(0).getAnalog(IOLine.DIO2_AD2), is(equalTo(0x03FF)));
+		assertThat(samples.get(1).getDigitalMask(), is(equalTo(samples.get(0).getDigitalMask())));
+		assertThat(samples.get(1).getAnalogMask(), is(equalTo(samples.get(0).getAnalogMask())));
+		assertThat(samples.get(1).getDigitalValuesMask(), is(equalTo(0x0008)));
+		assertThat(samples.get(1).getAnalog(IOLine.DIO1_AD1), is(equalTo(0x0010)));
+		assertThat(samples.get(1).getAnalog(IOLine.DIO2_AD2), is(equalTo(0x0020)));
+		
+		assertThat(singleSamples.size(), is(equalTo(1)));
+		assertThat(singleSamples.get(0), is(equalTo(new IOSample(IO_DATA_MIXED))));
+	}
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.io;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class IOStateCacheTest {
+	
+	// Constants.
+	private static final byte[] IO_DATA = new byte[]{0x01, 0x02, 0x11, 0x00, 0x02, 0x01};
+	
+	// Variables.
+	private IOStateCache cache;
+	
+	private RemoteXBeeDevice remoteDevice;
+	
+	@Before
+	public void setup() {
+		cache = new IOStateCache();
+		
+		remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(new XBee64BitAddress("0013A20040A9E77E"));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOStateCache#getIOSample(RemoteXBeeDevice, long)}.
+	 * 
+	 * <p>Verify that the cached sample is only returned while it is not older
+	 * than the given age.</p>
+	 */
+	@Test
+	public void testGetIOSample() {
+		// Setup the resources for the test.
+		IOSample ioSample = new IOSample(IO_DATA);
+		cache.update(remoteDevice, ioSample, System.currentTimeMillis() - 5000);
+		
+		// Call the method under test.
+		IOSample fresh = cache.getIOSample(remoteDevice, 60000);
+		IOSample stale = cache.getIOSample(remoteDevice, 1000);
+		
+		// Verify the result.
+		assertSame(ioSample, fresh);
+		assertNull(stale);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOStateCache#update(RemoteXBeeDevice, IOSample, long)}.
+	 * 
+	 * <p>Verify that a sample older than the cached one is ignored.</p>
+	 */
+	@Test
+	public void testUpdateOlderSample() {
+		// Setup the resources for the test.
+		IOSample newer = new IOSample(IO_DATA);
+		IOSample older = new IOSample(IO_DATA);
+		
+		// Call the method under test.
+		cache.update(remoteDevice, newer, 2000);
+		cache.update(remoteDevice, older, 1000);
+		
+		// Verify the result.
+		assertThat(cache.getTimestamp(remoteDevice), is(equalTo(2000L)));
+		assertSame(newer, cache.getIOSample(remoteDevice, Long.MAX_VALUE));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOStateCache#remove(RemoteXBeeDevice)}.
+	 */
+	@Test
+	public void testRemove() {
+		// Setup the resources for the test.
+		cache.update(remoteDevice, new IOSample(IO_DATA), System.currentTimeMillis());
+		
+		// Call the method under test.
+		cache.remove(remoteDevice);
+		
+		// Verify the result.
+		assertNull(cache.getIOSample(remoteDevice, 60000));
+		assertThat(cache.getTimestamp(remoteDevice), is(equalTo(-1L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.io.IOStateCache#getIOSample(RemoteXBeeDevice, long)}.
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetIOSampleNegativeMaxAge() {
+		cache.getIOSample(remoteDevice, -1);
+	}
+}
@@ -17,7 +17,7 @@ package com.digi.xbee.api.listeners;
 
 import static org.junit.Assert.*;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -349,7 +349,7 @@ public class IDataReceiveListener802Test {
 	 */
 	private void notifyDataReceiveListeners(XBeeMessage xbeeMessage) {
 		@SuppressWarnings("unchecked")
-		ArrayList<IDataReceiveListener> dataReceiveListeners = (ArrayList<IDataReceiveListener>)Whitebox.getInternalState(dataReader, "dataReceiveListeners");
+		List<IDataReceiveListener> dataReceiveListeners = (List<IDataReceiveListener>)Whitebox.getInternalState(dataReader, "dataReceiveListeners");
 		for (IDataReceiveListener listener:dataReceiveListeners)
 			listener.dataReceived(xbeeMessage);
 	}
@@ -17,7 +17,7 @@ package com.digi.xbee.api.listeners;
 
 import static org.junit.Assert.*;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -282,7 +282,7 @@ public class IExplicitDataReceiveListenerTest {
 	 */
 	private void notifyDataReceiveListeners(ExplicitXBeeMessage explicitXBeeMessage) {
 		@SuppressWarnings("unchecked")
-		ArrayList<IExplicitDataReceiveListener> explicitDataReceiveListeners = (ArrayList<IExplicitDataReceiveListener>)Whitebox.getInternalState(dataReader, "explicitDataReceiveListeners");
+		List<IExplicitDataReceiveListener> explicitDataReceiveListeners = (List<IExplicitDataReceiveListener>)Whitebox.getInternalState(dataReader, "explicitDataReceiveListeners");
 		for (IExplicitDataReceiveListener listener:explicitDataReceiveListeners)
 			listener.explicitDataReceived(explicitXBeeMessage);
 	}
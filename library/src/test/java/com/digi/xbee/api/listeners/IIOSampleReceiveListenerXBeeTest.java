@@ -17,7 +17,7 @@ package com.digi.xbee.api.listeners;
 
 import static org.junit.Assert.*;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -213,7 +213,7 @@ public class IIOSampleReceiveListenerXBeeTest {
 	 */
 	private void notifyIOSampleReceivedListeners(RemoteXBeeDevice remoteDevice, IOSample ioSample) {
 		@SuppressWarnings("unchecked")
-		ArrayList<IIOSampleReceiveListener> ioSampleReceiveListeners = (ArrayList<IIOSampleReceiveListener>) 
+		List<IIOSampleReceiveListener> ioSampleReceiveListeners = (List<IIOSampleReceiveListener>) 
 				Whitebox.getInternalState(dataReader, "ioSampleReceiveListeners");
 		for (IIOSampleReceiveListener listener : ioSampleReceiveListeners) {
 			listener.ioSampleReceived(remoteDevice, ioSample);
@@ -18,7 +18,7 @@ package com.digi.xbee.api.listeners;
 import static org.junit.Assert.*;
 
 import java.net.Inet6Address;
-import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -244,7 +244,7 @@ public class IIPDataReceiveListenerIPv6Test {
 	 */
 	private void notifyDataReceiveListeners(IPMessage ipMessage) {
 		@SuppressWarnings("unchecked")
-		ArrayList<IIPDataReceiveListener> ipDataReceiveListeners = (ArrayList<IIPDataReceiveListener>)Whitebox.getInternalState(dataReader, "ipDataReceiveListeners");
+		List<IIPDataReceiveListener> ipDataReceiveListeners = (List<IIPDataReceiveListener>)Whitebox.getInternalState(dataReader, "ipDataReceiveListeners");
 		for (IIPDataReceiveListener listener:ipDataReceiveListeners)
 			listener.ipDataReceived(ipMessage);
 	}
@@ -17,7 +17,7 @@ package com.digi.xbee.api.listeners;
 
 import static org.junit.Assert.*;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -187,7 +187,7 @@ public class IModemStatusReceiveListenerTest {
 	 */
 	private void notifyModemStatusListeners(ModemStatusEvent modemStatusEvent) {
 		@SuppressWarnings("unchecked")
-		ArrayList<IModemStatusReceiveListener> modemStatusListeners = (ArrayList<IModemStatusReceiveListener>)Whitebox.getInternalState(dataReader, "modemStatusListeners");
+		List<IModemStatusReceiveListener> modemStatusListeners = (List<IModemStatusReceiveListener>)Whitebox.getInternalState(dataReader, "modemStatusListeners");
 		for (IModemStatusReceiveListener listener : modemStatusListeners)
 			listener.modemStatusEventReceived(modemStatusEvent);
 	}
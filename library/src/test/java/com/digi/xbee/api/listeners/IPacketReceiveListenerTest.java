@@ -18,7 +18,7 @@ package com.digi.xbee.api.listeners;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -244,7 +244,7 @@ public class IPacketReceiveListenerTest {
 	 */
 	private void notifyPacketReceivedListeners(XBeePacket receivedPacket) {
 		@SuppressWarnings("unchecked")
-		HashMap<IPacketReceiveListener, Integer> xbeePacketReceiveListeners = (HashMap<IPacketReceiveListener, Integer>)Whitebox.getInternalState(dataReader, "packetReceiveListeners");
+		Map<IPacketReceiveListener, Integer> xbeePacketReceiveListeners = (Map<IPacketReceiveListener, Integer>)Whitebox.getInternalState(dataReader, "packetReceiveListeners");
 		for (IPacketReceiveListener listener:xbeePacketReceiveListeners.keySet()) {
 			if (xbeePacketReceiveListeners.get(listener) == ALL_FRAME_IDS)
 				listener.packetReceived(receivedPacket);
@@ -17,7 +17,7 @@ package com.digi.xbee.api.listeners;
 
 import static org.junit.Assert.*;
 
-import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -209,7 +209,7 @@ public class ISMSReceiveListenerTest {
 	 */
 	private void notifySMSReceiveListeners(SMSMessage smsMessage) {
 		@SuppressWarnings("unchecked")
-		ArrayList<ISMSReceiveListener> smsReceiveListeners = (ArrayList<ISMSReceiveListener>)Whitebox.getInternalState(dataReader, "smsReceiveListeners");
+		List<ISMSReceiveListener> smsReceiveListeners = (List<ISMSReceiveListener>)Whitebox.getInternalState(dataReader, "smsReceiveListeners");
 		for (ISMSReceiveListener listener:smsReceiveListeners)
 			listener.smsReceived(smsMessage);
 	}
@@ -0,0 +1,165 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.models;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.packet.APIFrameType;
+
+public class ReceiveFilterTest {
+	
+	// Constants.
+	private static final XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A20040A9E77E");
+	private static final XBee64BitAddress OTHER_ADDRESS_64 = new XBee64BitAddress("0013A20040A9E77F");
+	
+	private static final byte[] DATA = "Data".getBytes();
+	
+	// Variables.
+	private RemoteXBeeDevice remoteDevice;
+	
+	@Before
+	public void setUp() {
+		remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(ADDRESS_64);
+		Mockito.when(remoteDevice.get16BitAddress()).thenReturn(new XBee16BitAddress("1234"));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveFilter#matches(XBeeMessage)}.
+	 * 
+	 * <p>Verify that a new filter matches any message and frame type.</p>
+	 */
+	@Test
+	public void testEmptyFilterMatchesAll() {
+		// Setup the resources for the test.
+		ReceiveFilter filter = new ReceiveFilter();
+		
+		// Call the method under test and verify the result.
+		assertThat(filter.matches(new XBeeMessage(remoteDevice, DATA)), is(equalTo(true)));
+		assertThat(filter.matchesFrameType(APIFrameType.RX_64), is(equalTo(true)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveFilter#matches(XBeeMessage)}.
+	 * 
+	 * <p>Verify that the source addresses of the message are checked.</p>
+	 */
+	@Test
+	public void testMatchesSourceAddress() {
+		// Setup the resources for the test.
+		XBeeMessage message = new XBeeMessage(remoteDevice, DATA);
+		
+		// Call the method under test and verify the result.
+		assertThat(new ReceiveFilter().setSource64BitAddress(ADDRESS_64).matches(message), is(equalTo(true)));
+		assertThat(new ReceiveFilter().setSource64BitAddress(OTHER_ADDRESS_64).matches(message), is(equalTo(false)));
+		assertThat(new ReceiveFilter().setSource16BitAddress(new XBee16BitAddress("1234")).matches(message), is(equalTo(true)));
+		assertThat(new ReceiveFilter().setSource16BitAddress(new XBee16BitAddress("4321")).matches(message), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveFilter#matchesFrameType(APIFrameType)}.
+	 * 
+	 * <p>Verify that only the configured frame types match.</p>
+	 */
+	@Test
+	public void testMatchesFrameType() {
+		// Setup the resources for the test.
+		ReceiveFilter filter = new ReceiveFilter().setFrameTypes(APIFrameType.RX_64, APIFrameType.RX_16);
+		
+		// Call the method under test and verify the result.
+		assertThat(filter.matchesFrameType(APIFrameType.RX_16), is(equalTo(true)));
+		assertThat(filter.matchesFrameType(APIFrameType.RECEIVE_PACKET), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveFilter#matches(ExplicitXBeeMessage)}.
+	 * 
+	 * <p>Verify that the endpoints, cluster ID and profile ID of explicit 
+	 * messages are checked.</p>
+	 */
+	@Test
+	public void testMatchesExplicit() {
+		// Setup the resources for the test.
+		ExplicitXBeeMessage message = new ExplicitXBeeMessage(remoteDevice, 0xE8, 0xE9, 0x0011, 0xC105, DATA);
+		
+		// Call the method under test and verify the result.
+		assertThat(new ReceiveFilter().setClusterID(0x0011).setProfileID(0xC105).matches(message), is(equalTo(true)));
+		assertThat(new ReceiveFilter().setSourceEndpoint(0xE8).setDestinationEndpoint(0xE9).matches(message), is(equalTo(true)));
+		assertThat(new ReceiveFilter().setClusterID(0x0012).matches(message), is(equalTo(false)));
+		assertThat(new ReceiveFilter().setDestinationEndpoint(0xE8).matches(message), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveFilter#matches(IPMessage)}.
+	 * 
+	 * <p>Verify that the source IP address and ports of IP messages are 
+	 * checked.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public void testMatchesIP() throws Exception {
+		// Setup the resources for the test.
+		Inet4Address address = (Inet4Address)InetAddress.getByName("10.101.1.5");
+		IPMessage message = new IPMessage(address, 1234, 5678, IPProtocol.UDP, DATA);
+		
+		// Call the method under test and verify the result.
+		assertThat(new ReceiveFilter().setSourceIPAddress(address).setDestinationPort(5678).matches(message), is(equalTo(true)));
+		assertThat(new ReceiveFilter().setSourceIPAddress(InetAddress.getByName("10.101.1.6")).matches(message), is(equalTo(false)));
+		assertThat(new ReceiveFilter().setSourcePort(1235).matches(message), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveFilter#ReceiveFilter(ReceiveFilter)}.
+	 * 
+	 * <p>Verify that changing a filter does not change its copies.</p>
+	 */
+	@Test
+	public void testCopy() {
+		// Setup the resources for the test.
+		ReceiveFilter filter = new ReceiveFilter().setClusterID(0x0011).setFrameTypes(APIFrameType.RX_64);
+		
+		// Call the method under test.
+		ReceiveFilter copy = new ReceiveFilter(filter);
+		filter.setClusterID(0x0012).setFrameTypes(APIFrameType.RX_16);
+		
+		// Verify the result.
+		assertThat(copy.getClusterID(), is(equalTo(0x0011)));
+		assertThat(copy.matchesFrameType(APIFrameType.RX_64), is(equalTo(true)));
+		assertThat(copy.matchesFrameType(APIFrameType.RX_16), is(equalTo(false)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.ReceiveFilter#setClusterID(int)}.
+	 * 
+	 * <p>Verify that an {@code IllegalArgumentException} is thrown when the 
+	 * cluster ID is out of range.</p>
+	 */
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetClusterIDOutOfRange() {
+		new ReceiveFilter().setClusterID(0x10000);
+	}
+}
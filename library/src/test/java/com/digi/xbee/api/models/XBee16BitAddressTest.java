@@ -18,6 +18,7 @@ package com.digi.xbee.api.models;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -368,7 +369,7 @@ public class XBee16BitAddressTest {
 		assertThat("Consistent test fail addr3,addr1", addr3.equals(addr1), is(equalTo(false)));
 		assertThat("Consistent test fail addr3,addr1", addr3.equals(addr1), is(equalTo(false)));
 		assertThat("Consistent test fail addr3,addr1", addr3.equals(addr1), is(equalTo(false)));
-
+	
 	}
 	
 	/**
@@ -423,4 +424,98 @@ public class XBee16BitAddressTest {
 		assertThat("Consistent hashcode test fails", addr.hashCode(), is(equalTo(initialHashCode)));
 		assertThat("Consistent hashcode test fails", addr.hashCode(), is(equalTo(initialHashCode)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee16BitAddress#XBee16BitAddress(String)}.
+	 * 
+	 * <p>Verify that the string is parsed with an upper case prefix and that
+	 * non-ASCII digits are rejected.</p>
+	 */
+	@Test
+	public final void testCreateWithStringPrefixAndDigits() {
+		// Call the method under test.
+		XBee16BitAddress address = new XBee16BitAddress("0Xfffe");
+		
+		// Verify the result.
+		assertThat("Address must be parsed", address.intValue(), is(equalTo(0xFFFE)));
+		assertThat("Address must be the unknown one", address, is(equalTo(XBee16BitAddress.UNKNOWN_ADDRESS)));
+		assertThat("Address string must be upper case", address.toString(), is(equalTo("FFFE")));
+		
+		String[] invalid = {"0x", "0x12345", "12\uFF13", "12 ", "-1"};
+		for (String string : invalid) {
+			try {
+				new XBee16BitAddress(string);
+				fail("Object should not have been created with '" + string + "'.");
+			} catch (IllegalArgumentException e) {
+				assertEquals("Address must follow this pattern: (0x)XXXX.", e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee16BitAddress#getHsb()}
+	 * and {@link com.digi.xbee.api.models.XBee16BitAddress#getLsb()}.
+	 * 
+	 * <p>Verify that the bytes keep being returned as signed values.</p>
+	 */
+	@Test
+	public final void testGetHsbLsbSigned() {
+		// Setup the resources for the test.
+		XBee16BitAddress address = new XBee16BitAddress(0xFF, 0x80);
+		
+		// Verify the result.
+		assertThat("HSB must be signed", address.getHsb(), is(equalTo(-1)));
+		assertThat("LSB must be signed", address.getLsb(), is(equalTo(-128)));
+		assertThat("Value must be unsigned", address.intValue(), is(equalTo(0xFF80)));
+		assertArrayEquals(new byte[]{(byte)0xFF, (byte)0x80}, address.getValue());
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee16BitAddress#valueOf(int)}.
+	 * 
+	 * <p>Verify that the same instance is returned for the same value and
+	 * that the constants are the canonical instances of their values.</p>
+	 */
+	@Test
+	public final void testValueOfReturnsCanonicalInstance() {
+		// Call the method under test.
+		XBee16BitAddress address1 = XBee16BitAddress.valueOf(0x1234);
+		XBee16BitAddress address2 = XBee16BitAddress.valueOf(0x1234);
+		
+		// Verify the result.
+		assertThat("Instances must be the same", address2, is(sameInstance(address1)));
+		assertThat("Address must be equal", address1, is(equalTo(new XBee16BitAddress("0x1234"))));
+		assertThat("Coordinator must be canonical", XBee16BitAddress.valueOf(0), is(sameInstance(XBee16BitAddress.COORDINATOR_ADDRESS)));
+		assertThat("Unknown must be canonical", XBee16BitAddress.valueOf(0xFFFE), is(sameInstance(XBee16BitAddress.UNKNOWN_ADDRESS)));
+		try {
+			XBee16BitAddress.valueOf(0x10000);
+			fail("Address should not have been created.");
+		} catch (IllegalArgumentException e) {
+			assertEquals("Address must be between 0 and 0xFFFF.", e.getMessage());
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee16BitAddress#valueOf(byte[], int)}.
+	 * 
+	 * <p>Verify that the address is read from the given position of the
+	 * buffer.</p>
+	 */
+	@Test
+	public final void testValueOfBuffer() {
+		// Setup the resources for the test.
+		byte[] buffer = new byte[]{0x00, 0x21, 0x42};
+		
+		// Call the method under test.
+		XBee16BitAddress address = XBee16BitAddress.valueOf(buffer, 1);
+		
+		// Verify the result.
+		assertThat("Address must be read from the buffer", address, is(equalTo(new XBee16BitAddress(VALID_BYTE_ARRAY))));
+		try {
+			XBee16BitAddress.valueOf(buffer, 2);
+			fail("Address should not have been read.");
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Address must be contained in the buffer.", e.getMessage());
+		}
+	}
 }
@@ -18,6 +18,7 @@ package com.digi.xbee.api.models;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
@@ -443,7 +444,7 @@ public class XBee64BitAddressTest {
 		assertThat("Consistent test fail addr3,addr1", addr3.equals(addr1), is(equalTo(false)));
 		assertThat("Consistent test fail addr3,addr1", addr3.equals(addr1), is(equalTo(false)));
 		assertThat("Consistent test fail addr3,addr1", addr3.equals(addr1), is(equalTo(false)));
-
+	
 	}
 	
 	/**
@@ -498,4 +499,95 @@ public class XBee64BitAddressTest {
 		assertThat("Consistent hashcode test fails", addr.hashCode(), is(equalTo(initialHashCode)));
 		assertThat("Consistent hashcode test fails", addr.hashCode(), is(equalTo(initialHashCode)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee64BitAddress#XBee64BitAddress(String)}.
+	 * 
+	 * <p>Verify that the string is parsed with an upper case prefix and that
+	 * non-ASCII digits are rejected.</p>
+	 */
+	@Test
+	public final void testCreateWithStringPrefixAndDigits() {
+		// Call the method under test.
+		XBee64BitAddress address = new XBee64BitAddress("0X0013a20040A9E7ED");
+		
+		// Verify the result.
+		assertThat("Address must be parsed", address.longValue(), is(equalTo(0x0013A20040A9E7EDL)));
+		assertThat("Address string must be upper case", address.toString(), is(equalTo(VALID_STRING_NO_PREFIX)));
+		
+		String[] invalid = {"0x", "0x0013A20040A9E7ED0", "0013A20040A9E7E\uFF10", " 0013A20040A9E7ED", "-1"};
+		for (String string : invalid) {
+			try {
+				new XBee64BitAddress(string);
+				fail("Object should not have been created with '" + string + "'.");
+			} catch (IllegalArgumentException e) {
+				assertEquals("Address must follow this pattern: (0x)0013A20040XXXXXX.", e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee64BitAddress#XBee64BitAddress(long)}.
+	 * 
+	 * <p>Verify that an address created from a {@code long} is equal to the
+	 * one created from its bytes.</p>
+	 */
+	@Test
+	public final void testCreateWithLong() {
+		// Call the method under test.
+		XBee64BitAddress address = new XBee64BitAddress(0x0013A20040A9E7EDL);
+		XBee64BitAddress unknown = new XBee64BitAddress(-1L);
+		
+		// Verify the result.
+		assertArrayEquals(VALID_BYTE_ARRAY, address.getValue());
+		assertThat("Addresses must be equal", address, is(equalTo(new XBee64BitAddress(VALID_BYTE_ARRAY))));
+		assertThat("Hash codes must be equal", address.hashCode(), is(equalTo(new XBee64BitAddress(VALID_BYTE_ARRAY).hashCode())));
+		assertThat("Address must be the unknown one", unknown, is(equalTo(XBee64BitAddress.UNKNOWN_ADDRESS)));
+		assertThat("Address string must be complete", unknown.toString(), is(equalTo("FFFFFFFFFFFFFFFF")));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee64BitAddress#valueOf(long)}.
+	 * 
+	 * <p>Verify that the same instance is returned for the same value and
+	 * that the constants are the canonical instances of their values.</p>
+	 */
+	@Test
+	public final void testValueOfReturnsCanonicalInstance() {
+		// Call the method under test.
+		XBee64BitAddress address1 = XBee64BitAddress.valueOf(0x0013A20040123456L);
+		XBee64BitAddress address2 = XBee64BitAddress.valueOf(0x0013A20040123456L);
+		
+		// Verify the result.
+		assertThat("Instances must be the same", address2, is(sameInstance(address1)));
+		assertThat("Address must be equal", address1, is(equalTo(new XBee64BitAddress("0x0013A20040123456"))));
+		assertThat("Coordinator must be canonical", XBee64BitAddress.valueOf(0), is(sameInstance(XBee64BitAddress.COORDINATOR_ADDRESS)));
+		assertThat("Broadcast must be canonical", XBee64BitAddress.valueOf(0xFFFF), is(sameInstance(XBee64BitAddress.BROADCAST_ADDRESS)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.models.XBee64BitAddress#valueOf(byte[], int)}.
+	 * 
+	 * <p>Verify that the address is read from the given position of the
+	 * buffer.</p>
+	 */
+	@Test
+	public final void testValueOfBuffer() {
+		// Setup the resources for the test.
+		byte[] buffer = new byte[VALID_BYTE_ARRAY.length + 3];
+		System.arraycopy(VALID_BYTE_ARRAY, 0, buffer, 2, VALID_BYTE_ARRAY.length);
+		
+		// Call the method under test.
+		XBee64BitAddress address = XBee64BitAddress.valueOf(buffer, 2);
+		
+		// Verify the result.
+		assertThat("Address must be read from the buffer", address, is(equalTo(new XBee64BitAddress(VALID_BYTE_ARRAY))));
+		assertThat("Instances must be the same", XBee64BitAddress.valueOf(buffer, 2), is(sameInstance(address)));
+		try {
+			XBee64BitAddress.valueOf(buffer, 4);
+			fail("Address should not have been read.");
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Address must be contained in the buffer.", e.getMessage());
+		}
+	}
 }
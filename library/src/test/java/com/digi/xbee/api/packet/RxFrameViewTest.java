@@ -0,0 +1,279 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.packet.common.ReceivePacket;
+
+public class RxFrameViewTest {
+	
+	// Constants.
+	private static final byte[] RECEIVE_PACKET_PAYLOAD = new byte[] {(byte)0x90, 
+			0x00, 0x13, (byte)0xA2, 0x00, 0x40, 0x32, 0x16, (byte)0x9C, // 64-bit address.
+			(byte)0xFF, (byte)0xFE, // 16-bit address.
+			0x01, // Receive options.
+			0x48, 0x6F, 0x6C, 0x61}; // RF data.
+	
+	private static final byte[] EXPLICIT_PAYLOAD = new byte[] {(byte)0x91, 
+			0x00, 0x13, (byte)0xA2, 0x00, 0x40, 0x32, 0x16, (byte)0x9C, // 64-bit address.
+			0x12, 0x34, // 16-bit address.
+			(byte)0xE8, (byte)0xE6, // Source and destination endpoints.
+			0x00, 0x11, // Cluster ID.
+			(byte)0xC1, 0x05, // Profile ID.
+			0x02, // Receive options.
+			0x01, 0x02}; // RF data.
+	
+	private static final byte[] RX_16_PAYLOAD = new byte[] {(byte)0x81, 
+			0x56, 0x78, // 16-bit address.
+			0x28, // RSSI.
+			0x00, // Receive options.
+			0x41}; // RF data.
+	
+	private static final byte[] RX_IPV4_PAYLOAD = new byte[] {(byte)0xB0, 
+			(byte)0xC0, (byte)0xA8, 0x01, 0x02, // Source address.
+			0x26, 0x16, // Destination port.
+			0x00, 0x50, // Source port.
+			0x01, // Protocol.
+			0x00, // Status.
+			0x4F, 0x4B}; // RF data.
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#wrap(byte[], int, int)}.
+	 * 
+	 * <p>Verify that the fields of a receive packet are read from the buffer 
+	 * as primitive values.</p>
+	 */
+	@Test
+	public final void testWrapReceivePacket() {
+		// Setup the resources for the test.
+		byte[] buffer = new byte[RECEIVE_PACKET_PAYLOAD.length + 3];
+		System.arraycopy(RECEIVE_PACKET_PAYLOAD, 0, buffer, 3, RECEIVE_PACKET_PAYLOAD.length);
+		
+		// Call the method under test.
+		RxFrameView view = new RxFrameView().wrap(buffer, 3, RECEIVE_PACKET_PAYLOAD.length);
+		
+		// Verify the result.
+		assertThat(view.getFrameType(), is(equalTo(APIFrameType.RECEIVE_PACKET)));
+		assertThat(view.has64BitSourceAddress(), is(equalTo(true)));
+		assertThat(view.get64BitSourceAddress(), is(equalTo(0x0013A2004032169CL)));
+		assertThat(view.get16BitSourceAddress(), is(equalTo(0xFFFE)));
+		assertThat(view.getReceiveOptions(), is(equalTo(0x01)));
+		assertThat(view.getRSSI(), is(equalTo(RxFrameView.NOT_PRESENT)));
+		assertThat(view.getClusterID(), is(equalTo(RxFrameView.NOT_PRESENT)));
+		assertThat(view.getSourcePort(), is(equalTo(RxFrameView.NOT_PRESENT)));
+		assertThat(view.getRFDataLength(), is(equalTo(4)));
+		assertThat(view.copyRFData(), is(equalTo("Hola".getBytes())));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#getRFData()}.
+	 * 
+	 * <p>Verify that the RF data is a read-only slice of the buffer that 
+	 * reflects its contents without copying them.</p>
+	 */
+	@Test
+	public final void testGetRFDataIsReadOnlySlice() {
+		// Setup the resources for the test.
+		byte[] buffer = RECEIVE_PACKET_PAYLOAD.clone();
+		RxFrameView view = new RxFrameView().wrap(buffer, 0, buffer.length);
+		
+		// Call the method under test.
+		ByteBuffer data = view.getRFData();
+		buffer[12] = 0x68;
+		
+		// Verify the result.
+		assertThat(data.isReadOnly(), is(equalTo(true)));
+		assertThat(data.position(), is(equalTo(0)));
+		assertThat(data.remaining(), is(equalTo(4)));
+		assertThat(data.get(0), is(equalTo((byte)0x68)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#wrap(byte[], int, int)}.
+	 * 
+	 * <p>Verify that the addressing fields of an explicit RX indicator are 
+	 * read.</p>
+	 */
+	@Test
+	public final void testWrapExplicitRxIndicator() {
+		// Call the method under test.
+		RxFrameView view = new RxFrameView().wrap(EXPLICIT_PAYLOAD, 0, EXPLICIT_PAYLOAD.length);
+		
+		// Verify the result.
+		assertThat(view.getFrameType(), is(equalTo(APIFrameType.EXPLICIT_RX_INDICATOR)));
+		assertThat(view.get16BitSourceAddress(), is(equalTo(0x1234)));
+		assertThat(view.getSourceEndpoint(), is(equalTo(0xE8)));
+		assertThat(view.getDestinationEndpoint(), is(equalTo(0xE6)));
+		assertThat(view.getClusterID(), is(equalTo(0x0011)));
+		assertThat(view.getProfileID(), is(equalTo(0xC105)));
+		assertThat(view.getReceiveOptions(), is(equalTo(0x02)));
+		assertThat(view.copyRFData(), is(equalTo(new byte[] {0x01, 0x02})));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#wrap(byte[], int, int)}.
+	 * 
+	 * <p>Verify that the same view can be reused for frames of different 
+	 * types.</p>
+	 */
+	@Test
+	public final void testWrapReuse() {
+		// Setup the resources for the test.
+		RxFrameView view = new RxFrameView().wrap(RECEIVE_PACKET_PAYLOAD, 0, RECEIVE_PACKET_PAYLOAD.length);
+		
+		// Call the method under test.
+		view.wrap(RX_16_PAYLOAD, 0, RX_16_PAYLOAD.length);
+		
+		// Verify the result.
+		assertThat(view.getFrameType(), is(equalTo(APIFrameType.RX_16)));
+		assertThat(view.has64BitSourceAddress(), is(equalTo(false)));
+		assertThat(view.get16BitSourceAddress(), is(equalTo(0x5678)));
+		assertThat(view.getRSSI(), is(equalTo(0x28)));
+		assertThat(view.getRFDataLength(), is(equalTo(1)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#get64BitSourceAddress()}.
+	 * 
+	 * <p>Verify that the 64-bit address cannot be read from frames that do 
+	 * not contain it.</p>
+	 */
+	@Test
+	public final void testGet64BitSourceAddressNotPresent() {
+		// Setup the resources for the test.
+		RxFrameView view = new RxFrameView().wrap(RX_16_PAYLOAD, 0, RX_16_PAYLOAD.length);
+		
+		exception.expect(IllegalStateException.class);
+		
+		// Call the method under test.
+		view.get64BitSourceAddress();
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#wrap(byte[], int, int)}.
+	 * 
+	 * <p>Verify that the ports, protocol and source address of an RX IPv4 
+	 * frame are read.</p>
+	 */
+	@Test
+	public final void testWrapRxIPv4() {
+		// Setup the resources for the test.
+		byte[] address = new byte[4];
+		
+		// Call the method under test.
+		RxFrameView view = new RxFrameView().wrap(RX_IPV4_PAYLOAD, 0, RX_IPV4_PAYLOAD.length);
+		
+		// Verify the result.
+		assertThat(view.getDestinationPort(), is(equalTo(0x2616)));
+		assertThat(view.getSourcePort(), is(equalTo(80)));
+		assertThat(view.getProtocolValue(), is(equalTo(1)));
+		assertThat(view.getSourceIPAddressLength(), is(equalTo(4)));
+		assertThat(view.copySourceIPAddress(address, 0), is(equalTo(4)));
+		assertThat(address, is(equalTo(new byte[] {(byte)0xC0, (byte)0xA8, 0x01, 0x02})));
+		assertThat(view.copyRFData(), is(equalTo("OK".getBytes())));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#wrap(byte[], int, int)}.
+	 * 
+	 * <p>Verify that frame types without a view cannot be wrapped.</p>
+	 */
+	@Test
+	public final void testWrapUnsupportedFrameType() {
+		// Setup the resources for the test.
+		byte[] payload = new byte[] {(byte)0x8A, 0x00};
+		
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Frame type is not supported.")));
+		
+		// Call the method under test.
+		new RxFrameView().wrap(payload, 0, payload.length);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#wrap(byte[], int, int)}.
+	 * 
+	 * <p>Verify that incomplete frames cannot be wrapped.</p>
+	 */
+	@Test
+	public final void testWrapIncomplete() {
+		exception.expect(IllegalArgumentException.class);
+		
+		// Call the method under test.
+		new RxFrameView().wrap(RECEIVE_PACKET_PAYLOAD, 0, 11);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#wrap(byte[], int, int)}.
+	 * 
+	 * <p>Verify that a null buffer cannot be wrapped.</p>
+	 */
+	@Test
+	public final void testWrapNullBuffer() {
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Buffer cannot be null.")));
+		
+		// Call the method under test.
+		new RxFrameView().wrap(null, 0, 0);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#toPacket()}.
+	 * 
+	 * <p>Verify that the viewed frame is decoded into a packet that does not 
+	 * depend on the buffer.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testToPacket() throws Exception {
+		// Setup the resources for the test.
+		byte[] buffer = RECEIVE_PACKET_PAYLOAD.clone();
+		RxFrameView view = new RxFrameView().wrap(buffer, 0, buffer.length);
+		
+		// Call the method under test.
+		XBeePacket packet = view.toPacket();
+		buffer[12] = 0x00;
+		
+		// Verify the result.
+		assertThat(packet, is(instanceOf(ReceivePacket.class)));
+		assertThat(((ReceivePacket)packet).getRFData(), is(equalTo("Hola".getBytes())));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.RxFrameView#isSupported(int)}.
+	 */
+	@Test
+	public final void testIsSupported() {
+		assertThat(RxFrameView.isSupported(APIFrameType.RECEIVE_PACKET.getValue()), is(equalTo(true)));
+		assertThat(RxFrameView.isSupported(APIFrameType.RX_IPV6.getValue()), is(equalTo(true)));
+		assertThat(RxFrameView.isSupported(APIFrameType.AT_COMMAND_RESPONSE.getValue()), is(equalTo(false)));
+		assertThat(RxFrameView.isSupported(0x300), is(equalTo(false)));
+	}
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.digi.xbee.api.models.OperatingMode;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.models.XBeeTransmitOptions;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+
+public class TransmitFrameEncoderTest {
+	
+	// Constants.
+	// Contains bytes that must be escaped.
+	private static final XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A2007D7E1113");
+	private static final XBee16BitAddress ADDRESS_16 = new XBee16BitAddress("7E11");
+	
+	private static final byte[] DATA = new byte[] {0x48, 0x7E, 0x6F, 0x7D, 0x13, 0x61};
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that the encoded Transmit Request frames are the same as the 
+	 * ones generated by the {@code TransmitPacket}.</p>
+	 */
+	@Test
+	public final void testEncodeTransmitRequest() {
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_64, ADDRESS_16, 2, XBeeTransmitOptions.ENABLE_APS_ENCRYPTION);
+		TransmitPacket packet = new TransmitPacket(0x7D, ADDRESS_64, ADDRESS_16, 2, XBeeTransmitOptions.ENABLE_APS_ENCRYPTION, DATA);
+		
+		// Call the method under test and verify the result.
+		assertThat(encoder.getFrameType(), is(equalTo(APIFrameType.TRANSMIT_REQUEST)));
+		assertEncoded(encoder, 0x7D, packet);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that the encoded TX 64 frames are the same as the ones 
+	 * generated by the {@code TX64Packet}.</p>
+	 */
+	@Test
+	public final void testEncodeTX64() {
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_64, XBeeTransmitOptions.DISABLE_ACK);
+		TX64Packet packet = new TX64Packet(0x11, ADDRESS_64, XBeeTransmitOptions.DISABLE_ACK, DATA);
+		
+		// Call the method under test and verify the result.
+		assertThat(encoder.getFrameType(), is(equalTo(APIFrameType.TX_64)));
+		assertEncoded(encoder, 0x11, packet);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that the encoded TX 16 frames are the same as the ones 
+	 * generated by the {@code TX16Packet}.</p>
+	 */
+	@Test
+	public final void testEncodeTX16() {
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_16, XBeeTransmitOptions.NONE);
+		TX16Packet packet = new TX16Packet(1, ADDRESS_16, XBeeTransmitOptions.NONE, DATA);
+		
+		// Call the method under test and verify the result.
+		assertThat(encoder.getFrameType(), is(equalTo(APIFrameType.TX_16)));
+		assertEncoded(encoder, 1, packet);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that only the given range of the data array is encoded.</p>
+	 */
+	@Test
+	public final void testEncodeDataRange() {
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_16, XBeeTransmitOptions.NONE);
+		byte[] expected = new TX16Packet(5, ADDRESS_16, XBeeTransmitOptions.NONE, Arrays.copyOfRange(DATA, 2, 5)).generateByteArray();
+		
+		// Call the method under test.
+		int length = encoder.encode(5, DATA, 2, 3, OperatingMode.API);
+		
+		// Verify the result.
+		assertThat(Arrays.copyOf(encoder.getBuffer(), length), is(equalTo(expected)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that the buffer is reused for frames that fit in it.</p>
+	 */
+	@Test
+	public final void testEncodeReusesBuffer() {
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_64, ADDRESS_16, 0, XBeeTransmitOptions.NONE);
+		encoder.encode(1, DATA, 0, DATA.length, OperatingMode.API_ESCAPE);
+		byte[] buffer = encoder.getBuffer();
+		
+		// Call the method under test.
+		encoder.encode(2, DATA, 0, 2, OperatingMode.API);
+		encoder.encode(3, DATA, 0, DATA.length, OperatingMode.API_ESCAPE);
+		
+		// Verify the result.
+		assertThat(encoder.getBuffer(), is(sameInstance(buffer)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that encoding frames does not allocate memory once the buffer 
+	 * has grown.</p>
+	 */
+	@Test
+	public final void testEncodeAllocation() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean 
+				&& ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported());
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)bean;
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_64, ADDRESS_16, 0, XBeeTransmitOptions.NONE);
+		int length = 0;
+		for (int i = 0; i < 10000; i++)
+			length += encoder.encode(i & 0xFF, DATA, 0, DATA.length, OperatingMode.API_ESCAPE);
+		
+		// Call the method under test.
+		long threadID = Thread.currentThread().getId();
+		long start = threadBean.getThreadAllocatedBytes(threadID);
+		for (int i = 0; i < 10000; i++) {
+			length += encoder.encode(i & 0xFF, DATA, 0, DATA.length, OperatingMode.API);
+			length += encoder.encode(i & 0xFF, DATA, 0, DATA.length, OperatingMode.API_ESCAPE);
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadID) - start;
+		
+		// Verify the result.
+		assertThat(length > 0, is(equalTo(true)));
+		assertThat(allocated / 10000, is(equalTo(0L)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that frames cannot be encoded with an invalid frame ID.</p>
+	 */
+	@Test
+	public final void testEncodeInvalidFrameID() {
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_16, XBeeTransmitOptions.NONE);
+		
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Frame ID must be between 0 and 255.")));
+		
+		// Call the method under test.
+		encoder.encode(256, DATA, 0, DATA.length, OperatingMode.API);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that frames cannot be encoded for the AT operating mode.</p>
+	 */
+	@Test
+	public final void testEncodeInvalidOperatingMode() {
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_16, XBeeTransmitOptions.NONE);
+		
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Operating mode must be API or API Escaped.")));
+		
+		// Call the method under test.
+		encoder.encode(1, DATA, 0, DATA.length, OperatingMode.AT);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#encode(int, byte[], int, int, OperatingMode)}.
+	 * 
+	 * <p>Verify that frames cannot be encoded with a data range out of the 
+	 * array bounds.</p>
+	 */
+	@Test
+	public final void testEncodeDataOutOfBounds() {
+		// Setup the resources for the test.
+		TransmitFrameEncoder encoder = new TransmitFrameEncoder(ADDRESS_16, XBeeTransmitOptions.NONE);
+		
+		exception.expect(IndexOutOfBoundsException.class);
+		
+		// Call the method under test.
+		encoder.encode(1, DATA, 4, DATA.length, OperatingMode.API);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#TransmitFrameEncoder(XBee64BitAddress, XBee16BitAddress, int, int)}.
+	 * 
+	 * <p>Verify that an encoder cannot be created with a {@code null} 16-bit 
+	 * address.</p>
+	 */
+	@Test
+	public final void testCreateEncoderNull16BitAddress() {
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("16-bit destination address cannot be null.")));
+		
+		// Call the method under test.
+		new TransmitFrameEncoder(ADDRESS_64, null, 0, XBeeTransmitOptions.NONE);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.TransmitFrameEncoder#TransmitFrameEncoder(XBee64BitAddress, int)}.
+	 * 
+	 * <p>Verify that an encoder cannot be created with invalid transmit 
+	 * options.</p>
+	 */
+	@Test
+	public final void testCreateEncoderInvalidTransmitOptions() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Transmit options must be between 0 and 255.")));
+		
+		// Call the method under test.
+		new TransmitFrameEncoder(ADDRESS_64, 256);
+	}
+	
+	/**
+	 * Verifies that the frames encoded by the given encoder in both API modes 
+	 * are the same as the ones generated by the given packet.
+	 * 
+	 * @param encoder The encoder to test.
+	 * @param frameID The frame ID of the packet.
+	 * @param packet The packet with the same contents.
+	 */
+	private void assertEncoded(TransmitFrameEncoder encoder, int frameID, XBeePacket packet) {
+		int length = encoder.encode(frameID, DATA, 0, DATA.length, OperatingMode.API);
+		assertThat(Arrays.copyOf(encoder.getBuffer(), length), is(equalTo(packet.generateByteArray())));
+		
+		length = encoder.encode(frameID, DATA, 0, DATA.length, OperatingMode.API_ESCAPE);
+		assertThat(Arrays.copyOf(encoder.getBuffer(), length), is(equalTo(packet.generateByteArrayEscaped())));
+	}
+}
@@ -0,0 +1,280 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.packet;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+import com.digi.xbee.api.packet.common.ExplicitAddressingPacket;
+import com.digi.xbee.api.packet.common.ExplicitRxIndicatorPacket;
+import com.digi.xbee.api.packet.common.ReceivePacket;
+import com.digi.xbee.api.packet.common.TransmitPacket;
+import com.digi.xbee.api.packet.raw.RX16Packet;
+import com.digi.xbee.api.packet.raw.RX64Packet;
+import com.digi.xbee.api.packet.raw.TX16Packet;
+import com.digi.xbee.api.packet.raw.TX64Packet;
+
+public class XBeePacketAllocationTest {
+	
+	// Constants.
+	private static final int ITERATIONS = 10000;
+	private static final int MEASUREMENTS = 3;
+	
+	private static final XBee64BitAddress ADDRESS_64 = new XBee64BitAddress("0013A2004032169C");
+	private static final XBee16BitAddress ADDRESS_16 = new XBee16BitAddress("1234");
+	private static final byte[] RF_DATA = "Data".getBytes();
+	
+	private static final byte[] RECEIVE_PACKET_PAYLOAD = new byte[] {(byte)0x90, 
+			0x00, 0x13, (byte)0xA2, 0x00, 0x40, 0x32, 0x16, (byte)0x9C, 
+			(byte)0xFF, (byte)0xFE, 0x01, 0x48, 0x6F, 0x6C, 0x61};
+	
+	@SuppressWarnings("unchecked")
+	private static final Class<? extends XBeePacket>[] MAIN_PACKET_TYPES = new Class[] {
+			ReceivePacket.class, TransmitPacket.class, ExplicitRxIndicatorPacket.class, 
+			ExplicitAddressingPacket.class, RX64Packet.class, RX16Packet.class, 
+			TX64Packet.class, TX16Packet.class};
+	
+	private static com.sun.management.ThreadMXBean threadBean;
+	
+	private static boolean compressedReferences = false;
+	
+	@BeforeClass
+	public static void setUpBeforeClass() throws Exception {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean 
+				&& ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported()) {
+			threadBean = (com.sun.management.ThreadMXBean)bean;
+			threadBean.setThreadAllocatedMemoryEnabled(true);
+		}
+		try {
+			com.sun.management.HotSpotDiagnosticMXBean diagnosticBean = ManagementFactory.getPlatformMXBean(
+					com.sun.management.HotSpotDiagnosticMXBean.class);
+			compressedReferences = Boolean.parseBoolean(diagnosticBean.getVMOption("UseCompressedOops").getValue());
+		} catch (RuntimeException e) {
+			// Assume the largest layout.
+		}
+	}
+	
+	/**
+	 * Test to verify that the loggers of the main RX and TX packets are 
+	 * shared by all the instances.
+	 */
+	@Test
+	public final void testLoggersAreStatic() {
+		for (Class<?> type : MAIN_PACKET_TYPES) {
+			for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (Logger.class.isAssignableFrom(field.getType()))
+						assertThat(c.getName() + "." + field.getName(), Modifier.isStatic(field.getModifiers()), is(equalTo(true)));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Test to verify that the main RX and TX packets do not keep a checksum 
+	 * object.
+	 */
+	@Test
+	public final void testNoChecksumPerPacket() {
+		for (Class<?> type : MAIN_PACKET_TYPES) {
+			for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers()))
+						assertThat(c.getName() + "." + field.getName(), field.getType() == XBeeChecksum.class, is(equalTo(false)));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Test to verify that creating the main RX packets only allocates the 
+	 * packet objects.
+	 */
+	@Test
+	public final void testRxPacketAllocation() {
+		assertAllocation(ReceivePacket.class, new PacketFactory() {
+			@Override
+			public XBeePacket create() {
+				return new ReceivePacket(ADDRESS_64, ADDRESS_16, 0, RF_DATA);
+			}
+		});
+		assertAllocation(ExplicitRxIndicatorPacket.class, new PacketFactory() {
+			@Override
+			public XBeePacket create() {
+				return new ExplicitRxIndicatorPacket(ADDRESS_64, ADDRESS_16, 0xE8, 0xE8, 0x11, 0xC105, 0, RF_DATA);
+			}
+		});
+		assertAllocation(RX64Packet.class, new PacketFactory() {
+			@Override
+			public XBeePacket create() {
+				return new RX64Packet(ADDRESS_64, 0x28, 0, RF_DATA);
+			}
+		});
+		assertAllocation(RX16Packet.class, new PacketFactory() {
+			@Override
+			public XBeePacket create() {
+				return new RX16Packet(ADDRESS_16, 0x28, 0, RF_DATA);
+			}
+		});
+	}
+	
+	/**
+	 * Test to verify that creating the main TX packets only allocates the 
+	 * packet objects.
+	 */
+	@Test
+	public final void testTxPacketAllocation() {
+		assertAllocation(TransmitPacket.class, new PacketFactory() {
+			@Override
+			public XBeePacket create() {
+				return new TransmitPacket(1, ADDRESS_64, ADDRESS_16, 0, 0, RF_DATA);
+			}
+		});
+		assertAllocation(ExplicitAddressingPacket.class, new PacketFactory() {
+			@Override
+			public XBeePacket create() {
+				return new ExplicitAddressingPacket(1, ADDRESS_64, ADDRESS_16, 0xE8, 0xE8, 0x11, 0xC105, 0, 0, RF_DATA);
+			}
+		});
+		assertAllocation(TX64Packet.class, new PacketFactory() {
+			@Override
+			public XBeePacket create() {
+				return new TX64Packet(1, ADDRESS_64, 0, RF_DATA);
+			}
+		});
+		assertAllocation(TX16Packet.class, new PacketFactory() {
+			@Override
+			public XBeePacket create() {
+				return new TX16Packet(1, ADDRESS_16, 0, RF_DATA);
+			}
+		});
+	}
+	
+	/**
+	 * Test to verify that the checksum is computed without allocating 
+	 * objects.
+	 */
+	@Test
+	public final void testChecksumAllocation() {
+		Assume.assumeTrue(threadBean != null);
+		
+		// Setup the resources for the test.
+		int checksum = 0;
+		for (int i = 0; i < ITERATIONS; i++)
+			checksum += XBeeChecksum.compute(RECEIVE_PACKET_PAYLOAD, 0, RECEIVE_PACKET_PAYLOAD.length);
+		
+		// Call the method under test.
+		long threadID = Thread.currentThread().getId();
+		long start = threadBean.getThreadAllocatedBytes(threadID);
+		for (int i = 0; i < ITERATIONS; i++)
+			checksum += XBeeChecksum.compute(RECEIVE_PACKET_PAYLOAD, 0, RECEIVE_PACKET_PAYLOAD.length);
+		long allocated = threadBean.getThreadAllocatedBytes(threadID) - start;
+		
+		// Verify the result.
+		assertThat(checksum, is(equalTo(2 * ITERATIONS * 0x14)));
+		assertThat(allocated / ITERATIONS, is(equalTo(0L)));
+	}
+	
+	/**
+	 * Verifies that creating packets with the given factory does not 
+	 * allocate more bytes per packet than the maximum size of an instance of 
+	 * the given type.
+	 * 
+	 * @param type The type of the created packets.
+	 * @param factory The factory that creates the packets.
+	 */
+	private void assertAllocation(Class<? extends XBeePacket> type, PacketFactory factory) {
+		Assume.assumeTrue(threadBean != null);
+		
+		// Keep the packets so they are really allocated.
+		XBeePacket[] packets = new XBeePacket[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++)
+			packets[i] = factory.create();
+		
+		// Keep the lowest of several measurements, as the JIT compiler may
+		// allocate in this thread during one of them.
+		long threadID = Thread.currentThread().getId();
+		long allocated = Long.MAX_VALUE;
+		for (int attempt = 0; attempt < MEASUREMENTS; attempt++) {
+			long start = threadBean.getThreadAllocatedBytes(threadID);
+			for (int i = 0; i < ITERATIONS; i++)
+				packets[i] = factory.create();
+			allocated = Math.min(allocated, threadBean.getThreadAllocatedBytes(threadID) - start);
+		}
+		
+		long maximumSize = getMaximumInstanceSize(type);
+		assertThat(type.getName() + " allocates " + allocated / ITERATIONS + " bytes per packet (maximum " + maximumSize + ")", 
+				allocated / ITERATIONS <= maximumSize, is(equalTo(true)));
+	}
+	
+	/**
+	 * Returns the size of an instance of the given type, with an additional 
+	 * word for the padding between the fields of each class.
+	 * 
+	 * @param type The type of the instance.
+	 * 
+	 * @return The maximum size of the instance in bytes.
+	 */
+	private static long getMaximumInstanceSize(Class<?> type) {
+		int referenceSize = compressedReferences ? 4 : 8;
+		long size = compressedReferences ? 12 : 16;
+		for (Class<?> c = type; c != Object.class; c = c.getSuperclass()) {
+			for (Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()))
+					continue;
+				Class<?> fieldType = field.getType();
+				if (!fieldType.isPrimitive())
+					size += referenceSize;
+				else if (fieldType == long.class || fieldType == double.class)
+					size += 8;
+				else if (fieldType == int.class || fieldType == float.class)
+					size += 4;
+				else if (fieldType == short.class || fieldType == char.class)
+					size += 2;
+				else
+					size += 1;
+			}
+		}
+		return (size + 7) / 8 * 8 + 8;
+	}
+	
+	/**
+	 * Creates the packets whose allocation is measured.
+	 */
+	private interface PacketFactory {
+		
+		/**
+		 * Creates a new packet.
+		 * 
+		 * @return The new packet.
+		 */
+		XBeePacket create();
+	}
+}
@@ -19,6 +19,8 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import org.junit.After;
@@ -2019,4 +2021,94 @@ public class XBeePacketParserFromByteArrayTest {
 		
 		assertThat("Generated API array from packet is not the expected one", packet.generateByteArray(), is(equalTo(byteArray)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#registerDecoder(int, IPacketDecoder)}.
+	 * 
+	 * <p>A registered decoder must be used for its frame type, and unknown 
+	 * packets must be returned again once it is unregistered.</p>
+	 * 
+	 * @throws InvalidPacketException 
+	 */
+	@Test
+	public final void testParsePacketRegisteredDecoder() throws InvalidPacketException {
+		// Setup the resources for the test.
+		// Route Record frame type, not supported by the library.
+		final int frameType = 0xA1;
+		byte[] byteArray = {0x7E, 0x00, 0x03, (byte)frameType, 0x01, 0x02, 0x5B};
+		final XBeePacket decodedPacket = new UnknownXBeePacket(frameType, new byte[] {0x01, 0x02});
+		
+		XBeePacketParser.registerDecoder(frameType, new IPacketDecoder() {
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return decodedPacket;
+			}
+		});
+		
+		try {
+			// Call the method under test.
+			XBeePacket packet = packetParser.parsePacket(byteArray, OperatingMode.API);
+			
+			// Verify the result.
+			assertThat("Packet must be the decoded one", packet, is(sameInstance(decodedPacket)));
+		} finally {
+			XBeePacketParser.unregisterDecoder(frameType);
+		}
+		
+		// Call the method under test.
+		XBeePacket packet = packetParser.parsePacket(byteArray, OperatingMode.API);
+		
+		// Verify the result.
+		assertThat("Packet must be an unknown packet", packet, is(not(sameInstance(decodedPacket))));
+		assertThat("Packet must be an unknown packet", packet, is(instanceOf(UnknownXBeePacket.class)));
+		assertThat("Decoder must not be registered", XBeePacketParser.getDecoder(frameType), is(nullValue()));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#unregisterDecoder(int)}.
+	 * 
+	 * <p>Unregistering a replaced decoder must restore the decoder of the 
+	 * library.</p>
+	 */
+	@Test
+	public final void testUnregisterDecoderRestoresDefault() {
+		// Setup the resources for the test.
+		int frameType = APIFrameType.RECEIVE_PACKET.getValue();
+		IPacketDecoder defaultDecoder = XBeePacketParser.getDecoder(frameType);
+		IPacketDecoder decoder = new IPacketDecoder() {
+			@Override
+			public XBeePacket decode(byte[] payload) {
+				return null;
+			}
+		};
+		
+		// Call the method under test.
+		XBeePacketParser.registerDecoder(frameType, decoder);
+		
+		// Verify the result.
+		assertThat(XBeePacketParser.getDecoder(frameType), is(sameInstance(decoder)));
+		
+		// Call the method under test.
+		XBeePacketParser.unregisterDecoder(frameType);
+		
+		// Verify the result.
+		assertThat(defaultDecoder, is(not(nullValue())));
+		assertThat(XBeePacketParser.getDecoder(frameType), is(sameInstance(defaultDecoder)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.XBeePacketParser#registerDecoder(int, IPacketDecoder)}.
+	 * 
+	 * <p>An {@code IllegalArgumentException} must be thrown when the frame 
+	 * type is out of range.</p>
+	 */
+	@Test
+	public final void testRegisterDecoderInvalidFrameType() {
+		// Setup the resources for the test.
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage(is(equalTo("Frame type must be between 0 and 255.")));
+		
+		// Call the method under test.
+		XBeePacketParser.registerDecoder(256, XBeePacketParser.getDecoder(APIFrameType.RECEIVE_PACKET.getValue()));
+	}
 }
@@ -22,6 +22,7 @@ import static org.hamcrest.core.IsNull.nullValue;
 
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 
 import static org.junit.Assert.assertThat;
 
@@ -991,4 +992,37 @@ public class RX64IOPacketTest {
 		assertThat("RF data is not the expected", packet.getRFData(), is(equalTo(receivedData)));
 		assertThat("RF Data must not be the same object", packet.getRFData().hashCode(), is(not(equalTo(receivedData.hashCode()))));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.packet.raw.RX64IOPacket#getIOSamples()}.
+	 * 
+	 * <p>Verify that all the samples of a packet with several IO samples are 
+	 * returned in order, and that the number of samples is reported in the 
+	 * packet parameters.</p>
+	 */
+	@Test
+	public final void testGetIOSamplesMultipleSamples() {
+		// Setup the resources for the test.
+		// 2 samples of DIO0 and AD0, the second one with DIO0 in low state.
+		byte[] receivedData = new byte[]{0x02, 0x02, 0x01, 0x00, 0x01, 0x01, 0x00, 0x00, 0x00, 0x02, 0x00};
+		RX64IOPacket packet = new RX64IOPacket(new XBee64BitAddress("0013A2004032D9AB"), 40, 0, receivedData);
+		
+		// Call the method under test.
+		List<IOSample> samples = packet.getIOSamples();
+		
+		// Verify the result.
+		assertThat("Number of samples is not the expected", samples.size(), is(equalTo(2)));
+		assertThat("First sample must be the packet sample", samples.get(0), is(equalTo(packet.getIOSample())));
+		assertThat("First sample is not the expected", samples.get(0).isHigh(IOLine.DIO0_AD0), is(equalTo(true)));
+		assertThat("First sample is not the expected", samples.get(0).getAnalog(IOLine.DIO0_AD0), is(equalTo(0x0100)));
+		assertThat("Second sample is not the expected", samples.get(1).isHigh(IOLine.DIO0_AD0), is(equalTo(false)));
+		assertThat("Second sample is not the expected", samples.get(1).getAnalog(IOLine.DIO0_AD0), is(equalTo(0x0200)));
+		assertThat("Number of samples parameter is not the expected", packet.getAPIPacketParameters().get("Number of samples"), is(equalTo("02")));
+		
+		// Call the method under test.
+		packet.setRFData(null);
+		
+		// Verify the result.
+		assertThat("Packet must not have samples", packet.getIOSamples().isEmpty(), is(equalTo(true)));
+	}
 }
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.net.Inet6Address;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mockito;
+
+import com.digi.xbee.api.RemoteXBeeDevice;
+import com.digi.xbee.api.models.XBee16BitAddress;
+import com.digi.xbee.api.models.XBee64BitAddress;
+
+public class DeviceUtilsTest {
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	// Variables.
+	private RemoteXBeeDevice remoteDevice;
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@Before
+	public void setUp() throws Exception {
+		remoteDevice = Mockito.mock(RemoteXBeeDevice.class);
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(XBee64BitAddress.UNKNOWN_ADDRESS);
+		Mockito.when(remoteDevice.get16BitAddress()).thenReturn(XBee16BitAddress.UNKNOWN_ADDRESS);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.DeviceUtils#getAddressKey(RemoteXBeeDevice)}.
+	 */
+	@Test
+	public final void testGetAddressKeyNullDevice() {
+		// Setup the resources for the test.
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Remote XBee device cannot be null.")));
+		
+		// Call the method under test.
+		DeviceUtils.getAddressKey(null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.DeviceUtils#getAddressKey(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the 64-bit address identifies the device when it is 
+	 * known, even if the 16-bit address is also known.</p>
+	 */
+	@Test
+	public final void testGetAddressKey64BitAddress() {
+		// Setup the resources for the test.
+		XBee64BitAddress address64 = new XBee64BitAddress("0013A20040A9E77E");
+		Mockito.when(remoteDevice.get64BitAddress()).thenReturn(address64);
+		Mockito.when(remoteDevice.get16BitAddress()).thenReturn(new XBee16BitAddress("1234"));
+		
+		// Call the method under test.
+		Object key = DeviceUtils.getAddressKey(remoteDevice);
+		
+		// Verify the result.
+		assertThat(key, is(equalTo((Object)address64)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.DeviceUtils#getAddressKey(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the 16-bit address identifies the device when the 
+	 * 64-bit one is unknown.</p>
+	 */
+	@Test
+	public final void testGetAddressKey16BitAddress() {
+		// Setup the resources for the test.
+		XBee16BitAddress address16 = new XBee16BitAddress("1234");
+		Mockito.when(remoteDevice.get16BitAddress()).thenReturn(address16);
+		
+		// Call the method under test.
+		Object key = DeviceUtils.getAddressKey(remoteDevice);
+		
+		// Verify the result.
+		assertThat(key, is(equalTo((Object)address16)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.DeviceUtils#getAddressKey(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the IPv6 address identifies the device when the 64-bit 
+	 * and 16-bit addresses are unknown.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testGetAddressKeyIPv6Address() throws Exception {
+		// Setup the resources for the test.
+		Inet6Address ipv6Address = (Inet6Address)Inet6Address.getByName("FDB3:0001:0002:0000:0004:0005:0006:0007");
+		Mockito.when(remoteDevice.getIPv6Address()).thenReturn(ipv6Address);
+		
+		// Call the method under test.
+		Object key = DeviceUtils.getAddressKey(remoteDevice);
+		
+		// Verify the result.
+		assertThat(key, is(equalTo((Object)ipv6Address)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.DeviceUtils#getAddressKey(RemoteXBeeDevice)}.
+	 * 
+	 * <p>Verify that the device itself is the key when it has no known 
+	 * address.</p>
+	 */
+	@Test
+	public final void testGetAddressKeyNoAddress() {
+		// Call the method under test.
+		Object key = DeviceUtils.getAddressKey(remoteDevice);
+		
+		// Verify the result.
+		assertThat(key, is(equalTo((Object)remoteDevice)));
+	}
+}
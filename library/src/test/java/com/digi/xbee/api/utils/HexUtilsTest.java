@@ -30,31 +30,31 @@ import org.junit.rules.ExpectedException;
 import com.digi.xbee.api.utils.HexUtils;
 
 public class HexUtilsTest {
-
+	
 	@Rule
 	public ExpectedException exception = ExpectedException.none();
-
+	
 	/**
 	 * @throws java.lang.Exception
 	 */
 	@BeforeClass
 	public static void setUpBeforeClass() throws Exception {
 	}
-
+	
 	/**
 	 * @throws java.lang.Exception
 	 */
 	@AfterClass
 	public static void tearDownAfterClass() throws Exception {
 	}
-
+	
 	/**
 	 * @throws java.lang.Exception
 	 */
 	@Before
 	public void setUp() throws Exception {
 	}
-
+	
 	/**
 	 * @throws java.lang.Exception
 	 */
@@ -397,4 +397,20 @@ public class HexUtilsTest {
 		// Verify the result.
 		assertThat("Returned string must be equal to 'expectedResult'", result, is(equalTo(expectedResult)));
 	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.HexUtils#hexCharToInt(char)}.
+	 */
+	@Test
+	public final void testHexCharToInt() {
+		// Setup the resources for the test.
+		String digits = "0123456789abcdefABCDEF";
+		int[] expectedValues = new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 10, 11, 12, 13, 14, 15};
+		
+		// Verify the result.
+		for (int i = 0; i < digits.length(); i++)
+			assertThat("Returned value must be the digit value", HexUtils.hexCharToInt(digits.charAt(i)), is(equalTo(expectedValues[i])));
+		for (char c : new char[]{'g', 'G', 'x', ' ', '/', ':', '@', '`', '\uFF10'})
+			assertThat("Returned value must be -1", HexUtils.hexCharToInt(c), is(equalTo(-1)));
+	}
 }
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2017, Digi International Inc.
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, you can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES 
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF 
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR 
+ * ANY SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES 
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN 
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF 
+ * OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+package com.digi.xbee.api.utils;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ThreadUtilsTest {
+	
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+	
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@After
+	public void tearDown() throws Exception {
+		ThreadUtils.setThreadFactory(null);
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.ThreadUtils#newThread(Runnable, String)}.
+	 * 
+	 * <p>Verify that a platform thread with the given name is created when no
+	 * thread factory is configured.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testNewThreadPlatformThread() throws Exception {
+		// Setup the resources for the test.
+		final CountDownLatch executed = new CountDownLatch(1);
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				executed.countDown();
+			}
+		};
+		
+		// Call the method under test.
+		Thread thread = ThreadUtils.newThread(task, "Reader");
+		thread.start();
+		
+		// Verify the result.
+		assertThat(executed.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(thread.getName(), is(equalTo("Reader")));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.ThreadUtils#newThreadFactory(String, boolean)}.
+	 * 
+	 * <p>Verify that the threads of the returned factory are created by the
+	 * configured factory, numbered and with the given daemon status.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testNewThreadFactoryCustomFactory() throws Exception {
+		// Setup the resources for the test.
+		ThreadFactory factory = ThreadUtils.newThreadFactory("Worker-", true);
+		final AtomicInteger createdThreads = new AtomicInteger();
+		ThreadUtils.setThreadFactory(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable task) {
+				createdThreads.incrementAndGet();
+				return new Thread(task);
+			}
+		});
+		final CountDownLatch executed = new CountDownLatch(1);
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				executed.countDown();
+			}
+		};
+		
+		// Call the method under test.
+		Thread first = factory.newThread(task);
+		Thread second = factory.newThread(task);
+		first.start();
+		
+		// Verify the result.
+		assertThat(executed.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+		assertThat(first.getName(), is(equalTo("Worker-0")));
+		assertThat(second.getName(), is(equalTo("Worker-1")));
+		assertThat(first.isDaemon(), is(equalTo(true)));
+		assertThat(createdThreads.get(), is(equalTo(2)));
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.ThreadUtils#newThreadFactory(String, boolean)}.
+	 * 
+	 * <p>Verify that the factory creates non-daemon threads without failing
+	 * when virtual threads are enabled, both directly and from a thread 
+	 * pool.</p>
+	 * 
+	 * @throws Exception
+	 */
+	@Test
+	public final void testNewThreadFactoryNonDaemonVirtualThreads() throws Exception {
+		// Setup the resources for the test.
+		Assume.assumeTrue(ThreadUtils.isVirtualThreadsSupported());
+		ThreadUtils.enableVirtualThreads();
+		ThreadFactory factory = ThreadUtils.newThreadFactory("Worker-", false);
+		final CountDownLatch executed = new CountDownLatch(2);
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				executed.countDown();
+			}
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(1, factory);
+		
+		// Call the method under test.
+		Thread thread = factory.newThread(task);
+		thread.start();
+		try {
+			executor.submit(task);
+			
+			// Verify the result.
+			assertThat(executed.await(5, TimeUnit.SECONDS), is(equalTo(true)));
+			assertThat(thread.getName(), is(equalTo("Worker-0")));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.ThreadUtils#newThread(Runnable, String)}.
+	 * 
+	 * <p>A {@code NullPointerException} exception must be thrown when passing
+	 * a {@code null} task.</p>
+	 */
+	@Test
+	public final void testNewThreadNullTask() {
+		// Setup the resources for the test.
+		exception.expect(NullPointerException.class);
+		exception.expectMessage(is(equalTo("Task cannot be null.")));
+		
+		// Call the method under test.
+		ThreadUtils.newThread(null, "name");
+	}
+	
+	/**
+	 * Test method for {@link com.digi.xbee.api.utils.ThreadUtils#enableVirtualThreads()}.
+	 * 
+	 * <p>Verify that virtual threads are enabled only if the Java runtime
+	 * supports them.</p>
+	 */
+	@Test
+	public final void testEnableVirtualThreads() {
+		// Call the method under test.
+		boolean supported = ThreadUtils.isVirtualThreadsSupported();
+		try {
+			ThreadUtils.enableVirtualThreads();
+			assertThat(supported, is(equalTo(true)));
+		} catch (UnsupportedOperationException e) {
+			assertThat(supported, is(equalTo(false)));
+		}
+		
+		// Verify the result.
+		assertThat(ThreadUtils.getThreadFactory() != null, is(equalTo(supported)));
+	}
+}